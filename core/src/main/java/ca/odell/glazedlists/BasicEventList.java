@@ -215,6 +215,43 @@ public final class BasicEventList<E> extends AbstractEventList<E> implements Ser
         return previous;
     }
 
+    /**
+     * Replace all elements in this list with the elements in the source
+     * {@link Collection}, as matched by
+     * {@link ca.odell.glazedlists.impl.GlazedListsImpl#matchByKey matchByKey()},
+     * in a single {@link ca.odell.glazedlists.event.ListEvent}. Matched elements that are equal to their
+     * replacement are left as is.
+     */
+    void replaceAllByKey(Collection<? extends E> source, int[] matches) {
+        List<E> replacement = new ArrayList<>(source.size());
+        updates.beginEvent();
+        int originalIndex = 0;
+        int sourceIndex = 0;
+        for(E element : source) {
+            int match = matches[sourceIndex++];
+            if(match == -1) {
+                updates.elementInserted(replacement.size(), element);
+            } else {
+                for(; originalIndex < match; originalIndex++) {
+                    updates.elementDeleted(replacement.size(), data.get(originalIndex));
+                }
+                E previous = data.get(originalIndex++);
+                if(Objects.equals(previous, element)) {
+                    replacement.add(previous);
+                    continue;
+                }
+                updates.elementUpdated(replacement.size(), previous, element);
+            }
+            replacement.add(element);
+        }
+        for(; originalIndex < data.size(); originalIndex++) {
+            updates.elementDeleted(replacement.size(), data.get(originalIndex));
+        }
+        data.clear();
+        data.addAll(replacement);
+        updates.commitEvent();
+    }
+
     /** {@inheritDoc} */
     @Override
     public E get(int index) {
@@ -11,6 +11,14 @@ import ca.odell.glazedlists.matchers.Matcher;
 import ca.odell.glazedlists.matchers.MatcherEditor;
 import ca.odell.glazedlists.matchers.Matchers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
 /**
  * An {@link EventList} that shows a subset of the elements of a source
  * {@link EventList}. This subset is composed of all elements of the source
@@ -59,6 +67,28 @@ public final class FilterList<E> extends TransformedList<E,E> {
     /** the editor changes the matcher and fires events */
     private MatcherEditor<? super E> currentEditor = null;
 
+    /**
+     * Barcode.BLACK for the items not yet tested by the current matcher while
+     * it is applied in time slices, or <code>null</code> if all items have
+     * been tested
+     */
+    private Barcode untested = null;
+
+    /** whether the matcher is evaluated outside of the write lock, see {@link #setOptimisticMatching(boolean)} */
+    private volatile boolean optimisticMatching = false;
+
+    /** the number of threads that evaluate the matcher outside of the write lock */
+    private volatile int matchingParallelism = 1;
+
+    /** the change of the matcher being evaluated outside of the write lock, or <code>null</code> */
+    private volatile OptimisticPass optimisticPass = null;
+
+    /** a change of the matcher is evaluated outside of the write lock at most this many times before giving up */
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    /** the fewest items worth evaluating on a separate thread */
+    private static final int MIN_PARALLEL_CHUNK = 1024;
+
     /** listener handles changes to the matcher */
     private final MatcherEditor.Listener listener = new PrivateMatcherEditorListener();
 
@@ -123,9 +153,9 @@ public final class FilterList<E> extends TransformedList<E,E> {
         }
 
         if (matcher != null)
-            changeMatcherWithLocks(currentEditor, matcher, MatcherEditor.Event.CHANGED);
+            changeMatcherWithLocks(currentEditor, matcher, MatcherEditor.Event.CHANGED, null);
         else
-            changeMatcherWithLocks(currentEditor, null, MatcherEditor.Event.MATCH_ALL);
+            changeMatcherWithLocks(currentEditor, null, MatcherEditor.Event.MATCH_ALL, null);
     }
 
     /**
@@ -145,12 +175,71 @@ public final class FilterList<E> extends TransformedList<E,E> {
 
         if (currentEditor != null) {
             currentEditor.addMatcherEditorListener(listener);
-            changeMatcherWithLocks(currentEditor, currentEditor.getMatcher(), MatcherEditor.Event.CHANGED);
+            changeMatcherWithLocks(currentEditor, currentEditor.getMatcher(), MatcherEditor.Event.CHANGED, null);
         } else {
-            changeMatcherWithLocks(currentEditor, null, MatcherEditor.Event.MATCH_ALL);
+            changeMatcherWithLocks(currentEditor, null, MatcherEditor.Event.MATCH_ALL, null);
         }
     }
 
+    /**
+     * Set whether changes of the {@link Matcher} from the {@link MatcherEditor}
+     * are evaluated outside of the write lock. By default the write lock is
+     * held while every element is tested, which stalls all readers of the
+     * pipeline for the whole filter change.
+     *
+     * <p>With optimistic matching, the elements to test are copied under the
+     * read lock and tested without any lock. The elements whose match has
+     * changed are then applied under the write lock, which is held for a time
+     * proportional to the number of changes rather than the size of the list.
+     * Elements that were inserted or updated while the Matcher was evaluated
+     * are tested again under the write lock. If the source list is reordered
+     * meanwhile, the evaluation is retried.
+     *
+     * <p>The Matcher may be evaluated on a different thread than the one
+     * that modifies the source list, so it must not depend on state that is
+     * guarded by the list's lock.
+     */
+    public void setOptimisticMatching(boolean optimisticMatching) {
+        this.optimisticMatching = optimisticMatching;
+    }
+
+    /**
+     * Get whether changes of the {@link Matcher} are evaluated outside of
+     * the write lock.
+     *
+     * @see #setOptimisticMatching(boolean)
+     */
+    public boolean isOptimisticMatching() {
+        return optimisticMatching;
+    }
+
+    /**
+     * Set the number of threads that evaluate a {@link Matcher} outside of
+     * the write lock. Extra threads are taken from the common
+     * {@link ForkJoinPool}.
+     *
+     * <p>If this is more than 1, the {@link Matcher} is called from several
+     * threads at once, so it must be thread-safe. The matchers of the
+     * {@link Matcher} javadoc that are documented as thread-safe qualify; a
+     * Matcher that keeps mutable state must synchronize it or confine it to
+     * each thread.
+     *
+     * @param matchingParallelism the number of threads, 1 by default
+     * @see #setOptimisticMatching(boolean)
+     */
+    public void setMatchingParallelism(int matchingParallelism) {
+        if (matchingParallelism < 1) throw new IllegalArgumentException("matchingParallelism must be positive: " + matchingParallelism);
+        this.matchingParallelism = matchingParallelism;
+    }
+
+    /**
+     * Get the number of threads that evaluate a {@link Matcher} outside of
+     * the write lock.
+     */
+    public int getMatchingParallelism() {
+        return matchingParallelism;
+    }
+
     /** @inheritDoc */
     @Override
     public void dispose() {
@@ -187,9 +276,52 @@ public final class FilterList<E> extends TransformedList<E,E> {
                 if(flag != Barcode.WHITE) filterReorderMap[flagList.getBlackIndex(i)] = previousFlagList.getBlackIndex(sourceReorderMap[i]);
             }
 
+            // the untested items move with their flags
+            if(untested != null) {
+                Barcode previousUntested = untested;
+                untested = new Barcode();
+                for(int i = 0; i < sourceReorderMap.length; i++) {
+                    untested.add(i, previousUntested.get(sourceReorderMap[i]), 1);
+                }
+            }
+
+            // an item can't be found in its snapshot anymore
+            if(optimisticPass != null) optimisticPass.stale = true;
+
             // fire the reorder
             updates.reorder(filterReorderMap);
 
+        // handle the replacement of the complete source in one pass
+        } else if(listChanges.isReplacement()) {
+            // the previous elements are all deleted at index 0, in their old order
+            for(BarcodeIterator i = flagList.iterator(); listChanges.next() && listChanges.getType() == ListEvent.DELETE; ) {
+                if(i.next() == Barcode.BLACK) {
+                    updates.elementDeleted(0, listChanges.getOldValue());
+                }
+            }
+
+            // filter the new source contents from scratch, appending runs of
+            // equal flags to the flag list at once
+            flagList.clear();
+            untested = null;
+            if(optimisticPass != null) optimisticPass.stale = true;
+            Object runColour = null;
+            int runStart = 0;
+            int filteredIndex = 0;
+            for(int i = 0, n = source.size(); i < n; i++) {
+                E element = source.get(i);
+                Object colour = currentMatcher.matches(element) ? Barcode.BLACK : Barcode.WHITE;
+                if(colour == Barcode.BLACK) {
+                    updates.elementInserted(filteredIndex++, element);
+                }
+                if(colour != runColour) {
+                    if(runColour != null) flagList.add(runStart, runColour, i - runStart);
+                    runColour = colour;
+                    runStart = i;
+                }
+            }
+            if(runColour != null) flagList.add(runStart, runColour, source.size() - runStart);
+
         // handle non-reordering events
         } else {
 
@@ -213,6 +345,8 @@ public final class FilterList<E> extends TransformedList<E,E> {
 
                     // remove this entry from the flag list
                     flagList.remove(sourceIndex, 1);
+                    if(untested != null) untested.remove(sourceIndex, 1);
+                    if(optimisticPass != null) optimisticPass.deleted(sourceIndex);
 
                 // handle insert events
                 } else if(changeType == ListEvent.INSERT) {
@@ -220,6 +354,8 @@ public final class FilterList<E> extends TransformedList<E,E> {
                     // whether we should add this item
                     E element = source.get(sourceIndex);
                     boolean include = currentMatcher.matches(element);
+                    if(untested != null) untested.addWhite(sourceIndex, 1);
+                    if(optimisticPass != null) optimisticPass.inserted(sourceIndex);
 
                     // if this value should be included, add a change and add the item
                     if(include) {
@@ -241,6 +377,8 @@ public final class FilterList<E> extends TransformedList<E,E> {
                     // whether we should add this item
                     E updated = source.get(sourceIndex);
                     boolean include = currentMatcher.matches(updated);
+                    if(untested != null) untested.setWhite(sourceIndex, 1);
+                    if(optimisticPass != null) optimisticPass.updated(sourceIndex);
 
                     // if this element is being removed as a result of the change
                     if(wasIncluded && !include) {
@@ -270,10 +408,10 @@ public final class FilterList<E> extends TransformedList<E,E> {
      * an appropriate delegate method to perform the correct work for each of
      * the possible <code>changeType</code>s.
      */
-    private void changeMatcherWithLocks(MatcherEditor<? super E> matcherEditor, Matcher<? super E> matcher, int changeType) {
+    private void changeMatcherWithLocks(MatcherEditor<? super E> matcherEditor, Matcher<? super E> matcher, int changeType, MatcherEditor.ChangedElements changedElements) {
         getReadWriteLock().writeLock().lock();
         try {
-            changeMatcher(matcherEditor, matcher, changeType);
+            changeMatcher(matcherEditor, matcher, changeType, changedElements);
         } finally {
             getReadWriteLock().writeLock().unlock();
         }
@@ -284,13 +422,40 @@ public final class FilterList<E> extends TransformedList<E,E> {
      * correct work for each of the possible <code>changeType</code>s. This
      * method does <strong>NOT</strong> acquire any locks and is thus used
      * during initialization of FilterList.
+     *
+     * <p>If <code>changedElements</code> can locate the only elements whose
+     * match may have changed, just those elements are tested.
      */
-    private void changeMatcher(MatcherEditor<? super E> matcherEditor, Matcher<? super E> matcher, int changeType) {
+    private void changeMatcher(MatcherEditor<? super E> matcherEditor, Matcher<? super E> matcher, int changeType, MatcherEditor.ChangedElements changedElements) {
         // first check if this list is already disposed
         if (!disposed) {
             // ensure the MatcherEvent is from OUR MatcherEditor
             if (currentEditor != matcherEditor) throw new IllegalStateException();
 
+            // items left untested by an abandoned pass may be in any state,
+            // and a pass still being evaluated was relative to a matcher that
+            // was never applied, so all items must be tested
+            final boolean abandonedOptimisticPass = optimisticPass != null;
+            optimisticPass = null;
+            if (untested != null || abandonedOptimisticPass) {
+                untested = null;
+                changedElements = null;
+                if (changeType == MatcherEditor.Event.CONSTRAINED || changeType == MatcherEditor.Event.RELAXED) {
+                    changeType = MatcherEditor.Event.CHANGED;
+                }
+            }
+
+            // test only the changed elements, if they are known
+            if (changedElements != null && (changeType == MatcherEditor.Event.CONSTRAINED
+                    || changeType == MatcherEditor.Event.RELAXED || changeType == MatcherEditor.Event.CHANGED)) {
+                final int[] changedIndices = changedElements.getChangedIndices(source);
+                if (changedIndices != null) {
+                    currentMatcher = matcher;
+                    this.changedAt(changedIndices);
+                    return;
+                }
+            }
+
             switch (changeType) {
                 case MatcherEditor.Event.CONSTRAINED: currentMatcher = matcher; this.constrained(); break;
                 case MatcherEditor.Event.RELAXED: currentMatcher = matcher; this.relaxed(); break;
@@ -433,6 +598,403 @@ public final class FilterList<E> extends TransformedList<E,E> {
         updates.commitEvent();
     }
 
+    /**
+     * Applies a change of the {@link Matcher} in time slices, releasing the
+     * write lock between slices so that readers need not wait for the whole
+     * pass. Between slices this list contains a mix of the items matched by
+     * the previous and the new Matcher.
+     *
+     * <p>If the event is superseded by a newer one, the pass is abandoned and
+     * its untested items are tested by the pass for the newer event.
+     */
+    private void changeMatcherInSlices(MatcherEditor.Event<E> matcherEvent) {
+        final MatcherEditor<? super E> matcherEditor = matcherEvent.getMatcherEditor();
+        final Matcher<? super E> matcher = matcherEvent.getMatcher();
+        final int changeType = matcherEvent.getType();
+        final long timeSliceNanos = Math.max(1L, matcherEvent.getTimeSlice()) * 1000000L;
+
+        // the absolute changes are quick, and need no slices
+        if (changeType == MatcherEditor.Event.MATCH_ALL || changeType == MatcherEditor.Event.MATCH_NONE) {
+            changeMatcherWithLocks(matcherEditor, matcher, changeType, null);
+            return;
+        }
+
+        // mark the items that need testing
+        getReadWriteLock().writeLock().lock();
+        try {
+            if (disposed) return;
+            if (currentEditor != matcherEditor) throw new IllegalStateException();
+            currentMatcher = matcher;
+            if (untested == null) {
+                untested = new Barcode();
+                untested.addWhite(0, source.size());
+            }
+
+            // a pass still being evaluated was relative to a matcher that was never applied
+            final boolean abandonedOptimisticPass = optimisticPass != null;
+            optimisticPass = null;
+
+            final MatcherEditor.ChangedElements changedElements = matcherEvent.getChangedElements();
+            final int[] changedIndices = changedElements != null && !abandonedOptimisticPass ? changedElements.getChangedIndices(source) : null;
+            if (changedIndices != null) {
+                for (int i = 0; i < changedIndices.length; i++) {
+                    untested.setBlack(changedIndices[i], 1);
+                }
+            } else if (changeType == MatcherEditor.Event.CHANGED || abandonedOptimisticPass) {
+                untested.clear();
+                untested.addBlack(0, source.size());
+            } else {
+                // a constrained matcher can only exclude matched items, and a relaxed one include unmatched items
+                final Object colour = changeType == MatcherEditor.Event.CONSTRAINED ? Barcode.BLACK : Barcode.WHITE;
+                for (BarcodeIterator i = flagList.iterator(); i.hasNextColour(colour); ) {
+                    i.nextColour(colour);
+                    untested.setBlack(i.getIndex(), 1);
+                }
+            }
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+
+        // test the marked items, a slice at a time
+        while (true) {
+            getReadWriteLock().writeLock().lock();
+            try {
+                // stop if this pass is abandoned or complete
+                if (disposed || currentEditor != matcherEditor || currentMatcher != matcher) return;
+                if (matcherEvent.isSuperseded() || optimisticPass != null) return;
+                if (untested == null) return;
+                if (untested.colourSize(Barcode.BLACK) == 0) {
+                    untested = null;
+                    return;
+                }
+
+                final long deadline = System.nanoTime() + timeSliceNanos;
+                updates.beginEvent();
+                for (int tested = 1; untested.colourSize(Barcode.BLACK) > 0; tested++) {
+                    final int sourceIndex = untested.getIndex(0, Barcode.BLACK);
+                    untested.setWhite(sourceIndex, 1);
+                    testAt(sourceIndex);
+
+                    // check the clock only occasionally, it isn't free
+                    if ((tested & 63) == 0 && (System.nanoTime() > deadline || matcherEvent.isSuperseded())) break;
+                }
+                updates.commitEvent();
+            } finally {
+                getReadWriteLock().writeLock().unlock();
+            }
+
+            // give waiting readers and writers a chance at the lock
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Tests the item at the specified source index with the current matcher,
+     * and includes or excludes it as necessary. This must be called while an
+     * event is being assembled.
+     */
+    private void testAt(int sourceIndex) {
+        includeAt(sourceIndex, currentMatcher.matches(source.get(sourceIndex)));
+    }
+
+    /**
+     * Includes or excludes the item at the specified source index. This must
+     * be called while an event is being assembled.
+     */
+    private void includeAt(int sourceIndex, boolean include) {
+        // determine if this value was already filtered out or not
+        int filteredIndex = flagList.getBlackIndex(sourceIndex);
+        boolean wasIncluded = filteredIndex != -1;
+        E value = source.get(sourceIndex);
+
+        // this element is being removed as a result of the change
+        if(wasIncluded && !include) {
+            flagList.setWhite(sourceIndex, 1);
+            updates.elementDeleted(filteredIndex, value);
+
+        // this element is being added as a result of the change
+        } else if(!wasIncluded && include) {
+            flagList.setBlack(sourceIndex, 1);
+            updates.elementInserted(flagList.getBlackIndex(sourceIndex), value);
+        }
+    }
+
+    /**
+     * Handles changes to the behavior of the filter that affect only the
+     * elements at the specified source indices.
+     */
+    private void changedAt(int[] sourceIndices) {
+        // all of these changes to this list happen "atomically"
+        updates.beginEvent();
+
+        for(int i = 0; i < sourceIndices.length; i++) {
+            testAt(sourceIndices[i]);
+        }
+
+        // commit the changes and notify listeners
+        updates.commitEvent();
+    }
+
+    /**
+     * Applies a change of the {@link Matcher} by evaluating it outside of the
+     * write lock, and then applying just the items whose match has changed
+     * under the write lock.
+     *
+     * @see #setOptimisticMatching(boolean)
+     */
+    private void changeMatcherOptimistically(MatcherEditor.Event<E> matcherEvent) {
+        final MatcherEditor<? super E> matcherEditor = matcherEvent.getMatcherEditor();
+        final Matcher<? super E> matcher = matcherEvent.getMatcher();
+        final int changeType = matcherEvent.getType();
+
+        // the absolute changes don't evaluate the matcher
+        if (changeType == MatcherEditor.Event.MATCH_ALL || changeType == MatcherEditor.Event.MATCH_NONE) {
+            changeMatcherWithLocks(matcherEditor, matcher, changeType, null);
+            return;
+        }
+
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            // copy the items to test
+            final OptimisticPass pass;
+            getReadWriteLock().readLock().lock();
+            try {
+                if (disposed) return;
+                if (currentEditor != matcherEditor) throw new IllegalStateException();
+                pass = new OptimisticPass(matcherEvent);
+            } finally {
+                getReadWriteLock().readLock().unlock();
+            }
+
+            // test them without holding any lock, and abandon the pass if the matcher fails
+            boolean evaluated = false;
+            try {
+                pass.evaluate(matcher, matchingParallelism);
+                evaluated = true;
+            } finally {
+                if (!evaluated) {
+                    getReadWriteLock().writeLock().lock();
+                    try {
+                        if (optimisticPass == pass) optimisticPass = null;
+                    } finally {
+                        getReadWriteLock().writeLock().unlock();
+                    }
+                }
+            }
+
+            // apply the items whose match has changed
+            getReadWriteLock().writeLock().lock();
+            try {
+                // a newer change of the matcher has abandoned this pass
+                if (optimisticPass != pass) return;
+                optimisticPass = null;
+                if (disposed) return;
+
+                if (!pass.stale) {
+                    pass.apply(matcher);
+                    return;
+                }
+            } finally {
+                getReadWriteLock().writeLock().unlock();
+            }
+        }
+
+        // the source keeps being reordered, so give up and filter under the write lock
+        changeMatcherWithLocks(matcherEditor, matcher, changeType, matcherEvent.getChangedElements());
+    }
+
+    /**
+     * A change of the {@link Matcher} that is evaluated on a snapshot of the
+     * source outside of the write lock. While it is evaluated, it tracks the
+     * changes to the source so that each snapshot item can be located in the
+     * source again, and the items changed meanwhile can be tested again.
+     */
+    private final class OptimisticPass {
+
+        /** the snapshot indices of the items to test */
+        private final int[] indices;
+        /** the items to test */
+        private final Object[] elements;
+        /** whether each item to test was matched by the previous matcher */
+        private final boolean[] included;
+        /** whether all items are tested */
+        private final boolean everything;
+
+        /** WHITE for the snapshot items still in the source, BLACK for those deleted or updated since */
+        private final Barcode snapshotRows = new Barcode();
+        /** WHITE for the source items unchanged since the snapshot, BLACK for those inserted or updated since */
+        private final Barcode sourceRows = new Barcode();
+        /** whether the source was reordered or replaced since the snapshot, so that items can't be located */
+        private boolean stale = false;
+
+        /** the snapshot indices of the items whose match has changed, in increasing order */
+        private int[] changes = null;
+
+        /**
+         * Copy the items to test for the specified change. This must be called
+         * while holding the read lock.
+         */
+        private OptimisticPass(MatcherEditor.Event<E> matcherEvent) {
+            final int size = source.size();
+            snapshotRows.addWhite(0, size);
+            sourceRows.addWhite(0, size);
+
+            synchronized (listener) {
+                // items left untested by an abandoned pass may be in any state, and
+                // a pass still being evaluated is relative to a matcher never applied
+                everything = untested != null || optimisticPass != null;
+                optimisticPass = this;
+            }
+
+            // select the items whose match may change
+            final MatcherEditor.ChangedElements changedElements = matcherEvent.getChangedElements();
+            final int[] changedIndices = changedElements != null && !everything ? changedElements.getChangedIndices(source) : null;
+            final int changeType = matcherEvent.getType();
+            if (changedIndices != null) {
+                indices = changedIndices;
+            } else if (everything || changeType == MatcherEditor.Event.CHANGED) {
+                indices = new int[size];
+                for (int i = 0; i < size; i++) indices[i] = i;
+            } else {
+                // a constrained matcher can only exclude matched items, and a relaxed one include unmatched items
+                final Object colour = changeType == MatcherEditor.Event.CONSTRAINED ? Barcode.BLACK : Barcode.WHITE;
+                indices = new int[flagList.colourSize(colour)];
+                int count = 0;
+                for (BarcodeIterator i = flagList.iterator(); i.hasNextColour(colour); ) {
+                    i.nextColour(colour);
+                    indices[count++] = i.getIndex();
+                }
+            }
+
+            elements = new Object[indices.length];
+            included = new boolean[indices.length];
+            for (int k = 0; k < indices.length; k++) {
+                elements[k] = source.get(indices[k]);
+                included[k] = flagList.get(indices[k]) == Barcode.BLACK;
+            }
+        }
+
+        /**
+         * Test the copied items, on several threads if requested. This needs
+         * no lock.
+         */
+        private void evaluate(final Matcher<? super E> matcher, int parallelism) {
+            final int chunks = Math.max(1, Math.min(parallelism, elements.length / MIN_PARALLEL_CHUNK));
+            final int chunkSize = (elements.length + chunks - 1) / chunks;
+
+            // test all but the first chunk on other threads
+            final List<Future<int[]>> futures = new ArrayList<>(chunks - 1);
+            for (int c = 1; c < chunks; c++) {
+                final int start = c * chunkSize;
+                final int end = Math.min(elements.length, start + chunkSize);
+                futures.add(ForkJoinPool.commonPool().submit(new Callable<int[]>() {
+                    @Override
+                    public int[] call() {
+                        return evaluate(matcher, start, end);
+                    }
+                }));
+            }
+            final int[][] chunkChanges = new int[chunks][];
+            chunkChanges[0] = evaluate(matcher, 0, Math.min(elements.length, chunkSize));
+            for (int c = 1; c < chunks; c++) {
+                try {
+                    chunkChanges[c] = futures.get(c - 1).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException)e.getCause();
+                    if (e.getCause() instanceof Error) throw (Error)e.getCause();
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+
+            // concatenate the changes, which remain in increasing order
+            int count = 0;
+            for (int c = 0; c < chunks; c++) count += chunkChanges[c].length;
+            changes = new int[count];
+            count = 0;
+            for (int c = 0; c < chunks; c++) {
+                System.arraycopy(chunkChanges[c], 0, changes, count, chunkChanges[c].length);
+                count += chunkChanges[c].length;
+            }
+        }
+
+        /**
+         * Test the copied items in the specified range.
+         *
+         * @return the snapshot indices of the items whose match has changed
+         */
+        private int[] evaluate(Matcher<? super E> matcher, int start, int end) {
+            int[] result = new int[16];
+            int count = 0;
+            for (int k = start; k < end; k++) {
+                if (matcher.matches((E)elements[k]) == included[k]) continue;
+                if (count == result.length) result = Arrays.copyOf(result, count * 2);
+                result[count++] = indices[k];
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        /**
+         * Apply the changed items to the source, and test the items changed
+         * since the snapshot again. This must be called while holding the
+         * write lock.
+         */
+        private void apply(Matcher<? super E> matcher) {
+            currentMatcher = matcher;
+            if (everything) untested = null;
+
+            // all of these changes to this list happen "atomically"
+            updates.beginEvent();
+
+            for (int c = 0; c < changes.length; c++) {
+                final int snapshotIndex = changes[c];
+                if (snapshotRows.get(snapshotIndex) == Barcode.BLACK) continue;
+                final int sourceIndex = sourceRows.getIndex(snapshotRows.getWhiteIndex(snapshotIndex), Barcode.WHITE);
+                includeAt(sourceIndex, flagList.get(sourceIndex) != Barcode.BLACK);
+            }
+            for (BarcodeIterator i = sourceRows.iterator(); i.hasNextBlack(); ) {
+                i.nextBlack();
+                testAt(i.getIndex());
+            }
+
+            // commit the changes and notify listeners
+            updates.commitEvent();
+        }
+
+        /**
+         * Track the deletion of the source item at the specified index.
+         */
+        private void deleted(int sourceIndex) {
+            forgetSnapshot(sourceIndex);
+            sourceRows.remove(sourceIndex, 1);
+        }
+
+        /**
+         * Track the insertion of a source item at the specified index.
+         */
+        private void inserted(int sourceIndex) {
+            sourceRows.addBlack(sourceIndex, 1);
+        }
+
+        /**
+         * Track the update of the source item at the specified index.
+         */
+        private void updated(int sourceIndex) {
+            forgetSnapshot(sourceIndex);
+            sourceRows.setBlack(sourceIndex, 1);
+        }
+
+        /**
+         * Mark the snapshot of the specified source item as out of date.
+         */
+        private void forgetSnapshot(int sourceIndex) {
+            final int unchangedIndex = sourceRows.getWhiteIndex(sourceIndex);
+            if (unchangedIndex == -1) return;
+            snapshotRows.setBlack(snapshotRows.getIndex(unchangedIndex, Barcode.WHITE), 1);
+        }
+    }
+
     /**
      * Listens to changes from the current {@link MatcherEditor} and handles them.
      */
@@ -450,8 +1012,15 @@ public final class FilterList<E> extends TransformedList<E,E> {
             final MatcherEditor<? super E> matcherEditor = matcherEvent.getMatcherEditor();
             final Matcher<? super E> matcher = matcherEvent.getMatcher();
             final int changeType = matcherEvent.getType();
-
-            changeMatcherWithLocks(matcherEditor, matcher, changeType);
+            final MatcherEditor.ChangedElements changedElements = matcherEvent.getChangedElements();
+
+            if (matcherEvent.getTimeSlice() > 0) {
+                changeMatcherInSlices(matcherEvent);
+            } else if (optimisticMatching) {
+                changeMatcherOptimistically(matcherEvent);
+            } else {
+                changeMatcherWithLocks(matcherEditor, matcher, changeType, changedElements);
+            }
         }
     }
 
@@ -9,6 +9,7 @@ import ca.odell.glazedlists.event.ListEventPublisher;
 import ca.odell.glazedlists.gui.AdvancedTableFormat;
 import ca.odell.glazedlists.gui.TableFormat;
 import ca.odell.glazedlists.gui.WritableTableFormat;
+import ca.odell.glazedlists.impl.AsyncProxyEventList;
 import ca.odell.glazedlists.impl.Diff;
 import ca.odell.glazedlists.impl.FunctionListMap;
 import ca.odell.glazedlists.impl.GlazedListsImpl;
@@ -51,6 +52,7 @@ import java.util.Map;
 import java.util.Observable;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.Executor;
 
 /**
  * A factory for creating all sorts of objects to be used with Glazed Lists.
@@ -156,6 +158,44 @@ public final class GlazedLists {
         GlazedListsImpl.replaceAll(target, source, updates, comparator);
     }
 
+    /**
+     * Replace the complete contents of the target {@link EventList} with the
+     * complete contents of the source {@link Collection}, matching elements
+     * by the key returned by the specified {@link Function}.
+     *
+     * <p>Target elements whose key is not in the source are removed, source
+     * elements whose key is not in the target are inserted, and target
+     * elements with a matching key are updated in place. Matched elements that
+     * are {@link Object#equals(Object) equal} to their replacement are left
+     * untouched, so they keep their identity and fire no events. Afterwards the
+     * target contains the source elements in source order.
+     *
+     * <p>In a multi-threaded environment, it is necessary that the caller obtain
+     * the write lock for the target list before this method is invoked. If the
+     * source list is an {@link EventList}, its read lock must also be acquired.
+     *
+     * <p>The elements are matched with a hash join, so this method runs in
+     * linear time as long as the source does not reorder the elements it
+     * shares with the target. If the target is a {@link BasicEventList}, all
+     * changes are fired as a single {@link ca.odell.glazedlists.event.ListEvent}.
+     * Keys should be unique within each collection and implement
+     * {@link Object#hashCode()} consistently with {@link Object#equals(Object)}.
+     *
+     * @param target the EventList whose contents will be replaced with those
+     *     in <code>source</code>.
+     * @param source the new contents of the target.
+     * @param keyFunction returns the key that identifies an element in both
+     *     collections.
+     */
+    public static <E> void replaceAllByKey(EventList<E> target, Collection<? extends E> source, Function<? super E,?> keyFunction) {
+        int[] matches = GlazedListsImpl.matchByKey(target, source, keyFunction);
+        if(target instanceof BasicEventList) {
+            ((BasicEventList<E>)target).replaceAllByKey(source, matches);
+        } else {
+            GlazedListsImpl.replaceAllByKey(target, source, matches);
+        }
+    }
+
     // Comparators // // // // // // // // // // // // // // // // // // // //
 
     /** Provide Singleton access for all Comparators with no internal state */
@@ -521,6 +561,32 @@ public final class GlazedLists {
         return new ThreadSafeList<>((EventList<E>) source);
     }
 
+    /**
+     * Creates a read-only {@link EventList} that mirrors the source and delivers
+     * its changes to listeners asynchronously, on a thread of the specified
+     * {@link Executor}.
+     *
+     * <p>The returned list is the root of a new pipeline with its own
+     * {@link ca.odell.glazedlists.util.concurrent.ReadWriteLock ReadWriteLock}.
+     * Writers to the source return without waiting for the listeners of the
+     * returned list, so slow listeners such as an {@link ObservableElementList}
+     * or a {@link CollectionList} don't limit the throughput of the writers.
+     * Changes made while the listeners are behind are combined into a single
+     * event.
+     *
+     * <p><strong><font color="#FF0000">Warning:</font></strong> The returned
+     * list reflects the source as of its last delivered event, so it may be
+     * out of date. Use its own lock, not the source's, to access it from
+     * multiple threads.
+     *
+     * @param source the list whose changes are delivered asynchronously
+     * @param executor runs the deliveries, one at a time per list
+     * @return an {@link EventList} that needs to be disposed after use
+     */
+    public static <E> EventList<E> asyncProxyList(EventList<E> source, Executor executor) {
+        return new AsyncProxyEventList<>(source, executor);
+    }
+
     /**
      * Returns a {@link TransformedList} that maps each element of the source list to a target
      * element by use of a specified {@link Function}.
@@ -139,32 +139,66 @@ public class ListSelection<E> implements ListEventListener<E> {
         final int maxSelectionIndexBefore = getMaxSelectionIndex();
 
         boolean selectionChanged = false;
+        int reorderChangeStart = -1;
+        int reorderChangeFinish = -1;
 
         // handle reordering events
         if(listChanges.isReordering()) {
             // prepare for the reordering event
             beginSelected();
-            int[] sourceReorderMap = listChanges.getReorderMap();
-            int[] selectReorderMap = new int[barcode.colourSize(SELECTED)];
-            int[] deselectReorderMap = new int[barcode.colourSize(DESELECTED)];
+            final int[] sourceReorderMap = listChanges.getReorderMap();
+            final int[] selectReorderMap = new int[barcode.colourSize(SELECTED)];
+            final int[] deselectReorderMap = new int[barcode.colourSize(DESELECTED)];
+
+            // read the previous flags and their colour indices in a single pass
+            final boolean[] previouslySelected = new boolean[sourceReorderMap.length];
+            final int[] previousColourIndices = new int[sourceReorderMap.length];
+            int selectedCount = 0;
+            int deselectedCount = 0;
+            int index = 0;
+            for(BarcodeIterator i = barcode.iterator(); i.hasNext(); index++) {
+                final boolean wasSelected = i.next() == SELECTED;
+                previouslySelected[index] = wasSelected;
+                previousColourIndices[index] = wasSelected ? selectedCount++ : deselectedCount++;
+            }
 
-            // adjust the flaglist & construct a reorder map to propagate
-            Barcode previousBarcode = barcode;
-            barcode = new Barcode();
+            // build the reordered flaglist from runs of equal flags & construct
+            // the reorder maps to propagate
+            final Barcode reordered = new Barcode();
+            selectedCount = 0;
+            deselectedCount = 0;
+            int runStart = 0;
             for(int c = 0; c < sourceReorderMap.length; c++) {
-                Object flag = previousBarcode.get(sourceReorderMap[c]);
-                boolean wasSelected = (flag != DESELECTED);
-                barcode.add(c, flag, 1);
-                if(wasSelected) {
-                    int previousIndex = previousBarcode.getColourIndex(sourceReorderMap[c], SELECTED);
-                    int currentIndex = barcode.getColourIndex(c, SELECTED);
-                    selectReorderMap[currentIndex] = previousIndex;
+                final int previousIndex = sourceReorderMap[c];
+                final boolean selected = previouslySelected[previousIndex];
+                if(selected) {
+                    selectReorderMap[selectedCount++] = previousColourIndices[previousIndex];
                 } else {
-                    int previousIndex = previousBarcode.getColourIndex(sourceReorderMap[c], DESELECTED);
-                    int currentIndex = barcode.getColourIndex(c, DESELECTED);
-                    deselectReorderMap[currentIndex] = previousIndex;
+                    deselectReorderMap[deselectedCount++] = previousColourIndices[previousIndex];
+                }
+
+                // the selection changes where an index receives a different flag
+                if(selected != previouslySelected[c]) {
+                    if(reorderChangeStart == -1) reorderChangeStart = c;
+                    reorderChangeFinish = c;
+                }
+
+                if(c + 1 == sourceReorderMap.length || previouslySelected[sourceReorderMap[c + 1]] != selected) {
+                    reordered.add(runStart, selected ? SELECTED : DESELECTED, c + 1 - runStart);
+                    runStart = c + 1;
                 }
             }
+            barcode = reordered;
+
+            // the rows of the old anchor and lead must be redrawn
+            if(anchorSelectionIndex != -1) {
+                reorderChangeStart = reorderChangeStart == -1 ? anchorSelectionIndex : Math.min(reorderChangeStart, anchorSelectionIndex);
+                reorderChangeFinish = Math.max(reorderChangeFinish, anchorSelectionIndex);
+            }
+            if(leadSelectionIndex != -1) {
+                reorderChangeStart = reorderChangeStart == -1 ? leadSelectionIndex : Math.min(reorderChangeStart, leadSelectionIndex);
+                reorderChangeFinish = Math.max(reorderChangeFinish, leadSelectionIndex);
+            }
 
             // adjust other internal state
             anchorSelectionIndex = -1;
@@ -179,9 +213,6 @@ public class ListSelection<E> implements ListEventListener<E> {
             addDeselectedReorder(deselectReorderMap);
             commitDeselected();
 
-            // all reordering events are assumed to have changed the selection
-            selectionChanged = true;
-
         // handle non-reordering events
         } else {
             // prepare a sequence of changes
@@ -266,8 +297,12 @@ public class ListSelection<E> implements ListEventListener<E> {
             commitAll();
         }
 
+        // notify listeners of the indices whose selection changed by reordering
+        if(reorderChangeStart != -1) {
+            fireSelectionChanged(reorderChangeStart, reorderChangeFinish);
+
         // notify listeners of the selection change
-        if(minSelectionIndexBefore != -1 && maxSelectionIndexBefore != -1 && selectionChanged) {
+        } else if(minSelectionIndexBefore != -1 && maxSelectionIndexBefore != -1 && selectionChanged) {
             final int minSelectionIndexAfter = getMinSelectionIndex();
             final int maxSelectionIndexAfter = getMaxSelectionIndex();
 
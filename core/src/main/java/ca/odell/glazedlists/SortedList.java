@@ -7,6 +7,7 @@ import ca.odell.glazedlists.event.ListEvent;
 import ca.odell.glazedlists.impl.adt.barcode2.Element;
 import ca.odell.glazedlists.impl.adt.barcode2.SimpleTree;
 import ca.odell.glazedlists.impl.adt.barcode2.SimpleTreeIterator;
+import ca.odell.glazedlists.impl.sort.SortKeyComparator;
 
 import java.util.*;
 
@@ -80,6 +81,12 @@ public final class SortedList<E> extends TransformedList<E,E> {
     /** the comparator that this list uses for sorting */
     private Comparator<? super E> comparator = null;
 
+    /**
+     * the sort key of each unsorted node, if the comparator is a
+     * {@link SortKeyComparator}, or <code>null</code>
+     */
+    private Map<Element<?>, Object> sortKeys = null;
+
     /** one of {@link #STRICT_SORT_ORDER} or {@link #AVOID_MOVING_ELEMENTS}. */
     private int mode = STRICT_SORT_ORDER;
 
@@ -178,6 +185,16 @@ public final class SortedList<E> extends TransformedList<E,E> {
                 Element<Element> unsortedNode = i.node();
                 unsortedNodes[index] = unsortedNode;
             }
+            // the keys move with their elements to their new unsorted nodes
+            if(sortKeys != null) {
+                Object[] previousKeys = new Object[unsortedNodes.length];
+                for(int i = 0; i < unsortedNodes.length; i++) {
+                    previousKeys[i] = sortKeys.get(unsortedNodes[i]);
+                }
+                for(int i = 0; i < unsortedNodes.length; i++) {
+                    sortKeys.put(unsortedNodes[i], previousKeys[sourceReorder[i]]);
+                }
+            }
             Arrays.sort(unsortedNodes, sorted.getComparator());
 
             // create a new reorder map to send the changes forward
@@ -205,6 +222,12 @@ public final class SortedList<E> extends TransformedList<E,E> {
             return;
         }
 
+        // handle the replacement of the complete source by sorting it from scratch
+        if(listChanges.isReplacement()) {
+            replaceAll(listChanges);
+            return;
+        }
+
         // This is implemented in three phases. These phases are:
         // 1. Update the unsorted tree for all event types. Update the sorted tree
         //    for delete events by deleting nodes. Fire delete events. Queue unsorted
@@ -261,12 +284,23 @@ public final class SortedList<E> extends TransformedList<E,E> {
                 Element<Element> unsortedNode = unsorted.get(unsortedIndex);
                 E deleted = listChanges.getOldValue();
                 unsorted.remove(unsortedNode);
+                if(sortKeys != null) sortKeys.remove(unsortedNode);
                 int deleteSortedIndex = deleteByUnsortedNode(unsortedNode);
                 updates.elementDeleted(deleteSortedIndex, deleted);
 
             }
         }
 
+        // compute the keys of the inserted and updated elements, now that their indices are final
+        if(sortKeys != null) {
+            for(Element<?> insertNode : insertNodes) {
+                refreshSortKey(insertNode);
+            }
+            for(int i = 0, size = updateNodes.size(); i < size; i++) {
+                refreshSortKey(updateNodes.get(i).get());
+            }
+        }
+
         // decide which updated elements need to be shifted. We walk through the
         // tree, marking updated elements as sorted or unsorted depending on their
         // value relative to their neighbours
@@ -356,6 +390,136 @@ public final class SortedList<E> extends TransformedList<E,E> {
         updates.commitEvent();
     }
 
+    /**
+     * Handles a {@link ListEvent#isReplacement() replacement} of the complete
+     * source list. Rather than moving every element through the sorted tree
+     * one at a time, both trees are rebuilt from the new source contents.
+     */
+    private void replaceAll(ListEvent<E> listChanges) {
+        // all of these changes to this list happen "atomically"
+        updates.beginEvent();
+
+        // the previous elements are all deleted at index 0, in their old unsorted order
+        List<E> deletedValues = new ArrayList<>(unsorted.size());
+        while(listChanges.next() && listChanges.getType() == ListEvent.DELETE) {
+            deletedValues.add(listChanges.getOldValue());
+        }
+
+        // fire the deletes in the previous sorted order
+        for(SimpleTreeIterator<Element> i = new SimpleTreeIterator<>(sorted); i.hasNext(); ) {
+            i.next();
+            int unsortedIndex = unsorted.indexOfNode(i.value(), ALL_COLORS);
+            updates.elementDeleted(0, deletedValues.get(unsortedIndex));
+        }
+
+        // sort the new source contents
+        unsorted = new SimpleTree<>();
+        sorted = new SimpleTree<Element>(sorted.getComparator());
+        for(int i = 0, n = source.size(); i < n; i++) {
+            unsorted.add(i, EMPTY_ELEMENT, 1);
+        }
+        insertAllUnsortedNodes(refreshAllSortKeys());
+
+        // fire the inserts in the new sorted order
+        int sortedIndex = 0;
+        for(Iterator<E> i = iterator(); i.hasNext(); sortedIndex++) {
+            updates.elementInserted(sortedIndex, i.next());
+        }
+
+        // commit the changes and notify listeners
+        updates.commitEvent();
+    }
+
+    /**
+     * Inserts every node of the unsorted tree into the empty sorted tree.
+     *
+     * @param keys the sort keys of the nodes in unsorted order, or
+     *      <code>null</code> if the comparator doesn't use sort keys
+     */
+    private void insertAllUnsortedNodes(final Object[] keys) {
+        if(keys == null) {
+            for(SimpleTreeIterator<Element> i = new SimpleTreeIterator<>(unsorted); i.hasNext(); ) {
+                i.next();
+                insertByUnsortedNode(i.node());
+            }
+            return;
+        }
+
+        // sort the keys all at once, which keeps equal keys in unsorted order
+        final List<Element<?>> unsortedNodes = new ArrayList<>(keys.length);
+        final Integer[] sortedOrder = new Integer[keys.length];
+        for(SimpleTreeIterator<?> i = new SimpleTreeIterator<>(unsorted); i.hasNext(); ) {
+            i.next();
+            sortedOrder[unsortedNodes.size()] = Integer.valueOf(unsortedNodes.size());
+            unsortedNodes.add(i.node());
+        }
+        final SortKeyComparator<? super E> keyComparator = (SortKeyComparator<? super E>)comparator;
+        Arrays.sort(sortedOrder, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer alpha, Integer beta) {
+                return keyComparator.compareSortKeys(keys[alpha.intValue()], keys[beta.intValue()]);
+            }
+        });
+
+        // then append the nodes to the sorted tree without comparing them again
+        for(int i = 0; i < sortedOrder.length; i++) {
+            appendByUnsortedNode(i, unsortedNodes.get(sortedOrder[i].intValue()));
+        }
+    }
+
+    /**
+     * Appends the specified unsorted node as the value at the specified index
+     * of the sorted tree, which must be its place in the sorted order.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void appendByUnsortedNode(int sortedIndex, Element<?> unsortedNode) {
+        ((Element<Element>)unsortedNode).set(sorted.add(sortedIndex, unsortedNode, 1));
+    }
+
+    /**
+     * Gets the index of the specified unsorted node, which is also the index
+     * of its element in the source list.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private int unsortedIndexOf(Element<?> unsortedNode) {
+        return unsorted.indexOfNode((Element<Element>)unsortedNode, ALL_COLORS);
+    }
+
+    /**
+     * Computes the sort key of every element if the comparator is a
+     * {@link SortKeyComparator}, or discards the keys otherwise.
+     *
+     * @return the keys in unsorted order, or <code>null</code> if the
+     *      comparator doesn't use sort keys
+     */
+    private Object[] refreshAllSortKeys() {
+        if(!(comparator instanceof SortKeyComparator)) {
+            sortKeys = null;
+            return null;
+        }
+
+        // compute the keys of all elements at once, in source order
+        final Object[] keys = new Object[unsorted.size()];
+        ((SortKeyComparator<? super E>)comparator).getSortKeys(source, 0, keys.length, keys);
+        sortKeys = new IdentityHashMap<>(keys.length);
+        int index = 0;
+        for(SimpleTreeIterator<?> i = new SimpleTreeIterator<>(unsorted); i.hasNext(); index++) {
+            i.next();
+            sortKeys.put(i.node(), keys[index]);
+        }
+        return keys;
+    }
+
+    /**
+     * Computes the sort key of the element of the specified unsorted node.
+     */
+    private void refreshSortKey(Element<?> unsortedNode) {
+        final int unsortedIndex = unsortedIndexOf(unsortedNode);
+        final Object[] key = new Object[1];
+        ((SortKeyComparator<? super E>)comparator).getSortKeys(source, unsortedIndex, unsortedIndex + 1, key);
+        sortKeys.put(unsortedNode, key[0]);
+    }
+
     /**
      * Inserts the specified unsorted node as the value in the sorted tree
      * and returns the sorted order.
@@ -418,6 +582,9 @@ public final class SortedList<E> extends TransformedList<E,E> {
      * sort the source {@link EventList} into a new order.
      *
      * <p>Performance Note: sorting will take <code>O(N * Log N)</code> time.
+     * If the {@link Comparator} is a {@link SortKeyComparator}, the sort key of
+     * each element is computed once, and again only when the element is
+     * updated, and sorting compares the keys.
      *
      * <p><strong><font color="#FF0000">Warning:</font></strong> This method is
      * thread ready but not thread safe. See {@link EventList} for an example
@@ -436,7 +603,8 @@ public final class SortedList<E> extends TransformedList<E,E> {
         SimpleTree previousSorted = sorted;
         // create the sorted list with a simple comparator
         final Comparator treeComparator;
-        if(comparator != null) treeComparator = new ElementComparator(comparator);
+        if(comparator instanceof SortKeyComparator) treeComparator = new ElementKeyComparator((SortKeyComparator<? super E>)comparator);
+        else if(comparator != null) treeComparator = new ElementComparator(comparator);
         else treeComparator = new ElementRawOrderComparator();
         sorted = new SimpleTree<Element>(treeComparator);
 
@@ -445,22 +613,21 @@ public final class SortedList<E> extends TransformedList<E,E> {
             unsorted = new SimpleTree<>();
             // add all elements in the source list, in order
             for(int i = 0, n = source.size(); i < n; i++) {
-                Element unsortedNode = unsorted.add(i, EMPTY_ELEMENT, 1);
-                insertByUnsortedNode(unsortedNode);
+                unsorted.add(i, EMPTY_ELEMENT, 1);
             }
+            insertAllUnsortedNodes(refreshAllSortKeys());
             // this is the first sort so we're done
             return;
         }
 
+        // the keys of the new comparator, if it has any
+        final Object[] keys = refreshAllSortKeys();
+
         // if the lists are empty, we're done
         if(source.isEmpty()) return;
 
         // rebuild the sorted tree to reflect the new Comparator
-        for(SimpleTreeIterator<Element> i = new SimpleTreeIterator<>(unsorted); i.hasNext(); ) {
-            i.next();
-            Element unsortedNode = i.node();
-            insertByUnsortedNode(unsortedNode);
-        }
+        insertAllUnsortedNodes(keys);
 
         // construct the reorder map
         int[] reorderMap = new int[size()];
@@ -652,6 +819,48 @@ public final class SortedList<E> extends TransformedList<E,E> {
         }
     }
 
+    /**
+     * A comparator that takes an indexed node, and compares the precomputed
+     * sort key of the object in the source list that has the index of that
+     * node. Objects that are not {@link Element}s have their key computed
+     * when they are compared, as in {@link ElementComparator}.
+     */
+    private class ElementKeyComparator implements Comparator<Object> {
+
+        /** compares the keys */
+        private final SortKeyComparator<? super E> keyComparator;
+
+        public ElementKeyComparator(SortKeyComparator<? super E> keyComparator) {
+            this.keyComparator = keyComparator;
+        }
+
+        /**
+         * Compares the keys of object alpha and object beta.
+         */
+        @Override
+        public int compare(Object alpha, Object beta) {
+            final boolean alphaIsNode = alpha instanceof Element;
+            final boolean betaIsNode = beta instanceof Element;
+            final Object alphaKey = alphaIsNode ? sortKeys.get(alpha) : keyOf(alpha);
+            final Object betaKey = betaIsNode ? sortKeys.get(beta) : keyOf(beta);
+            int result = keyComparator.compareSortKeys(alphaKey, betaKey);
+            if(result != 0) return result;
+            if(alphaIsNode && betaIsNode) return unsortedIndexOf((Element<?>)alpha) - unsortedIndexOf((Element<?>)beta);
+            return 0;
+        }
+
+        /**
+         * Computes the key of an object that isn't in the source list. Such
+         * objects are compared to elements, as in {@link ElementComparator}.
+         */
+        @SuppressWarnings("unchecked")
+        private Object keyOf(Object object) {
+            final Object[] key = new Object[1];
+            keyComparator.getSortKeys(Collections.singletonList((E)object), 0, 1, key);
+            return key[0];
+        }
+    }
+
     /**
      * A comparator that takes an indexed node, and compares the index of that node.
      */
@@ -276,6 +276,24 @@ public final class UniqueList<E> extends TransformedList<E, E> {
                 uniqueIndex++;
             }
 
+        } else if (listChanges.isReplacement()) {
+            // the previous elements are all deleted at index 0, in their old order
+            final BarcodeIterator b = grouper.getBarcode().iterator();
+            while (listChanges.next() && listChanges.getType() == ListEvent.DELETE) {
+                if (b.next() == Grouper.UNIQUE) {
+                    updates.elementDeleted(0, listChanges.getOldValue());
+                }
+            }
+
+            // regroup the new source contents in one pass
+            grouper.rebuild();
+            int uniqueIndex = 0;
+            for (BarcodeIterator i = grouper.getBarcode().iterator(); i.hasNextBlack(); ) {
+                i.nextBlack();
+                updates.elementInserted(uniqueIndex, sortedSource.get(i.getIndex()));
+                uniqueIndex++;
+            }
+
         } else {
             grouper.listChanged(listChanges);
         }
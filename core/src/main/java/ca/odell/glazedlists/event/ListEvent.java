@@ -158,6 +158,12 @@ import java.util.EventObject;
  * instead.
  *
  * <p>
+ * Similarly, a {@link #isReplacement() replacement} ListEvent indicates that
+ * the complete contents of the list have been replaced, for example by
+ * clearing and refilling the list. Listeners may rebuild their state in one
+ * pass over the list rather than handling each deletion and insertion.
+ *
+ * <p>
  * In the future, ListEvent will provide even more information about the list
  * changes to be more self-contained:
  * <ul>
@@ -276,6 +282,25 @@ public abstract class ListEvent<E> extends EventObject {
      */
     public abstract boolean isReordering();
 
+    /**
+     * Tests if this change replaces the complete contents of the list. That is,
+     * every element that was in the list before has been deleted and every
+     * element that is in the list now has been inserted. This happens when
+     * a list is cleared, refilled or reordered.
+     *
+     * <p>A replacement is described by ordinary {@link #DELETE} blocks at index
+     * 0 followed by {@link #INSERT} blocks covering the new list, so listeners
+     * can safely ignore this flag. Listeners that can rebuild their state in a
+     * single bulk pass over the source list may use it as a shortcut instead of
+     * handling each change.
+     *
+     * <p>This implementation returns <code>false</code>, which is always
+     * safe. Subclasses that know the shape of their changes should override it.
+     */
+    public boolean isReplacement() {
+        return false;
+    }
+
     /**
      * Gets the reorder map of this list. Before calling this method,
      * you should check that {@link #isReordering()} returns <code>true</code>.
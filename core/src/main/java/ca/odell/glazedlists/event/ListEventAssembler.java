@@ -11,6 +11,7 @@ import ca.odell.glazedlists.impl.event.Tree4Deltas;
 
 import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Models a continuous stream of changes on a list. Changes of the same type
@@ -38,6 +39,8 @@ public final class ListEventAssembler<E> {
 
     /** the current reordering array if this change is a reorder */
     protected int[] reorderMap = null;
+    /** whether the current change replaces the complete contents of the list */
+    private boolean replacement = false;
     /** prefer to use the linear blocks, which are more performant but handle only a subset of all cases */
     private BlockSequence<E> blockSequence = new BlockSequence<>();
     private boolean useListBlocksLinear = false;
@@ -58,6 +61,28 @@ public final class ListEventAssembler<E> {
         return new SequenceDependenciesEventPublisher();
     }
 
+    /**
+     * Create a new {@link ListEventPublisher} that notifies independent
+     * listeners concurrently using the specified {@link Executor}.
+     *
+     * <p>Listeners are independent if they don't depend on each other other
+     * than through the {@link EventList} firing the event. For example, many
+     * {@link ca.odell.glazedlists.FilterList}s of the same source list are
+     * independent. Each group of dependent listeners is still notified in
+     * order, and all listeners have been notified before the change that
+     * caused the event returns.
+     *
+     * <p>The listeners of independent subtrees must be safe to run
+     * concurrently. In particular, they must not modify lists outside their
+     * own subtree, nor acquire the locks of the {@link EventList}s being
+     * changed, since those locks are held by the writing thread.
+     *
+     * @param executor runs the notification of independent listeners
+     */
+    public static ListEventPublisher createListEventPublisher(Executor executor) {
+        return new SequenceDependenciesEventPublisher(executor);
+    }
+
     /**
      * Creates a new ListEventAssembler that tracks changes for the specified list.
      */
@@ -285,6 +310,15 @@ public final class ListEventAssembler<E> {
         this.reorderMap = null;
         if(isEventEmpty() && listChanges.isReordering()) {
             reorder(listChanges.getReorderMap());
+        } else if(isEventEmpty() && listChanges.isReplacement()) {
+            // forward whole blocks, a replacement usually spans the entire list
+            while(listChanges.nextBlock()) {
+                int type = listChanges.getType();
+                E oldValue = (E) listChanges.getOldValue();
+                E newValue = (E) listChanges.getNewValue();
+                addChange(type, listChanges.getBlockStartIndex(), listChanges.getBlockEndIndex(), oldValue, newValue);
+            }
+            listChanges.reset();
         } else {
             while(listChanges.next()) {
                 int type = listChanges.getType();
@@ -324,6 +358,10 @@ public final class ListEventAssembler<E> {
             return;
         }
 
+        // detect whether the event replaces the complete list, which allows
+        // listeners to rebuild their state in one pass
+        replacement = useListBlocksLinear && blockSequence.isReplacement(sourceList.size());
+
         // we've already fired this event, we're just adding to it
         if(eventIsBeingPublished) {
             return;
@@ -417,6 +455,7 @@ public final class ListEventAssembler<E> {
     Tree4Deltas getListDeltas() { return listDeltas; }
     BlockSequence getListBlocksLinear() { return blockSequence; }
     int[] getReorderMap() { return reorderMap; }
+    boolean isReplacement() { return replacement; }
 
     /**
      * Cleanup all temporary variables necessary while events are being fired.
@@ -426,6 +465,7 @@ public final class ListEventAssembler<E> {
         blockSequence.reset();
         listDeltas.reset(sourceList.size());
         reorderMap = null;
+        replacement = false;
         listDeltas.setAllowContradictingEvents(false);
         // force cleanup of iterator which still could reference old data
         listEvent.reset();
@@ -446,6 +486,10 @@ public final class ListEventAssembler<E> {
             eventIsBeingPublished = false;
         }
         @Override
+        public ListEvent<E> copyEvent(ListEvent<E> event) {
+            return event.copy();
+        }
+        @Override
         public boolean isStale(EventList<E> subject, ListEventListener<? super E> listener) {
             if(listener instanceof WeakReferenceProxy && ((WeakReferenceProxy)listener).getReferent() == null) {
                 ((WeakReferenceProxy)listener).dispose();
@@ -5,15 +5,20 @@ package ca.odell.glazedlists.event;
 
 import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.impl.adt.IdentityMultimap;
+import ca.odell.glazedlists.impl.adt.IntArrayList;
 
 import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Manage listeners, firing events, and making sure that events arrive in order.
@@ -30,6 +35,13 @@ import java.util.Map;
  * by queueing events and not necessarily firing them during the {@link #fireEvent}
  * method.
  *
+ * <p>If this publisher has an {@link Executor}, listeners that don't depend on
+ * each other may be notified concurrently. When an event is fired, the
+ * listeners are partitioned into the subtrees that remain independent once
+ * the firing subject is removed from the dependency graph. Each subtree is
+ * notified in order on its own thread, and all of them have been notified
+ * before {@link #fireEvent} returns.
+ *
  * @author <a href="mailto:jesse@swank.ca">Jesse Wilson</a>
  */
 final class SequenceDependenciesEventPublisher implements ListEventPublisher, Serializable {
@@ -79,6 +91,31 @@ final class SequenceDependenciesEventPublisher implements ListEventPublisher, Se
      */
     private transient List<SubjectAndListener> subjectsAndListenersForCurrentEvent;
 
+    /** notifies independent subtrees concurrently, or <code>null</code> to notify serially */
+    private transient final Executor executor;
+
+    /** the subtree being notified by the current thread, if notifying concurrently */
+    private transient final ThreadLocal<Dispatch> currentDispatch = new ThreadLocal<>();
+
+    /**
+     * Create a publisher that notifies all listeners on the thread firing the
+     * event.
+     */
+    public SequenceDependenciesEventPublisher() {
+        this(null);
+    }
+
+    /**
+     * Create a publisher that notifies independent subtrees of listeners
+     * concurrently, using the specified {@link Executor}.
+     *
+     * @param executor runs the notification of independent subtrees, or
+     *      <code>null</code> to notify all listeners serially
+     */
+    public SequenceDependenciesEventPublisher(Executor executor) {
+        this.executor = executor;
+    }
+
     /** Returns a proper initialized publisher object during deserialization. */
     private Object readResolve() throws ObjectStreamException {
         return new SequenceDependenciesEventPublisher();
@@ -321,6 +358,13 @@ final class SequenceDependenciesEventPublisher implements ListEventPublisher, Se
      *     used for a callback when this event is complete
      */
     public <Subject,Listener,Event> void fireEvent(Subject subject, Event event, EventFormat<Subject,Listener,Event> eventFormat) {
+        // events fired while notifying a subtree concurrently stay within that subtree
+        Dispatch dispatch = currentDispatch.get();
+        if(dispatch != null) {
+            dispatch.fireEvent(subject, event, eventFormat);
+            return;
+        }
+
         // keep the subjects and listeners as they are at the beginning of
         // the topmost event, the list won't change because we copy on write
         if(reentrantFireEventCount == 0) {
@@ -353,28 +397,35 @@ final class SequenceDependenciesEventPublisher implements ListEventPublisher, Se
             // remember any runtime exceptions thrown to rethrow later
             RuntimeException toRethrow = null;
 
+            // fire events to independent subtrees concurrently
+            Dispatch[] dispatches = executor != null ? prepareDispatches(subject) : null;
+            if(dispatches != null) {
+                toRethrow = fireDispatches(dispatches);
+
             // fire events to listeners in order
-            while(true) {
-                SubjectAndListener nextToFire = null;
-
-                // find the next listener still pending
-                for(int i = nextToNotify; i < subjectAndListenersSize; i++) {
-                    SubjectAndListener subjectAndListener = subjectsAndListenersForCurrentEvent.get(i);
-                    if(subjectAndListener.hasPendingEvent()) {
-                        nextToFire = subjectAndListener;
-                        nextToNotify = i + 1;
-                        break;
+            } else {
+                while(true) {
+                    SubjectAndListener nextToFire = null;
+
+                    // find the next listener still pending
+                    for(int i = nextToNotify; i < subjectAndListenersSize; i++) {
+                        SubjectAndListener subjectAndListener = subjectsAndListenersForCurrentEvent.get(i);
+                        if(subjectAndListener.hasPendingEvent()) {
+                            nextToFire = subjectAndListener;
+                            nextToNotify = i + 1;
+                            break;
+                        }
                     }
-                }
 
-                // there's nobody to notify, we're done firing events
-                if(nextToFire == null) break;
+                    // there's nobody to notify, we're done firing events
+                    if(nextToFire == null) break;
 
-                // notify this listener
-                try {
-                    nextToFire.firePendingEvent();
-                } catch(RuntimeException e) {
-                    if(toRethrow == null) toRethrow = e;
+                    // notify this listener
+                    try {
+                        nextToFire.firePendingEvent();
+                    } catch(RuntimeException e) {
+                        if(toRethrow == null) toRethrow = e;
+                    }
                 }
             }
 
@@ -400,6 +451,205 @@ final class SequenceDependenciesEventPublisher implements ListEventPublisher, Se
         }
     }
 
+    /**
+     * Partition the listeners into the subtrees that are independent once the
+     * specified subject is removed from the dependency graph.
+     *
+     * @return a {@link Dispatch} for each subtree with a pending event, or
+     *      <code>null</code> if there are fewer than two such subtrees.
+     */
+    private Dispatch[] prepareDispatches(Object subject) {
+        List<SubjectAndListener> pairs = subjectsAndListenersForCurrentEvent;
+
+        // union the subject and listener of each pair, except for the subject firing
+        Map<Object,Integer> nodes = new IdentityHashMap<>();
+        int[] parents = new int[pairs.size() * 2];
+        int[] pairNodes = new int[pairs.size()];
+        for(int i = 0, size = pairs.size(); i < size; i++) {
+            SubjectAndListener subjectAndListener = pairs.get(i);
+            pairNodes[i] = node(nodes, parents, getRelatedSubject(subjectAndListener.listener));
+            if(subjectAndListener.subject == subject) continue;
+            int subjectRoot = root(parents, node(nodes, parents, subjectAndListener.subject));
+            parents[subjectRoot] = root(parents, pairNodes[i]);
+        }
+
+        // each subtree with a pending event is notified separately
+        int[] rootDispatches = new int[nodes.size()];
+        Arrays.fill(rootDispatches, -1);
+        int dispatchCount = 0;
+        for(int i = 0, size = pairs.size(); i < size; i++) {
+            if(!pairs.get(i).hasPendingEvent()) continue;
+            int root = root(parents, pairNodes[i]);
+            if(rootDispatches[root] == -1) rootDispatches[root] = dispatchCount++;
+        }
+        if(dispatchCount < 2) return null;
+
+        // collect the pairs of each subtree in notification order
+        IntArrayList[] positions = new IntArrayList[dispatchCount];
+        for(int d = 0; d < dispatchCount; d++) positions[d] = new IntArrayList();
+        for(int i = 0, size = pairs.size(); i < size; i++) {
+            int dispatch = rootDispatches[root(parents, pairNodes[i])];
+            if(dispatch == -1) continue;
+            positions[dispatch].add(i);
+
+            // subtrees notified concurrently each need their own copy of the event
+            SubjectAndListener subjectAndListener = pairs.get(i);
+            if(dispatch > 0 && subjectAndListener.hasPendingEvent()) {
+                subjectAndListener.copyPendingEvent();
+            }
+        }
+        Dispatch[] result = new Dispatch[dispatchCount];
+        for(int d = 0; d < dispatchCount; d++) {
+            int[] dispatchPositions = new int[positions[d].size()];
+            for(int p = 0; p < dispatchPositions.length; p++) dispatchPositions[p] = positions[d].get(p);
+            result[d] = new Dispatch(dispatchPositions);
+        }
+        return result;
+    }
+
+    /**
+     * Get the union-find node for the specified subject, creating it if necessary.
+     */
+    private static int node(Map<Object,Integer> nodes, int[] parents, Object subject) {
+        Integer node = nodes.get(subject);
+        if(node != null) return node.intValue();
+        int result = nodes.size();
+        nodes.put(subject, Integer.valueOf(result));
+        parents[result] = result;
+        return result;
+    }
+
+    /**
+     * Find the representative of the specified union-find node.
+     */
+    private static int root(int[] parents, int node) {
+        while(parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+
+    /**
+     * Notify each subtree on a thread of the executor, except for the first
+     * which is notified on the current thread, and wait until all are done.
+     *
+     * @return the first {@link RuntimeException} thrown by a listener, if any
+     */
+    private RuntimeException fireDispatches(Dispatch[] dispatches) {
+        final CountDownLatch finished = new CountDownLatch(dispatches.length - 1);
+        for(int d = 1; d < dispatches.length; d++) {
+            final Dispatch dispatch = dispatches[d];
+            Runnable notifySubtree = () -> {
+                try {
+                    dispatch.run();
+                } catch(Error e) {
+                    dispatch.error = e;
+                } finally {
+                    finished.countDown();
+                }
+            };
+            try {
+                executor.execute(notifySubtree);
+            } catch(RejectedExecutionException e) {
+                notifySubtree.run();
+            }
+        }
+        dispatches[0].run();
+
+        // the subtrees must be done before this event is cleaned up
+        boolean interrupted = false;
+        while(true) {
+            try {
+                finished.await();
+                break;
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+
+        RuntimeException result = null;
+        for(int d = 0; d < dispatches.length; d++) {
+            if(dispatches[d].error != null) throw dispatches[d].error;
+            if(result == null) result = dispatches[d].thrown;
+        }
+        return result;
+    }
+
+    /**
+     * Notifies the listeners of a subtree that is independent of all others
+     * for the current event.
+     */
+    private final class Dispatch {
+        /** the indices of this subtree's pairs, in notification order */
+        private final int[] positions;
+        /** the position of the next pair to consider for notification */
+        private int next = 0;
+        /** the first exception thrown by a listener */
+        private RuntimeException thrown;
+        /** an error thrown while notifying concurrently */
+        private Error error;
+
+        Dispatch(int[] positions) {
+            this.positions = positions;
+        }
+
+        /**
+         * Fire events to the listeners of this subtree in order.
+         */
+        void run() {
+            currentDispatch.set(this);
+            try {
+                while(true) {
+                    SubjectAndListener nextToFire = null;
+
+                    // find the next listener still pending
+                    for(int p = next; p < positions.length; p++) {
+                        SubjectAndListener subjectAndListener = subjectsAndListenersForCurrentEvent.get(positions[p]);
+                        if(subjectAndListener.hasPendingEvent()) {
+                            nextToFire = subjectAndListener;
+                            next = p + 1;
+                            break;
+                        }
+                    }
+
+                    // there's nobody to notify, we're done firing events
+                    if(nextToFire == null) break;
+
+                    // notify this listener
+                    try {
+                        nextToFire.firePendingEvent();
+                    } catch(RuntimeException e) {
+                        if(thrown == null) thrown = e;
+                    }
+                }
+            } finally {
+                currentDispatch.remove();
+            }
+        }
+
+        /**
+         * Queue an event fired by a subject in this subtree for its listeners.
+         */
+        void fireEvent(Object subject, Object event, EventFormat eventFormat) {
+            EventFormat previous;
+            synchronized(subjectsToCleanUp) {
+                previous = subjectsToCleanUp.put(subject, eventFormat);
+            }
+            if(previous != null) throw new IllegalStateException("Reentrant fireEvent() by \"" + subject + "\"");
+
+            for(int i = 0, size = subjectsAndListenersForCurrentEvent.size(); i < size; i++) {
+                SubjectAndListener subjectAndListener = subjectsAndListenersForCurrentEvent.get(i);
+                if(subjectAndListener.subject != subject) continue;
+                int position = Arrays.binarySearch(positions, i);
+                if(position < 0) throw new IllegalStateException("Concurrent fireEvent() by \"" + subject + "\" reaches \"" + subjectAndListener.listener + "\" outside of its subtree");
+                if(position < next) next = position;
+                subjectAndListener.addPendingEvent(event);
+            }
+        }
+    }
+
     /**
      * Adapt any observer-style interface to a common format.
      */
@@ -423,6 +673,14 @@ final class SequenceDependenciesEventPublisher implements ListEventPublisher, Se
          * the listener will be silently removed and no longer receive events.
          */
         boolean isStale(Subject subject, Listener listener);
+
+        /**
+         * Create a copy of the specified event that can be fired concurrently
+         * with the original. Events without iteration state can be shared.
+         */
+        default Event copyEvent(Event event) {
+            return event;
+        }
     }
 
     /**
@@ -473,6 +731,10 @@ final class SequenceDependenciesEventPublisher implements ListEventPublisher, Se
             this.pendingEvent = pendingEvent;
         }
 
+        public void copyPendingEvent() {
+            pendingEvent = eventFormat.copyEvent(pendingEvent);
+        }
+
         public void firePendingEvent() {
             assert(pendingEvent != null);
             try {
@@ -74,6 +74,11 @@ class Tree4DeltasListEvent<E> extends ListEvent<E> {
         return (deltasAssembler.getReorderMap() != null);
     }
 
+    @Override
+    public boolean isReplacement() {
+        return deltasAssembler.isReplacement();
+    }
+
     @Override
     public int[] getReorderMap() {
         int[] reorderMap = deltasAssembler.getReorderMap();
@@ -8,6 +8,7 @@ import ca.odell.glazedlists.impl.gui.MouseKeyboardSortingStrategy;
 import ca.odell.glazedlists.impl.gui.MouseOnlySortingStrategy;
 import ca.odell.glazedlists.impl.gui.SortingState;
 import ca.odell.glazedlists.impl.gui.MouseOnlySortingStrategyWithUndo;
+import ca.odell.glazedlists.impl.sort.SortKeyComparatorChain;
 import ca.odell.glazedlists.impl.sort.TableColumnComparator;
 
 import java.beans.PropertyChangeEvent;
@@ -111,6 +112,9 @@ public abstract class AbstractTableComparatorChooser<E> {
     /** manage which columns are sorted and in which order */
     protected SortingState sortingState;
 
+    /** whether the {@link SortedList} precomputes the column values it sorts by */
+    private boolean sortKeysPrecomputed = false;
+
     /**
      * Create a {@link AbstractTableComparatorChooser} that sorts the specified
      * {@link SortedList} over the specified columns.
@@ -146,7 +150,8 @@ public abstract class AbstractTableComparatorChooser<E> {
      * Updates the comparator in use and applies it to the table.
      */
     protected void rebuildComparator() {
-        final Comparator<E> rebuiltComparator = sortingState.buildComparator();
+        Comparator<E> rebuiltComparator = sortingState.buildComparator();
+        if(sortKeysPrecomputed && rebuiltComparator != null) rebuiltComparator = new SortKeyComparatorChain<>(rebuiltComparator);
 
         // select the new comparator
         sortedList.getReadWriteLock().writeLock().lock();
@@ -158,6 +163,37 @@ public abstract class AbstractTableComparatorChooser<E> {
         }
     }
 
+    /**
+     * Sets whether the {@link SortedList} precomputes a sort key for each of
+     * its elements, holding the values of all the columns sorted by. Sorting
+     * then compares the keys, rather than calling the {@link TableFormat}
+     * twice per column for every comparison. A key is only recomputed when
+     * its element is inserted or updated. This speeds up sorting large lists
+     * by several columns, particularly with a reflective TableFormat, at the
+     * cost of holding the keys in memory.
+     *
+     * <p>The elements must not change without the {@link SortedList} being
+     * notified, or their keys become stale. If the {@link TableFormat} is a
+     * {@link ColumnarTableFormat}, the keys are extracted a column at a time.
+     */
+    public void setSortKeysPrecomputed(boolean sortKeysPrecomputed) {
+        if(this.sortKeysPrecomputed == sortKeysPrecomputed) return;
+        this.sortKeysPrecomputed = sortKeysPrecomputed;
+
+        // resort with the new kind of comparator
+        if(!sortingState.getRecentlyClickedColumns().isEmpty()) rebuildComparator();
+    }
+
+    /**
+     * Gets whether the {@link SortedList} precomputes a sort key for each of
+     * its elements.
+     *
+     * @see #setSortKeysPrecomputed(boolean)
+     */
+    public boolean isSortKeysPrecomputed() {
+        return sortKeysPrecomputed;
+    }
+
     /**
      * Adjusts the TableFormat this comparator chooser uses when selecting
      * comparators. Calling this method will clear any active sorting.
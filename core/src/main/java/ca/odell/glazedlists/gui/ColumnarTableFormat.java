@@ -0,0 +1,46 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.gui;
+
+import java.util.List;
+
+/**
+ * Allows the values of a column to be extracted for many rows at once, in
+ * addition to the standard {@link TableFormat} information.
+ *
+ * <p>Consumers that need a whole column, such as a table model that
+ * prefetches the rows around the visible ones, or a sort by a column, detect
+ * this interface and pull the column in a single call instead of calling
+ * {@link #getColumnValue} once per cell. Implementations can then resolve
+ * their accessors once per column. The values must be the same as those
+ * returned by {@link #getColumnValue}.
+ *
+ * @see TableFormat
+ */
+public interface ColumnarTableFormat<E> extends TableFormat<E> {
+
+    /**
+     * Gets the values of the specified column for the rows of
+     * <code>rows</code> between <code>from</code>, inclusive, and
+     * <code>to</code>, exclusive.
+     *
+     * @param rows the list whose elements are the rows
+     * @param values receives the value of the row <code>from + i</code> at
+     *      index <code>i</code>
+     */
+    public void getColumnValues(List<? extends E> rows, int from, int to, int column, Object[] values);
+
+    /**
+     * Gets the values of the specified numeric column for the rows of
+     * <code>rows</code> between <code>from</code>, inclusive, and
+     * <code>to</code>, exclusive, without boxing them where possible. Values
+     * that are not {@link Number}s, including <code>null</code>, are
+     * {@link Double#NaN}.
+     *
+     * @param rows the list whose elements are the rows
+     * @param values receives the value of the row <code>from + i</code> at
+     *      index <code>i</code>
+     */
+    public void getColumnDoubles(List<? extends E> rows, int from, int to, int column, double[] values);
+}
@@ -0,0 +1,176 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl;
+
+import ca.odell.glazedlists.AbstractEventList;
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventAssembler;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.util.concurrent.LockFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An {@link EventList} that mirrors its source and delivers the source's
+ * changes to its own listeners asynchronously, using an {@link Executor}.
+ *
+ * <p>Unlike a {@link ca.odell.glazedlists.impl.gui.ThreadProxyEventList},
+ * this list is the root of a separate pipeline with its own
+ * {@link #getReadWriteLock() lock} and {@link #getPublisher() publisher}.
+ * Writers to the source only record their changes here, and never wait for
+ * the listeners of this list. Those listeners run while holding this list's
+ * write lock, but not the source's.
+ *
+ * <p>The flow of events is as follows:
+ * <ol>
+ *   <li>Any thread makes a change to the source list and calls
+ *       {@link #listChanged(ListEvent)}.
+ *   <li>The change is merged into the pending event, and a delivery is
+ *       scheduled on the executor unless one is pending already.
+ * </ol>
+ *
+ * <p>When the delivery runs:
+ * <ol>
+ *   <li>It acquires this list's write lock, then the source's read lock.
+ *   <li>The pending event is applied to a private copy of the source data and
+ *       forwarded to this list's own event.
+ *   <li>The source's read lock is released, so writers may continue.
+ *   <li>This list's listeners are notified and the write lock is released.
+ * </ol>
+ *
+ * <p>While the listeners are behind, any number of source changes are
+ * combined into a single pending event by a {@link ListEventAssembler}. So the
+ * work waiting to be delivered is bounded by the size of the list, regardless
+ * of how many changes were made, and writers need no backpressure.
+ *
+ * <p>This list is read-only. It must be {@link #dispose() disposed} when no
+ * longer needed to detach it from its source.
+ */
+public final class AsyncProxyEventList<E> extends AbstractEventList<E> implements ListEventListener<E>, RandomAccess {
+
+    /** the list whose changes are delivered asynchronously */
+    private final EventList<E> source;
+
+    /** runs the deliveries */
+    private final Executor executor;
+
+    /** a local copy of the source list, as of the last delivery */
+    private List<E> localCache;
+
+    /** delivers events on a thread of the executor */
+    private final DeliveryRunner deliveryRunner = new DeliveryRunner();
+
+    /** the source changes not yet delivered, guarded by the source's lock */
+    private final ListEventAssembler<E> pendingUpdates;
+
+    /** whether a delivery has been scheduled, guarded by the source's lock */
+    private boolean scheduled = false;
+
+    /**
+     * Create an {@link AsyncProxyEventList} that delivers the changes to the
+     * given <code>source</code> on the specified {@link Executor}.
+     */
+    public AsyncProxyEventList(EventList<E> source, Executor executor) {
+        super(null);
+        if(executor == null) throw new IllegalArgumentException("Executor must be non-null");
+        this.source = source;
+        this.executor = executor;
+        this.readWriteLock = LockFactory.DEFAULT.createReadWriteLock();
+        this.localCache = new ArrayList<>(source);
+
+        // handle the pending changes on delivery
+        pendingUpdates = new ListEventAssembler<>(source, ListEventAssembler.createListEventPublisher());
+        pendingUpdates.addListEventListener(deliveryRunner);
+
+        // handle changes in the source event list
+        source.addListEventListener(this);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void listChanged(ListEvent<E> listChanges) {
+        // if no changes are pending, we need to begin a new event
+        if(!pendingUpdates.isEventInProgress()) {
+            pendingUpdates.beginEvent(true);
+        }
+
+        // merge the changes for this event into the pending event
+        pendingUpdates.forwardEvent(listChanges);
+
+        // deliver the event on the executor, or with the next change if it's rejected
+        if(!scheduled) {
+            scheduled = true;
+            try {
+                executor.execute(deliveryRunner);
+            } catch(RejectedExecutionException e) {
+                scheduled = false;
+                throw e;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+        return localCache.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public E get(int index) {
+        return localCache.get(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void dispose() {
+        source.removeListEventListener(this);
+        pendingUpdates.removeListEventListener(deliveryRunner);
+    }
+
+    /**
+     * Delivers the pending changes using a thread of the executor.
+     */
+    private class DeliveryRunner implements Runnable, ListEventListener<E> {
+
+        /**
+         * When run, this takes all changes thus far and notifies listeners
+         * of them.
+         */
+        @Override
+        public void run() {
+            getReadWriteLock().writeLock().lock();
+            try {
+                // take the pending changes, writers to the source wait meanwhile
+                source.getReadWriteLock().readLock().lock();
+                try {
+                    updates.beginEvent(true);
+                    pendingUpdates.commitEvent();
+                    scheduled = false;
+                } finally {
+                    source.getReadWriteLock().readLock().unlock();
+                }
+
+                // notify listeners without blocking writers to the source
+                updates.commitEvent();
+            } finally {
+                getReadWriteLock().writeLock().unlock();
+            }
+        }
+
+        /**
+         * Update local state as a consequence of the pending changes.
+         */
+        @Override
+        public void listChanged(ListEvent<E> listChanges) {
+            updates.forwardEvent(listChanges);
+            localCache = GlazedListsImpl.applyChangeToCache(source, listChanges, localCache);
+        }
+    }
+}
@@ -4,12 +4,15 @@
 package ca.odell.glazedlists.impl;
 
 import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.impl.adt.IntArrayList;
 
 import java.util.*;
 
 /**
  * Implementation of Eugene W. Myer's paper, "An O(ND) Difference Algorithm and
- * Its Variations", the same algorithm found in GNU diff.
+ * Its Variations", the same algorithm found in GNU diff. This uses the linear
+ * space refinement of the algorithm, so diffing large lists does not require
+ * memory proportional to the number of differences.
  *
  * <p>Note that this is a cleanroom implementation of this popular algorithm
  * that is particularly suited for the Java programmer. The variable names are
@@ -20,13 +23,44 @@ import java.util.*;
  */
 public final class Diff {
 
+    /**
+     * The number of comparisons per element that the search for the middle
+     * snake of a region may make before the region is split at the furthest
+     * point reached instead.
+     */
+    private static final int COMPARISONS_PER_ELEMENT = 16;
+
+    /**
+     * The number of comparisons that the search for the middle snake of any
+     * region may make, so that small regions are always diffed exactly.
+     */
+    private static final int MIN_COMPARISONS = 1 << 16;
+
+    /**
+     * The number of comparisons per element that diffing two lists may make in
+     * total. The regions that remain once these are spent are matched position
+     * by position only.
+     */
+    private static final int TOTAL_COMPARISONS_PER_ELEMENT = 8 * COMPARISONS_PER_ELEMENT;
+
+    /**
+     * The fraction of the elements of both lists that may be unmatched in an
+     * inexact edit script before everything between the common prefix and
+     * suffix is replaced at once rather than edited.
+     */
+    private static final double MAX_UNMATCHED_FRACTION = 0.5;
+
     /**
      * Convenience method for {@link #replaceAll(EventList,List,boolean,Comparator)
      * replaceAll()} that uses {@link Object#equals(Object)} to determine
      * equality.
+     *
+     * <p>Since equality is consistent with {@link Object#hashCode()} here,
+     * regions that are too expensive to diff are first split at the elements
+     * that occur exactly once in both lists before being replaced.
      */
     public static <E> void replaceAll(EventList<E> target, List<E> source, boolean updates) {
-        replaceAll(target, source, updates, GlazedListsImpl.<E>equalsComparator());
+        replaceAll(target, source, updates, GlazedListsImpl.<E>equalsComparator(), true);
     }
 
     /**
@@ -34,6 +68,16 @@ public final class Diff {
      * complete contents of the source {@link EventList} while making as few
      * list changes as possible.
      *
+     * <p>The work spent is bounded by a number of comparisons proportional to
+     * the length of the lists. Regions that are too expensive to diff exactly
+     * are split at the furthest points reached, so the changes may not be the
+     * fewest possible. Regions that remain once all of the comparisons are
+     * spent are matched position by position, and removed and inserted in bulk
+     * if most of their elements differ. When that leaves more than half of the
+     * elements of both lists unmatched, everything between the common prefix
+     * and suffix is removed and inserted at once instead, and the target is
+     * cleared and refilled if there's no such prefix or suffix.
+     *
      * @param comparator a {@link Comparator} to use to test only for equality.
      *      This comparator shall return 0 to signal that two elements are
      *      equal, and nonzero otherwise.
@@ -42,212 +86,484 @@ public final class Diff {
      */
     public static <E> void replaceAll(EventList<E> target, List<E> source,
                                       boolean updates, Comparator<E> comparator) {
+        replaceAll(target, source, updates, comparator, false);
+    }
+
+    /**
+     * Replace the contents of the target with the source, optionally using
+     * hashing to find unique elements when the comparator is consistent with
+     * {@link Object#equals(Object)}.
+     */
+    private static <E> void replaceAll(EventList<E> target, List<E> source,
+                                       boolean updates, Comparator<E> comparator, boolean hashable) {
         DiffMatcher listDiffMatcher = new ListDiffMatcher<>(target, source, comparator);
-        List<Point> editScript = shortestEditScript(listDiffMatcher);
+        EditScript editScript = hashable ? new EditScript(listDiffMatcher, target, source) : new EditScript(listDiffMatcher);
+
+        // replace mostly different lists at once rather than edit by edit
+        IntArrayList matches = editScript.getMatches();
+        IntArrayList resets = editScript.getResets();
+        if(!resets.isEmpty() && replaceMostlyDifferent(target, source, updates, matches)) return;
 
         // target is x axis. Changes in X mean advance target index
         // source is y axis. Changes to y mean advance source index
         int targetIndex = 0;
         int sourceIndex = 0;
-
-        // walk through points, applying changes as they arrive
-        Point previousPoint = null;
-        for(Iterator<Point> i = editScript.iterator(); i.hasNext();) {
-            Point currentPoint = i.next();
-
-            // skip the first point
-            if(previousPoint == null) {
-                previousPoint = currentPoint;
-                continue;
+        int alphaIndex = 0;
+        int alphaLength = target.size();
+        int reset = 0;
+
+        // walk through the matched runs, applying the changes in between
+        for(int m = 0; m <= matches.size(); m += 3) {
+            boolean last = m == matches.size();
+            int matchX = last ? alphaLength : matches.get(m);
+            int matchY = last ? source.size() : matches.get(m + 1);
+            int matchLength = last ? 0 : matches.get(m + 2);
+            int deletes = matchX - alphaIndex;
+            int inserts = matchY - sourceIndex;
+
+            // replace regions that were too expensive to diff in bulk
+            boolean bulk = false;
+            while(reset < resets.size() && resets.get(reset) < matchX) {
+                bulk = true;
+                reset += 2;
             }
 
-            // figure out what the relationship in the values is
-            int deltaX = currentPoint.getX() - previousPoint.getX();
-            int deltaY = currentPoint.getY() - previousPoint.getY();
-
-            // handle an update
-            if(deltaX == deltaY) {
-                if(updates) {
-                    for(int u = 0; u < deltaX; u++) {
-                        target.set(targetIndex + u, source.get(sourceIndex + u));
-                    }
+            // handle the removes
+            if(deletes > 0 && bulk) {
+                target.subList(targetIndex, targetIndex + deletes).clear();
+            } else {
+                for(int d = 0; d < deletes; d++) {
+                    target.remove(targetIndex);
                 }
-                targetIndex += deltaX;
-                sourceIndex += deltaY;
-
-            // handle a remove
-            } else if(deltaX == 1 && deltaY == 0) {
-                target.remove(targetIndex);
-
-            // handle an insert
-            } else if(deltaX == 0 && deltaY == 1) {
-                target.add(targetIndex, source.get(sourceIndex));
-                sourceIndex++;
-                targetIndex++;
+            }
 
-            // should never be reached
+            // handle the inserts
+            if(inserts > 0 && bulk) {
+                target.addAll(targetIndex, source.subList(sourceIndex, matchY));
+                targetIndex += inserts;
             } else {
-                throw new IllegalStateException();
+                for(int i = 0; i < inserts; i++) {
+                    target.add(targetIndex, source.get(sourceIndex + i));
+                    targetIndex++;
+                }
             }
+            sourceIndex = matchY;
+            alphaIndex = matchX;
 
-            // the next previous point is this current point
-            previousPoint = currentPoint;
+            // handle the updates
+            if(updates) {
+                for(int u = 0; u < matchLength; u++) {
+                    target.set(targetIndex + u, source.get(sourceIndex + u));
+                }
+            }
+            targetIndex += matchLength;
+            sourceIndex += matchLength;
+            alphaIndex += matchLength;
         }
     }
 
-
     /**
-     * Calculate the length of the longest common subsequence for the specified
-     * input.
+     * Replace everything between the common prefix and suffix of the target
+     * and source at once, if too few of their elements are matched to edit
+     * the target change by change.
+     *
+     * @return <code>false</code> if enough elements are matched to edit the
+     *      target instead
      */
-    private static List<Point> shortestEditScript(DiffMatcher input) {
-        // calculate limits based on the size of the input matcher
-        int N = input.getAlphaLength();
-        int M = input.getBetaLength();
-        Point maxPoint = new Point(N, M);
-        int maxSteps = N + M;
-
-        // use previous round furthest reaching D-path to determine the
-        // new furthest reaching (D+1)-path
-        Map<Integer,Point> furthestReachingPoints = new HashMap<>();
-
-        // walk through in stages, each stage adding one non-diagonal.
-        // D == count of non-diagonals in current stage
-        for(int D = 0; D <= maxSteps; D++) {
-
-            // exploit diagonals in order to save storing both X and Y
-            // diagonal k means every point on k, (k = x - y)
-            for(int k = -D; k <= D; k += 2) {
-                // the furthest reaching D-path on the left and right diagonals
-                // either of these may be null. The terms 'below left' and 'above
-                // right' refer to the diagonals that the points are on and may
-                // not be representative of the point positions
-                Point belowLeft = furthestReachingPoints.get(new Integer(k - 1));
-                Point aboveRight = furthestReachingPoints.get(new Integer(k + 1));
-
-                // the new furthest reaching point to create
-                Point point;
-
-                // first round: we have matched zero in word X
-                if(furthestReachingPoints.isEmpty()) {
-                    point = new Point(0, 0);
-
-                // if this is the leftmost diagonal, or the left edge is
-                // further than the right edge, our new X is that value and
-                // our y is one greater (shift verically by one)
-                } else if(k == -D || (k != D && belowLeft.getX() < aboveRight.getX())) {
-                    point = aboveRight.createDeltaPoint(0, 1);
-
-                // if the right edge is further than the left edge, use that
-                // x and keep y the same (shift horizontally by one)
-                } else {
-                    point = belowLeft.createDeltaPoint(1, 0);
-                }
-
-                // match as much diagonal as possible from the previous endpoint
-                while(point.isLessThan(maxPoint) && input.matchPair(point.getX(), point.getY())) {
-                    point = point.incrementDiagonally();
-                }
-
-                // save this furthest reaching path
-                furthestReachingPoints.put(new Integer(k), point);
-
-                // if we're past the end, we have a solution!
-                if(point.isEqualToOrGreaterThan(maxPoint)) {
-                    return point.trail();
-                }
+    private static <E> boolean replaceMostlyDifferent(EventList<E> target, List<E> source, boolean updates, IntArrayList matches) {
+        long matched = 0;
+        for(int m = 2; m < matches.size(); m += 3) {
+            matched += matches.get(m);
+        }
+        long unmatched = (long)target.size() + source.size() - 2 * matched;
+        if(unmatched <= MAX_UNMATCHED_FRACTION * (target.size() + source.size())) return false;
+
+        // the common prefix and suffix are the first and last matched runs, if they touch the ends
+        int last = matches.size() - 3;
+        int prefix = !matches.isEmpty() && matches.get(0) == 0 && matches.get(1) == 0 ? matches.get(2) : 0;
+        int suffix = last >= 0 && matches.get(last) + matches.get(last + 2) == target.size()
+                && matches.get(last + 1) + matches.get(last + 2) == source.size() ? matches.get(last + 2) : 0;
+        if(last == 0 && prefix > 0) suffix = 0;
+
+        if(prefix == 0 && suffix == 0) {
+            target.clear();
+            target.addAll(source);
+            return true;
+        }
+        target.subList(prefix, target.size() - suffix).clear();
+        target.addAll(prefix, source.subList(prefix, source.size() - suffix));
+        if(updates) {
+            for(int u = 0; u < prefix; u++) {
+                target.set(u, source.get(u));
+            }
+            for(int u = target.size() - suffix; u < target.size(); u++) {
+                target.set(u, source.get(u));
             }
         }
-        // no solution was found
-        throw new IllegalStateException();
+        return true;
     }
 
     /**
-     * Models an X and Y point in a path. The top-left corner of the axis is the point (0,
-     * 0). This is the lowest point in both the x and y dimensions. Negative points are
-     * not allowed.
+     * Calculates the matching elements of two sequences in linear space.
+     *
+     * <p>The common prefix and suffix of each region are matched first. The
+     * remainder is split at the middle snake of its shortest edit script, as
+     * described in section 4b of Myer's paper, and both halves are diffed
+     * recursively. If the search for the middle snake runs out of comparisons,
+     * the region is split at the elements unique to both sequences, as in
+     * patience diff, or at the furthest points reached, as GNU diff does. Once
+     * the comparisons for the complete sequences are spent, the regions that
+     * remain are matched position by position.
      */
-    private static class Point {
-        private int x = 0;
-        private int y = 0;
-        private Point predecessor = null;
+    static class EditScript {
+        private final DiffMatcher input;
+        private final List<?> alpha;
+        private final List<?> beta;
+
+        /** the number of comparisons that may still be made */
+        private long budget;
+
+        /** matched runs as alpha index, beta index and length, in increasing order */
+        private final IntArrayList matches = new IntArrayList();
+
+        /** the alpha start and end of regions to replace completely, in increasing order */
+        private final IntArrayList resets = new IntArrayList();
 
         /**
-         * Create a new point with the specified coordinates and no predecessor.
+         * Calculate the edit script for the specified input.
          */
-        public Point(int x, int y) {
-            this.x = x;
-            this.y = y;
+        public EditScript(DiffMatcher input) {
+            this(input, null, null);
         }
 
         /**
-         * Creates a new point from this point by shifting its values as specified. The
-         * new point keeps a reference to its source in order to create a path later.
+         * Calculate the edit script for the specified input, using the
+         * specified lists to find unique elements. Their elements must be
+         * equal exactly when the input matches them.
          */
-        public Point createDeltaPoint(int deltaX, int deltaY) {
-            Point result = new Point(x + deltaX, y + deltaY);
-            result.predecessor = this;
-            return result;
+        public EditScript(DiffMatcher input, List<?> alpha, List<?> beta) {
+            this.input = input;
+            this.alpha = alpha;
+            this.beta = beta;
+            int N = input.getAlphaLength();
+            int M = input.getBetaLength();
+            this.budget = MIN_COMPARISONS + (long)TOTAL_COMPARISONS_PER_ELEMENT * (N + M);
+            diffRegion(0, N, 0, M, alpha != null);
         }
 
         /**
-         * Shifts <code>x</code> and <code>y</code> values down and to the
-         * right by one.
+         * Get the matched runs, as triples of alpha index, beta index and length.
          */
-        public Point incrementDiagonally() {
-            Point result = createDeltaPoint(1, 1);
+        public IntArrayList getMatches() {
+            return matches;
+        }
 
-            // shortcut to the predecessor (to save memory!)
-            if(predecessor != null) {
-                int deltaX = result.x - predecessor.x;
-                int deltaY = result.y - predecessor.y;
+        /**
+         * Get the regions to replace completely, as pairs of alpha start and
+         * end indices. These regions never contain matches.
+         */
+        public IntArrayList getResets() {
+            return resets;
+        }
 
-                if(deltaX == deltaY) {
-                    result.predecessor = this.predecessor;
+        /**
+         * Match the elements of the specified region.
+         */
+        private void diffRegion(int alphaStart, int alphaEnd, int betaStart, int betaEnd, boolean anchors) {
+            // match the common prefix
+            int prefix = 0;
+            while(alphaStart + prefix < alphaEnd && betaStart + prefix < betaEnd
+                    && matchPair(alphaStart + prefix, betaStart + prefix)) {
+                prefix++;
+            }
+            addMatch(alphaStart, betaStart, prefix);
+            alphaStart += prefix;
+            betaStart += prefix;
+
+            // find the common suffix
+            int suffix = 0;
+            while(alphaStart < alphaEnd - suffix && betaStart < betaEnd - suffix
+                    && matchPair(alphaEnd - suffix - 1, betaEnd - suffix - 1)) {
+                suffix++;
+            }
+            alphaEnd -= suffix;
+            betaEnd -= suffix;
+
+            // diff what remains in between
+            if(alphaStart < alphaEnd && betaStart < betaEnd) {
+                if(budget > 0) {
+                    bisect(alphaStart, alphaEnd, betaStart, betaEnd, anchors);
+                } else if(!(anchors && anchor(alphaStart, alphaEnd, betaStart, betaEnd))) {
+                    scan(alphaStart, alphaEnd, betaStart, betaEnd);
                 }
             }
 
-            return result;
+            // match the common suffix
+            addMatch(alphaEnd, betaEnd, suffix);
         }
 
-        public int getX() {
-            return x;
-        }
+        /**
+         * Find the middle snake of the specified region and diff the regions
+         * before and after it. If that takes too many comparisons, split the
+         * region elsewhere.
+         */
+        private void bisect(int alphaStart, int alphaEnd, int betaStart, int betaEnd, boolean anchors) {
+            int N = alphaEnd - alphaStart;
+            int M = betaEnd - betaStart;
+            int delta = N - M;
+            boolean odd = ((N + M) & 1) == 1;
+
+            // the search stops once the budget falls to this
+            long allowance = Math.max(MIN_COMPARISONS, (long)COMPARISONS_PER_ELEMENT * (N + M));
+            long stop = Math.max(0, budget - allowance);
+
+            // the points furthest from their start reached by each search
+            int forwardX = 0;
+            int forwardY = 0;
+            int reverseX = 0;
+            int reverseY = 0;
+
+            // the furthest reaching x of forward and reverse paths on each
+            // diagonal k, which is x - y for forward and reverse paths alike
+            int size = 2 * Math.min(N, M) + 2;
+            int[] forward = new int[size];
+            int[] reverse = new int[size];
+
+            for(int h = 0; h <= (N + M + 1) / 2; h++) {
+                // give up on the middle snake, and split where it's cheap instead
+                if(h > 1 && budget <= stop) {
+                    if(anchors && anchor(alphaStart, alphaEnd, betaStart, betaEnd)) return;
+
+                    // if the points cross, split at the furthest one only
+                    if(forwardX > N - reverseX || forwardY > M - reverseY) {
+                        if(forwardX + forwardY >= reverseX + reverseY) {
+                            reverseX = 0;
+                            reverseY = 0;
+                        } else {
+                            forwardX = 0;
+                            forwardY = 0;
+                        }
+                    }
+                    diffRegion(alphaStart, alphaStart + forwardX, betaStart, betaStart + forwardY, false);
+                    diffRegion(alphaStart + forwardX, alphaEnd - reverseX, betaStart + forwardY, betaEnd - reverseY, false);
+                    diffRegion(alphaEnd - reverseX, alphaEnd, betaEnd - reverseY, betaEnd, false);
+                    return;
+                }
 
-        public int getY() {
-            return y;
+                for(int direction = 0; direction < 2; direction++) {
+                    boolean isForward = direction == 0;
+                    int[] paths = isForward ? forward : reverse;
+                    int[] opposite = isForward ? reverse : forward;
+
+                    for(int k = -(h - 2 * Math.max(0, h - M)); k <= h - 2 * Math.max(0, h - N); k += 2) {
+                        // extend the path on the neighbouring diagonal that reaches furthest
+                        int x;
+                        if(k == -h || (k != h && paths[Math.floorMod(k - 1, size)] < paths[Math.floorMod(k + 1, size)])) {
+                            x = paths[Math.floorMod(k + 1, size)];
+                        } else {
+                            x = paths[Math.floorMod(k - 1, size)] + 1;
+                        }
+                        int y = x - k;
+                        int snakeX = x;
+                        int snakeY = y;
+                        budget--;
+
+                        // follow the diagonal as far as possible
+                        if(isForward) {
+                            while(x < N && y < M && matchPair(alphaStart + x, betaStart + y)) {
+                                x++;
+                                y++;
+                            }
+                        } else {
+                            while(x < N && y < M && matchPair(alphaEnd - x - 1, betaEnd - y - 1)) {
+                                x++;
+                                y++;
+                            }
+                        }
+                        paths[Math.floorMod(k, size)] = x;
+                        if(x + y < N + M) {
+                            if(isForward && x + y > forwardX + forwardY) {
+                                forwardX = x;
+                                forwardY = y;
+                            } else if(!isForward && x + y > reverseX + reverseY) {
+                                reverseX = x;
+                                reverseY = y;
+                            }
+                        }
+
+                        // if the paths overlap, this diagonal is the middle snake
+                        int z = delta - k;
+                        int overlap = isForward ? 1 : 0;
+                        if(odd == isForward && z >= -(h - overlap) && z <= h - overlap
+                                && x + opposite[Math.floorMod(z, size)] >= N) {
+                            int startX = isForward ? snakeX : N - x;
+                            int startY = isForward ? snakeY : M - y;
+                            int endX = isForward ? x : N - snakeX;
+                            int endY = isForward ? y : M - snakeY;
+                            diffRegion(alphaStart, alphaStart + startX, betaStart, betaStart + startY, false);
+                            addMatch(alphaStart + startX, betaStart + startY, endX - startX);
+                            diffRegion(alphaStart + endX, alphaEnd, betaStart + endY, betaEnd, false);
+                            return;
+                        }
+                    }
+                }
+            }
+            // no solution was found
+            throw new IllegalStateException();
         }
 
-        public boolean isLessThan(Point other) {
-            return x < other.x && y < other.y;
+        /**
+         * Match the elements of the specified region at the same offsets from
+         * its start up to some point, and at the same offsets from its end
+         * after that point. This finds the elements that were changed in place
+         * around one run of insertions or deletions, in linear time. The
+         * region is replaced completely if fewer than half of them match.
+         */
+        private void scan(int alphaStart, int alphaEnd, int betaStart, int betaEnd) {
+            int length = Math.min(alphaEnd - alphaStart, betaEnd - betaStart);
+            int alphaOffset = alphaEnd - length;
+            int betaOffset = betaEnd - length;
+
+            // matches aligned at the start and at the end, and the best switch between them
+            boolean[] startMatched = new boolean[length];
+            boolean[] endMatched = new boolean[length];
+            int endMatches = 0;
+            for(int i = 0; i < length; i++) {
+                startMatched[i] = input.matchPair(alphaStart + i, betaStart + i);
+                endMatched[i] = input.matchPair(alphaOffset + i, betaOffset + i);
+                if(endMatched[i]) endMatches++;
+            }
+            int bestSwitch = 0;
+            int bestMatches = endMatches;
+            for(int i = 0, matches = endMatches; i < length; i++) {
+                if(startMatched[i]) matches++;
+                if(endMatched[i]) matches--;
+                if(matches > bestMatches) {
+                    bestSwitch = i + 1;
+                    bestMatches = matches;
+                }
+            }
+
+            if(bestMatches * 2 < length) {
+                resets.add(alphaStart);
+                resets.add(alphaEnd);
+                return;
+            }
+            for(int i = 0; i < length; i++) {
+                if(i < bestSwitch && startMatched[i]) addMatch(alphaStart + i, betaStart + i, 1);
+                else if(i >= bestSwitch && endMatched[i]) addMatch(alphaOffset + i, betaOffset + i, 1);
+            }
         }
 
-        public boolean isEqualToOrGreaterThan(Point other) {
-            return x >= other.x && y >= other.y;
+        /**
+         * Match the elements that occur exactly once in both halves of the
+         * specified region and diff the regions in between.
+         *
+         * @return false if there are no such elements.
+         */
+        private boolean anchor(int alphaStart, int alphaEnd, int betaStart, int betaEnd) {
+            // count the occurrences of each element
+            Map<Object,Occurrences> occurrences = new HashMap<>();
+            for(int a = alphaStart; a < alphaEnd; a++) {
+                Object element = alpha.get(a);
+                Occurrences elementOccurrences = occurrences.get(element);
+                if(elementOccurrences == null) {
+                    elementOccurrences = new Occurrences();
+                    occurrences.put(element, elementOccurrences);
+                }
+                elementOccurrences.alphaCount++;
+            }
+            for(int b = betaStart; b < betaEnd; b++) {
+                Occurrences elementOccurrences = occurrences.get(beta.get(b));
+                if(elementOccurrences == null) continue;
+                elementOccurrences.betaCount++;
+                elementOccurrences.betaIndex = b;
+            }
+
+            // collect the unique pairs in alpha order
+            IntArrayList uniqueAlpha = new IntArrayList();
+            IntArrayList uniqueBeta = new IntArrayList();
+            for(int a = alphaStart; a < alphaEnd; a++) {
+                Occurrences elementOccurrences = occurrences.get(alpha.get(a));
+                if(elementOccurrences.alphaCount == 1 && elementOccurrences.betaCount == 1) {
+                    uniqueAlpha.add(a);
+                    uniqueBeta.add(elementOccurrences.betaIndex);
+                }
+            }
+            if(uniqueAlpha.isEmpty()) return false;
+
+            // keep the longest run of pairs in beta order, by patience sorting
+            int[] pileTops = new int[uniqueAlpha.size()];
+            int[] predecessors = new int[uniqueAlpha.size()];
+            int piles = 0;
+            for(int p = 0; p < uniqueAlpha.size(); p++) {
+                int betaIndex = uniqueBeta.get(p);
+                int low = 0;
+                int high = piles;
+                while(low < high) {
+                    int middle = (low + high) >>> 1;
+                    if(uniqueBeta.get(pileTops[middle]) < betaIndex) low = middle + 1;
+                    else high = middle;
+                }
+                predecessors[p] = low > 0 ? pileTops[low - 1] : -1;
+                pileTops[low] = p;
+                if(low == piles) piles++;
+            }
+            int[] anchors = new int[piles];
+            for(int p = pileTops[piles - 1], a = piles - 1; p != -1; p = predecessors[p], a--) {
+                anchors[a] = p;
+            }
+
+            // diff the regions between the anchors
+            int alphaIndex = alphaStart;
+            int betaIndex = betaStart;
+            for(int a = 0; a < anchors.length; a++) {
+                int anchorAlpha = uniqueAlpha.get(anchors[a]);
+                int anchorBeta = uniqueBeta.get(anchors[a]);
+                diffRegion(alphaIndex, anchorAlpha, betaIndex, anchorBeta, false);
+                addMatch(anchorAlpha, anchorBeta, 1);
+                alphaIndex = anchorAlpha + 1;
+                betaIndex = anchorBeta + 1;
+            }
+            diffRegion(alphaIndex, alphaEnd, betaIndex, betaEnd, false);
+            return true;
         }
 
-        @Override
-        public String toString() {
-            return "(" + x + "," + y + ")";
+        /**
+         * Test whether the specified elements match, spending one comparison.
+         */
+        private boolean matchPair(int alphaIndex, int betaIndex) {
+            budget--;
+            return input.matchPair(alphaIndex, betaIndex);
         }
 
         /**
-         * Get a trail from the original point to this point. This is a list of
-         * all points created via a series of {@link #createDeltaPoint(int,int)}
-         * calls.
+         * Record a matched run, joining it with the previous run if they are
+         * adjacent.
          */
-        public List<Point> trail() {
-            List<Point> reverse = new ArrayList<>();
-            Point current = this;
-            while (current != null) {
-                reverse.add(current);
-                current = current.predecessor;
+        private void addMatch(int alphaIndex, int betaIndex, int length) {
+            if(length == 0) return;
+            int last = matches.size() - 3;
+            if(last >= 0 && matches.get(last) + matches.get(last + 2) == alphaIndex
+                    && matches.get(last + 1) + matches.get(last + 2) == betaIndex) {
+                matches.set(last + 2, matches.get(last + 2) + length);
+            } else {
+                matches.add(alphaIndex);
+                matches.add(betaIndex);
+                matches.add(length);
             }
-            Collections.reverse(reverse);
-            return reverse;
         }
     }
 
+    /**
+     * How often an element occurs in both halves of a region.
+     */
+    private static class Occurrences {
+        private int alphaCount = 0;
+        private int betaCount = 0;
+        private int betaIndex = -1;
+    }
+
     /**
      * Determines if the values at the specified points match or not.
      *
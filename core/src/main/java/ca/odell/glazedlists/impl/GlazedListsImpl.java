@@ -6,6 +6,7 @@ package ca.odell.glazedlists.impl;
 import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.FunctionList;
+import ca.odell.glazedlists.event.ListEvent;
 import ca.odell.glazedlists.impl.text.LatinDiacriticsStripper;
 import ca.odell.glazedlists.impl.adt.KeyedCollection;
 
@@ -106,6 +107,160 @@ public final class GlazedListsImpl {
         }
     }
 
+    /**
+     * Match the elements of the target {@link List} to the elements of the
+     * source {@link Collection} that have the same key, using a hash join.
+     *
+     * <p>Matched target elements are kept in their current order. If the
+     * source reorders them, only the longest run in increasing order is kept
+     * and the others are treated as a remove and an insert.
+     *
+     * @return for each source element, the index of the target element it
+     *      replaces or <code>-1</code> if it is new. The matched target indices
+     *      increase, and target elements that aren't matched are removed.
+     */
+    public static <E> int[] matchByKey(List<E> target, Collection<? extends E> source, FunctionList.Function<? super E,?> keyFunction) {
+        // index the target by key, the first occurrence of a key wins
+        Map<Object,Integer> targetIndices = new HashMap<>(target.size() * 4 / 3 + 1);
+        int targetIndex = 0;
+        for(E element : target) {
+            targetIndices.putIfAbsent(keyFunction.evaluate(element), Integer.valueOf(targetIndex));
+            targetIndex++;
+        }
+
+        // probe with the source, claiming each target element at most once
+        int[] matches = new int[source.size()];
+        boolean increasing = true;
+        int previousMatch = -1;
+        int sourceIndex = 0;
+        for(E element : source) {
+            Integer match = targetIndices.remove(keyFunction.evaluate(element));
+            if(match == null) {
+                matches[sourceIndex] = -1;
+            } else {
+                matches[sourceIndex] = match.intValue();
+                if(match.intValue() < previousMatch) increasing = false;
+                previousMatch = match.intValue();
+            }
+            sourceIndex++;
+        }
+
+        // keep the longest increasing run of matches, by patience sorting
+        if(!increasing) {
+            int[] pileTops = new int[matches.length];
+            int[] predecessors = new int[matches.length];
+            int piles = 0;
+            for(int m = 0; m < matches.length; m++) {
+                if(matches[m] == -1) continue;
+                int low = 0;
+                int high = piles;
+                while(low < high) {
+                    int middle = (low + high) >>> 1;
+                    if(matches[pileTops[middle]] < matches[m]) low = middle + 1;
+                    else high = middle;
+                }
+                predecessors[m] = low > 0 ? pileTops[low - 1] : -1;
+                pileTops[low] = m;
+                if(low == piles) piles++;
+            }
+            boolean[] kept = new boolean[matches.length];
+            for(int m = piles > 0 ? pileTops[piles - 1] : -1; m != -1; m = predecessors[m]) {
+                kept[m] = true;
+            }
+            for(int m = 0; m < matches.length; m++) {
+                if(!kept[m]) matches[m] = -1;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Replace all elements in the target {@link EventList} with the elements in
+     * the source {@link Collection}, as matched by {@link #matchByKey}.
+     * Matched elements that are equal to their replacement are left as is.
+     */
+    public static <E> void replaceAllByKey(EventList<E> target, Collection<? extends E> source, int[] matches) {
+        int targetIndex = 0;
+        int originalIndex = 0;
+        int sourceIndex = 0;
+        for(E element : source) {
+            int match = matches[sourceIndex++];
+
+            // the source element is new, insert it
+            if(match == -1) {
+                target.add(targetIndex++, element);
+                continue;
+            }
+
+            // remove the target elements up to the match, and update it
+            for(; originalIndex < match; originalIndex++) {
+                target.remove(targetIndex);
+            }
+            if(!Objects.equals(target.get(targetIndex), element)) {
+                target.set(targetIndex, element);
+            }
+            targetIndex++;
+            originalIndex++;
+        }
+
+        // remove the target elements after the last match
+        for(int i = target.size() - 1; i >= targetIndex; i--) {
+            target.remove(i);
+        }
+    }
+
+    /**
+     * Apply the {@link ListEvent} to a snapshot of its source {@link EventList}.
+     *
+     * @param source the EventList whose changes are being applied
+     * @param listChanges the list of changes from the <code>source</code> to be applied
+     * @param localCache a private snapshot of the <code>source</code> which
+     *      is now out of sync with that source list and will be repaired
+     * @return a new List that is an up-to-date snapshot of the source
+     */
+    public static <E> List<E> applyChangeToCache(EventList<E> source, ListEvent<E> listChanges, List<E> localCache) {
+        List<E> result = new ArrayList<>(source.size());
+
+        // cacheOffset is the running index delta between localCache and result
+        int resultIndex = 0;
+        int cacheOffset = 0;
+
+        while(true) {
+
+            // find the next change (or the end of the list)
+            int changeIndex;
+            int changeType;
+            if(listChanges.next()) {
+                changeIndex = listChanges.getIndex();
+                changeType = listChanges.getType();
+            } else {
+                changeIndex = source.size();
+                changeType = -1;
+            }
+
+            // perform all the updates before this change
+            for(; resultIndex < changeIndex; resultIndex++) {
+                result.add(resultIndex, localCache.get(resultIndex + cacheOffset));
+            }
+
+            // perform this change
+            if(changeType == ListEvent.DELETE) {
+                cacheOffset++;
+            } else if(changeType == ListEvent.UPDATE) {
+                result.add(resultIndex, source.get(changeIndex));
+                resultIndex++;
+            } else if(changeType == ListEvent.INSERT) {
+                result.add(resultIndex, source.get(changeIndex));
+                resultIndex++;
+                cacheOffset--;
+            } else if(changeType == -1) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Get a character mapper array which strips the diacritics from Latin
      * characters in order to normalize word spellings between Latin-based
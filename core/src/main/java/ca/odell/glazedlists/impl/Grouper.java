@@ -72,7 +72,14 @@ public class Grouper<E> {
     public void setComparator(Comparator<? super E> comparator) {
         if(this.comparator == comparator) return;
         this.comparator = comparator;
+        rebuild();
+    }
 
+    /**
+     * Rebuild the grouping state from scratch, for example after the complete
+     * contents of the {@link SortedList} have been replaced.
+     */
+    public void rebuild() {
         // Populate the barcode by examining adjacent entries within the
         // source SortedList to check if they belong to the same group.
         barcode = new Barcode();
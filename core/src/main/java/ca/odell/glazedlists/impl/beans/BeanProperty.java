@@ -3,6 +3,9 @@
 /*                                                     O'Dell Engineering Ltd.*/
 package ca.odell.glazedlists.impl.beans;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -39,6 +42,13 @@ public class BeanProperty<T> {
     /** the chain of methods for the setter */
     private List<Method> setterChain = null;
 
+    /** the getter chain as an array, for getting many values at once */
+    private Method[] getterArray = null;
+
+    /** the getter as a handle that returns an unboxed double, or <code>null</code> */
+    private MethodHandle doubleGetter = null;
+    private boolean doubleGetterResolved = false;
+
     /** commonly used paramters */
     private static final Object[] EMPTY_ARGUMENTS = new Object[0];
     private static final Class[] EMPTY_PARAMETER_TYPES = new Class[0];
@@ -262,8 +272,116 @@ public class BeanProperty<T> {
             se.initCause(e);
             throw se;
         } catch(InvocationTargetException e) {
-            throw new UndeclaredThrowableException(e.getCause());
+            throw getterFailure(e.getCause());
+        }
+    }
+
+    /**
+     * Gets the values of this property for the members of the specified list
+     * between <code>from</code>, inclusive, and <code>to</code>, exclusive.
+     * The value of a <code>null</code> member is <code>null</code>.
+     *
+     * @param values receives the value of the member <code>from + i</code> at
+     *      index <code>i</code>
+     */
+    public void getAll(List<? extends T> members, int from, int to, Object[] values) {
+        if(!isReadable()) throw new IllegalStateException("Property " + propertyName + " of " + beanClass + " not readable");
+
+        // the identity property simply reflects the members back unchanged
+        if (identityProperty) {
+            for(int i = from; i < to; i++) values[i - from] = members.get(i);
+            return;
+        }
+
+        if(getterArray == null) getterArray = getterChain.toArray(new Method[getterChain.size()]);
+        final Method[] getters = getterArray;
+        try {
+            for(int i = from; i < to; i++) {
+                // do all the getters in sequence, stopping at a null
+                Object currentMember = members.get(i);
+                for(int g = 0; g < getters.length && currentMember != null; g++) {
+                    currentMember = getters[g].invoke(currentMember, EMPTY_ARGUMENTS);
+                }
+                values[i - from] = currentMember;
+            }
+        } catch(IllegalAccessException e) {
+            SecurityException se = new SecurityException();
+            se.initCause(e);
+            throw se;
+        } catch(InvocationTargetException e) {
+            throw getterFailure(e.getCause());
+        }
+    }
+
+    /**
+     * Gets the values of this numeric property for the members of the
+     * specified list between <code>from</code>, inclusive, and
+     * <code>to</code>, exclusive. Values that are not {@link Number}s,
+     * including those of <code>null</code> members, are {@link Double#NaN}.
+     *
+     * <p>When this property is a single getter returning a primitive number,
+     * the values are read through a {@link MethodHandle} without boxing them.
+     *
+     * @param values receives the value of the member <code>from + i</code> at
+     *      index <code>i</code>
+     */
+    public void getAllDoubles(List<? extends T> members, int from, int to, double[] values) {
+        if(!isReadable()) throw new IllegalStateException("Property " + propertyName + " of " + beanClass + " not readable");
+
+        final MethodHandle getter = getDoubleGetter();
+
+        // box the values through the reflective getters
+        if(getter == null) {
+            final Object[] boxed = new Object[to - from];
+            getAll(members, from, to, boxed);
+            for(int i = 0; i < boxed.length; i++) {
+                values[i] = boxed[i] instanceof Number ? ((Number)boxed[i]).doubleValue() : Double.NaN;
+            }
+            return;
+        }
+
+        try {
+            for(int i = from; i < to; i++) {
+                final Object member = members.get(i);
+                values[i - from] = member == null ? Double.NaN : (double)getter.invokeExact(member);
+            }
+        } catch(Throwable e) {
+            throw getterFailure(e);
+        }
+    }
+
+    /**
+     * Gets the exception to throw for the failure of a getter. Runtime
+     * exceptions and errors are thrown unchanged, and checked exceptions are
+     * wrapped in an {@link UndeclaredThrowableException}.
+     */
+    private static RuntimeException getterFailure(Throwable cause) {
+        if(cause instanceof Error) throw (Error)cause;
+        if(cause instanceof RuntimeException) return (RuntimeException)cause;
+        return new UndeclaredThrowableException(cause);
+    }
+
+    /**
+     * Get the getter of this property as a handle from {@link Object} to
+     * <code>double</code>, or <code>null</code> if the property isn't a single
+     * getter returning a primitive number. The handle has the same access as
+     * the reflective getters.
+     */
+    private MethodHandle getDoubleGetter() {
+        if(doubleGetterResolved) return doubleGetter;
+        doubleGetterResolved = true;
+
+        if(identityProperty || getterChain.size() != 1) return null;
+        final Method getter = getterChain.get(0);
+        final Class returnType = getter.getReturnType();
+        if(!returnType.isPrimitive() || returnType == boolean.class || returnType == char.class || returnType == void.class) return null;
+
+        try {
+            doubleGetter = MethodHandles.lookup().unreflect(getter).asType(MethodType.methodType(double.class, Object.class));
+        } catch(IllegalAccessException e) {
+            // fall back to reflection, which fails the same way when called
         }
+        return doubleGetter;
     }
 
     /**
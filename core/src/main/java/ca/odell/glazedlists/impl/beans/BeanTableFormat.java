@@ -5,10 +5,13 @@ package ca.odell.glazedlists.impl.beans;
 
 import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.gui.AdvancedTableFormat;
+import ca.odell.glazedlists.gui.ColumnarTableFormat;
 import ca.odell.glazedlists.gui.WritableTableFormat;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Collections;
 
@@ -19,7 +22,7 @@ import java.util.Collections;
  * @author <a href="mailto:jesse@swank.ca">Jesse Wilson</a>
  * @author <a href="mailto:andrea.aime@aliceposta.it">Andrea Aime</a>
  */
-public class BeanTableFormat<E> implements WritableTableFormat<E>, AdvancedTableFormat<E> {
+public class BeanTableFormat<E> implements WritableTableFormat<E>, AdvancedTableFormat<E>, ColumnarTableFormat<E> {
 
     /** methods for extracting field values */
     protected BeanProperty<E>[] beanProperties = null;
@@ -143,6 +146,58 @@ public class BeanTableFormat<E> implements WritableTableFormat<E>, AdvancedTable
     }
 
 
+    // ColumnarTableFormat // // // // // // // // // // // // // // // // // //
+
+    /**
+     * Gets the values of the specified field for a range of rows at once,
+     * resolving the property's getters once for the whole range. Rows that
+     * are <code>null</code> have <code>null</code> values.
+     */
+    @Override
+    public void getColumnValues(List<? extends E> rows, int from, int to, int column, Object[] values) {
+        // load the property descriptors on first request
+        if(beanProperties == null && !loadPropertyDescriptors(rows, from, to)) {
+            Arrays.fill(values, 0, to - from, null);
+            return;
+        }
+
+        // get the property
+        beanProperties[column].getAll(rows, from, to, values);
+    }
+
+    /**
+     * Gets the values of the specified numeric field for a range of rows at
+     * once. Primitive getters are read without boxing their values.
+     */
+    @Override
+    public void getColumnDoubles(List<? extends E> rows, int from, int to, int column, double[] values) {
+        // load the property descriptors on first request
+        if(beanProperties == null && !loadPropertyDescriptors(rows, from, to)) {
+            Arrays.fill(values, 0, to - from, Double.NaN);
+            return;
+        }
+
+        // get the property
+        beanProperties[column].getAllDoubles(rows, from, to, values);
+    }
+
+    /**
+     * Loads the property descriptors from the class of the first row that
+     * isn't <code>null</code> in the specified range.
+     *
+     * @return <code>false</code> if every row of the range is <code>null</code>
+     */
+    private boolean loadPropertyDescriptors(List<? extends E> rows, int from, int to) {
+        for(int i = from; i < to; i++) {
+            final E row = rows.get(i);
+            if(row == null) continue;
+            loadPropertyDescriptors((Class<E>) row.getClass());
+            return true;
+        }
+        return false;
+    }
+
+
     // WritableTableFormat // // // // // // // // // // // // // // // // // //
 
     /**
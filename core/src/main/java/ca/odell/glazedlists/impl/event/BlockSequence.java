@@ -27,6 +27,11 @@ public class BlockSequence<E> {
     private List<E> oldValues = new ArrayList<>();
     private List<E> newValues = new ArrayList<>();
 
+    /** true while the changes are only deletes at index 0 followed by inserts growing from index 0 */
+    private boolean replacementShape = true;
+    /** the number of elements inserted while the sequence still has the replacement shape */
+    private int replacementInserts = 0;
+
     /**
      * @param startIndex the first updated element, inclusive
      * @param endIndex the last index, exclusive
@@ -90,12 +95,14 @@ public class BlockSequence<E> {
 
         // concatenate this change on to the previous one
         } else if(lastChangedIndex == startIndex && lastType == type && oldValue == lastOldValue && newValue == lastNewValue) {
+            trackReplacementShape(type, startIndex, endIndex);
             int newLength = (lastEndIndex - lastStartIndex) + (endIndex - startIndex);
             ends.set(size - 1, lastStartIndex + newLength);
             return true;
 
         // add this change to the end of the list
         } else {
+            trackReplacementShape(type, startIndex, endIndex);
             starts.add(startIndex);
             ends.add(endIndex);
             types.add(type);
@@ -105,11 +112,39 @@ public class BlockSequence<E> {
         }
     }
 
+    /**
+     * Keep track of whether the accepted changes still delete the list's
+     * previous contents and insert its new contents, in that order.
+     */
+    private void trackReplacementShape(int type, int startIndex, int endIndex) {
+        if(!replacementShape) return;
+        if(type == ListEvent.DELETE && startIndex == 0 && replacementInserts == 0) return;
+        if(type == ListEvent.INSERT && startIndex == replacementInserts) {
+            replacementInserts += endIndex - startIndex;
+            return;
+        }
+        replacementShape = false;
+    }
+
+    /**
+     * Tests whether this sequence replaces the complete contents of a list.
+     * That is the case when all changes are deletes at index 0 followed by
+     * inserts from index 0 that cover the list's current size. Nothing of the
+     * list's previous contents survives such a sequence.
+     *
+     * @param size the size of the list after all changes have been applied
+     */
+    public boolean isReplacement(int size) {
+        return replacementShape && !types.isEmpty() && replacementInserts == size;
+    }
+
     public boolean isEmpty() {
         return types.isEmpty();
     }
 
     public void reset() {
+        replacementShape = true;
+        replacementInserts = 0;
         starts.clear();
         ends.clear();
         types.clear();
@@ -0,0 +1,252 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+import ca.odell.glazedlists.matchers.TextMatcherEditor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This implementation of {@link MultiTextSearchStrategy} compiles all of its
+ * subtexts into a single Aho-Corasick automaton. Searching a text reads each of
+ * its characters once, regardless of the number of subtexts.
+ *
+ * <p>Characters are compared case-insensitively exactly as the single subtext
+ * strategies compare them: a character of the text, after mapping it with the
+ * optional character map, matches a character of a subtext if it equals that
+ * character of the subtext's upper case or lower case form. Subtexts whose
+ * upper or lower case form has a different length are not
+ * {@link #isSupported(String) supported}.
+ *
+ * <p>Since a character of the text may match characters of different subtexts
+ * that don't match each other, such as 'I' for both 'i' and '&#x131;', the trie of
+ * subtexts is not deterministic. The automaton is built from it by the subset
+ * construction. Each of its states is a set of prefixes of the subtexts, and
+ * the automaton is a table with a row for each state and a column for each
+ * distinct character of the subtexts' case forms. Characters that don't occur
+ * in any of them share a final column.
+ */
+public class AhoCorasickTextSearchStrategy implements MultiTextSearchStrategy {
+
+    /** one of {@link TextMatcherEditor#CONTAINS}, {@link TextMatcherEditor#STARTS_WITH} or {@link TextMatcherEditor#EXACT} */
+    private final int mode;
+
+    /** the strategy for mapping each character of the text, or <code>null</code> */
+    private final char[] characterMap;
+
+    /** the distinct characters of the subtexts' case forms, sorted */
+    private final char[] alphabet;
+
+    /** the column of each ASCII character, for speed */
+    private final int[] asciiColumns = new int[128];
+
+    /** the number of columns, one for each character of the alphabet plus one for all others */
+    private final int columns;
+
+    /** the next state for each state and column, or -1 if no subtext can be located any more */
+    private final int[] transitions;
+
+    /** the subtexts that end at each state */
+    private final long[] outputs;
+
+    /** the bits of all subtexts */
+    private final long allSubtexts;
+
+    /**
+     * Build an automaton that locates the given <code>subtexts</code>.
+     *
+     * @param mode one of {@link TextMatcherEditor#CONTAINS},
+     *      {@link TextMatcherEditor#STARTS_WITH} or {@link TextMatcherEditor#EXACT}
+     * @param subtexts the Strings to locate, at most {@link #MAX_SUBTEXTS},
+     *      each of which must be {@link #isSupported(String) supported}
+     * @param characterMap the strategy for mapping the characters of the text
+     *      before they are compared, or <code>null</code>
+     */
+    public AhoCorasickTextSearchStrategy(int mode, String[] subtexts, char[] characterMap) {
+        if(mode != TextMatcherEditor.CONTAINS && mode != TextMatcherEditor.STARTS_WITH && mode != TextMatcherEditor.EXACT)
+            throw new IllegalArgumentException("unsupported mode: " + mode);
+        if(subtexts.length > MAX_SUBTEXTS)
+            throw new IllegalArgumentException("at most " + MAX_SUBTEXTS + " subtexts are supported");
+
+        this.mode = mode;
+        this.characterMap = characterMap;
+
+        // find the case forms of the subtexts and collect their alphabet
+        final char[][] uppers = new char[subtexts.length][];
+        final char[][] lowers = new char[subtexts.length][];
+        int nodeCount = 1;
+        final StringBuilder alphabetBuilder = new StringBuilder();
+        for(int s = 0; s < subtexts.length; s++) {
+            if(!isSupported(subtexts[s]))
+                throw new IllegalArgumentException("unsupported subtext: " + subtexts[s]);
+            uppers[s] = upperCase(subtexts[s]).toCharArray();
+            lowers[s] = lowerCase(subtexts[s]).toCharArray();
+            alphabetBuilder.append(uppers[s]).append(lowers[s]);
+            nodeCount += subtexts[s].length();
+        }
+        final char[] allChars = alphabetBuilder.toString().toCharArray();
+        Arrays.sort(allChars);
+        int distinct = 0;
+        for(int i = 0; i < allChars.length; i++) {
+            if(distinct == 0 || allChars[i] != allChars[distinct - 1]) allChars[distinct++] = allChars[i];
+        }
+        alphabet = Arrays.copyOf(allChars, distinct);
+        columns = alphabet.length + 1;
+        Arrays.fill(asciiColumns, alphabet.length);
+        for(int a = 0; a < alphabet.length; a++) {
+            if(alphabet[a] < asciiColumns.length) asciiColumns[alphabet[a]] = a;
+        }
+
+        // build the trie of subtexts, whose edges are labelled with both case forms
+        final int[] firstEdge = new int[nodeCount];
+        final int[] nextEdge = new int[nodeCount];
+        final char[] edgeUpper = new char[nodeCount];
+        final char[] edgeLower = new char[nodeCount];
+        final long[] terminals = new long[nodeCount];
+        Arrays.fill(firstEdge, -1);
+        int nodes = 1;
+        long all = 0;
+        for(int s = 0; s < subtexts.length; s++) {
+            int node = 0;
+            for(int c = 0; c < uppers[s].length; c++) {
+                int child = firstEdge[node];
+                while(child != -1 && (edgeUpper[child] != uppers[s][c] || edgeLower[child] != lowers[s][c])) child = nextEdge[child];
+                if(child == -1) {
+                    // each edge is stored with the node it leads to
+                    child = nodes++;
+                    edgeUpper[child] = uppers[s][c];
+                    edgeLower[child] = lowers[s][c];
+                    nextEdge[child] = firstEdge[node];
+                    firstEdge[node] = child;
+                }
+                node = child;
+            }
+            terminals[node] |= 1L << s;
+            all |= 1L << s;
+        }
+        allSubtexts = all;
+
+        // build the states from sets of trie nodes in breadth first order. When
+        // searching anywhere in the text, every state includes the root
+        final boolean contains = mode == TextMatcherEditor.CONTAINS;
+        final Map<List<Integer>, Integer> stateIds = new HashMap<>();
+        final List<List<Integer>> states = new ArrayList<>();
+        final List<int[]> rows = new ArrayList<>();
+        final List<Integer> start = Collections.singletonList(Integer.valueOf(0));
+        stateIds.put(start, Integer.valueOf(0));
+        states.add(start);
+        for(int state = 0; state < states.size(); state++) {
+            final List<Integer> members = states.get(state);
+            final int[] row = new int[columns];
+            for(int a = 0; a < alphabet.length; a++) {
+                final List<Integer> next = new ArrayList<>();
+                if(contains) next.add(Integer.valueOf(0));
+                for(int m = 0; m < members.size(); m++) {
+                    for(int child = firstEdge[members.get(m).intValue()]; child != -1; child = nextEdge[child]) {
+                        if(edgeUpper[child] == alphabet[a] || edgeLower[child] == alphabet[a]) next.add(Integer.valueOf(child));
+                    }
+                }
+                if(next.isEmpty()) {
+                    row[a] = -1;
+                    continue;
+                }
+                Collections.sort(next);
+                Integer nextId = stateIds.get(next);
+                if(nextId == null) {
+                    nextId = Integer.valueOf(states.size());
+                    stateIds.put(next, nextId);
+                    states.add(next);
+                }
+                row[a] = nextId.intValue();
+            }
+            // no subtext contains the other characters
+            row[alphabet.length] = contains ? 0 : -1;
+            rows.add(row);
+        }
+
+        transitions = new int[states.size() * columns];
+        outputs = new long[states.size()];
+        for(int state = 0; state < states.size(); state++) {
+            System.arraycopy(rows.get(state), 0, transitions, state * columns, columns);
+            final List<Integer> members = states.get(state);
+            for(int m = 0; m < members.size(); m++) {
+                outputs[state] |= terminals[members.get(m).intValue()];
+            }
+        }
+    }
+
+    /**
+     * Test whether the given subtext can be located by this strategy. This
+     * requires that its upper and lower case forms have the same length as
+     * the subtext, so that each of its characters has one of each.
+     */
+    public static boolean isSupported(String subtext) {
+        return upperCase(subtext).length() == subtext.length()
+            && lowerCase(subtext).length() == subtext.length();
+    }
+
+    /**
+     * Get the upper case form of the subtext, as the single subtext strategies
+     * do: a single character is converted by itself, and longer subtexts as a
+     * whole.
+     */
+    private static String upperCase(String subtext) {
+        if(subtext.length() == 1) return String.valueOf(Character.toUpperCase(subtext.charAt(0)));
+        return subtext.toUpperCase();
+    }
+
+    /**
+     * Get the lower case form of the subtext, as the single subtext strategies do.
+     */
+    private static String lowerCase(String subtext) {
+        if(subtext.length() == 1) return String.valueOf(Character.toLowerCase(subtext.charAt(0)));
+        return subtext.toLowerCase();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long indexOf(String text, long found) {
+        if((found & allSubtexts) == allSubtexts) return found;
+
+        if(mode == TextMatcherEditor.CONTAINS) {
+            int state = 0;
+            for(int i = 0, n = text.length(); i < n; i++) {
+                state = transitions[state * columns + column(map(text.charAt(i)))];
+                found |= outputs[state];
+            }
+            return found;
+        }
+
+        // walk the automaton along the start of the text
+        int state = 0;
+        for(int i = 0, n = text.length(); i < n; i++) {
+            if(mode == TextMatcherEditor.STARTS_WITH) found |= outputs[state];
+            state = transitions[state * columns + column(map(text.charAt(i)))];
+            if(state == -1) return found;
+        }
+        return found | outputs[state];
+    }
+
+    /**
+     * Get the column of the given character.
+     */
+    private int column(char c) {
+        if(c < asciiColumns.length) return asciiColumns[c];
+        final int index = Arrays.binarySearch(alphabet, c);
+        return index >= 0 ? index : alphabet.length;
+    }
+
+    /**
+     * Map the given character of the text with the character map, if any.
+     */
+    private char map(char c) {
+        if(characterMap != null && c < characterMap.length) return characterMap[c];
+        return c;
+    }
+}
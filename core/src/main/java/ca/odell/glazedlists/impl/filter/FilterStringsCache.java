@@ -0,0 +1,256 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.TextFilterable;
+import ca.odell.glazedlists.TextFilterator;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.impl.GlazedListsImpl;
+import ca.odell.glazedlists.impl.adt.barcode2.Element;
+import ca.odell.glazedlists.impl.adt.barcode2.SimpleTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link TextFilterator} that remembers the filter Strings of each element
+ * of a source list, so that refining the filter text searches the remembered
+ * Strings rather than extracting them from the elements again.
+ *
+ * <p>The cache listens to the source list and forgets an element when it is
+ * updated or deleted. It mirrors the elements of the source list, so that it
+ * knows which element was deleted even when the {@link ListEvent} doesn't
+ * provide the old value. It must be notified of each change before the list that
+ * is being filtered, which is arranged by the {@link ListEventListener}
+ * dependencies given to the constructor. Elements that are modified without
+ * an {@link ListEvent#UPDATE UPDATE} event keep their stale filter Strings.
+ *
+ * <p>Elements are remembered by identity. For each element, the Strings with
+ * latin diacritics stripped are prepared on demand, so that matchers using
+ * the {@link ca.odell.glazedlists.matchers.TextMatcherEditor#NORMALIZED_STRATEGY
+ * normalized strategy} need not map each character on every search.
+ *
+ * <p>This class is thread ready. Concurrent matchers may share it.
+ */
+public final class FilterStringsCache<E> implements TextFilterator<E>, ListEventListener<E> {
+
+    /** the list whose elements' filter Strings are cached */
+    private final EventList<E> source;
+
+    /** the list that must be notified after this cache, or <code>null</code> */
+    private final Object dependent;
+
+    /** the filterator used to extract Strings, or <code>null</code> for {@link TextFilterable} elements */
+    private TextFilterator<? super E> filterator;
+
+    /** the cached Strings of each element, guarded by <code>this</code> */
+    private final Map<E, Entry> entries = new IdentityHashMap<>();
+
+    /** the elements of the source, in order, guarded by <code>this</code> */
+    private SimpleTree<E> rows;
+
+    /** normalized views of the cached Strings */
+    private final TextFilterator<E> normalizedFilterator = new NormalizedFilterator();
+
+    /** whether this cache has been disposed, after which Strings are not cached */
+    private volatile boolean disposed = false;
+
+    /**
+     * Create a cache of the filter Strings of the elements of <code>source</code>.
+     *
+     * @param source the list whose elements are filtered
+     * @param filterator the object that will extract filter Strings from each
+     *      element; <code>null</code> indicates the elements implement
+     *      {@link TextFilterable}
+     * @param dependent the list that filters <code>source</code>, which will be
+     *      notified of changes to <code>source</code> only after this cache;
+     *      may be <code>null</code>
+     */
+    public FilterStringsCache(EventList<E> source, TextFilterator<? super E> filterator, Object dependent) {
+        this.source = source;
+        this.filterator = filterator;
+        this.dependent = dependent;
+        rebuildRows();
+
+        source.addListEventListener(this);
+        if(dependent != null) {
+            source.getPublisher().setRelatedListener(dependent, this);
+        }
+    }
+
+    /**
+     * Change the filterator used to extract filter Strings. This discards all
+     * previously cached Strings.
+     */
+    public void setFilterator(TextFilterator<? super E> filterator) {
+        synchronized(this) {
+            if(filterator == this.filterator) return;
+            this.filterator = filterator;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get a {@link TextFilterator} that returns the cached filter Strings with
+     * the latin diacritics stripped.
+     */
+    public TextFilterator<E> getNormalizedFilterator() {
+        return normalizedFilterator;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void getFilterStrings(List<String> baseList, E element) {
+        Collections.addAll(baseList, getEntry(element).strings);
+    }
+
+    /**
+     * Get the cached filter Strings for the given element, extracting them
+     * if they are not cached yet.
+     */
+    private Entry getEntry(E element) {
+        final TextFilterator<? super E> extractor;
+        synchronized(this) {
+            Entry entry = entries.get(element);
+            if(entry != null) return entry;
+            extractor = filterator;
+        }
+
+        // extract the Strings without holding the lock, since filterators may be slow
+        final List<Object> extracted = new ArrayList<>();
+        if(extractor == null) {
+            ((TextFilterable)element).getFilterStrings((List)extracted);
+        } else {
+            extractor.getFilterStrings((List)extracted, element);
+        }
+
+        // objects other than Strings are tolerated for backwards compatibility
+        final List<String> strings = new ArrayList<>(extracted.size());
+        for(Object filterString : extracted) {
+            if(filterString != null) strings.add(filterString.toString());
+        }
+        final Entry entry = new Entry(strings.toArray(new String[strings.size()]));
+
+        synchronized(this) {
+            // don't cache Strings for a filterator that has since been replaced
+            if(!disposed && extractor == filterator) entries.put(element, entry);
+        }
+        return entry;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void listChanged(ListEvent<E> listChanges) {
+        synchronized(this) {
+            // when everything is replaced, nothing cached is still relevant
+            if(listChanges.isReplacement()) {
+                entries.clear();
+                rebuildRows();
+                return;
+            }
+
+            // reordering doesn't change any element
+            if(listChanges.isReordering()) {
+                rebuildRows();
+                return;
+            }
+
+            while(listChanges.next()) {
+                final int index = listChanges.getIndex();
+                final int type = listChanges.getType();
+
+                if(type == ListEvent.INSERT) {
+                    rows.add(index, source.get(index), 1);
+
+                } else if(type == ListEvent.DELETE) {
+                    final Element<E> row = rows.get(index);
+                    entries.remove(row.get());
+                    rows.remove(row);
+
+                } else if(type == ListEvent.UPDATE) {
+                    // updated elements may have been modified in place
+                    final Element<E> row = rows.get(index);
+                    final E value = source.get(index);
+                    entries.remove(row.get());
+                    entries.remove(value);
+                    row.set(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mirror the elements of the source from scratch.
+     */
+    private void rebuildRows() {
+        rows = new SimpleTree<>();
+        for(int i = 0, n = source.size(); i < n; i++) {
+            rows.add(i, source.get(i), 1);
+        }
+    }
+
+    /**
+     * Stop listening to the source list and release the cached Strings.
+     * Matchers still using this cache extract Strings on every call.
+     */
+    public void dispose() {
+        source.removeListEventListener(this);
+        if(dependent != null) {
+            source.getPublisher().clearRelatedListener(dependent, this);
+        }
+        synchronized(this) {
+            disposed = true;
+            entries.clear();
+            rows = new SimpleTree<>();
+        }
+    }
+
+    /**
+     * The filter Strings of an element, plus their normalized form.
+     */
+    private static final class Entry {
+        private final String[] strings;
+        private volatile String[] normalizedStrings;
+
+        private Entry(String[] strings) {
+            this.strings = strings;
+        }
+
+        /**
+         * Get the filter Strings with the latin diacritics stripped. Racing
+         * threads may each create this array, but the results are equal.
+         */
+        private String[] getNormalizedStrings() {
+            String[] result = normalizedStrings;
+            if(result == null) {
+                final char[] mapper = GlazedListsImpl.getLatinDiacriticsStripper();
+                result = new String[strings.length];
+                for(int i = 0; i < strings.length; i++) {
+                    final char[] mapped = strings[i].toCharArray();
+                    for(int c = 0; c < mapped.length; c++) {
+                        if(mapped[c] < mapper.length) mapped[c] = mapper[mapped[c]];
+                    }
+                    result[i] = new String(mapped);
+                }
+                normalizedStrings = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the normalized filter Strings from the cache.
+     */
+    private final class NormalizedFilterator implements TextFilterator<E> {
+        @Override
+        public void getFilterStrings(List<String> baseList, E element) {
+            Collections.addAll(baseList, getEntry(element).getNormalizedStrings());
+        }
+    }
+}
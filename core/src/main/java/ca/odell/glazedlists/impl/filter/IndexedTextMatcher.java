@@ -0,0 +1,102 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+import ca.odell.glazedlists.TextFilterator;
+import ca.odell.glazedlists.matchers.TextMatcherEditor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link TextMatcher} that consults a {@link TrigramIndex} to reject the
+ * elements that cannot contain its search terms, and searches the text of
+ * only the remaining candidates.
+ *
+ * <p>The candidates are found the first time an element is matched, and again
+ * whenever the index has renumbered its elements. Elements indexed after that
+ * are always searched.
+ */
+public class IndexedTextMatcher<E> extends TextMatcher<E> {
+
+    /** the index of the elements to be matched */
+    private final TrigramIndex<E> index;
+
+    /** the search terms that narrow down the candidates */
+    private final String[] indexedTerms;
+
+    /** the candidates for the indexed terms, found lazily */
+    private volatile TrigramIndex.Candidates candidates;
+
+    /**
+     * @param index the index of the Strings produced by <code>filterator</code>
+     *      for each element to be matched
+     * @see TextMatcher#TextMatcher(SearchTerm[], TextFilterator, int, Object)
+     */
+    public IndexedTextMatcher(SearchTerm<?>[] searchTerms, TextFilterator<? super E> filterator, int mode, Object strategy, TrigramIndex<E> index) {
+        super(searchTerms, filterator, mode, strategy);
+        this.index = index;
+
+        // only the terms that every match must contain can narrow down the candidates
+        final List<String> terms = new ArrayList<>();
+        if(mode != TextMatcherEditor.REGULAR_EXPRESSION
+                && (strategy == TextMatcherEditor.IDENTICAL_STRATEGY || strategy == TextMatcherEditor.NORMALIZED_STRATEGY)) {
+            final SearchTerm<?>[] normalizedTerms = getSearchTerms();
+            for(int i = 0; i < normalizedTerms.length; i++) {
+                final SearchTerm<?> term = normalizedTerms[i];
+                if(term.isNegated() || term.getField() != null) continue;
+                if(TrigramIndex.isIndexable(term.getText())) terms.add(term.getText());
+            }
+        }
+        this.indexedTerms = terms.toArray(new String[terms.size()]);
+    }
+
+    /**
+     * Get the index of the elements to be matched.
+     */
+    public TrigramIndex<E> getIndex() {
+        return index;
+    }
+
+    /**
+     * Get the search terms that every match must contain, and that narrow
+     * down the candidates.
+     */
+    public String[] getIndexedTerms() {
+        return indexedTerms;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean matches(E element) {
+        if(indexedTerms.length != 0) {
+            TrigramIndex.Candidates current = candidates;
+            if(current == null || index.isStale(current)) {
+                current = index.findCandidates(indexedTerms);
+                candidates = current;
+            }
+            if(!index.isCandidate(current, element)) return false;
+        }
+
+        return super.matches(element);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TextMatcher<E> newMode(int mode) {
+        return new IndexedTextMatcher<>(getSearchTerms(), getFilterator(), mode, getStrategy(), index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TextMatcher<E> newFilterator(TextFilterator<? super E> filterator) {
+        return new IndexedTextMatcher<>(getSearchTerms(), filterator, getMode(), getStrategy(), index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TextMatcher<E> newStrategy(Object strategy) {
+        return new IndexedTextMatcher<>(getSearchTerms(), getFilterator(), getMode(), strategy, index);
+    }
+}
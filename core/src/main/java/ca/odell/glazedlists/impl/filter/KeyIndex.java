@@ -0,0 +1,311 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.Filterator;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.impl.adt.barcode2.Element;
+import ca.odell.glazedlists.impl.adt.barcode2.SimpleTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An index from each key to the positions of the elements of a source list
+ * that have that key. The index is kept in sync with the source list by
+ * listening to it.
+ *
+ * <p>When a filter on the keys changes, the elements that may change their
+ * match are those with the keys that were added to or removed from the
+ * filter. This index locates just those elements, so that they can be tested
+ * without testing the whole list.
+ *
+ * <p>A hashed index locates elements by their keys. A sorted index also
+ * locates the keys within a range, but ignores <code>null</code> keys.
+ *
+ * <p>Each element of the source list has a node in a tree, which locates its
+ * current position in logarithmic time as elements are inserted and deleted
+ * before it. The index maps each key to the nodes of its elements.
+ *
+ * <p>This class is thread ready. Its queries must be made while holding the
+ * source list's lock, so that they are consistent with the source.
+ */
+public final class KeyIndex<E,K> implements ListEventListener<E> {
+
+    /** the colors of the row nodes, which are all the same */
+    private static final byte ALL_COLORS = 1;
+
+    /** the list whose elements are indexed */
+    private final EventList<E> source;
+
+    /** extracts the keys from each element, or <code>null</code> if the elements are their own keys */
+    private final Filterator<K,E> filterator;
+
+    /** whether the index is sorted, and ignores null keys */
+    private final boolean sorted;
+
+    /** a node for each element of the source list, whose value is its key or {@link Keys} */
+    private SimpleTree<Object> rows = new SimpleTree<>();
+
+    /** the nodes of the elements with each key */
+    private final Map<K, Set<Element<Object>>> postings;
+
+    /** a heavily recycled list of keys, call clear() before use */
+    private final List<K> keysBuffer = new ArrayList<>();
+
+    /** whether this index has been disposed */
+    private boolean disposed = false;
+
+    private KeyIndex(EventList<E> source, Filterator<K,E> filterator, boolean sorted) {
+        this.source = source;
+        this.filterator = filterator;
+        this.sorted = sorted;
+        this.postings = sorted ? new TreeMap<K, Set<Element<Object>>>() : new HashMap<K, Set<Element<Object>>>();
+
+        source.getReadWriteLock().readLock().lock();
+        try {
+            rebuild();
+            source.addListEventListener(this);
+        } finally {
+            source.getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * Create an index that locates the elements of <code>source</code> by
+     * their keys.
+     *
+     * @param filterator extracts the keys from each element; <code>null</code>
+     *      indicates the elements are their own keys
+     */
+    public static <E,K> KeyIndex<E,K> hashed(EventList<E> source, Filterator<K,E> filterator) {
+        return new KeyIndex<>(source, filterator, false);
+    }
+
+    /**
+     * Create an index that locates the elements of <code>source</code> by
+     * their keys, and the keys within a range. <code>null</code> keys are
+     * not indexed.
+     *
+     * @param filterator extracts the keys from each element; <code>null</code>
+     *      indicates the elements are their own keys
+     */
+    public static <E,K extends Comparable> KeyIndex<E,K> sorted(EventList<E> source, Filterator<K,E> filterator) {
+        return new KeyIndex<>(source, filterator, true);
+    }
+
+    /**
+     * Get the list whose elements are indexed.
+     */
+    public EventList<E> getSource() {
+        return source;
+    }
+
+    /**
+     * Stop listening to the source list and release the index.
+     */
+    public void dispose() {
+        source.removeListEventListener(this);
+        synchronized(this) {
+            disposed = true;
+            rows = new SimpleTree<>();
+            postings.clear();
+        }
+    }
+
+    /**
+     * Get whether this index has been disposed, and no longer locates any
+     * elements.
+     */
+    public synchronized boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Get the indices of the elements with any of the specified keys.
+     *
+     * @return the indices in increasing order
+     */
+    public synchronized int[] indicesOf(Collection<? extends K> keys) {
+        int[] result = new int[16];
+        int size = 0;
+        for(K key : keys) {
+            if(key == null && sorted) continue;
+            final Set<Element<Object>> nodes = postings.get(key);
+            if(nodes == null) continue;
+            for(Element<Object> node : nodes) {
+                if(size == result.length) result = Arrays.copyOf(result, size * 2);
+                result[size++] = rows.indexOfNode(node, ALL_COLORS);
+            }
+        }
+
+        // an element with several of the keys is located only once
+        Arrays.sort(result, 0, size);
+        int distinct = 0;
+        for(int i = 0; i < size; i++) {
+            if(distinct == 0 || result[i] != result[distinct - 1]) result[distinct++] = result[i];
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    /**
+     * Get the keys of a sorted index that lie within the specified range.
+     *
+     * @param start the lowest key, inclusive, or <code>null</code> for no lower bound
+     * @param end the highest key, inclusive, or <code>null</code> for no upper bound
+     * @return the keys in increasing order
+     */
+    public List<K> keysBetween(K start, K end) {
+        return keysBetween(start, true, end, true);
+    }
+
+    /**
+     * Get the keys of a sorted index that lie within the specified range,
+     * whose bounds may be excluded.
+     *
+     * @param start the lowest key, or <code>null</code> for no lower bound
+     * @param end the highest key, or <code>null</code> for no upper bound
+     * @return the keys in increasing order
+     */
+    public synchronized List<K> keysBetween(K start, boolean startInclusive, K end, boolean endInclusive) {
+        if(!sorted) throw new IllegalStateException("only a sorted index can locate keys in a range");
+        if(start != null && end != null) {
+            final int order = ((Comparable)start).compareTo(end);
+            if(order > 0 || (order == 0 && !(startInclusive && endInclusive))) return new ArrayList<>();
+        }
+
+        NavigableMap<K, Set<Element<Object>>> range = (NavigableMap<K, Set<Element<Object>>>)postings;
+        if(start != null) range = range.tailMap(start, startInclusive);
+        if(end != null) range = range.headMap(end, endInclusive);
+        return new ArrayList<>(range.keySet());
+    }
+
+    /**
+     * Index every element of the source from scratch.
+     */
+    private synchronized void rebuild() {
+        rows = new SimpleTree<>();
+        postings.clear();
+        for(int i = 0, n = source.size(); i < n; i++) {
+            insertRow(i, source.get(i));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void listChanged(ListEvent<E> listChanges) {
+        if(disposed) return;
+
+        // the nodes can't be moved, so index the new order from scratch
+        if(listChanges.isReordering() || listChanges.isReplacement()) {
+            rebuild();
+            return;
+        }
+
+        while(listChanges.next()) {
+            final int index = listChanges.getIndex();
+            final int type = listChanges.getType();
+
+            if(type == ListEvent.INSERT) {
+                insertRow(index, source.get(index));
+
+            } else if(type == ListEvent.DELETE) {
+                final Element<Object> node = rows.get(index);
+                unpost(node);
+                rows.remove(node);
+
+            } else if(type == ListEvent.UPDATE) {
+                final Element<Object> node = rows.get(index);
+                unpost(node);
+                node.set(keysOf(source.get(index)));
+                post(node);
+            }
+        }
+    }
+
+    /**
+     * Add a node for the specified element.
+     */
+    private void insertRow(int index, E element) {
+        final Element<Object> node = rows.add(index, keysOf(element), 1);
+        post(node);
+    }
+
+    /**
+     * Get the key of the specified element, or a {@link Keys} if it does not
+     * have exactly one key.
+     */
+    private Object keysOf(E element) {
+        if(filterator == null) return element;
+
+        keysBuffer.clear();
+        filterator.getFilterValues(keysBuffer, element);
+        if(keysBuffer.size() == 1) return keysBuffer.get(0);
+        return new Keys(keysBuffer.toArray());
+    }
+
+    /**
+     * Add the specified node to the postings of its keys.
+     */
+    private void post(Element<Object> node) {
+        final Object value = node.get();
+        if(value instanceof Keys) {
+            final Object[] keys = ((Keys)value).keys;
+            for(int k = 0; k < keys.length; k++) post((K)keys[k], node);
+        } else {
+            post((K)value, node);
+        }
+    }
+
+    private void post(K key, Element<Object> node) {
+        if(key == null && sorted) return;
+        Set<Element<Object>> nodes = postings.get(key);
+        if(nodes == null) {
+            nodes = new HashSet<>(4);
+            postings.put(key, nodes);
+        }
+        nodes.add(node);
+    }
+
+    /**
+     * Remove the specified node from the postings of its keys.
+     */
+    private void unpost(Element<Object> node) {
+        final Object value = node.get();
+        if(value instanceof Keys) {
+            final Object[] keys = ((Keys)value).keys;
+            for(int k = 0; k < keys.length; k++) unpost((K)keys[k], node);
+        } else {
+            unpost((K)value, node);
+        }
+    }
+
+    private void unpost(K key, Element<Object> node) {
+        if(key == null && sorted) return;
+        final Set<Element<Object>> nodes = postings.get(key);
+        if(nodes == null) return;
+        nodes.remove(node);
+        if(nodes.isEmpty()) postings.remove(key);
+    }
+
+    /**
+     * The keys of an element that has none or several.
+     */
+    private static final class Keys {
+        private final Object[] keys;
+        private Keys(Object[] keys) {
+            this.keys = keys;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+/**
+ * This interface defines a Strategy for locating many subtexts within another
+ * text in a single pass. It is the counterpart of {@link TextSearchStrategy}
+ * for matchers with several search terms.
+ *
+ * <p>Implementations are built for a fixed array of at most
+ * {@link #MAX_SUBTEXTS} subtexts, and identify each by its bit in a
+ * <code>long</code>. {@link #indexOf(String, long)} may be called by multiple
+ * threads concurrently.
+ */
+public interface MultiTextSearchStrategy {
+
+    /** the maximum number of subtexts a strategy can locate */
+    public static final int MAX_SUBTEXTS = 64;
+
+    /**
+     * Locates the subtexts within <code>text</code>.
+     *
+     * @param text String in which to locate the subtexts
+     * @param found the bits of the subtexts which have already been located,
+     *      and need not be searched for
+     * @return <code>found</code>, plus the bit <code>1L &lt;&lt; i</code> for
+     *      each subtext <code>i</code> that occurs within <code>text</code>
+     */
+    public long indexOf(String text, long found);
+
+    /**
+     * A {@link TextSearchStrategy.Factory} that can also build strategies which
+     * locate several subtexts at once.
+     */
+    public interface Factory extends TextSearchStrategy.Factory {
+
+        /**
+         * Build a new MultiTextSearchStrategy for the specified mode and
+         * filter texts.
+         *
+         * @param mode one of {@code TextMatcherEditor.CONTAINS},
+         *     {@code TextMatcherEditor.STARTS_WITH} or {@code TextMatcherEditor.EXACT}
+         * @param filters the search strings to match against, at most
+         *     {@link #MAX_SUBTEXTS} of them
+         */
+        public MultiTextSearchStrategy createMulti(int mode, String[] filters);
+
+        /**
+         * Test whether the strategies built by {@link #createMulti} can locate
+         * the specified filter. Other filters are located one at a time.
+         */
+        public boolean supportsMulti(String filter);
+    }
+}
@@ -0,0 +1,153 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.Filterator;
+import ca.odell.glazedlists.FunctionList;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sorted index of the strings of the elements of a source list, which
+ * locates the elements whose strings start with a prefix without testing
+ * every element. The index is kept in sync with the source list by
+ * listening to it.
+ *
+ * <p>Strings are indexed case insensitively, after mapping each character
+ * with a character map such as the one of
+ * {@link ca.odell.glazedlists.matchers.TextMatcherEditor#NORMALIZED_STRATEGY}.
+ * Prefixes are mapped the same way. This is how a
+ * {@link ca.odell.glazedlists.matchers.TextMatcherEditor#STARTS_WITH}
+ * {@link TextMatcher} compares them, so the elements it matches are located.
+ * A few exotic characters fold to the same key without matching, so callers
+ * should verify the located elements with the real matcher. Conversely, the
+ * matcher compares the case forms of the whole prefix, which are out of step
+ * with its characters if a character such as '&szlig;' changes length when
+ * its case is converted. Such prefixes can't be looked up by key, so every
+ * element is located for them.
+ *
+ * <p>The folded strings are the keys of a sorted {@link KeyIndex}. The keys
+ * that start with a prefix are a range of it, from the prefix up to the
+ * first string after all those that start with it, so a lookup costs time
+ * proportional to the number of elements found rather than to the size of
+ * the list.
+ *
+ * <p>This class is thread ready. Its queries should be made while holding the
+ * source list's lock, so that they are consistent with the source.
+ */
+public final class PrefixIndex<E> {
+
+    /** the elements by their folded strings */
+    private final KeyIndex<E,String> keyIndex;
+
+    /** maps each character of an element's string, or <code>null</code> */
+    private final char[] characterMap;
+
+    /**
+     * Create an index of the strings of the elements of <code>source</code>.
+     *
+     * @param toString produces the string of each element
+     * @param characterMap maps each character of the elements' strings before
+     *      they are compared, or <code>null</code> to compare the characters
+     *      as they are
+     */
+    public PrefixIndex(EventList<E> source, final FunctionList.Function<E,String> toString, final char[] characterMap) {
+        this.characterMap = characterMap;
+        this.keyIndex = KeyIndex.sorted(source, new Filterator<String,E>() {
+            @Override
+            public void getFilterValues(List<String> baseList, E element) {
+                final String string = toString.evaluate(element);
+                baseList.add(fold(string == null ? "" : string, characterMap));
+            }
+        });
+    }
+
+    /**
+     * Get the list whose elements are indexed.
+     */
+    public EventList<E> getSource() {
+        return keyIndex.getSource();
+    }
+
+    /**
+     * Stop listening to the source list and release the index.
+     */
+    public void dispose() {
+        keyIndex.dispose();
+    }
+
+    /**
+     * Get the indices of the elements whose strings start with the specified
+     * prefix, after mapping and ignoring case.
+     *
+     * @return the indices in increasing order
+     */
+    public int[] indicesStartingWith(String prefix) {
+        // the matcher doesn't compare such a prefix character by character, so scan
+        if(!isFoldable(prefix) || !isFoldable(map(prefix, characterMap))) {
+            final int[] result = new int[keyIndex.isDisposed() ? 0 : getSource().size()];
+            for(int i = 0; i < result.length; i++) result[i] = i;
+            return result;
+        }
+
+        final String key = fold(prefix, characterMap);
+        return keyIndex.indicesOf(keyIndex.keysBetween(key, true, after(key), false));
+    }
+
+    /**
+     * Get the indices of the elements whose strings equal the specified text
+     * after mapping and ignoring case.
+     *
+     * @return the indices in increasing order
+     */
+    public int[] indicesOf(String text) {
+        return keyIndex.indicesOf(Collections.singletonList(fold(text, characterMap)));
+    }
+
+    /**
+     * Get the first string that follows every string starting with the
+     * specified prefix, or <code>null</code> if there is none.
+     */
+    private static String after(String prefix) {
+        int last = prefix.length() - 1;
+        while(last >= 0 && prefix.charAt(last) == Character.MAX_VALUE) last--;
+        if(last < 0) return null;
+        return prefix.substring(0, last) + (char)(prefix.charAt(last) + 1);
+    }
+
+    /**
+     * Map and fold the case of each character of the specified string.
+     */
+    private static String fold(String string, char[] characterMap) {
+        final char[] chars = map(string, characterMap).toCharArray();
+        for(int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Map each character of the specified string.
+     */
+    private static String map(String string, char[] characterMap) {
+        if(characterMap == null) return string;
+        final char[] chars = string.toCharArray();
+        for(int i = 0; i < chars.length; i++) {
+            if(chars[i] < characterMap.length) chars[i] = characterMap[chars[i]];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Test whether the upper and lower case forms of the specified prefix
+     * have one character for each of its characters, so that folding it
+     * character by character agrees with the matcher.
+     */
+    private static boolean isFoldable(String prefix) {
+        return prefix.toUpperCase().length() == prefix.length()
+            && prefix.toLowerCase().length() == prefix.length();
+    }
+}
@@ -11,19 +11,28 @@ import java.util.regex.Matcher;
  * against a regular expression. If the regular expression matches, the start
  * position of the match is returned. If there is no match, -1 is returned.
  *
+ * <p>{@link Matcher}s are not thread-safe, so each thread recycles its own.
+ *
  * @author Wim Deblauwe
  */
 public class RegularExpressionTextSearchStrategy extends AbstractTextSearchStrategy {
 
-    private Matcher matcher;
+    private ThreadLocal<Matcher> matcher;
 
     @Override
     public void setSubtext(String regex) {
-        matcher = Pattern.compile(regex).matcher("");
+        final Pattern pattern = Pattern.compile(regex);
+        matcher = new ThreadLocal<Matcher>() {
+            @Override
+            protected Matcher initialValue() {
+                return pattern.matcher("");
+            }
+        };
     }
 
     @Override
     public int indexOf(String text) {
-        return matcher.reset(text).matches() ? matcher.start() : -1;
+        final Matcher threadMatcher = matcher.get();
+        return threadMatcher.reset(text).matches() ? threadMatcher.start() : -1;
     }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+/**
+ * An implementation of {@link TextSearchStrategy} that scans the text for the
+ * first character of the subtext using {@link String#indexOf(int, int)}, and
+ * compares the rest of the subtext only at the positions found.
+ *
+ * <p>The JVM compiles {@link String#indexOf(int, int)} into vectorized
+ * instructions that examine many characters at a time, so the scan is faster
+ * than a loop over each character. This makes this strategy a good choice
+ * for the short subtexts that users type, where Boyer-Moore cannot skip much
+ * text. The upper and lower case of the first character are scanned for
+ * separately.
+ *
+ * <p>The scan compares raw characters, so it cannot be used with a character
+ * map, or with a subtext whose case conversion changes its length. In these
+ * cases this strategy transparently delegates to a
+ * {@link BoyerMooreCaseInsensitiveTextSearchStrategy}.
+ */
+public class ScanningCaseInsensitiveTextSearchStrategy extends AbstractTextSearchStrategy {
+
+    /** the uppercase form of each character of the subtext */
+    private char[] subtextCharsUpper;
+
+    /** the lowercase form of each character of the subtext */
+    private char[] subtextCharsLower;
+
+    /** the strategy to delegate to if the subtext cannot be scanned for, or <code>null</code> */
+    private TextSearchStrategy fallback;
+
+    /**
+     * Sets the subtext to locate found when {@link #indexOf(String)} is called.
+     * This should be called after the character map, if any.
+     *
+     * @param subtext the String to locate in {@link #indexOf(String)}
+     */
+    @Override
+    public void setSubtext(String subtext) {
+        final String subtextUpper = subtext.toUpperCase();
+        final String subtextLower = subtext.toLowerCase();
+
+        if(characterMap != null || subtextUpper.length() != subtext.length() || subtextLower.length() != subtext.length()) {
+            final TextSearchStrategy boyerMoore = new BoyerMooreCaseInsensitiveTextSearchStrategy();
+            boyerMoore.setCharacterMap(characterMap);
+            boyerMoore.setSubtext(subtext);
+            fallback = boyerMoore;
+            subtextCharsUpper = null;
+            subtextCharsLower = null;
+        } else {
+            fallback = null;
+            subtextCharsUpper = subtextUpper.toCharArray();
+            subtextCharsLower = subtextLower.toCharArray();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int indexOf(String text) {
+        if(fallback != null) return fallback.indexOf(text);
+
+        // ensure we are in a state to search the text
+        if(subtextCharsUpper == null) {
+            throw new IllegalStateException("setSubtext must be called with a valid value before this method can operate");
+        }
+
+        final int subtextLength = subtextCharsUpper.length;
+        if(subtextLength == 0) return 0;
+        final int lastCandidate = text.length() - subtextLength;
+        final char firstUpper = subtextCharsUpper[0];
+        final char firstLower = subtextCharsLower[0];
+
+        // the next occurrences of each case of the first character
+        int nextUpper = text.indexOf(firstUpper);
+        int nextLower = firstLower == firstUpper ? nextUpper : text.indexOf(firstLower);
+
+        while(true) {
+            // the candidate is the earlier of the occurrences
+            final int candidate;
+            if(nextUpper == -1) candidate = nextLower;
+            else if(nextLower == -1) candidate = nextUpper;
+            else candidate = Math.min(nextUpper, nextLower);
+
+            if(candidate == -1 || candidate > lastCandidate) return -1;
+            if(matchesAt(text, candidate)) return candidate;
+
+            // find the next occurrences
+            if(nextUpper == candidate) nextUpper = text.indexOf(firstUpper, candidate + 1);
+            if(firstLower == firstUpper) nextLower = nextUpper;
+            else if(nextLower == candidate) nextLower = text.indexOf(firstLower, candidate + 1);
+        }
+    }
+
+    /**
+     * Test whether the rest of the subtext follows the first character, which
+     * is known to be at <code>start</code>.
+     */
+    private boolean matchesAt(String text, int start) {
+        for(int i = 1; i < subtextCharsUpper.length; i++) {
+            final char c = text.charAt(start + i);
+            if(c != subtextCharsUpper[i] && c != subtextCharsLower[i]) return false;
+        }
+        return true;
+    }
+}
@@ -21,6 +21,9 @@ public class TextMatcher<E> implements Matcher<E> {
     /** the filterator is used as an alternative to implementing the TextFilterable interface */
     private final TextFilterator<? super E> filterator;
 
+    /** the filterator used while matching, which may be a normalized view of a {@link FilterStringsCache} */
+    private final TextFilterator<? super E> matchingFilterator;
+
     /** one of {@link TextMatcherEditor#CONTAINS}, {@link TextMatcherEditor#STARTS_WITH} or {@link TextMatcherEditor#REGULAR_EXPRESSION} */
     private final int mode;
 
@@ -33,8 +36,11 @@ public class TextMatcher<E> implements Matcher<E> {
     /** a parallel array to locate filter substrings in arbitrary text */
     private final TextSearchStrategy[] filterStrategies;
 
-    /** a heavily recycled list of filter Strings, call clear() before use */
-    private final List<String> filterStrings = new ArrayList<>();
+    /** locates several search terms at once, or <code>null</code> if the strategy doesn't support it */
+    private final MultiTextSearchStrategy multiStrategy;
+
+    /** a parallel array of each search term's bit in the results of the {@link #multiStrategy}, or -1 */
+    private final int[] multiPositions;
 
     /**
      * @param searchTerms an array of search terms to be matched
@@ -58,11 +64,39 @@ public class TextMatcher<E> implements Matcher<E> {
         this.mode = mode;
         this.strategy = strategy;
 
+        // cached Strings can be normalized up front, rather than on every match
+        if(filterator instanceof FilterStringsCache && strategy == TextMatcherEditor.NORMALIZED_STRATEGY) {
+            this.matchingFilterator = ((FilterStringsCache<E>)filterator).getNormalizedFilterator();
+        } else {
+            this.matchingFilterator = filterator;
+        }
+
         // build the parallel list of TextSearchStrategies for the new searchTerms
         filterStrategies = new TextSearchStrategy[this.searchTerms.length];
         for(int i = 0; i < this.searchTerms.length; i++) {
             filterStrategies[i] = selectTextSearchStrategy(this.searchTerms[i], mode, (TextSearchStrategy.Factory)strategy);
         }
+
+        // locate the terms without fields in a single pass, if the strategy supports it
+        final List<String> multiTerms = new ArrayList<>();
+        final int[] positions = new int[this.searchTerms.length];
+        Arrays.fill(positions, -1);
+        if(strategy instanceof MultiTextSearchStrategy.Factory && mode != TextMatcherEditor.REGULAR_EXPRESSION) {
+            final MultiTextSearchStrategy.Factory multiFactory = (MultiTextSearchStrategy.Factory)strategy;
+            for(int i = 0; i < this.searchTerms.length && multiTerms.size() < MultiTextSearchStrategy.MAX_SUBTEXTS; i++) {
+                if(this.searchTerms[i].getField() != null) continue;
+                if(!multiFactory.supportsMulti(this.searchTerms[i].getText())) continue;
+                positions[i] = multiTerms.size();
+                multiTerms.add(this.searchTerms[i].getText());
+            }
+        }
+        if(multiTerms.size() > 1) {
+            multiStrategy = ((MultiTextSearchStrategy.Factory)strategy).createMulti(mode, multiTerms.toArray(new String[multiTerms.size()]));
+            multiPositions = positions;
+        } else {
+            multiStrategy = null;
+            multiPositions = null;
+        }
     }
 
     /**
@@ -86,6 +120,14 @@ public class TextMatcher<E> implements Matcher<E> {
         return strategy;
     }
 
+    /**
+     * Returns the object that extracts filter Strings from each object to be
+     * matched, or <code>null</code> if the objects implement {@link TextFilterable}.
+     */
+    public TextFilterator<? super E> getFilterator() {
+        return filterator;
+    }
+
     /**
      * Returns the searchTerms strings matched by this {@link TextMatcher}.
      */
@@ -108,7 +150,7 @@ public class TextMatcher<E> implements Matcher<E> {
     /** {@inheritDoc} */
     @Override
     public boolean matches(E element) {
-        return TextMatchers.matches(filterStrings, filterator, searchTerms, filterStrategies, element);
+        return TextMatchers.matches(matchingFilterator, searchTerms, filterStrategies, multiStrategy, multiPositions, element);
     }
 
     /**
@@ -36,26 +36,82 @@ public final class TextMatchers {
     /** A Matcher that only accepts SearchTerms without null Fields. */
     private static final Matcher<SearchTerm> FIELD_MATCHER = Matchers.invert(NO_FIELD_MATCHER);
 
+    /** the recyclable lists of filter Strings of each thread */
+    private static final ThreadLocal<FilterStringsBuffer> FILTER_STRINGS_BUFFERS = new ThreadLocal<FilterStringsBuffer>() {
+        @Override
+        protected FilterStringsBuffer initialValue() {
+            return new FilterStringsBuffer();
+        }
+    };
+
+    /**
+     * Execute the logic that determines whether the given <code>element</code>
+     * is matched by all of the given <code>filterStrategies</code>. An optional
+     * <code>filterator</code> can be supplied which is responsible for
+     * extracting all of the filter strings from the given <code>element</code>.
+     *
+     * <p>The filter strings are collected in lists that are recycled by each
+     * thread, so this method may be called concurrently without allocating.
+     *
+     * @param filterator the logic capable of extracting filtering Strings from the <code>element</code>
+     * @param searchTerms SearchTerm objects defining each piece of search text as well as metadata about the text
+     * @param filterStrategies the optimized logic for locating given search text within the filter Strings
+     * @param multiStrategy the logic for locating several search terms within
+     *      the filter Strings at once, or <code>null</code>
+     * @param multiPositions for each search term, its bit in the results of
+     *      <code>multiStrategy</code>, or <code>-1</code> if it is located by
+     *      its own strategy
+     * @param element the list element on which we are text filtering
+     * @return <tt>true</tt> if all <code>filterStrategies</code> located
+     *      matching text within the filter Strings extracted from the given
+     *      <code>element</code>
+     */
+    public static <E> boolean matches(TextFilterator<? super E> filterator, SearchTerm<E>[] searchTerms, TextSearchStrategy[] filterStrategies, MultiTextSearchStrategy multiStrategy, int[] multiPositions, E element) {
+        FilterStringsBuffer buffer = FILTER_STRINGS_BUFFERS.get();
+
+        // a filterator that matches text itself must not clobber our buffer
+        if(buffer.inUse) buffer = new FilterStringsBuffer();
+
+        buffer.inUse = true;
+        try {
+            return matches(buffer.filterStrings, buffer.fieldFilterStrings, filterator, searchTerms, filterStrategies, multiStrategy, multiPositions, element);
+        } finally {
+            // don't hold on to the element's Strings
+            buffer.filterStrings.clear();
+            buffer.fieldFilterStrings.clear();
+            buffer.inUse = false;
+        }
+    }
+
     /**
      * Execute the logic that determines whether the given <code>element</code>
      * is matched by all of the given <code>filterStrategies</code>. An optional
      * <code>filterator</code> can be supplied which is responsible for
      * extracting all of the filter strings from the given <code>element</code>.
-     * The given <code>filterStrings</code> is passed into this method simply
-     * to avoid reallocating a new List object each time this method is called.
-     * The caller may and should recycle the <code>filterStrings</code> List.
+     * The given <code>filterStrings</code> and <code>fieldFilterStrings</code>
+     * are passed into this method simply to avoid reallocating new List
+     * objects each time this method is called. The caller may and should
+     * recycle these Lists, but must not share them between threads.
      *
      * @param filterStrings a recyclable List into which the filter Strings can stored
+     * @param fieldFilterStrings a recyclable List into which the filter Strings of fielded search terms can stored
      * @param filterator the logic capable of extracting filtering Strings from the <code>element</code>
      * @param searchTerms SearchTerm objects defining each piece of search text as well as metadata about the text
      * @param filterStrategies the optimized logic for locating given search text within the <code>filterStrings</code>
+     * @param multiStrategy the logic for locating several search terms within
+     *      the <code>filterStrings</code> at once, or <code>null</code>
+     * @param multiPositions for each search term, its bit in the results of
+     *      <code>multiStrategy</code>, or <code>-1</code> if it is located by
+     *      its own strategy
      * @param element the list element on which we are text filtering
      * @return <tt>true</tt> if all <code>filterStrategies</code> located
      *      matching text within the <code>filterStrings</code> extracted from
      *      the given <code>element</code>
      */
-    public static <E> boolean matches(List<String> filterStrings, TextFilterator<? super E> filterator, SearchTerm<E>[] searchTerms, TextSearchStrategy[] filterStrategies, E element) {
+    public static <E> boolean matches(List<String> filterStrings, List<String> fieldFilterStrings, TextFilterator<? super E> filterator, SearchTerm<E>[] searchTerms, TextSearchStrategy[] filterStrategies, MultiTextSearchStrategy multiStrategy, int[] multiPositions, E element) {
         boolean filterStringsPopulated = false;
+        boolean multiSearched = false;
+        long multiFound = 0;
 
         // ensure each filter matches at least one field
         filters:
@@ -65,22 +121,35 @@ public final class TextMatchers {
             SearchTerm<E> searchTerm = searchTerms[f];
             final SearchEngineTextMatcherEditor.Field searchTermField = searchTerm.getField();
 
+            // if the SearchTerm is located together with others, search for all of them in one pass
+            if (multiPositions != null && multiPositions[f] != -1) {
+                if (!multiSearched) {
+                    if (!filterStringsPopulated) {
+                        populateFilterStrings(filterStrings, filterator, element);
+                        filterStringsPopulated = true;
+                    }
+                    for(int i = 0, n = filterStrings.size(); i < n; i++) {
+                        Object filterString = filterStrings.get(i);
+                        if(filterString != null) multiFound = multiStrategy.indexOf(filterString.toString(), multiFound);
+                    }
+                    multiSearched = true;
+                }
+
+                final boolean located = (multiFound & (1L << multiPositions[f])) != 0;
+                if(located == searchTerm.isNegated()) return false;
+                continue;
+            }
+
             // if the SearchTerm has a Field, use its TextFilterator to extract the filterStrings
             final List<String> strings;
             if (searchTermField != null) {
-                strings = searchTerm.getFieldFilterStrings();
+                strings = fieldFilterStrings;
                 // populate the strings for this object using the SearchTerm's TextFilterator
                 strings.clear();
                 searchTermField.getTextFilterator().getFilterStrings(strings, element);
             } else {
                 if (!filterStringsPopulated) {
-                    // populate the strings for this object
-                    filterStrings.clear();
-                    if(filterator == null) {
-                        ((TextFilterable)element).getFilterStrings(filterStrings);
-                    } else {
-                        filterator.getFilterStrings(filterStrings, element);
-                    }
+                    populateFilterStrings(filterStrings, filterator, element);
                     filterStringsPopulated = true;
                 }
                 strings = filterStrings;
@@ -123,6 +192,19 @@ public final class TextMatchers {
         return true;
     }
 
+    /**
+     * Populate the <code>filterStrings</code> with the Strings of the given
+     * <code>element</code>.
+     */
+    private static <E> void populateFilterStrings(List<String> filterStrings, TextFilterator<? super E> filterator, E element) {
+        filterStrings.clear();
+        if(filterator == null) {
+            ((TextFilterable)element).getFilterStrings(filterStrings);
+        } else {
+            filterator.getFilterStrings(filterStrings, element);
+        }
+    }
+
     /**
      * This convenience method returns a copy of the <code>searchTerms</code>
      * with null and <code>""</code> values removed. It also removes irrelevant
@@ -422,4 +504,13 @@ public final class TextMatchers {
             return b.getText().length() - a.getText().length();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The lists of filter Strings recycled by a thread.
+     */
+    private static final class FilterStringsBuffer {
+        private final List<String> filterStrings = new ArrayList<>();
+        private final List<String> fieldFilterStrings = new ArrayList<>();
+        private boolean inUse = false;
+    }
+}
@@ -11,6 +11,10 @@ package ca.odell.glazedlists.impl.filter;
  * {@link #indexOf(String)} or indexOf will throw an
  * {@link IllegalStateException}.
  *
+ * <p>Once the subtext has been set, {@link #indexOf(String)} may be called by
+ * multiple threads concurrently. Implementations must not keep per-search
+ * state in their fields.
+ *
  * @author James Lemieux
  */
 public interface TextSearchStrategy {
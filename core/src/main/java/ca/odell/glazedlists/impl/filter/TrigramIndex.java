@@ -0,0 +1,631 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.TextFilterable;
+import ca.odell.glazedlists.TextFilterator;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.impl.GlazedListsImpl;
+import ca.odell.glazedlists.impl.adt.barcode2.Element;
+import ca.odell.glazedlists.impl.adt.barcode2.SimpleTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index from each trigram, that is each sequence of three characters, to
+ * the elements of a source list whose filter Strings contain that trigram.
+ * The index is kept in sync with the source list by listening to it.
+ *
+ * <p>Text containing a search term necessarily contains all of the term's
+ * trigrams. So intersecting the elements for each of these trigrams finds
+ * a small set of candidate elements, and only these candidates need to be
+ * searched for the term. Characters are indexed case-insensitively and with
+ * their latin diacritics stripped, so that the candidates are a superset of
+ * the matches for both {@link ca.odell.glazedlists.matchers.TextMatcherEditor#IDENTICAL_STRATEGY}
+ * and {@link ca.odell.glazedlists.matchers.TextMatcherEditor#NORMALIZED_STRATEGY}.
+ *
+ * <p>Each distinct element is given an integer ID, and the index maps trigrams
+ * to sorted arrays of IDs. Each ID leads back to the nodes of its element's
+ * rows, so the candidates can be located in the source list in logarithmic
+ * time per row. Elements are distinguished by identity. IDs are
+ * allocated in increasing order, so that indexing an element only appends to
+ * the arrays. The IDs of removed elements are left in the arrays until they
+ * make up half of all IDs, at which point the remaining IDs are renumbered
+ * in one pass.
+ *
+ * <p>This class is thread ready. Its methods may be called by concurrent
+ * matchers, and it must be notified of source changes before the list
+ * being filtered, which is arranged by {@link #addDependent(Object)}.
+ */
+public final class TrigramIndex<E> implements ListEventListener<E> {
+
+    /** the colors of the row nodes, which are all the same */
+    private static final byte ALL_COLORS = 1;
+
+    /** the fewest retired IDs worth renumbering the index for */
+    private static final int MIN_RETIRED_IDS = 64;
+
+    /** the list whose elements are indexed */
+    private final EventList<E> source;
+
+    /** the lists that must be notified after this index */
+    private final List<Object> dependents = new ArrayList<>();
+
+    /** the filterator used to extract Strings, or <code>null</code> for {@link TextFilterable} elements */
+    private TextFilterator<? super E> filterator;
+
+    /** the entry for each element of the source list, in order */
+    private SimpleTree<Entry<E>> rows = new SimpleTree<>();
+
+    /** the entry for each distinct element */
+    private final Map<E, Entry<E>> entries = new IdentityHashMap<>();
+
+    /** the entry that was given each ID, which may have retired it since */
+    private Entry<E>[] entriesById = newEntryArray(64);
+
+    /** the sorted IDs of the elements containing each trigram */
+    private final Map<Long, Posting> postings = new HashMap<>();
+
+    /** the next ID to allocate, greater than every ID in use */
+    private int nextId = 0;
+
+    /** the number of IDs below {@link #nextId} that no entry holds */
+    private int retiredIds = 0;
+
+    /** incremented each time an element is indexed */
+    private long version = 0;
+
+    /** the version when the IDs were last renumbered */
+    private long renumberedVersion = 0;
+
+    /** whether this index has been disposed */
+    private boolean disposed = false;
+
+    /**
+     * Create an index of the filter Strings of the elements of <code>source</code>.
+     *
+     * @param source the list whose elements are filtered
+     * @param filterator the object that will extract filter Strings from each
+     *      element; <code>null</code> indicates the elements implement
+     *      {@link TextFilterable}
+     */
+    public TrigramIndex(EventList<E> source, TextFilterator<? super E> filterator) {
+        this.source = source;
+        this.filterator = filterator;
+
+        source.getReadWriteLock().readLock().lock();
+        try {
+            rebuild();
+            source.addListEventListener(this);
+        } finally {
+            source.getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the list whose elements are indexed.
+     */
+    public EventList<E> getSource() {
+        return source;
+    }
+
+    /**
+     * Test whether this index has been disposed.
+     */
+    public synchronized boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Make sure that <code>dependent</code>, typically the list filtering
+     * the source, is notified of changes to the source only after this index.
+     */
+    public void addDependent(Object dependent) {
+        source.getPublisher().setRelatedListener(dependent, this);
+        synchronized(this) {
+            dependents.add(dependent);
+        }
+    }
+
+    /**
+     * Change the filterator used to extract filter Strings, and index all
+     * elements again.
+     */
+    public void setFilterator(TextFilterator<? super E> filterator) {
+        source.getReadWriteLock().readLock().lock();
+        try {
+            synchronized(this) {
+                if(filterator == this.filterator) return;
+                this.filterator = filterator;
+                rebuild();
+            }
+        } finally {
+            source.getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * Stop listening to the source list and release the index.
+     */
+    public void dispose() {
+        source.removeListEventListener(this);
+        synchronized(this) {
+            for(int d = 0, n = dependents.size(); d < n; d++) {
+                source.getPublisher().clearRelatedListener(dependents.get(d), this);
+            }
+            dependents.clear();
+            rows = new SimpleTree<>();
+            entries.clear();
+            entriesById = newEntryArray(64);
+            postings.clear();
+            disposed = true;
+        }
+    }
+
+    /**
+     * Index every element of the source from scratch.
+     */
+    private synchronized void rebuild() {
+        rows = new SimpleTree<>();
+        entries.clear();
+        entriesById = newEntryArray(64);
+        postings.clear();
+        nextId = 0;
+        retiredIds = 0;
+        renumberedVersion = ++version;
+        for(int i = 0, n = source.size(); i < n; i++) {
+            addRow(i, source.get(i));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void listChanged(ListEvent<E> listChanges) {
+        // index the new contents in one pass, rather than one change at a time
+        if(listChanges.isReplacement()) {
+            rebuild();
+            return;
+        }
+
+        // reorder the rows, their elements are unchanged
+        if(listChanges.isReordering()) {
+            final int[] reorderMap = listChanges.getReorderMap();
+            final List<Entry<E>> previous = new ArrayList<>(rows.size());
+            for(int i = 0, n = rows.size(); i < n; i++) {
+                final Entry<E> entry = rows.get(i).get();
+                entry.rows.clear();
+                previous.add(entry);
+            }
+            rows = new SimpleTree<>();
+            for(int i = 0; i < reorderMap.length; i++) {
+                final Entry<E> entry = previous.get(reorderMap[i]);
+                entry.rows.add(rows.add(i, entry, 1));
+            }
+            return;
+        }
+
+        while(listChanges.next()) {
+            final int index = listChanges.getIndex();
+            final int type = listChanges.getType();
+
+            if(type == ListEvent.INSERT) {
+                addRow(index, source.get(index));
+            } else if(type == ListEvent.DELETE) {
+                final Element<Entry<E>> row = rows.get(index);
+                removeRow(row);
+                rows.remove(row);
+            } else if(type == ListEvent.UPDATE) {
+                // the element may have been modified in place, so always index it again
+                final Element<Entry<E>> row = rows.get(index);
+                final Entry<E> entry = row.get();
+                final E element = source.get(index);
+                if(entry.element == element) {
+                    reindexElement(entry);
+                } else {
+                    removeRow(row);
+                    final Entry<E> replacement = addElement(element);
+                    replacement.rows.add(row);
+                    row.set(replacement);
+                }
+            }
+        }
+
+        if(retiredIds >= MIN_RETIRED_IDS && retiredIds * 2 >= nextId) renumber();
+    }
+
+    /**
+     * Index the given element as the row at the given index.
+     */
+    private void addRow(int index, E element) {
+        final Entry<E> entry = addElement(element);
+        entry.rows.add(rows.add(index, entry, 1));
+    }
+
+    /**
+     * Remove the given row from the entry of its element, which is removed
+     * from the index with its last row.
+     */
+    private void removeRow(Element<Entry<E>> row) {
+        final Entry<E> entry = row.get();
+        for(int r = entry.rows.size() - 1; r >= 0; r--) {
+            if(entry.rows.get(r) == row) {
+                entry.rows.remove(r);
+                break;
+            }
+        }
+        if(!entry.rows.isEmpty()) return;
+
+        entries.remove(entry.element);
+        retiredIds++;
+    }
+
+    /**
+     * Get the entry of the given element, indexing the element if it has
+     * none yet. The caller adds the element's row to the entry.
+     */
+    private Entry<E> addElement(E element) {
+        Entry<E> entry = entries.get(element);
+        if(entry != null) return entry;
+
+        entry = new Entry<>(element);
+        entries.put(element, entry);
+        postTrigrams(entry);
+        return entry;
+    }
+
+    /**
+     * Index the current filter Strings of the element of the given entry,
+     * which may have been modified in place. The entry gets a new ID, and
+     * its old ID is left in the postings of its old trigrams.
+     */
+    private void reindexElement(Entry<E> entry) {
+        retiredIds++;
+        postTrigrams(entry);
+    }
+
+    /**
+     * Give the entry a new ID, and append it to the postings of the trigrams
+     * of its element.
+     */
+    private void postTrigrams(Entry<E> entry) {
+        final long[] trigrams = trigrams(entry.element);
+        entry.id = nextId++;
+        entry.version = ++version;
+        if(entry.id == entriesById.length) entriesById = Arrays.copyOf(entriesById, entry.id * 2);
+        entriesById[entry.id] = entry;
+        for(int g = 0; g < trigrams.length; g++) {
+            final Long trigram = Long.valueOf(trigrams[g]);
+            Posting posting = postings.get(trigram);
+            if(posting == null) {
+                posting = new Posting();
+                postings.put(trigram, posting);
+            }
+            posting.append(entry.id);
+        }
+    }
+
+    /**
+     * Drop the retired IDs from the postings, and number the IDs in use
+     * consecutively. This preserves the order of the IDs, so the postings
+     * remain sorted.
+     */
+    private void renumber() {
+        final int[] newIds = new int[nextId];
+        Arrays.fill(newIds, -1);
+        for(Entry<E> entry : entries.values()) {
+            newIds[entry.id] = 0;
+        }
+        int id = 0;
+        for(int i = 0; i < newIds.length; i++) {
+            if(newIds[i] != -1) newIds[i] = id++;
+        }
+        entriesById = newEntryArray(Math.max(64, id));
+        for(Entry<E> entry : entries.values()) {
+            entry.id = newIds[entry.id];
+            entriesById[entry.id] = entry;
+        }
+        for(Iterator<Posting> p = postings.values().iterator(); p.hasNext(); ) {
+            final Posting posting = p.next();
+            posting.renumber(newIds);
+            if(posting.size == 0) p.remove();
+        }
+
+        nextId = id;
+        retiredIds = 0;
+        renumberedVersion = ++version;
+    }
+
+    /**
+     * Find the candidate elements that may contain all of the given search
+     * terms, each of which must be {@link #isIndexable(String) indexable}.
+     *
+     * @return the candidates, or <code>null</code> if none of the terms are
+     *      long enough to narrow down the candidates
+     */
+    public synchronized Candidates findCandidates(String[] terms) {
+        final int[] candidateIds = candidateIds(terms);
+        if(candidateIds == null) return null;
+
+        final BitSet ids = new BitSet(nextId);
+        for(int i = 0; i < candidateIds.length; i++) ids.set(candidateIds[i]);
+        return new Candidates(ids, version);
+    }
+
+    /**
+     * Get the indices of the elements that are candidates for either of the
+     * given sets of search terms, each of which must be
+     * {@link #isIndexable(String) indexable}. When the search terms of a
+     * filter change, the match of only these elements may change.
+     *
+     * @return the indices in increasing order, or <code>null</code> if either
+     *      set of terms doesn't narrow down the candidates
+     */
+    public synchronized int[] indicesOfCandidates(String[] terms, String[] otherTerms) {
+        final int[] ids = candidateIds(terms);
+        final int[] otherIds = candidateIds(otherTerms);
+        if(ids == null || otherIds == null) return null;
+
+        int[] result = new int[16];
+        int size = 0;
+        for(int i = 0, j = 0; i < ids.length || j < otherIds.length; ) {
+            // visit the union of both sorted arrays of IDs
+            final int id;
+            if(j == otherIds.length || i < ids.length && ids[i] < otherIds[j]) {
+                id = ids[i++];
+            } else if(i == ids.length || otherIds[j] < ids[i]) {
+                id = otherIds[j++];
+            } else {
+                id = ids[i++];
+                j++;
+            }
+
+            // skip the IDs that have been retired
+            final Entry<E> entry = entriesById[id];
+            if(entry == null || entry.id != id || entry.rows.isEmpty()) continue;
+            for(int r = 0, n = entry.rows.size(); r < n; r++) {
+                if(size == result.length) result = Arrays.copyOf(result, size * 2);
+                result[size++] = rows.indexOfNode(entry.rows.get(r), ALL_COLORS);
+            }
+        }
+
+        Arrays.sort(result, 0, size);
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Intersect the elements of the trigrams of the given search terms.
+     *
+     * @return the sorted IDs of the candidates, which may include retired
+     *      IDs, or <code>null</code> if the terms have no trigrams
+     */
+    private int[] candidateIds(String[] terms) {
+        int[] result = null;
+        int resultSize = 0;
+
+        for(int t = 0; t < terms.length; t++) {
+            final long[] termTrigrams = trigrams(terms[t]);
+            for(int g = 0; g < termTrigrams.length; g++) {
+                final Posting posting = postings.get(Long.valueOf(termTrigrams[g]));
+                if(posting == null) return new int[0];
+
+                // intersect the candidates so far with this trigram's elements
+                if(result == null) {
+                    result = Arrays.copyOf(posting.ids, posting.size);
+                    resultSize = posting.size;
+                } else {
+                    resultSize = intersect(result, resultSize, posting.ids, posting.size);
+                }
+            }
+        }
+
+        return result == null ? null : Arrays.copyOf(result, resultSize);
+    }
+
+    /**
+     * Test whether the given candidates were found before the IDs were
+     * renumbered, so that they no longer narrow down the candidates.
+     */
+    public synchronized boolean isStale(Candidates candidates) {
+        return candidates.version < renumberedVersion;
+    }
+
+    /**
+     * Test whether the given element is one of the candidates. Elements
+     * indexed after the candidates were found, and all elements once the IDs
+     * have been renumbered, are always candidates.
+     */
+    public synchronized boolean isCandidate(Candidates candidates, E element) {
+        if(candidates.version < renumberedVersion) return true;
+        final Entry<E> entry = entries.get(element);
+        if(entry == null || entry.version > candidates.version) return true;
+        return candidates.ids.get(entry.id);
+    }
+
+    /**
+     * Test whether the index can narrow down the candidates for the given
+     * search term. This requires that the term have trigrams, and that it is
+     * found case-insensitively one character at a time.
+     */
+    public static boolean isIndexable(String term) {
+        return term.length() >= 3
+            && term.toUpperCase().length() == term.length()
+            && term.toLowerCase().length() == term.length();
+    }
+
+    /**
+     * Get the distinct trigrams in the filter Strings of the given element.
+     */
+    private long[] trigrams(E element) {
+        final List<String> filterStrings = new ArrayList<>();
+        if(filterator == null) {
+            ((TextFilterable)element).getFilterStrings(filterStrings);
+        } else {
+            filterator.getFilterStrings(filterStrings, element);
+        }
+
+        final LongSet result = new LongSet();
+        for(int i = 0, n = filterStrings.size(); i < n; i++) {
+            // the call to .toString() is necessary for backwards compatibility
+            final Object filterString = filterStrings.get(i);
+            if(filterString != null) addTrigrams(filterString.toString(), result);
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Get the distinct trigrams in the given String.
+     */
+    private static long[] trigrams(String text) {
+        final LongSet result = new LongSet();
+        addTrigrams(text, result);
+        return result.toArray();
+    }
+
+    /**
+     * Add the trigrams of the given String to the given set.
+     */
+    private static void addTrigrams(String text, LongSet result) {
+        if(text.length() < 3) return;
+        long trigram = ((long)fold(text.charAt(0)) << 16) | fold(text.charAt(1));
+        for(int i = 2, n = text.length(); i < n; i++) {
+            trigram = ((trigram << 16) | fold(text.charAt(i))) & 0xFFFFFFFFFFFFL;
+            result.add(trigram);
+        }
+    }
+
+    /**
+     * Map a character so that the characters matched by the text search
+     * strategies map to the same value.
+     */
+    private static char fold(char c) {
+        final char[] mapper = GlazedListsImpl.getLatinDiacriticsStripper();
+        if(c < mapper.length) c = mapper[c];
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Intersect the sorted IDs <code>a</code> with the sorted IDs
+     * <code>b</code>, writing the result into <code>a</code>.
+     *
+     * @return the number of IDs in the intersection
+     */
+    private static int intersect(int[] a, int aSize, int[] b, int bSize) {
+        int size = 0;
+        for(int i = 0, j = 0; i < aSize && j < bSize; ) {
+            if(a[i] < b[j]) {
+                i++;
+            } else if(a[i] > b[j]) {
+                j++;
+            } else {
+                a[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The candidates for a set of search terms, as of a version of the index.
+     */
+    public static final class Candidates {
+        private final BitSet ids;
+        private final long version;
+
+        private Candidates(BitSet ids, long version) {
+            this.ids = ids;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Create an array of entries, which can't be created generically.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Entry<E>[] newEntryArray(int length) {
+        return new Entry[length];
+    }
+
+    /**
+     * An indexed element, with the nodes of the rows where it occurs in the
+     * source.
+     */
+    private static final class Entry<E> {
+        private final E element;
+        private int id;
+        private long version;
+        private final List<Element<Entry<E>>> rows = new ArrayList<>(1);
+
+        private Entry(E element) {
+            this.element = element;
+        }
+    }
+
+    /**
+     * A sorted array of element IDs, some of which may be retired.
+     */
+    private static final class Posting {
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        /**
+         * Add an ID greater than all IDs in this posting.
+         */
+        private void append(int id) {
+            if(size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        /**
+         * Replace each ID by its new ID, dropping those without one.
+         */
+        private void renumber(int[] newIds) {
+            int newSize = 0;
+            for(int i = 0; i < size; i++) {
+                final int id = newIds[ids[i]];
+                if(id != -1) ids[newSize++] = id;
+            }
+            size = newSize;
+            if(size < ids.length / 4) ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+        }
+    }
+
+    /**
+     * A minimal set of longs, which collects the distinct trigrams of an
+     * element without boxing each one.
+     */
+    private static final class LongSet {
+        private long[] values = new long[16];
+        private int size = 0;
+
+        private void add(long value) {
+            for(int i = size - 1; i >= 0 && i >= size - 8; i--) {
+                if(values[i] == value) return;
+            }
+            if(size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private long[] toArray() {
+            final long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+
+            // remove the duplicates that weren't caught when added
+            int distinct = 0;
+            for(int i = 0; i < result.length; i++) {
+                if(distinct == 0 || result[i] != result[distinct - 1]) result[distinct++] = result[i];
+            }
+            return distinct == result.length ? result : Arrays.copyOf(result, distinct);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import ca.odell.glazedlists.gui.AdvancedTableFormat;
 import ca.odell.glazedlists.gui.TableFormat;
 import ca.odell.glazedlists.impl.sort.ComparatorChain;
 import ca.odell.glazedlists.impl.sort.ReverseComparator;
+import ca.odell.glazedlists.impl.sort.SortKeyComparatorChain;
 import ca.odell.glazedlists.impl.sort.TableColumnComparator;
 
 import java.beans.PropertyChangeListener;
@@ -128,6 +129,9 @@ public class SortingState {
         } else if(foreignComparator instanceof ComparatorChain) {
             ComparatorChain chain = (ComparatorChain)foreignComparator;
             comparatorsList = Arrays.asList(chain.getComparators());
+        } else if(foreignComparator instanceof SortKeyComparatorChain) {
+            SortKeyComparatorChain<?> chain = (SortKeyComparatorChain<?>)foreignComparator;
+            comparatorsList = new ArrayList<>(chain.getComparators());
         } else {
             comparatorsList = Collections.singletonList(foreignComparator);
         }
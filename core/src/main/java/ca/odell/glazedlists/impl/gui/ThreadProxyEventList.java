@@ -9,6 +9,7 @@ import ca.odell.glazedlists.TransformedList;
 import ca.odell.glazedlists.event.ListEvent;
 import ca.odell.glazedlists.event.ListEventAssembler;
 import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.impl.GlazedListsImpl;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -155,46 +156,7 @@ public abstract class ThreadProxyEventList<E> extends TransformedList<E, E> impl
      * @return a new List to serve as the up-to-date local cache
      */
     protected List<E> applyChangeToCache(EventList<E> source, ListEvent<E> listChanges, List<E> localCache) {
-        List<E> result = new ArrayList<>(source.size());
-
-        // cacheOffset is the running index delta between localCache and result
-        int resultIndex = 0;
-        int cacheOffset = 0;
-
-        while(true) {
-
-            // find the next change (or the end of the list)
-            int changeIndex;
-            int changeType;
-            if(listChanges.next()) {
-                changeIndex = listChanges.getIndex();
-                changeType = listChanges.getType();
-            } else {
-                changeIndex = source.size();
-                changeType = -1;
-            }
-
-            // perform all the updates before this change
-            for(; resultIndex < changeIndex; resultIndex++) {
-                result.add(resultIndex, localCache.get(resultIndex + cacheOffset));
-            }
-
-            // perform this change
-            if(changeType == ListEvent.DELETE) {
-                cacheOffset++;
-            } else if(changeType == ListEvent.UPDATE) {
-                result.add(resultIndex, source.get(changeIndex));
-                resultIndex++;
-            } else if(changeType == ListEvent.INSERT) {
-                result.add(resultIndex, source.get(changeIndex));
-                resultIndex++;
-                cacheOffset--;
-            } else if(changeType == -1) {
-                break;
-            }
-        }
-
-        return result;
+        return GlazedListsImpl.applyChangeToCache(source, listChanges, localCache);
     }
 
     /** {@inheritDoc} */
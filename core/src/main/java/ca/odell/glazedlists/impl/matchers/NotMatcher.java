@@ -19,6 +19,13 @@ public class NotMatcher<E> implements Matcher<E> {
 		this.parent = parent;
 	}
 
+	/**
+	 * Get the {@link Matcher} whose result is inverted.
+	 */
+	public Matcher<E> getParent() {
+		return parent;
+	}
+
     /** {@inheritDoc} */
 	@Override
     public boolean matches(E item) {
@@ -18,6 +18,13 @@ public class OrMatcher<E> implements Matcher<E> {
         this.matchers = matchers;
     }
 
+    /**
+     * Get the Matchers being combined with an "or" operator.
+     */
+    public Matcher<? super E>[] getMatchers() {
+        return matchers.clone();
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean matches(E item) {
@@ -22,6 +22,14 @@ import java.util.List;
  */
 public class RangeMatcher<D extends Comparable,E> implements Matcher<E> {
 
+    /** the list of filter Comparables recycled by each thread */
+    private static final ThreadLocal<FilterComparablesBuffer> FILTER_COMPARABLES_BUFFERS = new ThreadLocal<FilterComparablesBuffer>() {
+        @Override
+        protected FilterComparablesBuffer initialValue() {
+            return new FilterComparablesBuffer();
+        }
+    };
+
     /** The start of the range; <code>null</code> if the range has no starting value. */
     private final D start;
     /** The end of the range; <code>null</code> if the range has no ending value. */
@@ -34,9 +42,6 @@ public class RangeMatcher<D extends Comparable,E> implements Matcher<E> {
      */
     private final Filterator<D,E> filterator;
 
-    /** a heavily recycled list of filter Comparables, call clear() before use */
-    private final List<D> filterComparables = new ArrayList<>();
-
     /**
      * This constructor should be used when the objects to be filtered are
      * already {@link Comparable} objects and thus no conversion is necessary
@@ -70,35 +75,103 @@ public class RangeMatcher<D extends Comparable,E> implements Matcher<E> {
         this.filterator = filterator;
     }
 
+    /**
+     * Get the start of the range, or <code>null</code> if the range has no
+     * starting value.
+     */
+    public D getStart() {
+        return start;
+    }
+
+    /**
+     * Get the end of the range, or <code>null</code> if the range has no
+     * ending value.
+     */
+    public D getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the Filterator which extracts the Comparables from the matched
+     * objects, or <code>null</code> if they are Comparables themselves.
+     */
+    public Filterator<D,E> getFilterator() {
+        return filterator;
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean matches(E item) {
-        filterComparables.clear();
-
         if (filterator == null)
-            filterComparables.add((D) item);
-        else
-            filterator.getFilterValues(filterComparables, item);
+            return contains((D) item);
 
-        // ensure the range contains at least one extracted Comparable
-        for (int c = 0; c < filterComparables.size(); c++) {
-            D filterComparable = filterComparables.get(c);
+        final List<D> filterComparables = borrowFilterComparables();
+        try {
+            filterator.getFilterValues(filterComparables, item);
 
-            // check if the filterComparable is within the defined range
-            if (filterComparable != null) {
-                if (start != null && start.compareTo(filterComparable) > 0)
-                    continue;
+            // ensure the range contains at least one extracted Comparable
+            for (int c = 0; c < filterComparables.size(); c++) {
+                D filterComparable = filterComparables.get(c);
 
-                if (end != null && end.compareTo(filterComparable) < 0)
-                    continue;
+                // a filterComparable is within the given range, so the object matches
+                if (contains(filterComparable))
+                    return true;
             }
 
-            // a filterComparable is within the given range, so the object matches
-            return true;
+            // no filterComparable fell within this range
+            return false;
+        } finally {
+            releaseFilterComparables(filterComparables);
         }
+    }
 
-        // no filterComparable fell within this range
-        return false;
+    /**
+     * Get an empty list into which to extract filter Comparables. The list
+     * is recycled by the current thread, so that concurrent matchers may
+     * extract Comparables without allocating. It must be passed to
+     * {@link #releaseFilterComparables(List)} when no longer needed.
+     */
+    @SuppressWarnings("unchecked")
+    public static <D> List<D> borrowFilterComparables() {
+        final FilterComparablesBuffer buffer = FILTER_COMPARABLES_BUFFERS.get();
+
+        // a filterator that matches ranges itself must not clobber our buffer
+        if (buffer.inUse)
+            return new ArrayList<>();
+
+        buffer.inUse = true;
+        return (List<D>) buffer.filterComparables;
+    }
+
+    /**
+     * Return a list obtained from {@link #borrowFilterComparables()}, so that
+     * the current thread may recycle it.
+     */
+    public static void releaseFilterComparables(List<?> filterComparables) {
+        final FilterComparablesBuffer buffer = FILTER_COMPARABLES_BUFFERS.get();
+        if (filterComparables != buffer.filterComparables)
+            return;
+
+        // don't hold on to the element's Comparables
+        buffer.filterComparables.clear();
+        buffer.inUse = false;
+    }
+
+    /**
+     * Test whether the given Comparable is within the range. A
+     * <code>null</code> Comparable is within every range.
+     */
+    public boolean contains(D filterComparable) {
+        if (filterComparable == null)
+            return true;
+
+        if (start != null && start.compareTo(filterComparable) > 0)
+            return false;
+
+        if (end != null && end.compareTo(filterComparable) < 0)
+            return false;
+
+        return true;
     }
 
     /** {@inheritDoc} */
@@ -106,4 +179,12 @@ public class RangeMatcher<D extends Comparable,E> implements Matcher<E> {
     public String toString() {
         return "[RangeMatcher between " + start + " and " + end + "]";
     }
-}
\ No newline at end of file
+
+    /**
+     * The list of filter Comparables recycled by a thread.
+     */
+    private static final class FilterComparablesBuffer {
+        private final List<Object> filterComparables = new ArrayList<>();
+        private boolean inUse = false;
+    }
+}
@@ -0,0 +1,33 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.sort;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A comparator that can compare objects by precomputed sort keys, rather than
+ * by the objects themselves. A {@link ca.odell.glazedlists.SortedList} using
+ * such a comparator computes the key of each element once, when it is
+ * inserted or updated, and compares the keys while sorting.
+ *
+ * <p>Comparing the keys of two objects must give the same result as
+ * comparing the objects with {@link #compare}.
+ */
+public interface SortKeyComparator<T> extends Comparator<T> {
+
+    /**
+     * Computes the sort keys of the elements of <code>elements</code> between
+     * <code>from</code>, inclusive, and <code>to</code>, exclusive.
+     *
+     * @param keys receives the key of the element <code>from + i</code> at
+     *      index <code>i</code>
+     */
+    public void getSortKeys(List<? extends T> elements, int from, int to, Object[] keys);
+
+    /**
+     * Compares two keys computed by {@link #getSortKeys}.
+     */
+    public int compareSortKeys(Object alphaKey, Object betaKey);
+}
@@ -0,0 +1,167 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.sort;
+
+import ca.odell.glazedlists.gui.ColumnarTableFormat;
+import ca.odell.glazedlists.gui.TableFormat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A comparator chain whose sort keys are the values of the table columns it
+ * compares. The key of an element is an array with a slot for each chained
+ * comparator: the column value for a {@link TableColumnComparator}, possibly
+ * reversed, and the element itself for any other comparator. Comparing keys
+ * therefore never calls the {@link TableFormat}.
+ *
+ * <p>Column values are extracted a column at a time when the
+ * {@link TableFormat} is a {@link ColumnarTableFormat}.
+ */
+public final class SortKeyComparatorChain<T> implements SortKeyComparator<T> {
+
+    /** the comparators to execute in sequence */
+    private final List<Comparator<T>> comparators;
+
+    /** for each slot, the column comparator, or <code>null</code> if the slot holds the element */
+    private final List<TableColumnComparator<T>> columnComparators;
+
+    /** for each slot, the comparator of the elements, if the slot holds the element */
+    private final List<Comparator<T>> elementComparators;
+
+    /** for each slot, whether its comparison is reversed */
+    private final boolean[] reversed;
+
+    /**
+     * Creates a chain that compares with the specified comparator, or with
+     * the comparators of the specified {@link ComparatorChain}.
+     */
+    public SortKeyComparatorChain(Comparator<T> comparator) {
+        this(comparator instanceof ComparatorChain ? Arrays.asList(((ComparatorChain<T>)comparator).getComparators()) : Collections.singletonList(comparator));
+    }
+
+    /**
+     * Creates a chain that evaluates the specified comparators in sequence.
+     */
+    public SortKeyComparatorChain(List<Comparator<T>> comparators) {
+        this.comparators = new ArrayList<>(comparators);
+        this.columnComparators = new ArrayList<>(comparators.size());
+        this.elementComparators = new ArrayList<>(comparators.size());
+        this.reversed = new boolean[comparators.size()];
+
+        for(int s = 0; s < reversed.length; s++) {
+            Comparator<T> comparator = this.comparators.get(s);
+            if(comparator instanceof ReverseComparator) {
+                reversed[s] = true;
+                comparator = ((ReverseComparator<T>)comparator).getSourceComparator();
+            }
+            final boolean isColumn = comparator instanceof TableColumnComparator;
+            columnComparators.add(isColumn ? (TableColumnComparator<T>)comparator : null);
+            elementComparators.add(isColumn ? null : comparator);
+        }
+    }
+
+    /**
+     * Retrieves the {@link Comparator}s composing this chain.
+     */
+    public List<Comparator<T>> getComparators() {
+        return Collections.unmodifiableList(comparators);
+    }
+
+    /**
+     * Compares the two objects with each comparator in sequence.
+     */
+    @Override
+    public int compare(T alpha, T beta) {
+        for(int i = 0, n = comparators.size(); i < n; i++) {
+            int compareResult = comparators.get(i).compare(alpha, beta);
+            if(compareResult != 0) return compareResult;
+        }
+        return 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void getSortKeys(List<? extends T> elements, int from, int to, Object[] keys) {
+        for(int i = from; i < to; i++) {
+            keys[i - from] = new Object[reversed.length];
+        }
+
+        // fill the keys a slot at a time
+        Object[] values = null;
+        for(int s = 0; s < reversed.length; s++) {
+            final TableColumnComparator<T> columnComparator = columnComparators.get(s);
+            if(columnComparator == null) {
+                for(int i = from; i < to; i++) ((Object[])keys[i - from])[s] = elements.get(i);
+                continue;
+            }
+
+            if(values == null) values = new Object[to - from];
+            getColumnValues(columnComparator.getTableFormat(), columnComparator.getColumn(), elements, from, to, values);
+            for(int i = from; i < to; i++) ((Object[])keys[i - from])[s] = values[i - from];
+        }
+    }
+
+    /**
+     * Gets the values of the specified column for the elements of
+     * <code>elements</code> between <code>from</code>, inclusive, and
+     * <code>to</code>, exclusive, a column at a time if the
+     * {@link TableFormat} is a {@link ColumnarTableFormat}.
+     */
+    private static <E> void getColumnValues(TableFormat<E> tableFormat, int column, List<? extends E> elements, int from, int to, Object[] values) {
+        if(tableFormat instanceof ColumnarTableFormat) {
+            ((ColumnarTableFormat<E>)tableFormat).getColumnValues(elements, from, to, column, values);
+        } else {
+            for(int i = from; i < to; i++) values[i - from] = tableFormat.getColumnValue(elements.get(i), column);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int compareSortKeys(Object alphaKey, Object betaKey) {
+        final Object[] alpha = (Object[])alphaKey;
+        final Object[] beta = (Object[])betaKey;
+        for(int s = 0; s < reversed.length; s++) {
+            final Object alphaValue = reversed[s] ? beta[s] : alpha[s];
+            final Object betaValue = reversed[s] ? alpha[s] : beta[s];
+            final TableColumnComparator<T> columnComparator = columnComparators.get(s);
+            final int compareResult = columnComparator != null
+                    ? columnComparator.compareColumnValues(alphaValue, betaValue)
+                    : compareElements(elementComparators.get(s), alphaValue, betaValue);
+            if(compareResult != 0) return compareResult;
+        }
+        return 0;
+    }
+
+    /**
+     * Compares two elements held by the slots of keys, which are elements of
+     * this chain's type.
+     */
+    @SuppressWarnings("unchecked")
+    private int compareElements(Comparator<T> comparator, Object alpha, Object beta) {
+        return comparator.compare((T)alpha, (T)beta);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+
+        final SortKeyComparatorChain<?> that = (SortKeyComparatorChain<?>) o;
+
+        if(!comparators.equals(that.comparators)) return false;
+
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        return comparators.hashCode();
+    }
+}
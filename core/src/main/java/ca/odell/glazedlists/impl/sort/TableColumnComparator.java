@@ -45,8 +45,14 @@ public class TableColumnComparator<E> implements Comparator<E> {
      */
     @Override
     public int compare(E alpha, E beta) {
-        final Object alphaField = tableFormat.getColumnValue(alpha, column);
-        final Object betaField = tableFormat.getColumnValue(beta, column);
+        return compareColumnValues(tableFormat.getColumnValue(alpha, column), tableFormat.getColumnValue(beta, column));
+    }
+
+    /**
+     * Compares two values of this comparator's column, which have already
+     * been extracted from their objects.
+     */
+    public int compareColumnValues(Object alphaField, Object betaField) {
         try {
             return comparator.compare(alphaField, betaField);
         // throw a 'nicer' exception if the class does not implement Comparable
@@ -62,6 +68,20 @@ public class TableColumnComparator<E> implements Comparator<E> {
         }
     }
 
+    /**
+     * Gets the table format that maps objects to their column values.
+     */
+    public TableFormat<? super E> getTableFormat() {
+        return tableFormat;
+    }
+
+    /**
+     * Gets the column that this comparator sorts by.
+     */
+    public int getColumn() {
+        return column;
+    }
+
     /**
      * Test if this TableColumnComparator is equal to the other specified
      * TableColumnComparator.
@@ -0,0 +1,201 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.swing;
+
+import ca.odell.glazedlists.event.ListEvent;
+
+import java.util.Arrays;
+
+/**
+ * A cache of the column values for a window of consecutive rows of a table,
+ * such as the rows around the visible ones.
+ *
+ * <p>Each cached row follows its element as rows are inserted and deleted
+ * before it, and is discarded precisely when its element is updated or
+ * deleted. Rows that move out of the window are discarded.
+ *
+ * <p>This class is not thread safe. It must be used from the thread that
+ * receives the table's ListEvents, usually the event dispatch thread.
+ */
+public final class CellValueCache {
+
+    /** the value of a cell that is not cached */
+    public static final Object MISSING = new Object();
+
+    /** the number of rows cached */
+    private final int capacity;
+
+    /**
+     * for each row of the window, its element followed by its column values,
+     * or <code>null</code> if the row is not cached
+     */
+    private Object[][] rows;
+
+    /** a spare array of rows, for rearranging the window */
+    private Object[][] spare;
+
+    /** the index of the first row of the window */
+    private int firstRow = 0;
+
+    /**
+     * Create a cache for the specified number of rows.
+     */
+    public CellValueCache(int capacity) {
+        if(capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.rows = new Object[capacity][];
+        this.spare = new Object[capacity][];
+    }
+
+    /**
+     * Get the number of rows cached.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the index of the first row of the window.
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Get the cached value of the specified cell, or {@link #MISSING}.
+     */
+    public Object get(int row, int column) {
+        final Object[] cells = getRow(row);
+        if(cells == null || column + 1 >= cells.length) return MISSING;
+        return cells[column + 1];
+    }
+
+    /**
+     * Get the cached element of the specified row, or {@link #MISSING}.
+     */
+    public Object getElement(int row) {
+        final Object[] cells = getRow(row);
+        return cells == null ? MISSING : cells[0];
+    }
+
+    /**
+     * Cache the value of the specified cell. If the row is outside of the
+     * window, the window slides to contain it.
+     *
+     * @param element the element of the row
+     * @param columnCount the number of columns of the table
+     */
+    public void put(int row, int column, Object element, int columnCount, Object value) {
+        Object[] cells = getRow(row);
+        if(cells == null || cells[0] != element || cells.length != columnCount + 1) {
+            // slide the window just far enough, as the table is scrolled
+            if(row < firstRow) moveTo(row);
+            else if(row >= firstRow + capacity) moveTo(row - capacity + 1);
+            cells = new Object[columnCount + 1];
+            Arrays.fill(cells, MISSING);
+            cells[0] = element;
+            rows[row - firstRow] = cells;
+        }
+        cells[column + 1] = value;
+    }
+
+    /**
+     * Move the window to start at the specified row, keeping the rows that
+     * remain within it.
+     */
+    public void moveTo(int newFirstRow) {
+        if(newFirstRow == firstRow) return;
+        Arrays.fill(spare, null);
+        for(int i = 0; i < capacity; i++) {
+            final int position = firstRow + i - newFirstRow;
+            if(position >= 0 && position < capacity) spare[position] = rows[i];
+        }
+        swap(newFirstRow);
+    }
+
+    /**
+     * Discard all cached rows.
+     */
+    public void clear() {
+        Arrays.fill(rows, null);
+    }
+
+    /**
+     * Discard and move the cached rows as specified by the ListEvent. This
+     * iterates the blocks of the event, so the caller must {@link ListEvent#reset}
+     * it afterwards.
+     */
+    public void listChanged(ListEvent<?> listChanges) {
+        // the rows can't be followed through a reordering
+        if(listChanges.isReordering() || listChanges.isReplacement()) {
+            clear();
+            return;
+        }
+
+        while(listChanges.nextBlock()) {
+            final int startIndex = listChanges.getBlockStartIndex();
+            final int endIndex = listChanges.getBlockEndIndex();
+            final int length = endIndex - startIndex + 1;
+            final int type = listChanges.getType();
+
+            // changes after the window don't affect it
+            if(startIndex >= firstRow + capacity) continue;
+
+            if(type == ListEvent.UPDATE) {
+                for(int row = Math.max(startIndex, firstRow); row <= endIndex && row < firstRow + capacity; row++) {
+                    rows[row - firstRow] = null;
+                }
+
+            } else if(type == ListEvent.INSERT) {
+                // the window moves with the rows after the inserted ones
+                if(startIndex <= firstRow) {
+                    firstRow += length;
+                } else {
+                    Arrays.fill(spare, null);
+                    for(int i = 0; i < capacity; i++) {
+                        final int position = firstRow + i < startIndex ? i : i + length;
+                        if(position < capacity) spare[position] = rows[i];
+                    }
+                    swap(firstRow);
+                }
+
+            } else if(type == ListEvent.DELETE) {
+                // the window moves with the rows after the deleted ones
+                if(endIndex < firstRow) {
+                    firstRow -= length;
+                } else {
+                    final int newFirstRow = Math.min(firstRow, startIndex);
+                    Arrays.fill(spare, null);
+                    for(int i = 0; i < capacity; i++) {
+                        final int row = firstRow + i;
+                        if(row >= startIndex && row <= endIndex) continue;
+                        final int position = (row > endIndex ? row - length : row) - newFirstRow;
+                        if(position < capacity) spare[position] = rows[i];
+                    }
+                    swap(newFirstRow);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the cells of the specified row, or <code>null</code> if the row
+     * is not cached.
+     */
+    private Object[] getRow(int row) {
+        final int position = row - firstRow;
+        if(position < 0 || position >= capacity) return null;
+        return rows[position];
+    }
+
+    /**
+     * Make the spare rows the current ones, starting at the specified row.
+     */
+    private void swap(int newFirstRow) {
+        final Object[][] previous = rows;
+        rows = spare;
+        spare = previous;
+        firstRow = newFirstRow;
+    }
+}
@@ -59,6 +59,25 @@ class DefaultTableModelEventAdapter<E> implements TableModelEventAdapter<E> {
     public void listChanged(ListEvent<E> listChanges) {
         checkAccessThread();
 
+        // the complete list was replaced, so fire one event for all deleted rows
+        // and one for all inserted rows rather than one for each block. A data
+        // changed event is avoided because JTable would clear the selection
+        // model before it has seen the change
+        if (listChanges.isReplacement() && !listChanges.isReordering()) {
+            int deletedRows = 0;
+            while (listChanges.nextBlock() && listChanges.getType() == ListEvent.DELETE) {
+                deletedRows += listChanges.getBlockEndIndex() - listChanges.getBlockStartIndex() + 1;
+            }
+            final int insertedRows = listChanges.getSourceList().size();
+            if (deletedRows > 0) {
+                fireTableChanged(0, deletedRows - 1, ListEvent.DELETE);
+            }
+            if (insertedRows > 0) {
+                fireTableChanged(0, insertedRows - 1, ListEvent.INSERT);
+            }
+            return;
+        }
+
         // for all changes, one block at a time
         while (listChanges.nextBlock()) {
             // get the current change info
@@ -98,6 +117,13 @@ class DefaultTableModelEventAdapter<E> implements TableModelEventAdapter<E> {
         tableModel.fireTableChanged(tableModelEvent);
     }
 
+    /**
+     * Gets the adapted table model.
+     */
+    final AbstractTableModel getTableModel() {
+        return tableModel;
+    }
+
     /**
      * A convenience method to ensure {@link DefaultTableModelEventAdapter} is being
      * accessed from the Event Dispatch Thread.
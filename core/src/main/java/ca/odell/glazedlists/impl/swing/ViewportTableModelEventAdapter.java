@@ -0,0 +1,212 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.swing;
+
+import ca.odell.glazedlists.event.ListEvent;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+
+import javax.swing.JTable;
+import javax.swing.JViewport;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+
+/**
+ * ViewportTableModelEventAdapter encapsulates a strategy for converting list
+ * events to table model events that only reports the changes to the rows
+ * that are visible in the table.
+ *
+ * <p>
+ * The adapter locates the visible rows of the {@link JTable} that listens to
+ * the table model. Updates of the rows that aren't visible are not fired at
+ * all. If no row is inserted or deleted within the visible rows, the inserts
+ * and deletes above them are fired as a single TableModelEvent, as are the
+ * ones below them. The table is then scrolled by the number of rows inserted
+ * or deleted above the visible rows, so that the visible rows don't jump.
+ * </p>
+ * <p>
+ * Since the rows above the visible ones are not reported precisely, a
+ * JTable's default selection model would select the wrong rows after such a
+ * change. This adapter should therefore be combined with a selection model
+ * that follows the list itself, such as
+ * {@link ca.odell.glazedlists.swing.DefaultEventSelectionModel}. The
+ * scrolling assumes that all rows have the same height.
+ * </p>
+ * <p>
+ * If the table model has no JTable or several, or the JTable has a
+ * RowSorter, or the ListEvent is a reordering, each ListEvent block is
+ * fired like the {@link DefaultTableModelEventAdapter default adapter} does.
+ * </p>
+ *
+ * @see ViewportTableModelEventAdapterFactory
+ */
+class ViewportTableModelEventAdapter<E> extends DefaultTableModelEventAdapter<E> {
+
+    /**
+     * Constructor with {@link TableModel}.
+     *
+     * @param tableModel the adapted table model
+     */
+    ViewportTableModelEventAdapter(AbstractTableModel tableModel) {
+        super(tableModel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void listChanged(ListEvent<E> listChanges) {
+        checkAccessThread();
+
+        // without a single table showing the rows in model order, fire every block
+        final JTable table = findTable();
+        if (table == null || listChanges.isReordering() || listChanges.isReplacement()) {
+            super.listChanged(listChanges);
+            return;
+        }
+
+        // locate the visible rows, which may extend past the last row
+        final Rectangle visibleRect = table.getVisibleRect();
+        if (visibleRect.isEmpty()) {
+            super.listChanged(listChanges);
+            return;
+        }
+        final int firstVisible = table.rowAtPoint(visibleRect.getLocation());
+        final int lastVisible = table.rowAtPoint(new Point(visibleRect.x, visibleRect.y + visibleRect.height - 1));
+        if (firstVisible == -1) {
+            super.listChanged(listChanges);
+            return;
+        }
+        final VisibleRows visible = new VisibleRows(firstVisible, lastVisible == -1 ? Integer.MAX_VALUE / 2 : lastVisible);
+
+        // collapse the changes around the visible rows, if none are inserted or deleted
+        if (fireCollapsed(listChanges, table, visible)) return;
+
+        // otherwise fire the inserts and deletes, and the updates of visible rows
+        listChanges.reset();
+        visible.reset(firstVisible, lastVisible == -1 ? Integer.MAX_VALUE / 2 : lastVisible);
+        while (listChanges.nextBlock()) {
+            final int startIndex = listChanges.getBlockStartIndex();
+            final int endIndex = listChanges.getBlockEndIndex();
+            final int changeType = listChanges.getType();
+            if (changeType == ListEvent.UPDATE) {
+                if (endIndex >= visible.first && startIndex <= visible.last) {
+                    fireTableChanged(startIndex, endIndex, changeType);
+                }
+            } else {
+                visible.apply(startIndex, endIndex, changeType);
+                fireTableChanged(startIndex, endIndex, changeType);
+            }
+        }
+    }
+
+    /**
+     * Fire the changes of the specified ListEvent as at most one insert or
+     * delete for the rows above the visible ones, one for the rows below, and
+     * one update of the visible rows. Then scroll the table so that the
+     * visible rows don't move.
+     *
+     * @return <code>false</code> if rows were inserted or deleted between the
+     *      visible rows, so that the changes could not be collapsed
+     */
+    private boolean fireCollapsed(ListEvent<E> listChanges, JTable table, VisibleRows visible) {
+        int above = 0;
+        int below = 0;
+        // the range of updated visible rows, as if nothing was inserted or deleted above
+        int updateStart = Integer.MAX_VALUE;
+        int updateEnd = Integer.MIN_VALUE;
+
+        while (listChanges.nextBlock()) {
+            final int startIndex = listChanges.getBlockStartIndex();
+            final int endIndex = listChanges.getBlockEndIndex();
+            final int length = endIndex - startIndex + 1;
+            final int changeType = listChanges.getType();
+
+            if (changeType == ListEvent.UPDATE) {
+                if (endIndex < visible.first || startIndex > visible.last) continue;
+                updateStart = Math.min(updateStart, Math.max(startIndex, visible.first) - above);
+                updateEnd = Math.max(updateEnd, Math.min(endIndex, visible.last) - above);
+
+            } else if (changeType == ListEvent.INSERT ? startIndex <= visible.first : endIndex < visible.first) {
+                above += changeType == ListEvent.INSERT ? length : -length;
+                visible.apply(startIndex, endIndex, changeType);
+
+            } else if (startIndex > visible.last) {
+                below += changeType == ListEvent.INSERT ? length : -length;
+
+            } else {
+                return false;
+            }
+        }
+
+        // the table already reports the final row count
+        final int rowCount = getTableModel().getRowCount();
+        if (above > 0) fireTableChanged(0, above - 1, ListEvent.INSERT);
+        if (above < 0) fireTableChanged(0, -above - 1, ListEvent.DELETE);
+        if (below > 0) fireTableChanged(rowCount - below, rowCount - 1, ListEvent.INSERT);
+        if (below < 0) fireTableChanged(rowCount, rowCount - below - 1, ListEvent.DELETE);
+        if (updateStart <= updateEnd) fireTableChanged(updateStart + above, updateEnd + above, ListEvent.UPDATE);
+
+        // keep the visible rows in place
+        if (above != 0 && table.getParent() instanceof JViewport) {
+            final JViewport viewport = (JViewport) table.getParent();
+            final Point position = viewport.getViewPosition();
+            table.setSize(new Dimension(table.getWidth(), table.getPreferredSize().height));
+            viewport.setViewPosition(new Point(position.x, Math.max(0, position.y + above * table.getRowHeight())));
+        }
+        return true;
+    }
+
+    /**
+     * Find the only JTable that listens to the table model and shows its rows
+     * in model order, or <code>null</code> if there is no such JTable.
+     */
+    private JTable findTable() {
+        JTable result = null;
+        for (TableModelListener listener : getTableModel().getTableModelListeners()) {
+            if (!(listener instanceof JTable)) continue;
+            if (result != null) return null;
+            result = (JTable) listener;
+        }
+        if (result == null || result.getRowSorter() != null) return null;
+        return result;
+    }
+
+    /**
+     * The range of visible rows, which follows the rows as rows are inserted
+     * and deleted.
+     */
+    private static final class VisibleRows {
+        private int first;
+        private int last;
+
+        private VisibleRows(int first, int last) {
+            reset(first, last);
+        }
+
+        private void reset(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * Adjust the range for an insert or delete of the specified rows.
+         */
+        private void apply(int startIndex, int endIndex, int changeType) {
+            final int length = endIndex - startIndex + 1;
+            if (changeType == ListEvent.INSERT) {
+                if (startIndex <= first) first += length;
+                if (startIndex <= last) last += length;
+            } else if (changeType == ListEvent.DELETE) {
+                final int deletedBeforeFirst = Math.max(0, Math.min(endIndex, first - 1) - startIndex + 1);
+                final int deletedBeforeLast = Math.max(0, Math.min(endIndex, last) - startIndex + 1);
+                first -= deletedBeforeFirst;
+                last -= deletedBeforeLast;
+            }
+        }
+    }
+}
@@ -20,6 +20,10 @@ package ca.odell.glazedlists.matchers;
  *    <li>{@link #fireMatchAll()}</li>
  * </ul>
  *
+ * <p>Editors that know which elements a change affects can say so with the
+ * overloads that take {@link MatcherEditor.ChangedElements}, so that only
+ * those elements are tested.
+ *
  * @author <a href="mailto:rob@starlight-systems.com">Rob Eden</a>
  */
 public abstract class AbstractMatcherEditor<E> extends AbstractMatcherEditorListenerSupport<E> {
@@ -70,6 +74,36 @@ public abstract class AbstractMatcherEditor<E> extends AbstractMatcherEditorList
         fireChangedMatcher(createRelaxedEvent(currentMatcher));
     }
 
+    /**
+     * Indicates that the filter has changed in an indeterminate way, but only
+     * for the elements located by <code>changedElements</code>.
+     */
+    protected final void fireChanged(Matcher<E> matcher, MatcherEditor.ChangedElements changedElements) {
+        fireWithChangedElements(MatcherEditor.Event.CHANGED, matcher, changedElements);
+    }
+
+    /**
+     * Indicates that the filter has changed to be more restrictive, but only
+     * for the elements located by <code>changedElements</code>.
+     */
+    protected final void fireConstrained(Matcher<E> matcher, MatcherEditor.ChangedElements changedElements) {
+        fireWithChangedElements(MatcherEditor.Event.CONSTRAINED, matcher, changedElements);
+    }
+
+    /**
+     * Indicates that the filter has changed to be less restrictive, but only
+     * for the elements located by <code>changedElements</code>.
+     */
+    protected final void fireRelaxed(Matcher<E> matcher, MatcherEditor.ChangedElements changedElements) {
+        fireWithChangedElements(MatcherEditor.Event.RELAXED, matcher, changedElements);
+    }
+
+    private void fireWithChangedElements(int type, Matcher<E> matcher, MatcherEditor.ChangedElements changedElements) {
+        if (matcher == null) throw new NullPointerException();
+        currentMatcher = matcher;
+        fireChangedMatcher(createEvent(type, currentMatcher, changedElements));
+    }
+
     /**
      * Indicates that the filter matches none.
      */
@@ -77,7 +77,12 @@ public abstract class AbstractMatcherEditorListenerSupport<E> implements Matcher
 
 	/** creates a matcher event for the given type and matcher. */
 	private MatcherEditor.Event<E> createEvent(int eventType, Matcher<E> matcher) {
-		return new MatcherEditor.Event<>(this, eventType, matcher);
+		return createEvent(eventType, matcher, null);
+	}
+
+	/** creates a matcher event for the given type and matcher, which changes the match of only the given elements. */
+	protected final MatcherEditor.Event<E> createEvent(int eventType, Matcher<E> matcher, MatcherEditor.ChangedElements changedElements) {
+		return new MatcherEditor.Event<>(this, eventType, matcher, changedElements);
 	}
 
 }
\ No newline at end of file
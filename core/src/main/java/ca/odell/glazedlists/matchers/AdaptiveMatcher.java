@@ -0,0 +1,164 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.matchers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link Matcher} that combines other Matchers with an "and" or an "or"
+ * operator, and learns the order in which to evaluate them while it is used.
+ *
+ * <p>A sample of the matched elements is evaluated by every delegate, to
+ * measure how often each delegate matches and how long it takes. These
+ * {@link MatcherStatistics} are exposed by {@link #getStatistics()}.
+ * Periodically the delegates are reordered so that the ones that decide the
+ * result most cheaply are evaluated first. Unlike {@link Matchers#compile},
+ * this follows the actual elements being matched as they change.
+ *
+ * <p>The delegates must not have side effects, so that their evaluation
+ * order does not matter.
+ *
+ * @see Matchers#adaptiveAnd(Matcher[])
+ * @see Matchers#adaptiveOr(Matcher[])
+ */
+public final class AdaptiveMatcher<E> implements Matcher<E> {
+
+    /** one in this many evaluations is sampled, this must be a power of two */
+    private static final int SAMPLE_INTERVAL = 16;
+
+    /** the delegates are reordered after this many sampled evaluations */
+    private static final int REORDER_INTERVAL = 64;
+
+    /** the delegates, in declaration order */
+    private final Matcher<? super E>[] matchers;
+
+    /** the statistics for each delegate, in declaration order */
+    private final MatcherStatistics[] statistics;
+
+    /** whether all delegates must match, or just any */
+    private final boolean and;
+
+    /** the indices of the delegates, in evaluation order */
+    private volatile int[] order;
+
+    /**
+     * The number of evaluations so far. This is not synchronized, so
+     * concurrent evaluations may occasionally skip or repeat a sample.
+     */
+    private int evaluations = 0;
+
+    /**
+     * Create an {@link AdaptiveMatcher} that records into the specified
+     * statistics, which may be shared with a previous AdaptiveMatcher for
+     * the same delegates.
+     *
+     * @param matchers the delegates to combine
+     * @param statistics the statistics for each delegate
+     * @param and <code>true</code> to require all delegates to match,
+     *      <code>false</code> to require any
+     */
+    AdaptiveMatcher(Matcher<? super E>[] matchers, MatcherStatistics[] statistics, boolean and) {
+        if(matchers.length != statistics.length) throw new IllegalArgumentException();
+        this.matchers = matchers.clone();
+        this.statistics = statistics.clone();
+        this.and = and;
+        this.order = computeOrder();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean matches(E item) {
+        final int evaluation = ++evaluations;
+        if((evaluation & (SAMPLE_INTERVAL - 1)) == 0) {
+            final boolean result = matchesSampled(item);
+            if((evaluation / SAMPLE_INTERVAL) % REORDER_INTERVAL == 0) order = computeOrder();
+            return result;
+        }
+
+        final int[] currentOrder = order;
+        for(int i = 0; i < currentOrder.length; i++) {
+            if(matchers[currentOrder[i]].matches(item) != and) return !and;
+        }
+        return and;
+    }
+
+    /**
+     * Evaluate every delegate for the specified item, recording the result
+     * and time taken by each.
+     */
+    private boolean matchesSampled(E item) {
+        boolean result = and;
+        for(int m = 0; m < matchers.length; m++) {
+            final long start = System.nanoTime();
+            final boolean matched = matchers[m].matches(item);
+            statistics[m].record(matched, System.nanoTime() - start);
+            if(matched != and) result = !and;
+        }
+        return result;
+    }
+
+    /**
+     * Order the delegates by their expected cost for each time they decide
+     * the result.
+     */
+    private int[] computeOrder() {
+        final double[] costs = new double[matchers.length];
+        final Integer[] indices = new Integer[matchers.length];
+        for(int m = 0; m < matchers.length; m++) {
+            costs[m] = statistics[m].getCostPerDecision(and);
+            indices[m] = Integer.valueOf(m);
+        }
+        Arrays.sort(indices, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(costs[a.intValue()], costs[b.intValue()]);
+            }
+        });
+
+        final int[] result = new int[indices.length];
+        for(int i = 0; i < result.length; i++) result[i] = indices[i].intValue();
+        return result;
+    }
+
+    /**
+     * Get the delegates, in declaration order.
+     */
+    public List<Matcher<? super E>> getMatchers() {
+        return Collections.unmodifiableList(Arrays.asList(matchers));
+    }
+
+    /**
+     * Get the statistics for each delegate, in declaration order.
+     */
+    public List<MatcherStatistics> getStatistics() {
+        return Collections.unmodifiableList(Arrays.asList(statistics));
+    }
+
+    /**
+     * Get the delegates, in the order they are currently evaluated.
+     */
+    public List<Matcher<? super E>> getEvaluationOrder() {
+        final int[] currentOrder = order;
+        final List<Matcher<? super E>> result = new ArrayList<>(currentOrder.length);
+        for(int i = 0; i < currentOrder.length; i++) result.add(matchers[currentOrder[i]]);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Get whether all delegates must match, or just any.
+     */
+    public boolean isAnd() {
+        return and;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "[AdaptiveMatcher " + (and ? "and" : "or") + " " + getEvaluationOrder() + "]";
+    }
+}
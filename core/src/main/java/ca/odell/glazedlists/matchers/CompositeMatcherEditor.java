@@ -32,6 +32,9 @@ public class CompositeMatcherEditor<E> extends AbstractMatcherEditor<E> {
     /** whether to match with AND or OR */
     private int mode = AND;
 
+    /** whether to learn the evaluation order of the delegates at runtime */
+    private boolean adaptive = false;
+
     /** listeners for each delegate */
     private List<DelegateMatcherEditorListener> matcherEditorListeners = new ArrayList<>();
 
@@ -74,7 +77,9 @@ public class CompositeMatcherEditor<E> extends AbstractMatcherEditor<E> {
     }
 
     /**
-     * Rebuild the CompositeMatcher modelled by this editor.
+     * Rebuild the CompositeMatcher modelled by this editor. The Matcher is
+     * compiled so that the cheapest and most decisive delegates are evaluated
+     * first, or learns that order if this editor is adaptive.
      */
     private Matcher<E> rebuildMatcher() {
         final Matcher[] matchers = new Matcher[matcherEditors.size()];
@@ -82,8 +87,18 @@ public class CompositeMatcherEditor<E> extends AbstractMatcherEditor<E> {
             matchers[i] = matcherEditors.get(i).getMatcher();
         }
 
-        if(mode == AND) return Matchers.and(matchers);
-        else if(mode == OR) return Matchers.or(matchers);
+        if(adaptive) {
+            final MatcherStatistics[] statistics = new MatcherStatistics[matcherEditorListeners.size()];
+            for (int i = 0; i < statistics.length; i++) {
+                statistics[i] = matcherEditorListeners.get(i).statistics;
+            }
+            if(mode == AND) return new AdaptiveMatcher<>(matchers, statistics, true);
+            else if(mode == OR) return new AdaptiveMatcher<>(matchers, statistics, false);
+            else throw new IllegalStateException();
+        }
+
+        if(mode == AND) return Matchers.compile(Matchers.and(matchers));
+        else if(mode == OR) return Matchers.compile(Matchers.or(matchers));
         else throw new IllegalStateException();
     }
 
@@ -104,7 +119,7 @@ public class CompositeMatcherEditor<E> extends AbstractMatcherEditor<E> {
                 // when a MatcherEditor is added, listen to it
                 if(type == ListEvent.INSERT) {
                     MatcherEditor<E> inserted = matcherEditors.get(index);
-                    matcherEditorListeners.add(new DelegateMatcherEditorListener(inserted));
+                    matcherEditorListeners.add(index, new DelegateMatcherEditorListener(inserted));
                     inserts = true;
 
                 // when a MatcherEditor is removed, stop listening to it
@@ -184,6 +199,45 @@ public class CompositeMatcherEditor<E> extends AbstractMatcherEditor<E> {
         }
     }
 
+    /**
+     * Set whether this {@link CompositeMatcherEditor} learns the order in
+     * which to evaluate its delegates at runtime. When adaptive, the pass rate
+     * and cost of each delegate's Matcher are sampled as elements are matched,
+     * and the cheapest and most decisive delegates are evaluated first. The
+     * samples are available from {@link #getStatistics()}.
+     *
+     * @see AdaptiveMatcher
+     */
+    public void setAdaptive(boolean adaptive) {
+        if(this.adaptive == adaptive) return;
+        this.adaptive = adaptive;
+
+        // the new Matcher matches the same elements, so constraining re-tests the fewest
+        if(!matcherEditors.isEmpty()) fireConstrained(rebuildMatcher());
+    }
+
+    /**
+     * Get whether this {@link CompositeMatcherEditor} learns the order in
+     * which to evaluate its delegates at runtime.
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Get the statistics sampled for each delegate while this editor is
+     * adaptive, in the same order as {@link #getMatcherEditors()}. This shows
+     * which delegates are expensive to evaluate, and how selective they are.
+     * The statistics of a delegate are kept as its Matcher changes.
+     */
+    public List<MatcherStatistics> getStatistics() {
+        final List<MatcherStatistics> result = new ArrayList<>(matcherEditorListeners.size());
+        for(DelegateMatcherEditorListener listener : matcherEditorListeners) {
+            result.add(listener.statistics);
+        }
+        return result;
+    }
+
     /**
      * Get the match mode for this {@link CompositeMatcherEditor}.
      *
@@ -200,6 +254,8 @@ public class CompositeMatcherEditor<E> extends AbstractMatcherEditor<E> {
     private class DelegateMatcherEditorListener implements Listener<E> {
         /** the matcher editor this listens to */
         private MatcherEditor<E> source;
+        /** the statistics sampled for the matcher editor's Matchers */
+        private MatcherStatistics statistics = new MatcherStatistics();
 
         /**
          * This implementation of this method simply delegates the handling of
@@ -253,6 +309,7 @@ public class CompositeMatcherEditor<E> extends AbstractMatcherEditor<E> {
             if(this.source == source) return;
             stopListening();
             this.source = source;
+            this.statistics = new MatcherStatistics();
             source.addMatcherEditorListener(this);
         }
         /**
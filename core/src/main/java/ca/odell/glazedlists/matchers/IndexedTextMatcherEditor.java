@@ -0,0 +1,112 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.matchers;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.TextFilterable;
+import ca.odell.glazedlists.TextFilterator;
+import ca.odell.glazedlists.impl.filter.IndexedTextMatcher;
+import ca.odell.glazedlists.impl.filter.SearchTerm;
+import ca.odell.glazedlists.impl.filter.TextMatcher;
+import ca.odell.glazedlists.impl.filter.TrigramIndex;
+
+/**
+ * A {@link TextMatcherEditor} for large lists, which maintains an index of the
+ * searchable {@link String}s of the elements of a source list.
+ *
+ * <p>The index maps every sequence of three characters to the elements whose
+ * {@link String}s contain it, and it is updated as the source list changes.
+ * A filter such as "glazed" can only match elements containing each of "gla",
+ * "laz", "aze" and "zed", so the {@link Matcher}s of this editor reject all
+ * other elements without searching their text. Filter {@link String}s shorter
+ * than three characters, negated filters and regular expressions are
+ * searched for in every element, as by a plain {@link TextMatcherEditor}.
+ *
+ * <p>When the filter changes from one indexed filter to another, only the
+ * elements that may contain either filter can change their match. So a
+ * {@link ca.odell.glazedlists.FilterList} filtering the source list tests just
+ * those elements again, rather than every element.
+ *
+ * <p>The index is kept in sync using the source list's events, which must
+ * reach the index before the {@link ca.odell.glazedlists.FilterList} using
+ * this editor. Therefore the {@link ca.odell.glazedlists.FilterList} must be
+ * passed to {@link #addFilterList(EventList)}, or be created after this
+ * editor. Elements changed without an update event being
+ * fired may be rejected incorrectly. The index costs memory proportional to
+ * the total length of the searchable {@link String}s, so this editor should
+ * be {@link #dispose() disposed} when it is no longer used.
+ */
+public class IndexedTextMatcherEditor<E> extends TextMatcherEditor<E> {
+
+    /** the index of the elements of the source list */
+    private final TrigramIndex<E> index;
+
+    /**
+     * Creates an {@link IndexedTextMatcherEditor} that matches the elements of
+     * <code>source</code> using the specified {@link TextFilterator} to get the
+     * {@link String}s to search.
+     *
+     * @param source the list whose elements are matched by this editor
+     * @param filterator the object that will extract filter Strings from each
+     *      object in the <code>source</code>; <code>null</code> indicates the
+     *      list elements implement {@link TextFilterable}
+     */
+    public IndexedTextMatcherEditor(EventList<E> source, TextFilterator<? super E> filterator) {
+        super(filterator);
+        this.index = new TrigramIndex<>(source, filterator);
+    }
+
+    /**
+     * Make sure that the index is updated before <code>filterList</code>,
+     * which filters the source list using this editor, is notified of changes
+     * to the source list.
+     */
+    public void addFilterList(EventList<?> filterList) {
+        index.addDependent(filterList);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setFilterator(TextFilterator<? super E> filterator) {
+        index.setFilterator(filterator);
+        super.setFilterator(filterator);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected TextMatcher<E> createTextMatcher(SearchTerm<E>[] searchTerms) {
+        return new IndexedTextMatcher<>(searchTerms, getMatchingFilterator(), getMode(), getStrategy(), index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected MatcherEditor.ChangedElements changedElements(TextMatcher<E> oldMatcher, TextMatcher<E> newMatcher) {
+        if (!(oldMatcher instanceof IndexedTextMatcher) || !(newMatcher instanceof IndexedTextMatcher)) return null;
+
+        final IndexedTextMatcher<E> oldIndexedMatcher = (IndexedTextMatcher<E>) oldMatcher;
+        final IndexedTextMatcher<E> newIndexedMatcher = (IndexedTextMatcher<E>) newMatcher;
+        if (oldIndexedMatcher.getIndex() != index || newIndexedMatcher.getIndex() != index) return null;
+
+        // every element matched before or after contains the indexed terms of its matcher
+        final String[] oldTerms = oldIndexedMatcher.getIndexedTerms();
+        final String[] newTerms = newIndexedMatcher.getIndexedTerms();
+        if (oldTerms.length == 0 || newTerms.length == 0) return null;
+
+        return new MatcherEditor.ChangedElements() {
+            @Override
+            public int[] getChangedIndices(EventList<?> source) {
+                if (source != index.getSource() || index.isDisposed()) return null;
+                return index.indicesOfCandidates(oldTerms, newTerms);
+            }
+        };
+    }
+
+    /**
+     * Stop listening to the source list and release the index. Afterwards
+     * the {@link Matcher}s of this editor search the text of every element.
+     */
+    public void dispose() {
+        index.dispose();
+    }
+}
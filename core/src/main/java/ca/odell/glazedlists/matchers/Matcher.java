@@ -13,6 +13,15 @@ import java.util.function.Predicate;
  * guarantees that {@link ca.odell.glazedlists.FilterList}s can safely call
  * {@link #matches(Object) matches()} without synchronization.
  *
+ * <p>{@link ca.odell.glazedlists.FilterList} calls {@link #matches(Object) matches()}
+ * while holding its lock, but other users, such as parallel filters, may call
+ * it from several threads at once. Therefore implementations should also be
+ * thread-safe, and must not recycle scratch state in their fields unless it
+ * is confined to a thread. The {@link Matcher}s provided by Glazed Lists,
+ * including those of {@link TextMatcherEditor} and {@link RangeMatcherEditor},
+ * are thread-safe as long as the filterators and strategies they are given
+ * are thread-safe too.
+ *
  * <p>As of Glazed Lists 1.12 Matcher was adapted to extend the {@link Predicate} interface.
  * This way you can use an existing Matcher everywhere a predicate is expected.
  *  
@@ -0,0 +1,395 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.matchers;
+
+import ca.odell.glazedlists.Filterator;
+import ca.odell.glazedlists.impl.filter.TextMatcher;
+import ca.odell.glazedlists.impl.matchers.AndMatcher;
+import ca.odell.glazedlists.impl.matchers.BeanPropertyMatcher;
+import ca.odell.glazedlists.impl.matchers.FalseMatcher;
+import ca.odell.glazedlists.impl.matchers.NotMatcher;
+import ca.odell.glazedlists.impl.matchers.NotNullMatcher;
+import ca.odell.glazedlists.impl.matchers.NullMatcher;
+import ca.odell.glazedlists.impl.matchers.OrMatcher;
+import ca.odell.glazedlists.impl.matchers.PropertyEventNameMatcher;
+import ca.odell.glazedlists.impl.matchers.RangeMatcher;
+import ca.odell.glazedlists.impl.matchers.TrueMatcher;
+import ca.odell.glazedlists.impl.matchers.TypeMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rewrites a tree of {@link Matcher}s into an equivalent tree that is cheaper
+ * to evaluate. The compiler:
+ *
+ * <ul>
+ *   <li>flattens nested {@link AndMatcher}s and {@link OrMatcher}s into a
+ *       single level
+ *   <li>removes double negation, and folds the {@link TrueMatcher} and
+ *       {@link FalseMatcher} constants into their parents
+ *   <li>merges the {@link SetMatcherEditor} Matchers that share a
+ *       function, and the {@link RangeMatcher}s that share a
+ *       {@link Filterator}
+ *   <li>orders the children of each operator so that the cheap and decisive
+ *       ones are evaluated first
+ * </ul>
+ *
+ * <p>Each child is ranked by its cost divided by the probability that it
+ * decides the result of its parent: that it fails for an "and", or matches for
+ * an "or". Without a sample these are estimated from the type of each
+ * Matcher. With a sample, each child is evaluated against the sample elements
+ * to measure both.
+ *
+ * <p>Compiling assumes that Matchers have no side effects, so that their
+ * evaluation order does not matter.
+ */
+final class MatcherCompiler {
+
+    /** the estimated cost of a Matcher whose type is unknown */
+    private static final double DEFAULT_COST = 8;
+
+    /** the sample elements to measure each Matcher against, or <code>null</code> */
+    private final Collection<?> sample;
+
+    private MatcherCompiler(Collection<?> sample) {
+        this.sample = sample == null || sample.isEmpty() ? null : sample;
+    }
+
+    /**
+     * Compile the specified {@link Matcher}.
+     *
+     * @param sample the elements to measure each Matcher against, or
+     *      <code>null</code> to estimate costs from the types of the Matchers
+     */
+    @SuppressWarnings("unchecked")
+    static <E> Matcher<E> compile(Matcher<E> matcher, Collection<? extends E> sample) {
+        // the compiled Matcher is only ever given the elements of the original
+        return (Matcher<E>)new MatcherCompiler(sample).compile(erase(matcher));
+    }
+
+    /**
+     * Treat the specified Matcher as a Matcher of Objects. The Matchers of
+     * a tree are all given the same elements, so the compiler may combine
+     * them without tracking their element types.
+     */
+    @SuppressWarnings("unchecked")
+    private static Matcher<Object> erase(Matcher<?> matcher) {
+        return (Matcher<Object>)matcher;
+    }
+
+    /**
+     * Compile the specified Matcher and its children.
+     */
+    private Matcher<Object> compile(Matcher<Object> matcher) {
+        if(matcher instanceof AndMatcher) {
+            return compileOperator(((AndMatcher<?>)matcher).getMatchers(), true);
+        } else if(matcher instanceof OrMatcher) {
+            return compileOperator(((OrMatcher<?>)matcher).getMatchers(), false);
+        } else if(matcher instanceof NotMatcher) {
+            return compileNot(compile(erase(((NotMatcher<?>)matcher).getParent())));
+        } else {
+            return matcher;
+        }
+    }
+
+    /**
+     * Compile the inverse of the specified compiled Matcher.
+     */
+    private Matcher<Object> compileNot(Matcher<Object> parent) {
+        if(parent == TrueMatcher.getInstance()) return FalseMatcher.getInstance();
+        if(parent == FalseMatcher.getInstance()) return TrueMatcher.getInstance();
+        if(parent instanceof NotMatcher) return erase(((NotMatcher<?>)parent).getParent());
+        if(parent instanceof SetMatcherEditor.SetMatcher) return erase(invert((SetMatcherEditor.SetMatcher<?,?>)parent));
+        return new NotMatcher<>(parent);
+    }
+
+    /**
+     * Get the Matcher from a {@link SetMatcherEditor} which matches exactly
+     * the elements that the specified one doesn't.
+     */
+    private static <E,O> SetMatcherEditor.SetMatcher<E,O> invert(SetMatcherEditor.SetMatcher<E,O> setMatcher) {
+        return new SetMatcherEditor.SetMatcher<>(setMatcher.matchSet, setMatcher.mode == SetMatcherEditor.Mode.BLACKLIST
+                ? SetMatcherEditor.Mode.WHITELIST_EMPTY_MATCH_NONE : SetMatcherEditor.Mode.BLACKLIST, setMatcher.fn);
+    }
+
+    /**
+     * Compile an "and" or an "or" of the specified Matchers.
+     */
+    private Matcher<Object> compileOperator(Matcher<?>[] operands, boolean and) {
+        final Matcher<Object> identity = and ? TrueMatcher.getInstance() : FalseMatcher.getInstance();
+        final Matcher<Object> absorbing = and ? FalseMatcher.getInstance() : TrueMatcher.getInstance();
+
+        // compile and flatten the children, folding constants
+        final List<Matcher<Object>> children = new ArrayList<>();
+        for(int i = 0; i < operands.length; i++) {
+            final Matcher<Object> child = compile(erase(operands[i]));
+            final Matcher<?>[] grandchildren = and && child instanceof AndMatcher ? ((AndMatcher<?>)child).getMatchers()
+                    : !and && child instanceof OrMatcher ? ((OrMatcher<?>)child).getMatchers() : null;
+            if(grandchildren != null) {
+                for(int g = 0; g < grandchildren.length; g++) children.add(erase(grandchildren[g]));
+            } else if(child == absorbing) {
+                return absorbing;
+            } else if(child != identity) {
+                children.add(child);
+            }
+        }
+
+        mergeSetMatchers(children, and);
+        if(and) mergeRangeMatchers(children);
+
+        if(children.isEmpty()) return identity;
+        if(children.size() == 1) return children.get(0);
+
+        // evaluate the most decisive children for their cost first
+        final double[] ranks = new double[children.size()];
+        for(int i = 0; i < ranks.length; i++) {
+            ranks[i] = rank(children.get(i), and);
+        }
+        final Integer[] order = new Integer[ranks.length];
+        for(int i = 0; i < order.length; i++) order[i] = Integer.valueOf(i);
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(ranks[a.intValue()], ranks[b.intValue()]);
+            }
+        });
+        final List<Matcher<Object>> result = new ArrayList<>(order.length);
+        for(int i = 0; i < order.length; i++) {
+            result.add(children.get(order[i].intValue()));
+        }
+
+        return and ? new AndMatcher<>(toArray(result)) : new OrMatcher<>(toArray(result));
+    }
+
+    /**
+     * Copy the specified Matchers into an array, for an {@link AndMatcher}
+     * or an {@link OrMatcher}.
+     */
+    @SuppressWarnings("unchecked")
+    private static Matcher<Object>[] toArray(List<Matcher<Object>> matchers) {
+        return (Matcher<Object>[])matchers.toArray(new Matcher<?>[matchers.size()]);
+    }
+
+    /**
+     * Merge the Matchers from {@link SetMatcherEditor}s that share a function
+     * into a single Matcher.
+     */
+    private static void mergeSetMatchers(List<Matcher<Object>> children, boolean and) {
+        for(int i = 0; i < children.size(); i++) {
+            if(!(children.get(i) instanceof SetMatcherEditor.SetMatcher)) continue;
+            SetMatcherEditor.SetMatcher<?,?> merged = (SetMatcherEditor.SetMatcher<?,?>)children.get(i);
+
+            for(int j = i + 1; j < children.size(); ) {
+                if(!(children.get(j) instanceof SetMatcherEditor.SetMatcher)
+                        || ((SetMatcherEditor.SetMatcher<?,?>)children.get(j)).fn != merged.fn) {
+                    j++;
+                    continue;
+                }
+                merged = mergeSetMatchers(merged, (SetMatcherEditor.SetMatcher<?,?>)children.remove(j), and);
+            }
+
+            children.set(i, erase(merged));
+        }
+    }
+
+    /**
+     * Combine two Matchers from {@link SetMatcherEditor}s with the same
+     * function into one.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E,O> SetMatcherEditor.SetMatcher<E,O> mergeSetMatchers(SetMatcherEditor.SetMatcher<E,O> a, SetMatcherEditor.SetMatcher<?,?> other, boolean and) {
+        // the Matchers share a function, so they share their types too
+        final SetMatcherEditor.SetMatcher<E,O> b = (SetMatcherEditor.SetMatcher<E,O>)other;
+        final boolean aBlacklist = a.mode == SetMatcherEditor.Mode.BLACKLIST;
+        final boolean bBlacklist = b.mode == SetMatcherEditor.Mode.BLACKLIST;
+        final Set<O> merged = new HashSet<>();
+        final SetMatcherEditor.Mode mode;
+
+        // both whitelists: "and" intersects, "or" unites
+        if(!aBlacklist && !bBlacklist) {
+            merged.addAll(a.matchSet);
+            if(and) merged.retainAll(b.matchSet);
+            else merged.addAll(b.matchSet);
+            mode = a.mode;
+
+        // both blacklists: "and" unites, "or" intersects
+        } else if(aBlacklist && bBlacklist) {
+            merged.addAll(a.matchSet);
+            if(and) merged.addAll(b.matchSet);
+            else merged.retainAll(b.matchSet);
+            mode = SetMatcherEditor.Mode.BLACKLIST;
+
+        // a whitelist and a blacklist: "and" is a smaller whitelist, "or" a smaller blacklist
+        } else {
+            final SetMatcherEditor.SetMatcher<E,O> whitelist = aBlacklist ? b : a;
+            final SetMatcherEditor.SetMatcher<E,O> blacklist = aBlacklist ? a : b;
+            if(and) {
+                merged.addAll(whitelist.matchSet);
+                merged.removeAll(blacklist.matchSet);
+                mode = whitelist.mode;
+            } else {
+                merged.addAll(blacklist.matchSet);
+                merged.removeAll(whitelist.matchSet);
+                mode = SetMatcherEditor.Mode.BLACKLIST;
+            }
+        }
+
+        return new SetMatcherEditor.SetMatcher<>(merged, mode, a.fn);
+    }
+
+    /**
+     * Merge the {@link RangeMatcher}s of an "and" that share a
+     * {@link Filterator} into a single Matcher.
+     */
+    @SuppressWarnings("unchecked")
+    private static <D extends Comparable<?>> void mergeRangeMatchers(List<Matcher<Object>> children) {
+        for(int i = 0; i < children.size(); i++) {
+            if(!(children.get(i) instanceof RangeMatcher)) continue;
+
+            // the RangeMatchers share a Filterator, so they share their types too
+            final List<RangeMatcher<D,Object>> ranges = new ArrayList<>();
+            ranges.add((RangeMatcher<D,Object>)children.get(i));
+            final Filterator<D,Object> filterator = ranges.get(0).getFilterator();
+            for(int j = i + 1; j < children.size(); ) {
+                if(children.get(j) instanceof RangeMatcher && ((RangeMatcher<?,?>)children.get(j)).getFilterator() == filterator) {
+                    ranges.add((RangeMatcher<D,Object>)children.remove(j));
+                } else {
+                    j++;
+                }
+            }
+            if(ranges.size() == 1) continue;
+
+            // elements that are Comparables themselves are within all ranges
+            // if they are within their intersection
+            if(filterator == null) {
+                D start = null;
+                D end = null;
+                for(RangeMatcher<D,Object> range : ranges) {
+                    if(range.getStart() != null && (start == null || ((Comparable<Object>)start).compareTo(range.getStart()) < 0)) start = range.getStart();
+                    if(range.getEnd() != null && (end == null || ((Comparable<Object>)end).compareTo(range.getEnd()) > 0)) end = range.getEnd();
+                }
+                children.set(i, new RangeMatcher<>(start, end));
+
+            // each range may contain a different one of the extracted Comparables,
+            // so only share the extraction
+            } else {
+                children.set(i, new RangesMatcher<>(ranges, filterator));
+            }
+        }
+    }
+
+    /**
+     * Get the rank of the specified child of an "and" or an "or". Children
+     * with lower ranks are evaluated first.
+     */
+    private double rank(Matcher<Object> child, boolean and) {
+        final double cost;
+        final double decisive;
+
+        if(sample == null) {
+            cost = estimateCost(child);
+            decisive = 0.5;
+
+        } else {
+            int matched = 0;
+            final long start = System.nanoTime();
+            for(Object element : sample) {
+                if(child.matches(element)) matched++;
+            }
+            final long elapsed = System.nanoTime() - start;
+
+            // smooth the probabilities so that a child that is never decisive
+            // within the sample is still ordered by its cost
+            cost = Math.max(1L, elapsed) / (double)sample.size();
+            final double matchedProbability = (matched + 1.0) / (sample.size() + 2.0);
+            decisive = and ? 1.0 - matchedProbability : matchedProbability;
+        }
+
+        return cost / decisive;
+    }
+
+    /**
+     * Estimate the relative cost of evaluating the specified Matcher from its
+     * type.
+     */
+    private static double estimateCost(Matcher<?> matcher) {
+        if(matcher instanceof AndMatcher || matcher instanceof OrMatcher) {
+            final Matcher<?>[] children = matcher instanceof AndMatcher
+                    ? ((AndMatcher<?>)matcher).getMatchers() : ((OrMatcher<?>)matcher).getMatchers();
+            double cost = 0;
+            for(int i = 0; i < children.length; i++) cost += estimateCost(children[i]);
+            return cost;
+        } else if(matcher instanceof NotMatcher) {
+            return estimateCost(((NotMatcher<?>)matcher).getParent());
+        } else if(matcher instanceof TrueMatcher || matcher instanceof FalseMatcher
+                || matcher instanceof NullMatcher || matcher instanceof NotNullMatcher) {
+            return 1;
+        } else if(matcher instanceof TypeMatcher) {
+            return 2;
+        } else if(matcher instanceof SetMatcherEditor.SetMatcher
+                || matcher instanceof RangeMatcher || matcher instanceof RangesMatcher) {
+            return 4;
+        } else if(matcher instanceof BeanPropertyMatcher || matcher instanceof PropertyEventNameMatcher) {
+            return 16;
+        } else if(matcher instanceof TextMatcher) {
+            return 32;
+        } else {
+            return DEFAULT_COST;
+        }
+    }
+
+    /**
+     * A Matcher that requires each of several ranges to contain one of the
+     * Comparables extracted from an element by a {@link Filterator}. This is
+     * equivalent to an "and" of a {@link RangeMatcher} for each range, but
+     * extracts the Comparables only once.
+     */
+    private static final class RangesMatcher<D extends Comparable<?>,E> implements Matcher<E> {
+
+        /** the ranges, each of which must contain an extracted Comparable */
+        private final List<RangeMatcher<D,E>> ranges;
+        /** extracts the Comparables from the matched objects */
+        private final Filterator<D,E> filterator;
+
+        private RangesMatcher(List<RangeMatcher<D,E>> ranges, Filterator<D,E> filterator) {
+            this.ranges = ranges;
+            this.filterator = filterator;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean matches(E item) {
+            final List<D> filterComparables = RangeMatcher.borrowFilterComparables();
+            try {
+                filterator.getFilterValues(filterComparables, item);
+
+                ranges:
+                for(int r = 0; r < ranges.size(); r++) {
+                    final RangeMatcher<D,E> range = ranges.get(r);
+                    for(int c = 0; c < filterComparables.size(); c++) {
+                        if(range.contains(filterComparables.get(c))) continue ranges;
+                    }
+
+                    // no filterComparable fell within this range
+                    return false;
+                }
+                return true;
+            } finally {
+                RangeMatcher.releaseFilterComparables(filterComparables);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return "[RangesMatcher " + ranges + "]";
+        }
+    }
+}
@@ -3,6 +3,7 @@
 /*                                                     O'Dell Engineering Ltd.*/
 package ca.odell.glazedlists.matchers;
 
+import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.FilterList;
 
 import java.util.EventListener;
@@ -70,6 +71,26 @@ public interface MatcherEditor<E> {
        void changedMatcher(Event<E> matcherEvent);
     }
 
+    /**
+     * Locates the elements of a list whose match may differ between the
+     * previous {@link Matcher} of a {@link MatcherEditor} and the Matcher of
+     * an {@link Event}. This allows a {@link FilterList} to test only those
+     * elements, rather than all of them.
+     */
+    @FunctionalInterface
+    interface ChangedElements {
+
+        /**
+         * Get the indices of the only elements of <code>source</code> whose
+         * match may have changed.
+         *
+         * @param source the list whose elements are being matched
+         * @return the indices in increasing order, or <code>null</code> if the
+         *      changed elements of <code>source</code> cannot be located
+         */
+        int[] getChangedIndices(EventList<?> source);
+    }
+
     /**
      * A MatcherEditor event models a change in the {@link MatcherEditor} that
      * creates a new  {@link Matcher}.
@@ -126,18 +147,31 @@ public interface MatcherEditor<E> {
         private MatcherEditor<E> matcherEditor;
         private final Matcher<E> matcher;
         private final int type;
+        private final ChangedElements changedElements;
+        private long timeSlice = 0;
+        private volatile boolean superseded = false;
 
         public Event(MatcherEditor<E> matcherEditor, int changeType, Matcher<E> matcher) {
+            this(matcherEditor, changeType, matcher, null);
+        }
+
+        /**
+         * @param changedElements locates the only elements whose match may
+         *      have changed, or <code>null</code> if any element's may have
+         */
+        public Event(MatcherEditor<E> matcherEditor, int changeType, Matcher<E> matcher, ChangedElements changedElements) {
             super(matcherEditor);
             this.matcherEditor = matcherEditor;
             this.type = changeType;
             this.matcher = matcher;
+            this.changedElements = changedElements;
         }
 
         public Event(FilterList eventSource, int changeType, Matcher<E> matcher) {
             super(eventSource);
             this.type = changeType;
             this.matcher = matcher;
+            this.changedElements = null;
         }
 
         /**
@@ -156,5 +190,44 @@ public interface MatcherEditor<E> {
         public int getType() {
             return this.type;
         }
+
+        /**
+         * Get the locator for the only elements whose match may have changed,
+         * or <code>null</code> if any element's match may have changed.
+         */
+        public ChangedElements getChangedElements() {
+            return this.changedElements;
+        }
+
+        /**
+         * Get the longest time in milliseconds that a listener should hold its
+         * locks while handling this event, or 0 if it should handle the event
+         * at once. Listeners that can, such as {@link FilterList}, handle the
+         * event in slices of this length, and abandon the work left when the
+         * event is {@link #isSuperseded() superseded}.
+         *
+         * @see ThreadedMatcherEditor#setTimeSlice(long)
+         */
+        public long getTimeSlice() {
+            return this.timeSlice;
+        }
+
+        void setTimeSlice(long timeSlice) {
+            this.timeSlice = timeSlice;
+        }
+
+        /**
+         * Get whether a newer event has been fired, so that the work left to
+         * handle this event may be abandoned. Only an event with a
+         * {@link #getTimeSlice() time slice} may be abandoned, and only in a
+         * way that the newer event completes.
+         */
+        public boolean isSuperseded() {
+            return this.superseded;
+        }
+
+        void supersede() {
+            this.superseded = true;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.matchers;
+
+/**
+ * Statistics on how often a {@link Matcher} matches and how long it takes,
+ * as sampled by an {@link AdaptiveMatcher}.
+ *
+ * <p>Only a sample of the elements matched are measured. Older measurements
+ * are periodically given less weight, so that the statistics follow changes
+ * to the Matcher and to the matched elements.
+ */
+public final class MatcherStatistics {
+
+    /** when the number of evaluations reaches this, old measurements are halved */
+    private static final long DECAY_THRESHOLD = 4096;
+
+    /** the number of sampled evaluations */
+    private long evaluations = 0;
+    /** the number of sampled evaluations that matched */
+    private long matches = 0;
+    /** the total time spent on the sampled evaluations, in nanoseconds */
+    private long nanos = 0;
+
+    /**
+     * Record the result of a sampled evaluation.
+     */
+    synchronized void record(boolean matched, long elapsedNanos) {
+        if(evaluations >= DECAY_THRESHOLD) {
+            evaluations /= 2;
+            matches /= 2;
+            nanos /= 2;
+        }
+        evaluations++;
+        if(matched) matches++;
+        nanos += elapsedNanos;
+    }
+
+    /**
+     * Get the weighted number of sampled evaluations.
+     */
+    public synchronized long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Get the weighted number of sampled evaluations that matched.
+     */
+    public synchronized long getMatches() {
+        return matches;
+    }
+
+    /**
+     * Get the fraction of the sampled evaluations that matched, between 0.0
+     * and 1.0. This is 0.5 if there have been no evaluations yet.
+     */
+    public synchronized double getPassRate() {
+        // smoothed, so that a few samples don't make a Matcher look infallible
+        return (matches + 1.0) / (evaluations + 2.0);
+    }
+
+    /**
+     * Get the average time taken by a sampled evaluation, in nanoseconds. This
+     * is 0.0 if there have been no evaluations yet.
+     */
+    public synchronized double getAverageNanos() {
+        return evaluations == 0 ? 0.0 : nanos / (double)evaluations;
+    }
+
+    /**
+     * Get the expected cost of evaluating the Matcher for each time it
+     * decides the result of an "and" or an "or". Matchers with a lower cost
+     * should be evaluated first.
+     */
+    synchronized double getCostPerDecision(boolean and) {
+        final double decisive = and ? 1.0 - getPassRate() : getPassRate();
+        return Math.max(1.0, getAverageNanos()) / decisive;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "[MatcherStatistics evaluations: " + getEvaluations() + ", pass rate: " + getPassRate()
+                + ", average nanos: " + getAverageNanos() + "]";
+    }
+}
@@ -309,6 +309,81 @@ public final class Matchers {
         return new AndMatcher<>(matchers);
     }
 
+    /**
+     * Returns a Matcher which returns a match when <strong>all</strong> of the
+     * given <code>matchers</code> report a match. The returned Matcher samples
+     * the pass rate and cost of each of the <code>matchers</code> while it is
+     * used, and evaluates the cheapest and most selective ones first.
+     *
+     * @param matchers the Matchers to combine with an "and" operator, which
+     *      must not have side effects
+     * @return a Matcher that combines the <code>matchers</code> via an "and"
+     *      operator and exposes their {@link MatcherStatistics}
+     */
+    @SafeVarargs
+    public static <E> AdaptiveMatcher<E> adaptiveAnd(Matcher<? super E>... matchers) {
+        return new AdaptiveMatcher<>(matchers, newStatistics(matchers.length), true);
+    }
+
+    /**
+     * Returns a Matcher which returns a match when <strong>any</strong> of the
+     * given <code>matchers</code> reports a match. The returned Matcher samples
+     * the pass rate and cost of each of the <code>matchers</code> while it is
+     * used, and evaluates the cheapest and least selective ones first.
+     *
+     * @param matchers the Matchers to combine with an "or" operator, which
+     *      must not have side effects
+     * @return a Matcher that combines the <code>matchers</code> via an "or"
+     *      operator and exposes their {@link MatcherStatistics}
+     */
+    @SafeVarargs
+    public static <E> AdaptiveMatcher<E> adaptiveOr(Matcher<? super E>... matchers) {
+        return new AdaptiveMatcher<>(matchers, newStatistics(matchers.length), false);
+    }
+
+    /**
+     * Create the specified number of empty {@link MatcherStatistics}.
+     */
+    private static MatcherStatistics[] newStatistics(int count) {
+        final MatcherStatistics[] result = new MatcherStatistics[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new MatcherStatistics();
+        }
+        return result;
+    }
+
+    /**
+     * Returns a Matcher equivalent to the given <code>matcher</code>, that is
+     * usually cheaper to evaluate. Nested "and" and "or" Matchers are
+     * flattened, constant and doubly inverted Matchers are folded, Matchers
+     * from {@link SetMatcherEditor}s and {@link RangeMatcherEditor}s on the
+     * same key are merged, and the children of each "and" and "or" are ordered
+     * so that the cheapest and most decisive ones are evaluated first.
+     *
+     * <p>The order of evaluation is estimated from the types of the Matchers.
+     * Use {@link #compile(Matcher, Collection)} to measure it instead.
+     *
+     * @param matcher the Matcher to compile, which must not have side effects
+     * @return a Matcher that matches the same elements as <code>matcher</code>
+     */
+    public static <E> Matcher<E> compile(Matcher<E> matcher) {
+        return MatcherCompiler.compile(matcher, null);
+    }
+
+    /**
+     * Returns a Matcher equivalent to the given <code>matcher</code>, that is
+     * usually cheaper to evaluate. This is like {@link #compile(Matcher)}, but
+     * orders the children of each "and" and "or" by their cost and pass rate
+     * measured against the <code>sample</code> elements.
+     *
+     * @param matcher the Matcher to compile, which must not have side effects
+     * @param sample elements representative of those to be matched
+     * @return a Matcher that matches the same elements as <code>matcher</code>
+     */
+    public static <E> Matcher<E> compile(Matcher<E> matcher, Collection<? extends E> sample) {
+        return MatcherCompiler.compile(matcher, sample);
+    }
+
     /**
      * Returns a Matcher which reports a match when the given object to match
      * is not null and reports on of the given <code>classes</code> as its type.
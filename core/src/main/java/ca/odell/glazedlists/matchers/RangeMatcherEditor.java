@@ -3,7 +3,13 @@
 /*                                                     O'Dell Engineering Ltd.*/
 package ca.odell.glazedlists.matchers;
 
+import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.Filterator;
+import ca.odell.glazedlists.impl.filter.KeyIndex;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * A MatcherEditor that produces Matchers which match Objects if they lie
@@ -16,6 +22,10 @@ import ca.odell.glazedlists.Filterator;
  * appropriate for extracting {@link Comparable} objects be specified in its
  * constructor, or that every Object to be matched is a {@link Comparable}.
  *
+ * <p>By default, each change to the range tests every element of a filtered
+ * list. Use {@link #indexSource(EventList)} to test only the elements whose
+ * Comparables lie between the old and new bounds of the range.
+ *
  * @author James Lemieux
  */
 public class RangeMatcherEditor<D extends Comparable, E> extends AbstractMatcherEditor<E> {
@@ -28,6 +38,9 @@ public class RangeMatcherEditor<D extends Comparable, E> extends AbstractMatcher
     /** the Comparable object which ends the current range; null indicates there is no end */
     private D currentRangeEnd;
 
+    /** locates the elements of the indexed source by their Comparables, or <code>null</code> */
+    private KeyIndex<E,D> index;
+
     /**
      * Creates a {@link RangeMatcherEditor} whose Matchers can test only elements which
      * are {@link Comparable} objects.
@@ -59,6 +72,68 @@ public class RangeMatcherEditor<D extends Comparable, E> extends AbstractMatcher
         return filterator;
     }
 
+    /**
+     * Index the elements of <code>source</code> by their Comparables, in
+     * sorted order. When the range changes, a
+     * {@link ca.odell.glazedlists.FilterList} of <code>source</code> then
+     * tests only the elements with Comparables between the old and new start
+     * or between the old and new end of the range, so the cost of the change
+     * is proportional to the elements affected rather than to the size of
+     * <code>source</code>.
+     *
+     * <p>The index listens to <code>source</code> and uses memory for each of
+     * its elements. Call {@link #disposeIndex()} to release it.
+     *
+     * @param source the list filtered with this editor
+     */
+    public void indexSource(EventList<E> source) {
+        disposeIndex();
+        this.index = KeyIndex.sorted(source, filterator);
+    }
+
+    /**
+     * Stop indexing the source list given to {@link #indexSource(EventList)}.
+     */
+    public void disposeIndex() {
+        if (index == null) return;
+        index.dispose();
+        index = null;
+    }
+
+    /**
+     * Locate the elements whose match may change when the range changes
+     * from the old bounds to the new bounds, or return <code>null</code> if
+     * there is no index.
+     */
+    private MatcherEditor.ChangedElements changedElements(final D oldStart, final D oldEnd, final D newStart, final D newEnd) {
+        final KeyIndex<E,D> currentIndex = index;
+        if (currentIndex == null) return null;
+
+        return new MatcherEditor.ChangedElements() {
+            @Override
+            public int[] getChangedIndices(EventList<?> source) {
+                if (source != currentIndex.getSource() || currentIndex.isDisposed()) return null;
+
+                // a Comparable in exactly one of the ranges lies between their
+                // starts or between their ends
+                final Set<D> candidates = new LinkedHashSet<>();
+                if (oldStart != null || newStart != null) {
+                    final boolean oldFirst = compare(oldStart, newStart, true) <= 0;
+                    candidates.addAll(currentIndex.keysBetween(oldFirst ? oldStart : newStart, oldFirst ? newStart : oldStart));
+                }
+                if (oldEnd != null || newEnd != null) {
+                    final boolean oldFirst = compare(oldEnd, newEnd, false) <= 0;
+                    candidates.addAll(currentIndex.keysBetween(oldFirst ? oldEnd : newEnd, oldFirst ? newEnd : oldEnd));
+                }
+                for (Iterator<D> i = candidates.iterator(); i.hasNext(); ) {
+                    final D value = i.next();
+                    if (contains(oldStart, oldEnd, value) == contains(newStart, newEnd, value)) i.remove();
+                }
+                return currentIndex.indicesOf(candidates);
+            }
+        };
+    }
+
     /**
      * This method is used to change the range currently matched by this
      * MatcherEditor. When a change to the range is detected, users of this
@@ -116,13 +191,18 @@ public class RangeMatcherEditor<D extends Comparable, E> extends AbstractMatcher
             // construct a matcher describing the new range
             final Matcher<E> matcher = Matchers.rangeMatcher(newStart, newEnd, filterator);
 
+            // the elements whose match may change can only be located if
+            // the previous Matcher was also a range
+            final MatcherEditor.ChangedElements changedElements = currentRangeStart != null || currentRangeEnd != null
+                    ? changedElements(currentRangeStart, currentRangeEnd, newStart, newEnd) : null;
+
             // fire the appropriate matcher event
             if (isRelaxed && isConstrained) {
-                fireChanged(matcher);
+                fireChanged(matcher, changedElements);
             } else if (isRelaxed) {
-                fireRelaxed(matcher);
+                fireRelaxed(matcher, changedElements);
             } else if (isConstrained) {
-                fireConstrained(matcher);
+                fireConstrained(matcher, changedElements);
             }
 
         } finally {
@@ -131,6 +211,14 @@ public class RangeMatcherEditor<D extends Comparable, E> extends AbstractMatcher
         }
     }
 
+    /**
+     * Get whether the range between <code>start</code> and <code>end</code>
+     * contains <code>value</code>, treating null bounds as unbounded.
+     */
+    private static boolean contains(Comparable start, Comparable end, Comparable value) {
+        return (start == null || start.compareTo(value) <= 0) && (end == null || end.compareTo(value) >= 0);
+    }
+
     /**
      * Compare the specified two values, treating null as either before
      * all other values or after all other values.
@@ -3,9 +3,13 @@ package ca.odell.glazedlists.matchers;
 import static ca.odell.glazedlists.impl.Preconditions.checkNotNull;
 import static ca.odell.glazedlists.impl.Preconditions.checkState;
 
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.Filterator;
 import ca.odell.glazedlists.FunctionList.Function;
+import ca.odell.glazedlists.impl.filter.KeyIndex;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -23,6 +27,10 @@ import java.util.logging.Logger;
  * An empty match set matches no elements.</li>
  * </ul>
  *
+ * <p>By default, each change to the match set tests every element of a
+ * filtered list. Use {@link #indexSource(EventList)} to test only the
+ * elements whose values were added to or removed from the match set.
+ *
  * @param <E> type of list elements
  * @param <O> type of match set
  *
@@ -49,6 +57,9 @@ public final class SetMatcherEditor<E, O> extends AbstractMatcherEditor<E> {
 	private final Function<E, O> function;
 	private Mode mode;
 
+    /** locates the elements of the indexed source by their values, or <code>null</code> */
+    private KeyIndex<E, O> index;
+
     private SetMatcherEditor(final Mode mode, final Function<E, O> function) {
         this.function = checkNotNull(function);
         this.mode = checkNotNull(mode);
@@ -60,6 +71,62 @@ public final class SetMatcherEditor<E, O> extends AbstractMatcherEditor<E> {
         }
     }
 
+    /**
+     * Index the elements of <code>source</code> by the values the function
+     * extracts from them. When the match set changes, a
+     * {@link ca.odell.glazedlists.FilterList} of <code>source</code> then
+     * tests only the elements whose values were added to or removed from the
+     * match set, so the cost of the change is proportional to the elements
+     * affected rather than to the size of <code>source</code>.
+     *
+     * <p>The index listens to <code>source</code> and uses memory for each of
+     * its elements. Call {@link #disposeIndex()} to release it.
+     *
+     * @param source the list filtered with this editor
+     */
+    public void indexSource(EventList<E> source) {
+        disposeIndex();
+        this.index = KeyIndex.hashed(source, new Filterator<O, E>() {
+            @Override
+            public void getFilterValues(List<O> baseList, E element) {
+                baseList.add(function.evaluate(element));
+            }
+        });
+    }
+
+    /**
+     * Stop indexing the source list given to {@link #indexSource(EventList)}.
+     */
+    public void disposeIndex() {
+        if (index == null) return;
+        index.dispose();
+        index = null;
+    }
+
+    /**
+     * Locate the elements whose match may change when the match set changes
+     * from <code>oldSet</code> to <code>newSet</code>, or return
+     * <code>null</code> if there is no index.
+     */
+    private MatcherEditor.ChangedElements changedElements(Set<O> oldSet, Set<O> newSet) {
+        final KeyIndex<E, O> currentIndex = index;
+        if (currentIndex == null) return null;
+
+        // the values in exactly one of the sets
+        final Set<O> changedValues = new HashSet<>(oldSet);
+        for (O value : newSet) {
+            if (!changedValues.remove(value)) changedValues.add(value);
+        }
+
+        return new MatcherEditor.ChangedElements() {
+            @Override
+            public int[] getChangedIndices(EventList<?> source) {
+                if (source != currentIndex.getSource() || currentIndex.isDisposed()) return null;
+                return currentIndex.indicesOf(changedValues);
+            }
+        };
+    }
+
     /**
      * Sets a new match set which triggers a refiltering.
      *
@@ -98,26 +165,26 @@ public final class SetMatcherEditor<E, O> extends AbstractMatcherEditor<E> {
 
             if (this.mode == Mode.BLACKLIST) {
                 L.fine("old set contains new set (blacklist) -> firing relaxed");
-                this.fireRelaxed(new SetMatcher<>(newSet, this.mode, this.function));
+                this.fireRelaxed(new SetMatcher<>(newSet, this.mode, this.function), changedElements(oldSet, newSet));
 
             } else {
                 L.fine("old set contains new set (whitelist) -> firing constrained");
-                this.fireConstrained(new SetMatcher<>(newSet, this.mode, this.function));
+                this.fireConstrained(new SetMatcher<>(newSet, this.mode, this.function), changedElements(oldSet, newSet));
             }
 
         } else if (newSet.containsAll(oldSet)) {
             if (this.mode == Mode.BLACKLIST) {
                 L.fine("new set contains old set (blacklist) -> firing constrained");
-                this.fireConstrained(new SetMatcher<>(newSet, this.mode, this.function));
+                this.fireConstrained(new SetMatcher<>(newSet, this.mode, this.function), changedElements(oldSet, newSet));
 
             } else {
                 L.fine("new set contains old set (whitelist) -> firing relaxed");
-                this.fireRelaxed(new SetMatcher<>(newSet, this.mode, this.function));
+                this.fireRelaxed(new SetMatcher<>(newSet, this.mode, this.function), changedElements(oldSet, newSet));
             }
 
         } else {
             L.fine("old and new set differ -> firing change");
-            this.fireChanged(new SetMatcher<>(newSet, this.mode, this.function));
+            this.fireChanged(new SetMatcher<>(newSet, this.mode, this.function), changedElements(oldSet, newSet));
         }
     }
 
@@ -133,13 +200,13 @@ public final class SetMatcherEditor<E, O> extends AbstractMatcherEditor<E> {
         WHITELIST_EMPTY_MATCH_ALL
     }
 
-    private final static class SetMatcher<E, O> implements Matcher<E> {
+    final static class SetMatcher<E, O> implements Matcher<E> {
 
-		private final Set<O> matchSet;
-		private final Function<E, O> fn;
-		private final Mode mode;
+		final Set<O> matchSet;
+		final Function<E, O> fn;
+		final Mode mode;
 
-        private SetMatcher(final Set<O> matchSet, final Mode mode, final Function<E, O> fn) {
+        SetMatcher(final Set<O> matchSet, final Mode mode, final Function<E, O> fn) {
             this.matchSet = new HashSet<>(matchSet);
             this.mode = mode;
             this.fn = checkNotNull(fn);
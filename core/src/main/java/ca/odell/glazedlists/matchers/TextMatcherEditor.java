@@ -3,12 +3,17 @@
 /*                                                     O'Dell Engineering Ltd.*/
 package ca.odell.glazedlists.matchers;
 
+import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.TextFilterable;
 import ca.odell.glazedlists.TextFilterator;
 import ca.odell.glazedlists.impl.GlazedListsImpl;
+import ca.odell.glazedlists.impl.filter.AhoCorasickTextSearchStrategy;
 import ca.odell.glazedlists.impl.filter.BoyerMooreCaseInsensitiveTextSearchStrategy;
 import ca.odell.glazedlists.impl.filter.ExactCaseInsensitiveTextSearchStrategy;
+import ca.odell.glazedlists.impl.filter.FilterStringsCache;
+import ca.odell.glazedlists.impl.filter.MultiTextSearchStrategy;
 import ca.odell.glazedlists.impl.filter.RegularExpressionTextSearchStrategy;
+import ca.odell.glazedlists.impl.filter.ScanningCaseInsensitiveTextSearchStrategy;
 import ca.odell.glazedlists.impl.filter.SearchTerm;
 import ca.odell.glazedlists.impl.filter.SingleCharacterCaseInsensitiveTextSearchStrategy;
 import ca.odell.glazedlists.impl.filter.StartsWithCaseInsensitiveTextSearchStrategy;
@@ -44,7 +49,7 @@ import ca.odell.glazedlists.impl.filter.TextSearchStrategy;
  *        strings.
  * </ul>
  *
- * <p>{@link TextMatcherEditor} is able to operate with one of two strategies.
+ * <p>{@link TextMatcherEditor} is able to operate with one of three strategies.
  * <ul>
  *   <li>{@link #IDENTICAL_STRATEGY} defines a text match as a precise
  *        character-for-character match between the filters and the text.
@@ -53,8 +58,16 @@ import ca.odell.glazedlists.impl.filter.TextSearchStrategy;
  *        Latin-character based languages. Specifically, diacritics are
  *        stripped from all Latin characters before comparisons are made.
  *        Consequently, filters like "resume" match words like "résumé".
+ *
+ *   <li>{@link #MULTI_TERM_STRATEGY} compares characters like the
+ *        {@link #IDENTICAL_STRATEGY}, but searches for all filters at once.
  * </ul>
  *
+ * <p>Each time the filter text changes, the searchable {@link String}s are
+ * extracted from every Object again. When that is expensive, for example for
+ * large lists of beans, {@link #cacheFilterStrings(EventList, EventList)} can
+ * be used to extract them only once per Object.
+ *
  * @author James Lemieux
  * @author <a href="mailto:jesse@swank.ca">Jesse Wilson</a>
  */
@@ -101,6 +114,9 @@ public class TextMatcherEditor<E> extends AbstractMatcherEditor<E> {
             if (mode == TextMatcherEditor.CONTAINS) {
                 if (filter.length() == 1) {
                     return new SingleCharacterCaseInsensitiveTextSearchStrategy();
+                } else if (filter.length() < 4) {
+                    // Boyer-Moore can't skip much text for short filters
+                    return new ScanningCaseInsensitiveTextSearchStrategy();
                 } else {
                     return new BoyerMooreCaseInsensitiveTextSearchStrategy();
                 }
@@ -142,15 +158,40 @@ public class TextMatcherEditor<E> extends AbstractMatcherEditor<E> {
         }
     }
 
+    /**
+     * Character comparison strategy that compares characters like the
+     * {@link #IDENTICAL_STRATEGY}, but locates all of the search terms in
+     * each String in a single pass. This is fastest when there are many
+     * search terms, as is common with a {@link SearchEngineTextMatcherEditor}.
+     * Terms with a {@link SearchEngineTextMatcherEditor.Field} and regular
+     * expressions are still located one at a time.
+     */
+    public static final Object MULTI_TERM_STRATEGY = new MultiTermStrategyFactory();
+    // this would be an inner class if declawer supported it
+    private static class MultiTermStrategyFactory extends IdenticalStrategyFactory implements MultiTextSearchStrategy.Factory {
+        @Override
+        public MultiTextSearchStrategy createMulti(int mode, String[] filters) {
+            return new AhoCorasickTextSearchStrategy(mode, filters, null);
+        }
+
+        @Override
+        public boolean supportsMulti(String filter) {
+            return AhoCorasickTextSearchStrategy.isSupported(filter);
+        }
+    }
+
     /** the filterator is used as an alternative to implementing the TextFilterable interface */
     private TextFilterator<? super E> filterator;
 
     /** one of {@link #CONTAINS}, {@link #STARTS_WITH}, or {@link #REGULAR_EXPRESSION} */
     private int mode = CONTAINS;
 
-    /** one of {@link #IDENTICAL_STRATEGY} or {@link #NORMALIZED_STRATEGY} */
+    /** one of {@link #IDENTICAL_STRATEGY}, {@link #NORMALIZED_STRATEGY} or {@link #MULTI_TERM_STRATEGY} */
     private TextSearchStrategy.Factory strategy = (TextSearchStrategy.Factory)IDENTICAL_STRATEGY;
 
+    /** the cache of the filter Strings of each Object, or <code>null</code> if they are not cached */
+    private FilterStringsCache<E> filterStringsCache;
+
     /**
      * Creates a {@link TextMatcherEditor} whose Matchers can test only elements which
      * implement the {@link TextFilterable} interface.
@@ -190,6 +231,9 @@ public class TextMatcherEditor<E> extends AbstractMatcherEditor<E> {
             return;
         }
         this.filterator = filterator;
+        if (filterStringsCache != null) {
+            filterStringsCache.setFilterator(filterator);
+        }
 
         // if no filter text exists, no Matcher change is necessary
         final TextMatcher<E> currentTextMatcher = getCurrentTextMatcher();
@@ -197,7 +241,54 @@ public class TextMatcherEditor<E> extends AbstractMatcherEditor<E> {
             return;
         }
 
-        fireChanged(currentTextMatcher.newFilterator(filterator));
+        fireChanged(currentTextMatcher.newFilterator(getMatchingFilterator()));
+    }
+
+    /**
+     * Cache the searchable {@link String}s of each Object in the
+     * <code>source</code> list, so that changing the filter text searches the
+     * cached {@link String}s instead of extracting them from each Object again.
+     * With the {@link #NORMALIZED_STRATEGY}, the cached {@link String}s are
+     * also stripped of their diacritics just once.
+     *
+     * <p>An Object's {@link String}s are discarded when it is updated or
+     * removed from the <code>source</code> list. Objects that change without
+     * an update event being fired will be matched against stale
+     * {@link String}s. The cache costs memory proportional to the total
+     * length of the searchable {@link String}s.
+     *
+     * <p>The cache is used by the {@link Matcher}s created after this call.
+     * Calling this method again replaces the previous cache.
+     *
+     * @param source the list whose elements are matched by this editor
+     * @param filterList the list that filters <code>source</code> using this
+     *      editor, typically a {@link ca.odell.glazedlists.FilterList}. It
+     *      will be notified of changes to <code>source</code> only after the
+     *      cache has discarded the stale {@link String}s.
+     */
+    public void cacheFilterStrings(EventList<E> source, EventList<?> filterList) {
+        disposeFilterStringsCache();
+        filterStringsCache = new FilterStringsCache<>(source, filterator, filterList);
+    }
+
+    /**
+     * Stop caching the searchable {@link String}s, and release the cache
+     * created by {@link #cacheFilterStrings(EventList, EventList)}, if any.
+     */
+    public void disposeFilterStringsCache() {
+        if (filterStringsCache == null) {
+            return;
+        }
+        filterStringsCache.dispose();
+        filterStringsCache = null;
+    }
+
+    /**
+     * Get the filterator for the {@link TextMatcher}s, which is the cache if
+     * the searchable {@link String}s are cached.
+     */
+    TextFilterator<? super E> getMatchingFilterator() {
+        return filterStringsCache != null ? filterStringsCache : filterator;
     }
 
     /**
@@ -255,7 +346,8 @@ public class TextMatcherEditor<E> extends AbstractMatcherEditor<E> {
      * to one of the predefined strategies. See the documentation for each
      * constant in order contrast the strategies.
      *
-     * @param strategy either {@link #IDENTICAL_STRATEGY} or {@link #NORMALIZED_STRATEGY}
+     * @param strategy one of {@link #IDENTICAL_STRATEGY}, {@link #NORMALIZED_STRATEGY}
+     *      or {@link #MULTI_TERM_STRATEGY}
      */
     public void setStrategy(Object strategy) {
         if(strategy == this.strategy) {
@@ -279,7 +371,8 @@ public class TextMatcherEditor<E> extends AbstractMatcherEditor<E> {
      * Returns the character comparison strategy for this {@link TextMatcherEditor}.
      * See the documentation for each constant in order contrast the strategies.
      *
-     * @return one of {@link #IDENTICAL_STRATEGY} or {@link #NORMALIZED_STRATEGY}
+     * @return one of {@link #IDENTICAL_STRATEGY}, {@link #NORMALIZED_STRATEGY}
+     *      or {@link #MULTI_TERM_STRATEGY}
      */
     public Object getStrategy() {
         return strategy;
@@ -313,7 +406,19 @@ public class TextMatcherEditor<E> extends AbstractMatcherEditor<E> {
         }
 
         // adjust the TextMatcher
-        setTextMatcher(new TextMatcher<E>(searchTerms, getFilterator(), getMode(), getStrategy()));
+        setTextMatcher(createTextMatcher(searchTerms));
+    }
+
+    /**
+     * Create a {@link TextMatcher} for the given search terms, using the
+     * current filterator, mode and strategy of this {@link TextMatcherEditor}.
+     * If the searchable {@link String}s are cached, the {@link TextMatcher}
+     * searches the cache.
+     *
+     * @param searchTerms the search terms to be matched
+     */
+    protected TextMatcher<E> createTextMatcher(SearchTerm<E>[] searchTerms) {
+        return new TextMatcher<>(searchTerms, getMatchingFilterator(), getMode(), getStrategy());
     }
 
     /**
@@ -345,12 +450,28 @@ public class TextMatcherEditor<E> extends AbstractMatcherEditor<E> {
         // this is the case when the current Matcher is not a TextMatcher
         if (isCurrentlyMatchingAll()) {
             fireConstrained(newMatcher);
-        } else if (TextMatchers.isMatcherRelaxed(oldMatcher, newMatcher)) {
-            fireRelaxed(newMatcher);
+            return;
+        }
+
+        final MatcherEditor.ChangedElements changedElements = oldMatcher == null ? null : changedElements(oldMatcher, newMatcher);
+        if (TextMatchers.isMatcherRelaxed(oldMatcher, newMatcher)) {
+            fireRelaxed(newMatcher, changedElements);
         } else if (TextMatchers.isMatcherConstrained(oldMatcher, newMatcher)) {
-            fireConstrained(newMatcher);
+            fireConstrained(newMatcher, changedElements);
         } else {
-            fireChanged(newMatcher);
+            fireChanged(newMatcher, changedElements);
         }
     }
+
+    /**
+     * Locate the elements whose match may change when <code>oldMatcher</code>
+     * is replaced by <code>newMatcher</code>, so that only those need to be
+     * tested again.
+     *
+     * @return the locator, or <code>null</code> if any element's match may
+     *      change, which is always the case for a plain {@link TextMatcherEditor}
+     */
+    protected MatcherEditor.ChangedElements changedElements(TextMatcher<E> oldMatcher, TextMatcher<E> newMatcher) {
+        return null;
+    }
 }
\ No newline at end of file
@@ -36,6 +36,11 @@ import java.util.concurrent.ExecutorService;
  *        to processing all MatcherEvents sequentially.
  * </ol>
  *
+ * By default each coalesced MatcherEvent is handled in full by each listener.
+ * Use {@link #setTimeSlice(long)} to have a {@link ca.odell.glazedlists.FilterList}
+ * release its locks periodically while it filters, and abandon the filtering
+ * as soon as a newer MatcherEvent is received. <p>
+ *
  * Typical usage patterns of ThreadedMatcherEditor resemble:
  *
  * <pre>
@@ -86,6 +91,12 @@ public class ThreadedMatcherEditor<E> extends AbstractMatcherEditorListenerSuppo
     /** Executor to run the {@link #drainMatcherEventQueueRunnable}*/
     private Executor executor;
 
+    /** the longest time in milliseconds to hold locks while handling a MatcherEvent, or 0 for no limit */
+    private volatile long timeSlice = 0;
+
+    /** the MatcherEvent currently being fired, guarded by the {@link #matcherEventQueue} */
+    private Event<E> firingMatcherEvent = null;
+
 	/**
      * Creates a ThreadedMatcherEditor which wraps the given <code>source</code>.
      * MatcherEvents fired from the <code>source</code> will be enqueued within
@@ -144,6 +155,35 @@ public class ThreadedMatcherEditor<E> extends AbstractMatcherEditorListenerSuppo
         return executor;
     }
 
+    /**
+     * Set the longest time in milliseconds that listeners should hold their
+     * locks while handling a MatcherEvent from this editor. A
+     * {@link ca.odell.glazedlists.FilterList} then filters in slices of this
+     * length, releasing its write lock in between so that readers such as
+     * the event dispatch thread need not wait for the whole pass. Between
+     * slices the FilterList contains a mix of the elements matched by the
+     * previous and the new Matcher.
+     *
+     * <p>When a new MatcherEvent arrives while one is being handled, the
+     * pass is abandoned at the end of the current slice, and the remaining
+     * elements are filtered as part of the pass for the new MatcherEvent.
+     *
+     * @param timeSlice the slice length in milliseconds, or 0 to handle each
+     *      MatcherEvent at once, which is the default
+     */
+    public void setTimeSlice(long timeSlice) {
+        if (timeSlice < 0) throw new IllegalArgumentException("timeSlice may not be negative: " + timeSlice);
+        this.timeSlice = timeSlice;
+    }
+
+    /**
+     * Get the longest time in milliseconds that listeners should hold their
+     * locks while handling a MatcherEvent from this editor, or 0 for no limit.
+     */
+    public long getTimeSlice() {
+        return timeSlice;
+    }
+
     /**
      * This method implements the strategy for coalescing many queued
      * MatcherEvents into a single representative MatcherEvent. Listeners which
@@ -252,6 +292,9 @@ public class ThreadedMatcherEditor<E> extends AbstractMatcherEditorListenerSuppo
             synchronized(matcherEventQueue) {
                 matcherEventQueue.add(matcherEvent);
 
+                // the event being fired is now out of date
+                if (firingMatcherEvent != null) firingMatcherEvent.supersede();
+
                 // if necessary, start a Thread to drain the queue
                 if (!isDrainingQueue) {
                     isDrainingQueue = true;
@@ -279,6 +322,8 @@ public class ThreadedMatcherEditor<E> extends AbstractMatcherEditorListenerSuppo
                 // to a processing Thread as well as exiting the drainMatcherEventQueueRunnable
                 final Event<E> matcherEvent;
                 synchronized (matcherEventQueue) {
+                    firingMatcherEvent = null;
+
                     // if no work exists in the queue, exit the Runnable
                     if (matcherEventQueue.isEmpty()) {
                         // no matter the circumstance for us exiting the Runnable,
@@ -290,6 +335,13 @@ public class ThreadedMatcherEditor<E> extends AbstractMatcherEditorListenerSuppo
                     // fetch a copy of all MatcherEvents currently in the queue
                     matcherEvent = coalesceMatcherEvents(matcherEventQueue);
                     matcherEventQueue.clear();
+
+                    // only an event of our own may be sliced and superseded,
+                    // the source's events are shared with its other listeners
+                    if (timeSlice > 0 && matcherEvent.getMatcherEditor() == ThreadedMatcherEditor.this) {
+                        matcherEvent.setTimeSlice(timeSlice);
+                        firingMatcherEvent = matcherEvent;
+                    }
                 }
 
                 try {
@@ -298,10 +350,10 @@ public class ThreadedMatcherEditor<E> extends AbstractMatcherEditorListenerSuppo
                     fireChangedMatcher(matcherEvent);
 
                 } catch(Error e) {
-                    synchronized(matcherEventQueue) { isDrainingQueue = false; }
+                    synchronized(matcherEventQueue) { isDrainingQueue = false; firingMatcherEvent = null; }
                     throw e;
                 } catch(RuntimeException e) {
-                    synchronized(matcherEventQueue) { isDrainingQueue = false; }
+                    synchronized(matcherEventQueue) { isDrainingQueue = false; firingMatcherEvent = null; }
                     throw e;
                 }
             }
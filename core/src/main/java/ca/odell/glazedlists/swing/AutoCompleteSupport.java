@@ -6,6 +6,8 @@ package ca.odell.glazedlists.swing;
 import ca.odell.glazedlists.*;
 import ca.odell.glazedlists.event.ListEvent;
 import ca.odell.glazedlists.gui.TableFormat;
+import ca.odell.glazedlists.impl.GlazedListsImpl;
+import ca.odell.glazedlists.impl.filter.PrefixIndex;
 import ca.odell.glazedlists.impl.filter.SearchTerm;
 import ca.odell.glazedlists.impl.filter.TextMatcher;
 import ca.odell.glazedlists.impl.swing.ComboBoxPopupLocationFix;
@@ -193,6 +195,18 @@ public final class AutoCompleteSupport<E> {
      */
     private boolean strict = false;
 
+    /**
+     * <tt>true</tt> if autocompletion terms are located with an index of the
+     * item strings; <tt>false</tt> if all items are scanned.
+     */
+    private boolean prefixIndexed = false;
+
+    /**
+     * The index of the item strings, or <code>null</code> if the items are
+     * scanned to locate autocompletion terms.
+     */
+    private PrefixIndex<E> prefixIndex;
+
     /**
      * <tt>true</tt> indicates a beep sound should be played to the user to
      * indicate their error when attempting to violate the {@link #strict}
@@ -1061,6 +1075,67 @@ public final class AutoCompleteSupport<E> {
         }
     }
 
+    /**
+     * Returns <tt>true</tt> if autocompletion terms are located with an index
+     * of the item strings; <tt>false</tt> if all items are scanned.
+     */
+    public boolean isPrefixIndexed() {
+        return prefixIndexed;
+    }
+    /**
+     * If <code>prefixIndexed</code> is <tt>true</tt>, the strings of the items
+     * are kept in a sorted index, which is updated as the items change. The
+     * autocompletion term for the user's text is then located by looking up
+     * the items that start with it, rather than by formatting and testing
+     * every item on each keystroke. This makes autocompletion responsive with
+     * hundreds of thousands of items, at the cost of the memory of the index.
+     *
+     * <p>Note: the index is only used with the
+     * {@link TextMatcherEditor#IDENTICAL_STRATEGY} and
+     * {@link TextMatcherEditor#NORMALIZED_STRATEGY}. With other text matching
+     * strategies the items are scanned.
+     *
+     * @throws IllegalStateException if this method is called from any Thread
+     *      other than the Swing Event Dispatch Thread
+     */
+    public void setPrefixIndexed(boolean prefixIndexed) {
+        checkAccessThread();
+
+        if (this.prefixIndexed == prefixIndexed) return;
+
+        this.prefixIndexed = prefixIndexed;
+        updatePrefixIndex();
+    }
+
+    /**
+     * Builds or disposes the index of the item strings, as required by the
+     * {@link #prefixIndexed} flag and the text matching strategy.
+     */
+    private void updatePrefixIndex() {
+        if (prefixIndex != null) {
+            prefixIndex.dispose();
+            prefixIndex = null;
+        }
+        if (!prefixIndexed || comboBox == null) return;
+
+        // the index compares characters like the known strategies do
+        final Object strategy = getTextMatchingStrategy();
+        final char[] characterMap;
+        if (strategy == TextMatcherEditor.IDENTICAL_STRATEGY)
+            characterMap = null;
+        else if (strategy == TextMatcherEditor.NORMALIZED_STRATEGY)
+            characterMap = GlazedListsImpl.getLatinDiacriticsStripper();
+        else
+            return;
+
+        prefixIndex = new PrefixIndex<>(items, new FunctionList.Function<E,String>() {
+            @Override
+            public String evaluate(E item) {
+                return convertToString(item);
+            }
+        }, characterMap);
+    }
+
     /**
      * Sets the manner in which the contents of the {@link ComboBoxModel} are
      * filtered and autocompletion terms are matched. The given <code>strategy</code> must be one of
@@ -1084,6 +1159,9 @@ public final class AutoCompleteSupport<E> {
         } finally {
             doNotChangeDocument = false;
         }
+
+        // the index folds characters according to the strategy
+        updatePrefixIndex();
     }
 
     /**
@@ -1212,6 +1290,10 @@ public final class AutoCompleteSupport<E> {
             this.allItemsFiltered.dispose();
             this.allItemsUnfiltered.dispose();
             this.filteredItems.dispose();
+            if (this.prefixIndex != null) {
+                this.prefixIndex.dispose();
+                this.prefixIndex = null;
+            }
 
             // null out the comboBox to indicate that this support class is uninstalled
             this.comboBox = null;
@@ -1287,6 +1369,10 @@ public final class AutoCompleteSupport<E> {
 
         final Matcher<String> valueMatcher = new TextMatcher<>(new SearchTerm[] {new SearchTerm(value)}, GlazedLists.toStringTextFilterator(), TextMatcherEditor.STARTS_WITH, getTextMatchingStrategy());
 
+        // look up the candidates in the index of the item strings, if available
+        if (prefixIndex != null)
+            return findIndexedAutoCompleteTerm(value, valueMatcher);
+
         Object partialMatchItem = NOT_FOUND;
 
         // search the list of ALL UNFILTERED items for an autocompletion term for the given value
@@ -1309,6 +1395,46 @@ public final class AutoCompleteSupport<E> {
         return partialMatchItem;
     }
 
+    /**
+     * Locates the autocomplete term like {@link #findAutoCompleteTerm} does,
+     * but only tests the first item and the items that the
+     * {@link #prefixIndex} locates, in the order of the unfiltered items.
+     */
+    private Object findIndexedAutoCompleteTerm(String value, Matcher<String> valueMatcher) {
+        // determine if our value is empty
+        final boolean prefixIsEmpty = "".equals(value);
+
+        // the first item precedes all other items
+        Object partialMatchItem = NOT_FOUND;
+        if (!firstItem.isEmpty()) {
+            final E item = firstItem.get(0);
+            final String itemString = convertToString(item);
+            if (value.equals(itemString))
+                return item;
+            if (prefixIsEmpty ? "".equals(itemString) : valueMatcher.matches(itemString))
+                partialMatchItem = item;
+        }
+
+        // an exact match is preferred over a partial match
+        final int[] exactCandidates = prefixIndex.indicesOf(value);
+        for (int i = 0; i < exactCandidates.length; i++) {
+            final E item = items.get(exactCandidates[i]);
+            if (value.equals(convertToString(item)))
+                return item;
+        }
+        if (partialMatchItem != NOT_FOUND || prefixIsEmpty)
+            return partialMatchItem;
+
+        // otherwise use the first item that starts with the given value
+        final int[] partialCandidates = prefixIndex.indicesStartingWith(value);
+        for (int i = 0; i < partialCandidates.length; i++) {
+            final E item = items.get(partialCandidates[i]);
+            if (valueMatcher.matches(convertToString(item)))
+                return item;
+        }
+        return NOT_FOUND;
+    }
+
     /**
      * This special version of EventComboBoxModel simply marks a flag to
      * indicate the items in the ComboBoxModel should not be filtered as a
@@ -77,6 +77,11 @@ public final class DefaultEventSelectionModel<E> implements AdvancedListSelectio
     private int fullChangeStart = -1;
     private int fullChangeFinish = -1;
 
+    /** the depth of nested bulk changes, and the bounds of their changes */
+    private int bulkChangeDepth = 0;
+    private int bulkChangeStart = -1;
+    private int bulkChangeFinish = -1;
+
     /**
      * Creates a new selection model that also presents a list of the selection.
      *
@@ -209,6 +214,17 @@ public final class DefaultEventSelectionModel<E> implements AdvancedListSelectio
      * ListSelectionEvent.
      */
     private void fireSelectionChanged(int changeStart, int changeFinish) {
+        // if this is a change in a bulk change, save its bounds for the commit
+        if(bulkChangeDepth > 0) {
+            if(bulkChangeStart == -1 || changeStart < bulkChangeStart) {
+                bulkChangeStart = changeStart;
+            }
+            if(bulkChangeFinish == -1 || changeFinish > bulkChangeFinish) {
+                bulkChangeFinish = changeFinish;
+            }
+            return;
+        }
+
         // if this is a change in a series, save the bounds of this change
         if(valueIsAdjusting) {
             if(fullChangeStart == -1 || changeStart < fullChangeStart) {
@@ -438,6 +454,49 @@ public final class DefaultEventSelectionModel<E> implements AdvancedListSelectio
         }
     }
 
+    /**
+     * Starts a bulk change of the selection. Until the matching
+     * {@link #commitBulkChange()}, changes of the selection are not reported
+     * one at a time. Instead, the commit fires a single
+     * {@link ListSelectionEvent} that spans all of the changed indices. This
+     * is useful when a large selection is built up by many calls, or when a
+     * change to the source list is expected to shift the selection.
+     *
+     * <p>Bulk changes may be nested, in which case the outermost commit fires
+     * the event. The event reports the value of {@link #getValueIsAdjusting()}
+     * at the time of the commit, and is included in the final event of an
+     * adjusting series.
+     */
+    public void beginBulkChange() {
+        bulkChangeDepth++;
+    }
+
+    /**
+     * Completes a bulk change of the selection started by
+     * {@link #beginBulkChange()}, firing a single {@link ListSelectionEvent}
+     * for all of its changes.
+     *
+     * @throws IllegalStateException if there is no bulk change to commit
+     */
+    public void commitBulkChange() {
+        if(bulkChangeDepth == 0) throw new IllegalStateException("Cannot commit without a bulk change in progress");
+        bulkChangeDepth--;
+
+        // fire one change containing all changes of the outermost bulk change
+        if(bulkChangeDepth == 0 && bulkChangeStart != -1 && bulkChangeFinish != -1) {
+            final int changeStart = bulkChangeStart;
+            final int changeFinish = bulkChangeFinish;
+            bulkChangeStart = -1;
+            bulkChangeFinish = -1;
+            source.getReadWriteLock().writeLock().lock();
+            try {
+                fireSelectionChanged(changeStart, changeFinish);
+            } finally {
+                source.getReadWriteLock().writeLock().unlock();
+            }
+        }
+    }
+
     /**
      * Returns true if the value is undergoing a series of changes.
      */
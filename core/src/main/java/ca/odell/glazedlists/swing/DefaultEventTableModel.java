@@ -7,8 +7,10 @@ import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.event.ListEvent;
 import ca.odell.glazedlists.event.ListEventListener;
 import ca.odell.glazedlists.gui.AdvancedTableFormat;
+import ca.odell.glazedlists.gui.ColumnarTableFormat;
 import ca.odell.glazedlists.gui.TableFormat;
 import ca.odell.glazedlists.gui.WritableTableFormat;
+import ca.odell.glazedlists.impl.swing.CellValueCache;
 
 import javax.swing.SwingUtilities;
 import javax.swing.event.TableModelEvent;
@@ -50,6 +52,9 @@ public class DefaultEventTableModel<E> extends AbstractTableModel implements Adv
     /** encapsulates the strategy how to convert {@link ListEvent}s to {@link TableModelEvent}s */
     private TableModelEventAdapter<E> eventAdapter = GlazedListsSwing.<E>defaultEventAdapterFactory().create(this);
 
+    /** the column values of the rows around the visible ones, or <code>null</code> if values are not cached */
+    private CellValueCache cellCache = null;
+
     /**
      * Creates a new table model that extracts column data from the given
      * <code>source</code> using the the given <code>tableFormat</code>.
@@ -93,6 +98,7 @@ public class DefaultEventTableModel<E> extends AbstractTableModel implements Adv
     @Override
     public void setTableFormat(TableFormat<? super E> tableFormat) {
         this.tableFormat = tableFormat;
+        if (cellCache != null) cellCache.clear();
         eventAdapter.fireTableStructureChanged();
     }
 
@@ -117,6 +123,11 @@ public class DefaultEventTableModel<E> extends AbstractTableModel implements Adv
      */
     @Override
     public void listChanged(ListEvent<E> listChanges) {
+        // discard the changed values before the table asks for them again
+        if (cellCache != null) {
+            cellCache.listChanged(listChanges);
+            listChanges.reset();
+        }
         handleListChange(listChanges);
     }
 
@@ -187,14 +198,142 @@ public class DefaultEventTableModel<E> extends AbstractTableModel implements Adv
      */
     @Override
     public Object getValueAt(int row, int column) {
+        if (cellCache != null) {
+            final Object cached = cellCache.get(row, column);
+            if (cached != CellValueCache.MISSING) return cached;
+        }
+
         source.getReadWriteLock().readLock().lock();
         try {
-            return tableFormat.getColumnValue(source.get(row), column);
+            if (cellCache == null) return tableFormat.getColumnValue(source.get(row), column);
+
+            // the element of a cached row needs no lookup
+            Object element = cellCache.getElement(row);
+            if (element == CellValueCache.MISSING) element = source.get(row);
+            final Object value = tableFormat.getColumnValue((E) element, column);
+            cellCache.put(row, column, element, tableFormat.getColumnCount(), value);
+            return value;
         } finally {
             source.getReadWriteLock().readLock().unlock();
         }
     }
 
+    /**
+     * Set the number of rows whose column values are cached. By default the
+     * values are not cached, and {@link #getValueAt} asks the
+     * {@link TableFormat} for every cell each time the table is painted.
+     *
+     * <p>The cache holds a window of consecutive rows, which follows the rows
+     * requested by {@link #getValueAt}, or those given to {@link #prefetchRows}.
+     * Cached values are discarded when their row is updated or deleted, so
+     * the elements must not change without a ListEvent, such as when they
+     * are wrapped in an {@link ca.odell.glazedlists.ObservableElementList}.
+     * The size should be a few times the number of visible rows.
+     *
+     * @param rowCount the number of rows to cache, or 0 to cache nothing
+     */
+    public void setCellCacheSize(int rowCount) {
+        if (rowCount < 0) throw new IllegalArgumentException("rowCount may not be negative: " + rowCount);
+        cellCache = rowCount == 0 ? null : new CellValueCache(rowCount);
+    }
+
+    /**
+     * Get the number of rows whose column values are cached, or 0 if values
+     * are not cached.
+     */
+    public int getCellCacheSize() {
+        return cellCache == null ? 0 : cellCache.getCapacity();
+    }
+
+    /**
+     * Cache the column values of the specified rows, and of the rows around
+     * them as far as the cache size allows. This is typically called with the
+     * visible rows whenever the table is scrolled, by a ChangeListener on the
+     * table's viewport:
+     *
+     * <pre>
+     * scrollPane.getViewport().addChangeListener(e -&gt; {
+     *     final Rectangle visible = table.getVisibleRect();
+     *     final int first = table.rowAtPoint(visible.getLocation());
+     *     final int last = table.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+     *     model.prefetchRows(first, last == -1 ? model.getRowCount() - 1 : last);
+     * });
+     * </pre>
+     *
+     * <p>If the TableFormat is a {@link ColumnarTableFormat}, the values of
+     * each column are extracted for all of the rows in a single call. This
+     * does nothing if values are not cached.
+     *
+     * @param firstRow the first visible row
+     * @param lastRow the last visible row
+     * @see #setCellCacheSize(int)
+     */
+    public void prefetchRows(int firstRow, int lastRow) {
+        if (cellCache == null || firstRow < 0 || lastRow < firstRow) return;
+
+        // center the window on the specified rows
+        final int margin = Math.max(0, (cellCache.getCapacity() - (lastRow - firstRow + 1)) / 2);
+        final int windowStart = Math.max(0, firstRow - margin);
+        cellCache.moveTo(windowStart);
+
+        source.getReadWriteLock().readLock().lock();
+        try {
+            final int windowEnd = Math.min(source.size(), windowStart + cellCache.getCapacity());
+            final int columnCount = tableFormat.getColumnCount();
+            if (tableFormat instanceof ColumnarTableFormat) {
+                prefetchColumns((ColumnarTableFormat<E>) tableFormat, windowStart, windowEnd, columnCount);
+                return;
+            }
+            for (int row = windowStart; row < windowEnd; row++) {
+                Object element = cellCache.getElement(row);
+                if (element == CellValueCache.MISSING) element = source.get(row);
+                for (int column = 0; column < columnCount; column++) {
+                    if (cellCache.get(row, column) != CellValueCache.MISSING) continue;
+                    cellCache.put(row, column, element, columnCount, tableFormat.getColumnValue((E) element, column));
+                }
+            }
+        } finally {
+            source.getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * Cache the missing column values of the specified rows by extracting
+     * each column for all of the rows at once. The caller must hold the
+     * source's read lock.
+     */
+    private void prefetchColumns(ColumnarTableFormat<E> columnarFormat, int windowStart, int windowEnd, int columnCount) {
+        // limit the extraction to the rows that have missing values
+        int from = windowEnd;
+        int to = windowStart;
+        for (int row = windowStart; row < windowEnd; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                if (cellCache.get(row, column) != CellValueCache.MISSING) continue;
+                from = Math.min(from, row);
+                to = row + 1;
+                break;
+            }
+        }
+        if (from >= to) return;
+
+        // get each row once for all of the columns
+        final Object[] elements = new Object[to - from];
+        for (int row = from; row < to; row++) {
+            Object element = cellCache.getElement(row);
+            if (element == CellValueCache.MISSING) element = source.get(row);
+            elements[row - from] = element;
+        }
+
+        final Object[] values = new Object[to - from];
+        for (int column = 0; column < columnCount; column++) {
+            columnarFormat.getColumnValues(source, from, to, column, values);
+            for (int row = from; row < to; row++) {
+                if (cellCache.get(row, column) != CellValueCache.MISSING) continue;
+                cellCache.put(row, column, elements[row - from], columnCount, values[row - from]);
+            }
+        }
+    }
+
     /**
      * Delegates the question of whether the cell is editable or not to the
      * backing TableFormat if it is a {@link WritableTableFormat}. Otherwise,
@@ -262,6 +401,7 @@ public class DefaultEventTableModel<E> extends AbstractTableModel implements Adv
     @Override
     public void dispose() {
         source.removeListEventListener(this);
+        cellCache = null;
         if (disposeSource) {
             source.dispose();
         }
@@ -12,6 +12,7 @@ import ca.odell.glazedlists.gui.TableFormat;
 import ca.odell.glazedlists.impl.swing.DefaultTableModelEventAdapterFactory;
 import ca.odell.glazedlists.impl.swing.LowerThresholdRangeModel;
 import ca.odell.glazedlists.impl.swing.ManyToOneTableModelEventAdapterFactory;
+import ca.odell.glazedlists.impl.swing.ViewportTableModelEventAdapterFactory;
 import ca.odell.glazedlists.impl.swing.SwingThreadProxyEventList;
 import ca.odell.glazedlists.impl.swing.UpperThresholdRangeModel;
 import ca.odell.glazedlists.swing.TableModelEventAdapter.Factory;
@@ -277,6 +278,34 @@ public final class GlazedListsSwing {
         return ManyToOneTableModelEventAdapterFactory.getInstance();
     }
 
+    /**
+     * Gets a factory for creating a {@link TableModelEventAdapter} that only
+     * reports the changes to the visible rows of the table.
+     * <p>
+     * Updates of rows that aren't visible are not fired at all, and the rows
+     * inserted and deleted above and below the visible rows are each fired as
+     * a single TableModelEvent. The table is scrolled so that its visible rows
+     * don't jump when rows are inserted or deleted above them. This greatly
+     * reduces the work of the event dispatch thread for large tables that
+     * change at a high rate.
+     * </p>
+     * <p>
+     * Since changes to rows that aren't visible are not reported precisely,
+     * the table should use a selection model that follows the list, such as
+     * the one created by {@link #eventSelectionModel(EventList)}. If the table
+     * has a RowSorter, each list event block is fired as by the
+     * {@link #defaultEventAdapterFactory() default strategy}.
+     * </p>
+     *
+     * @return the factory for creating a viewport aware {@link TableModelEventAdapter}
+     *
+     * @see #defaultEventAdapterFactory()
+     * @see Factory
+     */
+    public static <E> Factory<E> viewportEventAdapterFactory() {
+        return ViewportTableModelEventAdapterFactory.getInstance();
+    }
+
     // ListSelectionModel convenience creators
 
     /**
@@ -8,6 +8,7 @@ import ca.odell.glazedlists.event.ListEventPublisher;
 import ca.odell.glazedlists.impl.testing.GlazedListsTests;
 import ca.odell.glazedlists.impl.testing.GlazedListsTests.SerializableListener;
 import ca.odell.glazedlists.impl.testing.GlazedListsTests.UnserializableListener;
+import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
 import ca.odell.glazedlists.util.concurrent.LockFactory;
 import ca.odell.glazedlists.util.concurrent.ReadWriteLock;
 
@@ -246,4 +247,62 @@ public class BasicEventListTest {
 
         assertEquals( Arrays.asList( "Two", "Three" ), list );
     }
+
+    /**
+     * Test that replacing by key keeps unchanged elements and fires a single
+     * event.
+     */
+    @Test
+    public void testReplaceAllByKey() {
+        EventList<String> list = new BasicEventList<>();
+        list.addAll(GlazedListsTests.delimitedStringToList("A1 B1 C1 D1 E1"));
+        ListConsistencyListener<String> listener = ListConsistencyListener.install(list);
+        String a1 = list.get(0);
+        String e1 = list.get(4);
+
+        List<String> snapshot = GlazedListsTests.delimitedStringToList("F1 A1 D2 E1 G1");
+        GlazedLists.replaceAllByKey(list, snapshot, new FirstLetterFunction());
+        assertEquals(snapshot, list);
+        assertSame(a1, list.get(1));
+        assertSame(e1, list.get(3));
+        assertEquals(1, listener.getEventCount());
+        assertEquals(5, listener.getChangeCount(0));
+
+        // reordered elements are removed and inserted
+        snapshot = GlazedListsTests.delimitedStringToList("D2 F1 E1 A1 G1");
+        GlazedLists.replaceAllByKey(list, snapshot, new FirstLetterFunction());
+        assertEquals(snapshot, list);
+        assertSame(a1, list.get(3));
+        assertEquals(2, listener.getEventCount());
+
+        // nothing changed
+        GlazedLists.replaceAllByKey(list, new ArrayList<>(snapshot), new FirstLetterFunction());
+        assertEquals(2, listener.getEventCount());
+    }
+
+    /**
+     * Test that replacing by key works for other kinds of lists.
+     */
+    @Test
+    public void testReplaceAllByKeyOnTransformedList() {
+        EventList<String> source = new BasicEventList<>();
+        source.addAll(GlazedListsTests.delimitedStringToList("C1 A1 B1 D1"));
+        EventList<String> list = GlazedLists.threadSafeList(source);
+        ListConsistencyListener.install(list);
+
+        List<String> snapshot = GlazedListsTests.delimitedStringToList("A1 B2 E1 D1 C1");
+        GlazedLists.replaceAllByKey(list, snapshot, new FirstLetterFunction());
+        assertEquals(snapshot, list);
+        assertEquals(snapshot, source);
+    }
+
+    /**
+     * Keys Strings by their first letter.
+     */
+    private static class FirstLetterFunction implements FunctionList.Function<String,Character> {
+        @Override
+        public Character evaluate(String sourceValue) {
+            return new Character(sourceValue.charAt(0));
+        }
+    }
 }
@@ -12,7 +12,9 @@ import ca.odell.glazedlists.matchers.MatcherEditor;
 import ca.odell.glazedlists.matchers.Matchers;
 import ca.odell.glazedlists.matchers.TextMatcherEditor;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -249,6 +251,129 @@ public class FilterListTest {
         editor.setFilterText(new String[] {"C"});
         assertEquals(0, counter.getCountAndReset());
     }
+
+    @Test
+    public void testOptimisticMatching() {
+        final Random dice = new Random(13);
+        final EventList<Number> source = new BasicEventList<>();
+        for (int i = 0; i < 5000; i++) source.add(Integer.valueOf(dice.nextInt(1000)));
+
+        final AtLeastMatcherEditor editor = new AtLeastMatcherEditor();
+        final FilterList<Number> expected = new FilterList<>(source, editor);
+        final FilterList<Number> optimistic = new FilterList<>(source);
+        optimistic.setOptimisticMatching(true);
+        optimistic.setMatchingParallelism(4);
+        optimistic.setMatcherEditor(editor);
+        ListConsistencyListener.install(optimistic);
+
+        for (int i = 0; i < 50; i++) {
+            editor.setMinimum(dice.nextInt(1000));
+            assertEquals(expected, optimistic);
+        }
+    }
+
+    @Test
+    public void testOptimisticMatchingWithConcurrentChanges() {
+        final EventList<Integer> base = new BasicEventList<>();
+        for (int i = 0; i < 100; i++) base.add(Integer.valueOf(i));
+        final SortedList<Integer> sorted = new SortedList<>(base, null);
+
+        final MutableMatcherEditor<Integer> editor = new MutableMatcherEditor<>();
+        final FilterList<Integer> filtered = new FilterList<>(sorted);
+        filtered.setOptimisticMatching(true);
+        filtered.setMatcherEditor(editor);
+        ListConsistencyListener.install(filtered);
+
+        // change the source once while the matcher is being evaluated, the
+        // first time reordering it so that the evaluation is retried
+        final boolean[] change = { true };
+        final boolean[] reorder = { true };
+        final Matcher<Integer> atLeastFifty = new Matcher<Integer>() {
+            @Override
+            public boolean matches(Integer item) {
+                if (change[0]) {
+                    change[0] = false;
+                    base.getReadWriteLock().writeLock().lock();
+                    try {
+                        base.add(0, Integer.valueOf(75));
+                        base.remove(10);
+                        base.set(20, Integer.valueOf(90));
+                        if (reorder[0]) sorted.setComparator(GlazedLists.<Integer>reverseComparator());
+                        reorder[0] = false;
+                    } finally {
+                        base.getReadWriteLock().writeLock().unlock();
+                    }
+                }
+                return item.intValue() >= 50;
+            }
+        };
+        editor.constrain(atLeastFifty);
+        assertEquals(select(sorted, 50), filtered);
+
+        // a change without reordering is applied on the first attempt
+        change[0] = true;
+        editor.change(atLeastFifty);
+        assertEquals(select(sorted, 50), filtered);
+    }
+
+    @Test
+    public void testOptimisticMatchingWithFailingMatcher() {
+        final EventList<Integer> source = new BasicEventList<>();
+        for (int i = 0; i < 100; i++) source.add(Integer.valueOf(i));
+
+        final MutableMatcherEditor<Integer> editor = new MutableMatcherEditor<>();
+        final FilterList<Integer> filtered = new FilterList<>(source);
+        filtered.setOptimisticMatching(true);
+        filtered.setMatcherEditor(editor);
+        ListConsistencyListener.install(filtered);
+
+        // a failing matcher leaves the list unchanged
+        try {
+            editor.change(new Matcher<Integer>() {
+                @Override
+                public boolean matches(Integer item) {
+                    throw new IllegalArgumentException();
+                }
+            });
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(source, filtered);
+
+        // the abandoned pass doesn't track later changes, nor hold back the next matcher
+        source.add(Integer.valueOf(100));
+        editor.change(new Matcher<Integer>() {
+            @Override
+            public boolean matches(Integer item) {
+                return item.intValue() >= 50;
+            }
+        });
+        assertEquals(select(source, 50), filtered);
+    }
+
+    /**
+     * Get the elements of the specified list that are at least the specified minimum.
+     */
+    private static List<Integer> select(List<Integer> list, int minimum) {
+        final List<Integer> result = new ArrayList<>();
+        for (Integer value : list) {
+            if (value.intValue() >= minimum) result.add(value);
+        }
+        return result;
+    }
+}
+
+/**
+ * MatcherEditor that fires whichever Matchers it is given.
+ */
+class MutableMatcherEditor<E> extends AbstractMatcherEditor<E> {
+    public void constrain(Matcher<E> matcher) {
+        fireConstrained(matcher);
+    }
+    public void change(Matcher<E> matcher) {
+        fireChanged(matcher);
+    }
 }
 
 /**
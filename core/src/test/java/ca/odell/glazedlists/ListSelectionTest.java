@@ -3,6 +3,7 @@
 /*                                                     O'Dell Engineering Ltd.*/
 package ca.odell.glazedlists;
 
+import ca.odell.glazedlists.impl.testing.GlazedListsTests;
 import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
 import ca.odell.glazedlists.matchers.Matcher;
 
@@ -856,6 +857,57 @@ public class ListSelectionTest {
         assertFalse(listSelection.isSelected(11));
     }
 
+    /**
+     * Verifies that a reordering is applied in one pass, and reports just the
+     * indices whose selection changed.
+     */
+    @Test
+    public void testReorder() {
+        final SortedList<Integer> sorted = SortedList.create(source);
+        final ListSelection<Integer> sortedSelection = new ListSelection<>(sorted);
+        ListConsistencyListener.install(sortedSelection.getSelected());
+        ListConsistencyListener.install(sortedSelection.getDeselected());
+        final ListSelectionCounter counter = new ListSelectionCounter();
+        sortedSelection.addSelectionListener(counter);
+        for(int i = 0; i < 10; i++) source.add(Integer.valueOf(i));
+        counter.callbacks = 0;
+
+        // reversing moves the selected 2 and 3 to indices 7 and 6
+        sortedSelection.select(2, 3);
+        counter.callbacks = 0;
+        sorted.setComparator(GlazedLists.reverseComparator());
+        assertEquals(1, counter.callbacks);
+        assertEquals(2, counter.changeStart);
+        assertEquals(7, counter.changeEnd);
+        assertEquals(GlazedListsTests.intArrayToIntegerCollection(new int[] {3, 2}), sortedSelection.getSelected());
+        assertTrue(sortedSelection.isSelected(6));
+        assertTrue(sortedSelection.isSelected(7));
+        assertEquals(8, sortedSelection.getDeselected().size());
+
+        // a reordering that doesn't move the selection reports nothing
+        sortedSelection.selectAll();
+        counter.callbacks = 0;
+        sorted.setComparator(null);
+        assertEquals(0, counter.callbacks);
+        assertEquals(10, sortedSelection.getSelected().size());
+
+        // random selections survive random reorderings
+        for(int i = 0; i < 20; i++) {
+            sortedSelection.deselectAll();
+            for(int j = 0; j < sorted.size(); j++) {
+                if(dice.nextBoolean()) sortedSelection.select(j);
+            }
+            final List<Integer> selected = new ArrayList<>(sortedSelection.getSelected());
+            sorted.setComparator(dice.nextBoolean() ? GlazedLists.reverseComparator() : null);
+            for(int j = 0; j < sorted.size(); j++) {
+                assertEquals(selected.contains(sorted.get(j)), sortedSelection.isSelected(j));
+            }
+            assertEquals(selected.size(), sortedSelection.getSelected().size());
+        }
+        sortedSelection.dispose();
+        sorted.dispose();
+    }
+
     private class OddNumbersUnselectableMatcher implements Matcher<Integer> {
         @Override
         public boolean matches(Integer item) {
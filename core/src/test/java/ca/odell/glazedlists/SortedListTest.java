@@ -4,7 +4,11 @@
 package ca.odell.glazedlists;
 
 // for being a JUnit test case
+import ca.odell.glazedlists.gui.TableFormat;
 import ca.odell.glazedlists.impl.filter.StringLengthComparator;
+import ca.odell.glazedlists.impl.sort.ReverseComparator;
+import ca.odell.glazedlists.impl.sort.SortKeyComparatorChain;
+import ca.odell.glazedlists.impl.sort.TableColumnComparator;
 import ca.odell.glazedlists.impl.testing.GlazedListsTests;
 import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
 
@@ -1440,6 +1444,79 @@ public class SortedListTest {
         assertSame(theUnquestionableTruth, sortedList.get(6));
     }
 
+    /**
+     * Test that sorting by precomputed keys gives the same order as sorting
+     * by the comparators they are computed for, and that the keys are only
+     * computed for inserted and updated elements.
+     */
+    @Test
+    public void testSortKeyComparator() {
+        final int[] extractions = new int[1];
+        final TableFormat<String> tableFormat = new TableFormat<String>() {
+            @Override
+            public int getColumnCount() {
+                return 2;
+            }
+            @Override
+            public String getColumnName(int column) {
+                return column == 0 ? "First" : "Length";
+            }
+            @Override
+            public Object getColumnValue(String baseObject, int column) {
+                extractions[0]++;
+                return column == 0 ? baseObject.substring(0, 1) : Integer.valueOf(baseObject.length());
+            }
+        };
+        final List<Comparator<String>> comparators = new ArrayList<>();
+        comparators.add(new TableColumnComparator<>(tableFormat, 0));
+        comparators.add(new ReverseComparator<String>(new TableColumnComparator<>(tableFormat, 1)));
+        comparators.add(GlazedLists.<String>comparableComparator());
+
+        // sort a reorderable view of the source both ways
+        final BasicEventList<String> source = new BasicEventList<>();
+        source.addAll(Arrays.asList("abc", "ab", "b", "bcd", "a", "cc"));
+        final SortedList<String> reorderable = new SortedList<>(source, null);
+        final SortedList<String> byComparators = new SortedList<>(reorderable, GlazedLists.chainComparators(comparators));
+        extractions[0] = 0;
+        final SortedList<String> byKeys = new SortedList<>(reorderable, new SortKeyComparatorChain<>(comparators));
+        ListConsistencyListener.install(byKeys);
+        assertEquals(byComparators, byKeys);
+        assertEquals(12, extractions[0]);
+
+        for(int i = 0; i < 200; i++) {
+            final int operation = random.nextInt(4);
+            final String value = "abc".substring(random.nextInt(3)) + "xyz".substring(random.nextInt(3));
+            if(operation == 0 || source.isEmpty()) {
+                source.add(random.nextInt(source.size() + 1), value);
+            } else if(operation == 1) {
+                source.remove(random.nextInt(source.size()));
+            } else if(operation == 2) {
+                source.set(random.nextInt(source.size()), value);
+            } else {
+                reorderable.setComparator(random.nextBoolean() ? GlazedLists.<String>reverseComparator() : null);
+            }
+            assertEquals(byComparators, byKeys);
+        }
+
+        // lookups compute the key of the object looked up
+        final String element = byKeys.get(3);
+        assertEquals(byComparators.indexOf(element), byKeys.indexOf(element));
+        assertEquals(byComparators.sortIndex("b"), byKeys.sortIndex("b"));
+
+        // only inserts and updates compute keys
+        byComparators.dispose();
+        extractions[0] = 0;
+        byKeys.getReadWriteLock().writeLock().lock();
+        try {
+            source.set(0, "ba");
+            reorderable.setComparator(GlazedLists.<String>reverseComparator());
+            source.remove(0);
+        } finally {
+            byKeys.getReadWriteLock().writeLock().unlock();
+        }
+        assertEquals(2, extractions[0]);
+    }
+
     /** test a sorted list for equality */
     public void assertSortedEquals(List<Comparable> unsorted, SortedList sorted) {
         // create a protective copy to muck with
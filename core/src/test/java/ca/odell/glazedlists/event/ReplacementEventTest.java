@@ -0,0 +1,170 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.event;
+
+import ca.odell.glazedlists.BasicEventList;
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.FilterList;
+import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.NestableEventsList;
+import ca.odell.glazedlists.SortedList;
+import ca.odell.glazedlists.UniqueList;
+import ca.odell.glazedlists.impl.event.BlockSequence;
+import ca.odell.glazedlists.impl.testing.GlazedListsTests;
+import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
+import ca.odell.glazedlists.matchers.Matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that events replacing the complete contents of a list are flagged as
+ * {@link ListEvent#isReplacement() replacements}, and that the lists handling
+ * them in bulk stay consistent.
+ */
+public class ReplacementEventTest {
+
+    /**
+     * Test which block sequences are detected as replacements.
+     */
+    @Test
+    public void testBlockSequenceShape() {
+        BlockSequence blocks = new BlockSequence();
+        assertFalse(blocks.isReplacement(0));
+
+        blocks.delete(0, 3);
+        assertTrue(blocks.isReplacement(0));
+        blocks.insert(0, 2);
+        blocks.insert(2, 5);
+        assertTrue(blocks.isReplacement(5));
+        assertFalse(blocks.isReplacement(6));
+
+        blocks.reset();
+        blocks.delete(0, 3);
+        blocks.update(0, 1);
+        assertFalse(blocks.isReplacement(1));
+
+        blocks.reset();
+        blocks.insert(0, 2);
+        blocks.delete(2, 3);
+        assertFalse(blocks.isReplacement(2));
+    }
+
+    /**
+     * Test that only changes replacing everything are flagged.
+     */
+    @Test
+    public void testBasicEventListChanges() {
+        EventList<String> list = new BasicEventList<>();
+        ReplacementRecorder<String> recorder = new ReplacementRecorder<>(list);
+
+        list.addAll(GlazedListsTests.delimitedStringToList("A B C"));
+        list.add("D");
+        list.set(0, "E");
+        list.remove(1);
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(booleans(true, false, false, false, true), recorder.replacements);
+    }
+
+    /**
+     * Test that clearing and refilling a list in one event is a replacement
+     * that transformed lists handle consistently.
+     */
+    @Test
+    public void testClearAndRefill() {
+        EventList<String> source = new BasicEventList<>();
+        source.addAll(GlazedListsTests.delimitedStringToList("D A C A B E"));
+        NestableEventsList<String> nestable = new NestableEventsList<>(source);
+
+        FilterList<String> filtered = new FilterList<>(nestable, new NotMatcher("B"));
+        SortedList<String> sorted = SortedList.create(nestable);
+        UniqueList<String> unique = UniqueList.create(nestable);
+        ListConsistencyListener.install(filtered);
+        ListConsistencyListener.install(sorted);
+        ListConsistencyListener.install(unique);
+        ReplacementRecorder<String> filteredRecorder = new ReplacementRecorder<>(filtered);
+        ReplacementRecorder<String> sortedRecorder = new ReplacementRecorder<>(sorted);
+        ReplacementRecorder<String> uniqueRecorder = new ReplacementRecorder<>(unique);
+
+        nestable.beginEvent(true);
+        source.clear();
+        source.addAll(GlazedListsTests.delimitedStringToList("F B B G A F"));
+        nestable.commitEvent();
+
+        assertEquals(GlazedListsTests.delimitedStringToList("F G A F"), filtered);
+        assertEquals(GlazedListsTests.delimitedStringToList("A B B F F G"), sorted);
+        assertEquals(GlazedListsTests.delimitedStringToList("A B F G"), unique);
+        assertEquals(booleans(true), filteredRecorder.replacements);
+        assertEquals(booleans(true), sortedRecorder.replacements);
+        assertEquals(booleans(true), uniqueRecorder.replacements);
+
+        // a plain clear is a replacement as well
+        nestable.beginEvent(true);
+        source.clear();
+        nestable.commitEvent();
+        assertTrue(filtered.isEmpty());
+        assertTrue(sorted.isEmpty());
+        assertTrue(unique.isEmpty());
+        assertEquals(booleans(true, true), sortedRecorder.replacements);
+    }
+
+    /**
+     * Test that reordering events are replacements too.
+     */
+    @Test
+    public void testReorderIsReplacement() {
+        EventList<String> source = new BasicEventList<>();
+        source.addAll(GlazedListsTests.delimitedStringToList("C A B"));
+        SortedList<String> sorted = SortedList.create(source);
+        ReplacementRecorder<String> recorder = new ReplacementRecorder<>(sorted);
+
+        sorted.setComparator(GlazedLists.reverseComparator());
+        assertEquals(booleans(true), recorder.replacements);
+    }
+
+    private static List<Boolean> booleans(boolean... values) {
+        List<Boolean> result = new ArrayList<>();
+        for (boolean value : values) {
+            result.add(Boolean.valueOf(value));
+        }
+        return result;
+    }
+
+    /**
+     * Records whether each event received was a replacement.
+     */
+    private static class ReplacementRecorder<E> implements ListEventListener<E> {
+        private final List<Boolean> replacements = new ArrayList<>();
+
+        public ReplacementRecorder(EventList<E> source) {
+            source.addListEventListener(this);
+        }
+
+        @Override
+        public void listChanged(ListEvent<E> listChanges) {
+            replacements.add(Boolean.valueOf(listChanges.isReplacement()));
+        }
+    }
+
+    /**
+     * Matches all Strings except the specified one.
+     */
+    private static class NotMatcher implements Matcher<String> {
+        private final String excluded;
+
+        public NotMatcher(String excluded) {
+            this.excluded = excluded;
+        }
+
+        @Override
+        public boolean matches(String item) {
+            return !excluded.equals(item);
+        }
+    }
+}
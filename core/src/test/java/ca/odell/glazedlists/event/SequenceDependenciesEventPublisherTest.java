@@ -6,13 +6,20 @@ package ca.odell.glazedlists.event;
 import ca.odell.glazedlists.*;
 import ca.odell.glazedlists.impl.testing.GlazedListsTests;
 import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
+import ca.odell.glazedlists.matchers.Matcher;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -625,4 +632,129 @@ public class SequenceDependenciesEventPublisherTest {
         source.add("Hello");
         assertEquals(1, lcl.getChangeCount(0));
     }
+
+    /**
+     * Test that independent listeners are notified concurrently when the
+     * publisher has an executor.
+     */
+    @Test
+    public void testIndependentListenersNotifiedConcurrently() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EventList<String> source = new BasicEventList<>(ListEventAssembler.createListEventPublisher(executor), null);
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            BarrierListener first = new BarrierListener(barrier);
+            BarrierListener second = new BarrierListener(barrier);
+            source.addListEventListener(first);
+            source.addListEventListener(second);
+
+            // each listener waits for the other, which only works if they run concurrently
+            source.add("Hello");
+            assertEquals(null, first.failure);
+            assertEquals(null, second.failure);
+            assertEquals(1, first.eventCount);
+            assertEquals(1, second.eventCount);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that independent pipelines stay consistent and ordered when they
+     * are notified concurrently.
+     */
+    @Test
+    public void testIndependentPipelinesNotifiedConcurrently() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            EventList<String> source = new BasicEventList<>(ListEventAssembler.createListEventPublisher(executor), null);
+            List<SortedList<String>> pipelines = new ArrayList<>();
+            for(char letter = 'A'; letter < 'I'; letter++) {
+                FilterList<String> filtered = new FilterList<>(source, new StartsWithMatcher(String.valueOf(letter)));
+                SortedList<String> sorted = SortedList.create(filtered);
+                ListConsistencyListener.install(sorted);
+                pipelines.add(sorted);
+            }
+
+            source.addAll(GlazedListsTests.delimitedStringToList("AB CD EF GH AA CC EE GG BA DC FE HG"));
+            source.remove("CD");
+            source.set(0, "HA");
+            source.addAll(GlazedListsTests.delimitedStringToList("AZ HB HC"));
+            source.removeAll(GlazedListsTests.delimitedStringToList("GG FE"));
+
+            for(int p = 0; p < pipelines.size(); p++) {
+                String prefix = String.valueOf((char)('A' + p));
+                List<String> expected = new ArrayList<>();
+                for(String element : source) {
+                    if(element.startsWith(prefix)) expected.add(element);
+                }
+                Collections.sort(expected);
+                assertEquals(expected, pipelines.get(p));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that an exception thrown by a listener notified concurrently is
+     * rethrown to the thread making the change.
+     */
+    @Test
+    public void testConcurrentListenerExceptionRethrown() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EventList<String> source = new BasicEventList<>(ListEventAssembler.createListEventPublisher(executor), null);
+            ListConsistencyListener.install(source);
+            final IllegalStateException problem = new IllegalStateException();
+            source.addListEventListener(listChanges -> { throw problem; });
+            try {
+                source.add("Hello");
+                fail();
+            } catch(IllegalStateException e) {
+                assertSame(problem, e);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for another listener at a barrier when notified.
+     */
+    private static class BarrierListener implements ListEventListener<String> {
+        private final CyclicBarrier barrier;
+        private int eventCount = 0;
+        private Exception failure;
+
+        public BarrierListener(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void listChanged(ListEvent<String> listChanges) {
+            eventCount++;
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch(Exception e) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Matches Strings with the specified prefix.
+     */
+    private static class StartsWithMatcher implements Matcher<String> {
+        private final String prefix;
+
+        public StartsWithMatcher(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean matches(String item) {
+            return item.startsWith(prefix);
+        }
+    }
 }
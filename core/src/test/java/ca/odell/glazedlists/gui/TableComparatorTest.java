@@ -7,10 +7,16 @@ import ca.odell.glazedlists.BasicEventList;
 import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.SortedList;
+import ca.odell.glazedlists.impl.sort.ComparatorChain;
+import ca.odell.glazedlists.impl.sort.SortKeyComparatorChain;
 import ca.odell.glazedlists.swing.DefaultEventTableModel;
 import ca.odell.glazedlists.swing.TableComparatorChooser;
 
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableModel;
@@ -106,6 +112,37 @@ public class TableComparatorTest {
         assertParseFails("1 1");
     }
 
+    /**
+     * Test that sorting by precomputed keys keeps the sort order and the
+     * sorting state of the chooser.
+     */
+    @Test
+    public void testSortKeysPrecomputed() {
+        sortedList.addAll(Arrays.asList("b", "d", "a", "c", "b"));
+        tableComparatorChooser.fromString("column 1 comparator 1, column 0 reversed");
+        final List<String> expected = new ArrayList<>(sortedList);
+        assertEquals(Arrays.asList("a", "b", "b", "c", "d"), expected);
+
+        tableComparatorChooser.setSortKeysPrecomputed(true);
+        assertTrue(tableComparatorChooser.isSortKeysPrecomputed());
+        final Comparator<? super String> keyed = sortedList.getComparator();
+        assertTrue(keyed instanceof SortKeyComparatorChain);
+        assertEquals(expected, sortedList);
+
+        // the sorting state can be detected from the keyed comparator
+        tableComparatorChooser.clearComparator();
+        tableComparatorChooser.redetectComparator(keyed);
+        assertEquals("column 1 comparator 1, column 0 reversed", tableComparatorChooser.toString());
+
+        // new sorts use keys too, until they're turned off
+        tableComparatorChooser.fromString("column 2 reversed");
+        assertTrue(sortedList.getComparator() instanceof SortKeyComparatorChain);
+        assertEquals(Arrays.asList("d", "c", "b", "b", "a"), sortedList);
+        tableComparatorChooser.setSortKeysPrecomputed(false);
+        assertTrue(sortedList.getComparator() instanceof ComparatorChain);
+        assertEquals(Arrays.asList("d", "c", "b", "b", "a"), sortedList);
+    }
+
     public void assertFromAndToString(String toStringExpected, String fromString) {
         tableComparatorChooser.fromString(fromString);
         String toStringResult = tableComparatorChooser.toString();
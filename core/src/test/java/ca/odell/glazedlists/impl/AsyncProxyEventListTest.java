@@ -0,0 +1,172 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl;
+
+import ca.odell.glazedlists.BasicEventList;
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.SortedList;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.impl.testing.GlazedListsTests;
+import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Makes sure that {@link AsyncProxyEventList} delivers its source's changes
+ * asynchronously.
+ */
+public class AsyncProxyEventListTest {
+
+    /**
+     * Test that changes are delivered only when the executor runs, combined
+     * into a single event.
+     */
+    @Test
+    public void testChangesCombinedUntilDelivered() {
+        QueueExecutor executor = new QueueExecutor();
+        EventList<String> source = new BasicEventList<>();
+        source.addAll(GlazedListsTests.delimitedStringToList("A B C"));
+        EventList<String> proxy = GlazedLists.asyncProxyList(source, executor);
+        ListConsistencyListener<String> listener = ListConsistencyListener.install(proxy);
+
+        source.add("D");
+        source.remove("A");
+        source.set(0, "E");
+        source.add(1, "F");
+        assertEquals(GlazedListsTests.delimitedStringToList("A B C"), proxy);
+        assertEquals(1, executor.tasks.size());
+
+        executor.runAll();
+        assertEquals(source, proxy);
+        assertEquals(1, listener.getEventCount());
+
+        // a sorted pipeline on the proxy follows along
+        SortedList<String> sorted = SortedList.create(proxy);
+        source.clear();
+        source.addAll(GlazedListsTests.delimitedStringToList("Z Y X"));
+        executor.runAll();
+        assertEquals(source, proxy);
+        assertEquals(GlazedListsTests.delimitedStringToList("X Y Z"), sorted);
+        assertNotSame(source.getReadWriteLock(), proxy.getReadWriteLock());
+
+        proxy.dispose();
+        source.add("W");
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    /**
+     * Test that writers to the source don't wait for slow listeners.
+     */
+    @Test
+    public void testWritersDontWaitForListeners() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            EventList<String> source = new BasicEventList<>();
+            EventList<String> proxy = GlazedLists.asyncProxyList(source, executor);
+            final CountDownLatch listenerStarted = new CountDownLatch(1);
+            final CountDownLatch listenerReleased = new CountDownLatch(1);
+            proxy.addListEventListener(new ListEventListener<String>() {
+                @Override
+                public void listChanged(ListEvent<String> listChanges) {
+                    listenerStarted.countDown();
+                    try {
+                        listenerReleased.await(10, TimeUnit.SECONDS);
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+
+            source.getReadWriteLock().writeLock().lock();
+            try {
+                source.add("A");
+            } finally {
+                source.getReadWriteLock().writeLock().unlock();
+            }
+            assertTrue(listenerStarted.await(10, TimeUnit.SECONDS));
+
+            // the listener is busy, yet writes continue
+            List<String> expected = new ArrayList<>();
+            expected.add("A");
+            for(int i = 0; i < 100; i++) {
+                source.getReadWriteLock().writeLock().lock();
+                try {
+                    source.add("B" + i);
+                } finally {
+                    source.getReadWriteLock().writeLock().unlock();
+                }
+                expected.add("B" + i);
+            }
+            listenerReleased.countDown();
+
+            // wait for the remaining changes to be delivered
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(expected, proxy);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that a delivery rejected by the executor is scheduled again with
+     * the next change, and delivers the changes made meanwhile too.
+     */
+    @Test
+    public void testRejectedDeliveryIsRescheduled() {
+        QueueExecutor executor = new QueueExecutor();
+        EventList<String> source = new BasicEventList<>();
+        EventList<String> proxy = GlazedLists.asyncProxyList(source, executor);
+        ListConsistencyListener<String> listener = ListConsistencyListener.install(proxy);
+
+        executor.rejecting = true;
+        try {
+            source.add("A");
+            fail();
+        } catch(RejectedExecutionException e) {
+            // expected
+        }
+        assertTrue(executor.tasks.isEmpty());
+
+        executor.rejecting = false;
+        source.add("B");
+        assertEquals(1, executor.tasks.size());
+        executor.runAll();
+        assertEquals(source, proxy);
+        assertEquals(1, listener.getEventCount());
+    }
+
+    /**
+     * Runs tasks only when asked to.
+     */
+    private static class QueueExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private boolean rejecting = false;
+
+        @Override
+        public void execute(Runnable task) {
+            if(rejecting) throw new RejectedExecutionException();
+            tasks.add(task);
+        }
+
+        public void runAll() {
+            while(!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+}
@@ -14,9 +14,11 @@ import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -57,6 +59,161 @@ public class DiffTest {
         assertEquals(sequence, modifiedSequence);
     }
 
+    /**
+     * Tests that random lists are diffed with the fewest possible changes.
+     */
+    @Test
+    public void testRandomDiffsAreShortest() {
+        Random dice = new Random(11);
+        for(int i = 0; i < 500; i++) {
+            String alpha = randomString(dice);
+            String beta = randomString(dice);
+            int expected = alpha.length() + beta.length() - 2 * longestCommonSubsequence(alpha, beta);
+
+            EventList<String> target = new BasicEventList<>();
+            target.addAll(stringToList(alpha));
+            assertEquals(alpha + " -> " + beta, expected, getChangeCount(target, stringToList(beta), false, null));
+            assertEquals(stringToList(beta), target);
+
+            target = new BasicEventList<>();
+            target.addAll(stringToList(alpha));
+            assertEquals(alpha + " -> " + beta, expected, getChangeCount(target, stringToList(beta), false, GlazedLists.comparableComparator()));
+            assertEquals(stringToList(beta), target);
+        }
+    }
+
+    /**
+     * Tests that lists with nothing in common are replaced completely rather
+     * than diffed element by element.
+     */
+    @Test
+    public void testDisjointListsAreReplaced() {
+        List<Integer> source = new ArrayList<>();
+        EventList<Integer> target = new BasicEventList<>();
+        for(int i = 0; i < 20000; i++) {
+            target.add(new Integer(i));
+            source.add(new Integer(-1 - i));
+        }
+        assertEquals(2, getChangeCount(target, source, false, null));
+        assertEquals(source, target);
+
+        target.clear();
+        for(int i = 0; i < 20000; i++) {
+            target.add(new Integer(i));
+        }
+        assertEquals(2, getChangeCount(target, source, false, GlazedLists.comparableComparator()));
+        assertEquals(source, target);
+
+        // a common prefix and suffix survive the replacement
+        Integer first = target.get(0);
+        Integer last = target.get(target.size() - 1);
+        for(int i = 0; i < source.size(); i++) {
+            source.set(i, new Integer(i));
+        }
+        source.set(0, first);
+        source.set(source.size() - 1, last);
+        GlazedLists.replaceAll(target, source, false);
+        assertEquals(source, target);
+        assertSame(first, target.get(0));
+        assertSame(last, target.get(target.size() - 1));
+    }
+
+    /**
+     * Tests that large lists with only a few chance matches are replaced
+     * completely rather than edited around those matches.
+     */
+    @Test
+    public void testMostlyDifferentListsAreReplaced() {
+        List<Integer> source = new ArrayList<>();
+        EventList<Integer> target = new BasicEventList<>();
+        for(int i = 0; i < 200000; i++) {
+            target.add(Integer.valueOf(i));
+            source.add(Integer.valueOf(i % 1000 == 500 ? i : -1 - i));
+        }
+        assertEquals(2, getChangeCount(target, source, false, null));
+        assertEquals(source, target);
+
+        target.clear();
+        for(int i = 0; i < 200000; i++) {
+            target.add(Integer.valueOf(i));
+        }
+        assertEquals(2, getChangeCount(target, source, false, GlazedLists.comparableComparator()));
+        assertEquals(source, target);
+    }
+
+    /**
+     * Tests that elements which are unique in both lists are kept when the
+     * lists differ by too many changes to diff completely.
+     */
+    @Test
+    public void testUniqueElementsAreKept() {
+        List<Integer> source = new ArrayList<>();
+        EventList<Integer> target = new BasicEventList<>();
+        for(int i = 0; i < 20000; i++) {
+            target.add(new Integer(i));
+            source.add(new Integer(i % 2 == 0 ? i : -i));
+        }
+        List<Integer> evens = new ArrayList<>();
+        for(int i = 0; i < target.size(); i += 2) {
+            evens.add(target.get(i));
+        }
+
+        assertEquals(20000, getChangeCount(target, source, false, null));
+        assertEquals(source, target);
+        for(int i = 0; i < evens.size(); i++) {
+            assertSame(evens.get(i), target.get(i * 2));
+        }
+    }
+
+    /**
+     * Tests that a large list with scattered changes is diffed change by
+     * change, even when its edit script is too long to search for completely.
+     */
+    @Test
+    public void testScatteredChangesToLargeListsAreDiffed() {
+        Random dice = new Random(27);
+        List<Integer> source = new ArrayList<>();
+        EventList<Integer> target = new BasicEventList<>();
+        for(int i = 0; i < 200000; i++) {
+            target.add(Integer.valueOf(i));
+            source.add(Integer.valueOf(i));
+        }
+        Set<Integer> changed = new HashSet<>();
+        while(changed.size() < 3000) {
+            int index = dice.nextInt(source.size());
+            if(changed.add(Integer.valueOf(index))) source.set(index, Integer.valueOf(-1 - index));
+        }
+
+        assertEquals(2 * changed.size(), getChangeCount(target, source, false, GlazedLists.comparableComparator()));
+        assertEquals(source, target);
+    }
+
+    /**
+     * Create a short String of a few distinct characters.
+     */
+    private String randomString(Random dice) {
+        StringBuilder result = new StringBuilder();
+        for(int length = dice.nextInt(12); result.length() < length; ) {
+            result.append((char)('a' + dice.nextInt(4)));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Calculates the length of the longest common subsequence by dynamic
+     * programming.
+     */
+    private int longestCommonSubsequence(String alpha, String beta) {
+        int[][] lengths = new int[alpha.length() + 1][beta.length() + 1];
+        for(int a = alpha.length() - 1; a >= 0; a--) {
+            for(int b = beta.length() - 1; b >= 0; b--) {
+                if(alpha.charAt(a) == beta.charAt(b)) lengths[a][b] = lengths[a + 1][b + 1] + 1;
+                else lengths[a][b] = Math.max(lengths[a + 1][b], lengths[a][b + 1]);
+            }
+        }
+        return lengths[0][0];
+    }
+
     /**
      * Counts the number of changes to change target to source.
      */
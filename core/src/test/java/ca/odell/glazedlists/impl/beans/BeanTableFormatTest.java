@@ -5,10 +5,13 @@ package ca.odell.glazedlists.impl.beans;
 
 import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.gui.AdvancedTableFormat;
+import ca.odell.glazedlists.gui.ColumnarTableFormat;
 import ca.odell.glazedlists.gui.TableFormat;
 import ca.odell.glazedlists.gui.WritableTableFormat;
 
 import java.awt.Color;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
@@ -128,6 +131,61 @@ public class BeanTableFormatTest {
         assertEquals(GlazedLists.comparableComparator(), fullAdvancedFootballFormat.getColumnComparator(5));
     }
 
+    /**
+     * Tests that BeanTableFormat extracts the same values a column at a time
+     * as it does a cell at a time.
+     */
+    @Test
+    public void testColumnarTableFormat() {
+        riders.setMatchCount(12);
+        ticats.setMatchCount(7);
+        final List<FootballTeam> teams = Arrays.asList(riders, null, ticats, riders);
+
+        // the unclassed format loads its properties from the first non-null row
+        for (TableFormat<FootballTeam> format : Arrays.asList(footballFormat, classedFootballFormat)) {
+            final ColumnarTableFormat<FootballTeam> columnar = (ColumnarTableFormat<FootballTeam>) format;
+            for (int column = 0; column < format.getColumnCount(); column++) {
+                final Object[] values = new Object[3];
+                columnar.getColumnValues(teams, 1, 4, column, values);
+                for (int row = 1; row < 4; row++) {
+                    assertEquals(format.getColumnValue(teams.get(row), column), values[row - 1]);
+                }
+            }
+        }
+
+        final double[] counts = new double[4];
+        ((ColumnarTableFormat<FootballTeam>) classedFootballFormat).getColumnDoubles(teams, 0, 4, 5, counts);
+        assertArrayEquals(new double[] {12, Double.NaN, 7, 12}, counts, 0);
+        ((ColumnarTableFormat<FootballTeam>) classedFootballFormat).getColumnDoubles(teams, 0, 2, 0, counts);
+        assertArrayEquals(new double[] {Double.NaN, Double.NaN, 7, 12}, counts, 0);
+
+        // a range of null rows has null values
+        final Object[] values = {"stale"};
+        ((ColumnarTableFormat<FootballTeam>) GlazedLists.<FootballTeam>tableFormat(new String[] {"name"}, new String[] {"Name"})).getColumnValues(teams, 1, 2, 0, values);
+        assertNull(values[0]);
+
+        // the exceptions of the getters are thrown unchanged
+        ticats.setMatchCount(-1);
+        try {
+            ((ColumnarTableFormat<FootballTeam>) classedFootballFormat).getColumnDoubles(teams, 0, 4, 5, counts);
+            fail("failed to throw the exception of the getter");
+        } catch (IllegalStateException e) {
+            assertEquals("Unknown match count", e.getMessage());
+        }
+        try {
+            ((ColumnarTableFormat<FootballTeam>) classedFootballFormat).getColumnValues(teams, 0, 4, 5, new Object[4]);
+            fail("failed to throw the exception of the getter");
+        } catch (IllegalStateException e) {
+            assertEquals("Unknown match count", e.getMessage());
+        }
+        try {
+            classedFootballFormat.getColumnValue(ticats, 5);
+            fail("failed to throw the exception of the getter");
+        } catch (IllegalStateException e) {
+            assertEquals("Unknown match count", e.getMessage());
+        }
+    }
+
     @Test
     public void testIdentityColumn() {
         final String[] propertyNames = {"this"};
@@ -173,7 +231,10 @@ class FootballTeam {
     public Color getSecondary() { return secondary; }
     public void setSecondary(Color secondary) { this.secondary = secondary; };
 
-    public int getMatchCount() { return matchCount; }
+    public int getMatchCount() {
+        if (matchCount < 0) throw new IllegalStateException("Unknown match count");
+        return matchCount;
+    }
     public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
 
     public boolean isYearWinner() { return yearWinner; }
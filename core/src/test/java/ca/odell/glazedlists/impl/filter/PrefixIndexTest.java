@@ -0,0 +1,130 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.impl.filter;
+
+import ca.odell.glazedlists.BasicEventList;
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.FunctionList;
+import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.SortedList;
+import ca.odell.glazedlists.impl.GlazedListsImpl;
+import ca.odell.glazedlists.matchers.Matcher;
+import ca.odell.glazedlists.matchers.TextMatcherEditor;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Make sure that {@link PrefixIndex} locates the same elements as a
+ * {@link TextMatcherEditor#STARTS_WITH} {@link TextMatcher}, as the source
+ * list changes.
+ */
+public class PrefixIndexTest {
+
+    private static final String[] WORDS = {"", "a", "ab", "AB", "abc", "Abd", "b", "ba", "résumé", "resume", "Müller", "muller", "zz", "ß", "ßa", "SSa", "ssa", "straße", "STRASSE"};
+
+    private static final FunctionList.Function<String,String> IDENTITY = new FunctionList.Function<String,String>() {
+        @Override
+        public String evaluate(String value) {
+            return value;
+        }
+    };
+
+    private final Random dice = new Random(83);
+
+    @Test
+    public void testIdenticalStrategy() {
+        checkIndex(TextMatcherEditor.IDENTICAL_STRATEGY, null);
+    }
+
+    @Test
+    public void testNormalizedStrategy() {
+        checkIndex(TextMatcherEditor.NORMALIZED_STRATEGY, GlazedListsImpl.getLatinDiacriticsStripper());
+    }
+
+    @Test
+    public void testReorderAndDispose() {
+        final EventList<String> source = new BasicEventList<>();
+        source.addAll(Arrays.asList("b", "ab", "a"));
+        final SortedList<String> sorted = new SortedList<>(source, null);
+        final PrefixIndex<String> index = new PrefixIndex<>(sorted, IDENTITY, null);
+        assertEquals("[1, 2]", Arrays.toString(index.indicesStartingWith("A")));
+
+        sorted.setComparator(GlazedLists.comparableComparator());
+        assertEquals("[0, 1]", Arrays.toString(index.indicesStartingWith("a")));
+        assertEquals("[0]", Arrays.toString(index.indicesOf("A")));
+
+        index.dispose();
+        source.add("aa");
+        assertEquals("[]", Arrays.toString(index.indicesStartingWith("a")));
+    }
+
+    @Test
+    public void testPrefixRangeBounds() {
+        final EventList<String> source = new BasicEventList<>();
+        source.addAll(Arrays.asList("a", "a\uffff", "a\uffff\uffff", "b", "\uffff", "\uffffa"));
+        final PrefixIndex<String> index = new PrefixIndex<>(source, IDENTITY, null);
+        assertEquals("[0, 1, 2, 3, 4, 5]", Arrays.toString(index.indicesStartingWith("")));
+        assertEquals("[0, 1, 2]", Arrays.toString(index.indicesStartingWith("a")));
+        assertEquals("[1, 2]", Arrays.toString(index.indicesStartingWith("a\uffff")));
+        assertEquals("[4, 5]", Arrays.toString(index.indicesStartingWith("\uffff")));
+        index.dispose();
+    }
+
+    /**
+     * Compare the index with a STARTS_WITH TextMatcher of the specified
+     * strategy while the source list changes randomly.
+     */
+    private void checkIndex(Object strategy, char[] characterMap) {
+        final EventList<String> source = new BasicEventList<>();
+        final PrefixIndex<String> index = new PrefixIndex<>(source, IDENTITY, characterMap);
+
+        for(int i = 0; i < 300; i++) {
+            final int operation = dice.nextInt(4);
+            if(operation < 2 || source.isEmpty()) {
+                source.add(dice.nextInt(source.size() + 1), WORDS[dice.nextInt(WORDS.length)]);
+            } else if(operation == 2) {
+                source.remove(dice.nextInt(source.size()));
+            } else {
+                source.set(dice.nextInt(source.size()), WORDS[dice.nextInt(WORDS.length)]);
+            }
+
+            for(int w = 1; w < WORDS.length; w++) {
+                final String prefix = WORDS[w];
+                final Matcher<String> matcher = new TextMatcher<>(new SearchTerm[] {new SearchTerm(prefix)}, GlazedLists.toStringTextFilterator(), TextMatcherEditor.STARTS_WITH, strategy);
+                assertEquals(prefix, Arrays.toString(matchingIndices(source, matcher)), Arrays.toString(matchingCandidates(source, matcher, index.indicesStartingWith(prefix))));
+            }
+        }
+        index.dispose();
+    }
+
+    /**
+     * Get the indices of the elements located by the index that the matcher
+     * matches, as callers of the index verify them.
+     */
+    private static int[] matchingCandidates(EventList<String> source, Matcher<String> matcher, int[] candidates) {
+        int[] result = new int[candidates.length];
+        int size = 0;
+        for(int c = 0; c < candidates.length; c++) {
+            if(matcher.matches(source.get(candidates[c]))) result[size++] = candidates[c];
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Get the indices of the elements that the matcher matches.
+     */
+    private static int[] matchingIndices(EventList<String> source, Matcher<String> matcher) {
+        int[] result = new int[source.size()];
+        int size = 0;
+        for(int i = 0; i < source.size(); i++) {
+            if(matcher.matches(source.get(i))) result[size++] = i;
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
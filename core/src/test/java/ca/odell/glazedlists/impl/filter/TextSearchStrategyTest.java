@@ -3,6 +3,10 @@
 /*                                                     O'Dell Engineering Ltd.*/
 package ca.odell.glazedlists.impl.filter;
 
+import ca.odell.glazedlists.impl.GlazedListsImpl;
+
+import java.util.Random;
+
 // for being a JUnit test case
 import org.junit.After;
 import org.junit.Before;
@@ -26,7 +30,8 @@ public class TextSearchStrategyTest {
     @Before
     public void setUp() {
         strategies = new TextSearchStrategy[] {
-            new BoyerMooreCaseInsensitiveTextSearchStrategy()
+            new BoyerMooreCaseInsensitiveTextSearchStrategy(),
+            new ScanningCaseInsensitiveTextSearchStrategy()
         };
     }
 
@@ -132,4 +137,35 @@ public class TextSearchStrategyTest {
             assertEquals("Test class " + strategy.getClass(), -1, strategy.indexOf("Saskatchewan Roughriders 50/50 Draw"));
         }
     }
+
+    /**
+     * Test that the scanning strategy finds the same occurrences as Boyer-Moore,
+     * including when it falls back to Boyer-Moore for a character map.
+     */
+    @Test
+    public void testScanningMatchesBoyerMoore() {
+        final String alphabet = "aAbBcC\u00e9\u00c9\u042F/ ";
+        final Random dice = new Random(3);
+        for(int i = 0; i < 2000; i++) {
+            final String subtext = randomString(dice, alphabet, 1 + dice.nextInt(4));
+            final String text = randomString(dice, alphabet, dice.nextInt(20));
+            final char[] characterMap = dice.nextBoolean() ? GlazedListsImpl.getLatinDiacriticsStripper() : null;
+
+            final TextSearchStrategy boyerMoore = new BoyerMooreCaseInsensitiveTextSearchStrategy();
+            final TextSearchStrategy scanning = new ScanningCaseInsensitiveTextSearchStrategy();
+            boyerMoore.setCharacterMap(characterMap);
+            scanning.setCharacterMap(characterMap);
+            boyerMoore.setSubtext(subtext);
+            scanning.setSubtext(subtext);
+            assertEquals(subtext + " in " + text, boyerMoore.indexOf(text), scanning.indexOf(text));
+        }
+    }
+
+    private static String randomString(Random dice, String alphabet, int length) {
+        final StringBuilder result = new StringBuilder();
+        for(int i = 0; i < length; i++) {
+            result.append(alphabet.charAt(dice.nextInt(alphabet.length())));
+        }
+        return result.toString();
+    }
 }
@@ -0,0 +1,116 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.matchers;
+
+import ca.odell.glazedlists.BasicEventList;
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.FilterList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Make sure that {@link AdaptiveMatcher} matches like a plain "and" or "or",
+ * and learns to evaluate the decisive Matchers first.
+ */
+public class AdaptiveMatcherTest {
+
+    private final Random dice = new Random(31);
+
+    @Test
+    public void testMatchesLikeOperator() {
+        final Matcher<Integer>[] matchers = new Matcher[] {
+            new ModuloMatcher(2), new ModuloMatcher(3), new ModuloMatcher(5), new ModuloMatcher(7)
+        };
+        final Matcher<Integer> and = Matchers.and(matchers);
+        final Matcher<Integer> or = Matchers.or(matchers);
+        final Matcher<Integer> adaptiveAnd = Matchers.adaptiveAnd(matchers);
+        final Matcher<Integer> adaptiveOr = Matchers.adaptiveOr(matchers);
+
+        for(int i = 0; i < 20000; i++) {
+            final Integer value = Integer.valueOf(dice.nextInt(1000));
+            assertEquals(and.matches(value), adaptiveAnd.matches(value));
+            assertEquals(or.matches(value), adaptiveOr.matches(value));
+        }
+    }
+
+    @Test
+    public void testReorder() {
+        final Matcher<Integer> always = Matchers.isNotNull();
+        final Matcher<Integer> rarely = new ModuloMatcher(100);
+        final AdaptiveMatcher<Integer> and = Matchers.adaptiveAnd(always, rarely);
+        final AdaptiveMatcher<Integer> or = Matchers.adaptiveOr(rarely, always);
+
+        for(int i = 0; i < 5000; i++) {
+            final Integer value = Integer.valueOf(i);
+            and.matches(value);
+            or.matches(value);
+        }
+
+        // the decisive matchers are evaluated first
+        assertEquals(Arrays.asList(rarely, always), and.getEvaluationOrder());
+        assertEquals(Arrays.asList(always, rarely), or.getEvaluationOrder());
+
+        // the declaration order is unchanged
+        assertEquals(Arrays.asList(always, rarely), and.getMatchers());
+
+        // every delegate is sampled
+        final List<MatcherStatistics> statistics = and.getStatistics();
+        assertEquals(5000 / 16, statistics.get(0).getEvaluations());
+        assertEquals(5000 / 16, statistics.get(1).getEvaluations());
+        assertTrue(statistics.get(0).getPassRate() > 0.9);
+        assertTrue(statistics.get(1).getPassRate() < 0.1);
+    }
+
+    @Test
+    public void testCompositeMatcherEditorStatistics() {
+        final EventList<Integer> source = new BasicEventList<>();
+        for(int i = 0; i < 5000; i++) source.add(Integer.valueOf(i));
+
+        final CompositeMatcherEditor<Integer> composite = new CompositeMatcherEditor<>();
+        composite.setAdaptive(true);
+        final FilterList<Integer> filtered = new FilterList<>(source, composite);
+        final MatcherEditor<Integer> everything = new FixedMatcherEditor<>(Matchers.<Integer>isNotNull());
+        final MatcherEditor<Integer> hundreds = new FixedMatcherEditor<>(new ModuloMatcher(100));
+        composite.getMatcherEditors().add(everything);
+        composite.getMatcherEditors().add(hundreds);
+        assertEquals(50, filtered.size());
+
+        // the statistics line up with the matcher editors
+        final List<MatcherStatistics> statistics = composite.getStatistics();
+        assertEquals(2, statistics.size());
+        assertTrue(statistics.get(0).getPassRate() > 0.9);
+        assertTrue(statistics.get(1).getPassRate() < 0.1);
+
+        // inserting a matcher editor at the front shifts the statistics
+        composite.getMatcherEditors().add(0, new FixedMatcherEditor<>(Matchers.<Integer>isNotNull()));
+        assertEquals(3, composite.getStatistics().size());
+        assertEquals(statistics.get(1), composite.getStatistics().get(2));
+        assertEquals(50, filtered.size());
+
+        // turning adaptive matching off doesn't change the matched elements
+        composite.setAdaptive(false);
+        assertEquals(50, filtered.size());
+    }
+
+    /**
+     * Matches Integers that are multiples of the specified divisor.
+     */
+    private static class ModuloMatcher implements Matcher<Integer> {
+        private final int divisor;
+        public ModuloMatcher(int divisor) {
+            this.divisor = divisor;
+        }
+        @Override
+        public boolean matches(Integer item) {
+            return item.intValue() % divisor == 0;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.matchers;
+
+import ca.odell.glazedlists.BasicEventList;
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.FilterList;
+import ca.odell.glazedlists.TextFilterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that the {@link IndexedTextMatcherEditor} matches the same elements
+ * as a plain {@link TextMatcherEditor}, as the source list changes.
+ */
+public class IndexedTextMatcherEditorTest {
+
+    private static final String[] WORDS = {"glazed", "Lists", "résumé", "RESUME", "actor", "reactor", "fact", "ab", "abc", "abcd", "zzz"};
+
+    private final Random dice = new Random(7);
+
+    @Test
+    public void testMatchesLikeTextMatcherEditor() {
+        final TextFilterator<String[]> filterator = new ArrayTextFilterator();
+        final EventList<String[]> source = new BasicEventList<>();
+        for (int i = 0; i < 200; i++) {
+            source.add(randomElement());
+        }
+
+        final IndexedTextMatcherEditor<String[]> indexedEditor = new IndexedTextMatcherEditor<>(source, filterator);
+        final TextMatcherEditor<String[]> plainEditor = new TextMatcherEditor<>(filterator);
+        final FilterList<String[]> indexed = new FilterList<>(source, indexedEditor);
+        indexedEditor.addFilterList(indexed);
+        final FilterList<String[]> plain = new FilterList<>(source, plainEditor);
+
+        final int[] modes = {TextMatcherEditor.CONTAINS, TextMatcherEditor.STARTS_WITH, TextMatcherEditor.EXACT};
+        final Object[] strategies = {TextMatcherEditor.IDENTICAL_STRATEGY, TextMatcherEditor.NORMALIZED_STRATEGY};
+        for (int round = 0; round < 300; round++) {
+            // change the source
+            final int change = dice.nextInt(5);
+            if (change == 0) {
+                source.add(dice.nextInt(source.size() + 1), randomElement());
+            } else if (change == 1 && !source.isEmpty()) {
+                source.remove(dice.nextInt(source.size()));
+            } else if (change == 2 && !source.isEmpty()) {
+                source.set(dice.nextInt(source.size()), randomElement());
+            } else if (change == 3 && !source.isEmpty()) {
+                // modify an element in place, then fire an update
+                final int index = dice.nextInt(source.size());
+                final String[] element = source.get(index);
+                element[dice.nextInt(element.length)] = WORDS[dice.nextInt(WORDS.length)];
+                source.set(index, element);
+            } else if (change == 4 && !source.isEmpty()) {
+                // add a duplicate of an element
+                source.add(source.get(dice.nextInt(source.size())));
+            }
+
+            // change the filter
+            final int mode = modes[dice.nextInt(modes.length)];
+            final Object strategy = strategies[dice.nextInt(strategies.length)];
+            final String[] filters = randomFilters();
+            indexedEditor.setMode(mode);
+            plainEditor.setMode(mode);
+            indexedEditor.setStrategy(strategy);
+            plainEditor.setStrategy(strategy);
+            indexedEditor.setFilterText(filters);
+            plainEditor.setFilterText(filters);
+
+            assertEquals(Arrays.asList(filters).toString(), plain, indexed);
+        }
+    }
+
+    @Test
+    public void testOnlyCandidatesAreSearched() {
+        final CountingTextFilterator filterator = new CountingTextFilterator();
+        final EventList<String[]> source = new BasicEventList<>();
+        for (String word : WORDS) {
+            source.add(new String[] {word});
+        }
+        final IndexedTextMatcherEditor<String[]> editor = new IndexedTextMatcherEditor<>(source, filterator);
+        final FilterList<String[]> filtered = new FilterList<>(source, editor);
+        assertEquals(WORDS.length, filterator.count);
+
+        // only "actor" and "reactor" are searched
+        editor.setFilterText(new String[] {"ctor"});
+        assertEquals(2, filtered.size());
+        assertEquals(WORDS.length + 2, filterator.count);
+
+        // new elements are indexed when inserted and searched
+        source.add(new String[] {"tractor"});
+        assertEquals(3, filtered.size());
+        assertEquals(WORDS.length + 4, filterator.count);
+
+        // short filters are searched in every element
+        editor.setFilterText(new String[] {"ab"});
+        assertEquals(3, filtered.size());
+        assertEquals(2 * WORDS.length + 5, filterator.count);
+
+        // once disposed, every element is searched
+        editor.dispose();
+        editor.setFilterText(new String[] {"ctor"});
+        assertEquals(3, filtered.size());
+    }
+
+    @Test
+    public void testOnlyCandidatesAreTestedAgain() {
+        final EventList<String[]> source = new BasicEventList<>();
+        for (String word : WORDS) {
+            source.add(new String[] {word});
+        }
+        final IndexedTextMatcherEditor<String[]> editor = new IndexedTextMatcherEditor<>(source, new ArrayTextFilterator());
+        final FilterList<String[]> filtered = new FilterList<>(source, editor);
+        editor.setFilterText(new String[] {"ctor"});
+
+        final List<MatcherEditor.Event<String[]>> events = new ArrayList<>();
+        editor.addMatcherEditorListener(events::add);
+
+        // only "actor", "reactor" and "fact" may contain either filter
+        editor.setFilterText(new String[] {"act"});
+        assertEquals(3, filtered.size());
+        assertArrayEquals(new int[] {4, 5, 6}, events.get(0).getChangedElements().getChangedIndices(source));
+
+        // short filters don't narrow down the elements to test
+        editor.setFilterText(new String[] {"ab"});
+        assertEquals(3, filtered.size());
+        assertNull(events.get(1).getChangedElements());
+    }
+
+    @Test
+    public void testFilterListCreatedBeforeEditor() {
+        final EventList<String[]> source = new BasicEventList<>();
+        source.add(new String[] {"actor"});
+        final FilterList<String[]> filtered = new FilterList<>(source);
+        final IndexedTextMatcherEditor<String[]> editor = new IndexedTextMatcherEditor<>(source, new ArrayTextFilterator());
+        editor.addFilterList(filtered);
+        filtered.setMatcherEditor(editor);
+        editor.setFilterText(new String[] {"ctor"});
+        assertEquals(1, filtered.size());
+
+        // the updated element must be indexed again before it is filtered
+        final String[] element = {"fact"};
+        source.add(element);
+        assertEquals(1, filtered.size());
+        element[0] = "reactor";
+        source.set(1, element);
+        assertEquals(2, filtered.size());
+    }
+
+    @Test
+    public void testLargeChanges() {
+        final EventList<String[]> source = new BasicEventList<>();
+        final IndexedTextMatcherEditor<String[]> editor = new IndexedTextMatcherEditor<>(source, new ArrayTextFilterator());
+        final FilterList<String[]> filtered = new FilterList<>(source, editor);
+        editor.setFilterText(new String[] {"ctor"});
+
+        final List<String[]> elements = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            elements.add(new String[] {WORDS[i % WORDS.length] + " " + i});
+        }
+        source.addAll(elements);
+        source.addAll(elements.subList(0, 10000));
+        assertEquals(2 * 60000 / WORDS.length, filtered.size(), 2);
+
+        // removing most elements one by one retires and renumbers their IDs
+        for (int i = source.size() - 1; i >= 1000; i--) {
+            source.remove(i);
+        }
+        int expected = 0;
+        for (String[] element : source) {
+            if (element[0].contains("ctor")) expected++;
+        }
+        assertEquals(expected, filtered.size());
+        source.add(new String[] {"tractor"});
+        assertEquals(expected + 1, filtered.size());
+
+        source.clear();
+        assertEquals(0, filtered.size());
+    }
+
+    private String[] randomElement() {
+        final String[] element = new String[1 + dice.nextInt(2)];
+        for (int i = 0; i < element.length; i++) {
+            element[i] = WORDS[dice.nextInt(WORDS.length)] + (dice.nextBoolean() ? "" : " " + WORDS[dice.nextInt(WORDS.length)]);
+        }
+        return element;
+    }
+
+    private String[] randomFilters() {
+        final List<String> filters = new ArrayList<>();
+        for (int i = dice.nextInt(3); i >= 0; i--) {
+            final String word = WORDS[dice.nextInt(WORDS.length)];
+            final int start = dice.nextInt(word.length());
+            filters.add(word.substring(start, start + 1 + dice.nextInt(word.length() - start)));
+        }
+        return filters.toArray(new String[filters.size()]);
+    }
+
+    /**
+     * Extracts the Strings of arrays.
+     */
+    private static class ArrayTextFilterator implements TextFilterator<String[]> {
+        @Override
+        public void getFilterStrings(List<String> baseList, String[] element) {
+            baseList.addAll(Arrays.asList(element));
+        }
+    }
+
+    /**
+     * Extracts the Strings of arrays, counting how often it was called.
+     */
+    private static class CountingTextFilterator implements TextFilterator<String[]> {
+        private int count = 0;
+
+        @Override
+        public void getFilterStrings(List<String> baseList, String[] element) {
+            count++;
+            baseList.addAll(Arrays.asList(element));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.matchers;
+
+import ca.odell.glazedlists.Filterator;
+import ca.odell.glazedlists.FunctionList.Function;
+import ca.odell.glazedlists.impl.matchers.AndMatcher;
+import ca.odell.glazedlists.impl.matchers.OrMatcher;
+import ca.odell.glazedlists.impl.matchers.RangeMatcher;
+import ca.odell.glazedlists.matchers.SetMatcherEditor.Mode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Make sure that {@link Matchers#compile} produces equivalent Matchers.
+ */
+public class MatcherCompilerTest {
+
+    /** extracts the tens digit of an Integer */
+    private static final Function<Integer, Integer> TENS = new Function<Integer, Integer>() {
+        @Override
+        public Integer evaluate(Integer value) {
+            return Integer.valueOf(value.intValue() / 10);
+        }
+    };
+
+    /** extracts both an Integer and its negation */
+    private static final Filterator<Integer, Integer> PLUS_MINUS = new Filterator<Integer, Integer>() {
+        @Override
+        public void getFilterValues(List<Integer> baseList, Integer value) {
+            baseList.add(value);
+            baseList.add(Integer.valueOf(-value.intValue()));
+        }
+    };
+
+    private final Random dice = new Random(77);
+
+    @Test
+    public void testFlattenAndFold() {
+        final Matcher<Integer> even = new ParityMatcher(0);
+        final Matcher<Integer> odd = new ParityMatcher(1);
+
+        // nested operators become a single level
+        final Matcher<Integer> nested = Matchers.and(even, Matchers.and(Matchers.isNotNull(), Matchers.and(even, odd)));
+        final Matcher<Integer> compiled = Matchers.compile(nested);
+        assertTrue(compiled instanceof AndMatcher);
+        assertEquals(4, ((AndMatcher<Integer>)compiled).getMatchers().length);
+
+        // constants are folded
+        assertSame(even, Matchers.compile(Matchers.and(Matchers.<Integer>trueMatcher(), even)));
+        assertSame(Matchers.falseMatcher(), Matchers.compile(Matchers.and(even, Matchers.<Integer>falseMatcher())));
+        assertSame(Matchers.trueMatcher(), Matchers.compile(Matchers.or(even, Matchers.<Integer>trueMatcher())));
+        assertSame(Matchers.trueMatcher(), Matchers.compile(Matchers.<Integer>and()));
+        assertSame(Matchers.falseMatcher(), Matchers.compile(Matchers.<Integer>or()));
+        assertSame(Matchers.falseMatcher(), Matchers.compile(Matchers.invert(Matchers.<Integer>trueMatcher())));
+
+        // double negation is removed
+        assertSame(even, Matchers.compile(Matchers.invert(Matchers.invert(even))));
+    }
+
+    @Test
+    public void testMergeSetMatchers() {
+        final Mode[] modes = { Mode.BLACKLIST, Mode.WHITELIST_EMPTY_MATCH_NONE };
+        for(int round = 0; round < 200; round++) {
+            final List<Matcher<Integer>> operands = new ArrayList<>();
+            for(int i = 0; i < 2 + dice.nextInt(3); i++) {
+                final Matcher<Integer> setMatcher = new SetMatcherEditor.SetMatcher<>(randomSet(), modes[dice.nextInt(2)], TENS);
+                operands.add(dice.nextBoolean() ? Matchers.invert(setMatcher) : setMatcher);
+            }
+            final Matcher[] array = operands.toArray(new Matcher[operands.size()]);
+
+            // all sets share a function, so they merge into one
+            final Matcher<Integer> and = Matchers.and(array);
+            final Matcher<Integer> compiledAnd = Matchers.compile(and);
+            assertTrue(compiledAnd instanceof SetMatcherEditor.SetMatcher);
+            assertEquivalent(and, compiledAnd);
+
+            final Matcher<Integer> or = Matchers.or(array);
+            final Matcher<Integer> compiledOr = Matchers.compile(or);
+            assertTrue(compiledOr instanceof SetMatcherEditor.SetMatcher);
+            assertEquivalent(or, compiledOr);
+        }
+    }
+
+    @Test
+    public void testMergeRangeMatchers() {
+        for(int round = 0; round < 200; round++) {
+            final Filterator<Integer, Integer> filterator = dice.nextBoolean() ? PLUS_MINUS : null;
+            final List<Matcher<Integer>> operands = new ArrayList<>();
+            for(int i = 0; i < 2 + dice.nextInt(3); i++) {
+                final Integer start = dice.nextInt(4) == 0 ? null : Integer.valueOf(dice.nextInt(200) - 100);
+                final Integer end = dice.nextInt(4) == 0 ? null : Integer.valueOf(dice.nextInt(200) - 100);
+                operands.add(new RangeMatcher<>(start, end, filterator));
+            }
+            final Matcher<Integer> and = Matchers.and(operands.toArray(new Matcher[operands.size()]));
+            final Matcher<Integer> compiled = Matchers.compile(and);
+            assertTrue(!(compiled instanceof AndMatcher));
+            assertEquivalent(and, compiled);
+        }
+    }
+
+    @Test
+    public void testOrderBySample() {
+        final Matcher<Integer> rare = new ParityMatcher(0);
+        final Matcher<Integer> common = Matchers.isNotNull();
+        final List<Integer> sample = new ArrayList<>();
+        for(int i = 0; i < 1000; i++) sample.add(Integer.valueOf(i * 2 + 1));
+
+        // the matcher that rejects most elements comes first in an "and"
+        final Matcher<Integer> and = Matchers.compile(Matchers.and(common, rare), sample);
+        assertEquals(Arrays.asList(rare, common), Arrays.asList(((AndMatcher<Integer>)and).getMatchers()));
+
+        // and the matcher that accepts most elements comes first in an "or"
+        final Matcher<Integer> or = Matchers.compile(Matchers.or(rare, common), sample);
+        assertEquals(Arrays.asList(common, rare), Arrays.asList(((OrMatcher<Integer>)or).getMatchers()));
+    }
+
+    @Test
+    public void testOrderByEstimatedCost() {
+        final Matcher<Integer> expensive = new ParityMatcher(0);
+        final Matcher<Integer> cheap = Matchers.isNotNull();
+        final Matcher<Integer> compiled = Matchers.compile(Matchers.and(expensive, cheap));
+        assertEquals(Arrays.asList(cheap, expensive), Arrays.asList(((AndMatcher<Integer>)compiled).getMatchers()));
+    }
+
+    @Test
+    public void testCompositeMatcherEditorMergesSets() {
+        final SetMatcherEditor<Integer, Integer> first = SetMatcherEditor.create(Mode.WHITELIST_EMPTY_MATCH_ALL, TENS);
+        final SetMatcherEditor<Integer, Integer> second = SetMatcherEditor.create(Mode.BLACKLIST, TENS);
+        final CompositeMatcherEditor<Integer> composite = new CompositeMatcherEditor<>();
+        composite.getMatcherEditors().add(first);
+        composite.getMatcherEditors().add(second);
+
+        first.setMatchSet(new HashSet<>(Arrays.asList(1, 2, 3)));
+        second.setMatchSet(new HashSet<>(Arrays.asList(2)));
+        assertTrue(composite.getMatcher() instanceof SetMatcherEditor.SetMatcher);
+        assertEquals(Arrays.asList(10, 30), Arrays.asList(Matchers.select(new Integer[] { 0, 10, 20, 30, 40 }, composite.getMatcher())));
+    }
+
+    /**
+     * Assert both Matchers match the same Integers.
+     */
+    private static void assertEquivalent(Matcher<Integer> expected, Matcher<Integer> actual) {
+        for(int i = -120; i <= 120; i++) {
+            assertEquals("value " + i, expected.matches(Integer.valueOf(i)), actual.matches(Integer.valueOf(i)));
+        }
+    }
+
+    private Set<Integer> randomSet() {
+        final Set<Integer> result = new HashSet<>();
+        for(int i = dice.nextInt(5); i >= 0; i--) result.add(Integer.valueOf(dice.nextInt(10) - 5));
+        return result;
+    }
+
+    /**
+     * Matches Integers with the specified remainder when divided by 2.
+     */
+    private static class ParityMatcher implements Matcher<Integer> {
+        private final int remainder;
+        public ParityMatcher(int remainder) {
+            this.remainder = remainder;
+        }
+        @Override
+        public boolean matches(Integer item) {
+            return Math.abs(item.intValue() % 2) == remainder;
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package ca.odell.glazedlists.matchers;
 
+import ca.odell.glazedlists.BasicEventList;
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.FilterList;
+import ca.odell.glazedlists.Filterator;
 import ca.odell.glazedlists.impl.testing.GlazedListsTests;
+import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class RangeMatcherEditorTest {
 
     private static final Date apr = GlazedListsTests.createDate(2006, 3, 15);
@@ -118,4 +134,129 @@ public class RangeMatcherEditorTest {
         matcherEditor.setRange(null, jul);
         counter.assertCounterState(4, 0, 0, 5, 2);
     }
+
+    /**
+     * Make sure an indexed editor filters like a plain one, while testing only
+     * the elements between the old and new bounds of the range.
+     */
+    @Test
+    public void testIndexedSource() {
+        final Random dice = new Random(11);
+        final int[] evaluations = new int[1];
+
+        // elements have no value, one value or two values
+        final Filterator<Integer, int[]> values = new Filterator<Integer, int[]>() {
+            @Override
+            public void getFilterValues(List<Integer> baseList, int[] element) {
+                evaluations[0]++;
+                for (int i = 0; i < element.length; i++) {
+                    baseList.add(element[i] == -1 ? null : Integer.valueOf(element[i]));
+                }
+            }
+        };
+        final EventList<int[]> elements = new BasicEventList<>();
+        for (int i = 0; i < 1000; i++) elements.add(randomElement(dice));
+
+        final RangeMatcherEditor<Integer, int[]> indexed = new RangeMatcherEditor<>(values);
+        final RangeMatcherEditor<Integer, int[]> plain = new RangeMatcherEditor<>(values);
+        indexed.indexSource(elements);
+        final FilterList<int[]> indexedFiltered = new FilterList<>(elements, indexed);
+        final FilterList<int[]> plainFiltered = new FilterList<>(elements, plain);
+        ListConsistencyListener.install(indexedFiltered);
+
+        Integer start = null;
+        Integer end = null;
+        for (int round = 0; round < 200; round++) {
+            // change the source
+            for (int c = 0; c < 5; c++) {
+                final int index = dice.nextInt(elements.size());
+                switch (dice.nextInt(3)) {
+                    case 0: elements.add(index, randomElement(dice)); break;
+                    case 1: elements.remove(index); break;
+                    case 2: elements.set(index, randomElement(dice)); break;
+                }
+            }
+
+            // jump to a random range, or nudge the current one
+            final boolean nudge = start != null && end != null && dice.nextInt(4) != 0;
+            if (nudge) {
+                start = start + dice.nextInt(5) - 2;
+                end = end + dice.nextInt(5) - 2;
+            } else {
+                start = dice.nextInt(5) == 0 ? null : Integer.valueOf(dice.nextInt(1000));
+                end = dice.nextInt(5) == 0 ? null : Integer.valueOf(dice.nextInt(1000));
+            }
+            if (start != null && end != null && start > end) {
+                final Integer temp = start;
+                start = end;
+                end = temp;
+            }
+
+            plain.setRange(start, end);
+            evaluations[0] = 0;
+            indexed.setRange(start, end);
+            assertEquals(plainFiltered, indexedFiltered);
+            if (nudge) assertTrue(evaluations[0] < 100);
+        }
+
+        indexed.disposeIndex();
+    }
+
+    @Test
+    public void testConcurrentMatching() throws Exception {
+        final Filterator<Integer, int[]> values = new Filterator<Integer, int[]>() {
+            @Override
+            public void getFilterValues(List<Integer> baseList, int[] element) {
+                for (int i = 0; i < element.length; i++) {
+                    baseList.add(element[i] == -1 ? null : Integer.valueOf(element[i]));
+                }
+            }
+        };
+        final RangeMatcherEditor<Integer, int[]> editor = new RangeMatcherEditor<>(values);
+        editor.setRange(Integer.valueOf(300), Integer.valueOf(600));
+        final Matcher<int[]> matcher = editor.getMatcher();
+
+        final Random dice = new Random(13);
+        final List<int[]> elements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) elements.add(randomElement(dice));
+
+        // match serially for the expected results
+        final boolean[] expected = new boolean[elements.size()];
+        for (int i = 0; i < elements.size(); i++) {
+            expected[i] = matcher.matches(elements.get(i));
+        }
+
+        // match concurrently with the same matcher
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<boolean[]>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(new Callable<boolean[]>() {
+                    @Override
+                    public boolean[] call() {
+                        final boolean[] actual = new boolean[elements.size()];
+                        for (int round = 0; round < 500; round++) {
+                            for (int i = 0; i < elements.size(); i++) {
+                                actual[i] = matcher.matches(elements.get(i));
+                            }
+                        }
+                        return actual;
+                    }
+                }));
+            }
+            for (Future<boolean[]> result : results) {
+                assertTrue(Arrays.equals(expected, result.get()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int[] randomElement(Random dice) {
+        final int[] element = new int[dice.nextInt(3)];
+        for (int i = 0; i < element.length; i++) {
+            element[i] = dice.nextInt(20) == 0 ? -1 : dice.nextInt(1000);
+        }
+        return element;
+    }
 }
@@ -1,16 +1,21 @@
 package ca.odell.glazedlists.matchers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import ca.odell.glazedlists.BasicEventList;
 import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.FilterList;
 import ca.odell.glazedlists.FunctionList.Function;
 import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
 import ca.odell.glazedlists.matchers.SetMatcherEditor.Mode;
 
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -180,4 +185,57 @@ public class SetMatcherEditorTest {
         counter.assertCounterState(1, 0, 3, 1, 1);
         assertEquals(Arrays.asList(july2009), filterList);
     }
+
+    /**
+     * Make sure an indexed editor filters like a plain one, while testing only
+     * the elements whose values were added to or removed from the match set.
+     */
+    @Test
+    public void testIndexedSource() {
+        final Random dice = new Random(5);
+        final int[] evaluations = new int[1];
+        final Function<Integer, Integer> tens = new Function<Integer, Integer>() {
+            @Override
+            public Integer evaluate(Integer value) {
+                evaluations[0]++;
+                return value / 10;
+            }
+        };
+        final EventList<Integer> numbers = new BasicEventList<>();
+        for (int i = 0; i < 1000; i++) numbers.add(dice.nextInt(1000));
+
+        for (Mode mode : Mode.values()) {
+            final SetMatcherEditor<Integer, Integer> indexed = SetMatcherEditor.create(mode, tens);
+            final SetMatcherEditor<Integer, Integer> plain = SetMatcherEditor.create(mode, tens);
+            indexed.indexSource(numbers);
+            final FilterList<Integer> indexedFiltered = new FilterList<>(numbers, indexed);
+            final FilterList<Integer> plainFiltered = new FilterList<>(numbers, plain);
+            ListConsistencyListener.install(indexedFiltered);
+
+            final Set<Integer> matchSet = new HashSet<>();
+            for (int round = 0; round < 100; round++) {
+                // change the source
+                for (int c = 0; c < 5; c++) {
+                    final int index = dice.nextInt(numbers.size());
+                    switch (dice.nextInt(3)) {
+                        case 0: numbers.add(index, dice.nextInt(1000)); break;
+                        case 1: numbers.remove(index); break;
+                        case 2: numbers.set(index, dice.nextInt(1000)); break;
+                    }
+                }
+
+                // change the match set by a single value
+                final Integer value = dice.nextInt(100);
+                if (!matchSet.remove(value)) matchSet.add(value);
+
+                plain.setMatchSet(matchSet);
+                evaluations[0] = 0;
+                indexed.setMatchSet(matchSet);
+                assertEquals(plainFiltered, indexedFiltered);
+                if (matchSet.size() > 1) assertTrue(evaluations[0] < 100);
+            }
+
+            indexed.disposeIndex();
+        }
+    }
 }
@@ -8,15 +8,23 @@ import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.FilterList;
 import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.TextFilterator;
+import ca.odell.glazedlists.TransformedList;
+import ca.odell.glazedlists.event.ListEvent;
 import ca.odell.glazedlists.impl.filter.TextMatcher;
 import ca.odell.glazedlists.impl.filter.TextMatchers;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
@@ -496,6 +504,171 @@ public class TextMatcherTest {
         assertFalse(matcherB.equals(matcherA));
     }
 
+    @Test
+    public void testCachedFilterStrings() {
+        final CountingTextFilterator filterator = new CountingTextFilterator();
+        final TextMatcherEditor<String[]> textMatcherEditor = new TextMatcherEditor<>(filterator);
+        final EventList<String[]> source = new BasicEventList<>();
+        final FilterList<String[]> list = new FilterList<>(source, textMatcherEditor);
+        textMatcherEditor.cacheFilterStrings(source, list);
+        for (String word : dictionary) {
+            source.add(new String[] {word});
+        }
+
+        // each element's Strings are extracted just once
+        textMatcherEditor.setFilterText(new String[] {"ac"});
+        assertEquals(4, list.size());
+        textMatcherEditor.setFilterText(new String[] {"act"});
+        textMatcherEditor.setFilterText(new String[] {"acto"});
+        assertEquals(2, list.size());
+        assertEquals(4, filterator.count);
+
+        // updated elements are extracted again
+        source.get(0)[0] = "factor";
+        source.set(0, source.get(0));
+        assertEquals(3, list.size());
+        assertEquals(5, filterator.count);
+        textMatcherEditor.setFilterText(new String[] {"fact"});
+        assertEquals(1, list.size());
+        assertEquals(5, filterator.count);
+
+        // the cached Strings are normalized for the normalized strategy
+        source.add(new String[] {"résumé"});
+        textMatcherEditor.setStrategy(TextMatcherEditor.NORMALIZED_STRATEGY);
+        textMatcherEditor.setFilterText(new String[] {"resume"});
+        assertEquals(1, list.size());
+        textMatcherEditor.setMode(TextMatcherEditor.EXACT);
+        assertEquals(1, list.size());
+        assertEquals(6, filterator.count);
+
+        // once disposed, the Strings are extracted on every match
+        textMatcherEditor.disposeFilterStringsCache();
+        textMatcherEditor.setFilterText(new String[] {"factor"});
+        assertEquals(1, list.size());
+        assertEquals(11, filterator.count);
+    }
+
+    @Test
+    public void testCachedFilterStringsOfDeletedElements() {
+        final CountingTextFilterator filterator = new CountingTextFilterator();
+        final TextMatcherEditor<String[]> textMatcherEditor = new TextMatcherEditor<>(filterator);
+        final EventList<String[]> source = new BasicEventList<>();
+        final EventList<String[]> forgetful = new OldValuesUnknownList<>(source);
+        final FilterList<String[]> list = new FilterList<>(forgetful, textMatcherEditor);
+        textMatcherEditor.cacheFilterStrings(forgetful, list);
+        final String[] element = {"actor"};
+        source.add(element);
+        source.add(new String[] {"tractor"});
+        textMatcherEditor.setFilterText(new String[] {"act"});
+        assertEquals(2, list.size());
+        assertEquals(2, filterator.count);
+
+        // deleting forgets the element, even when the old value isn't known
+        source.remove(0);
+        element[0] = "factor";
+        source.add(element);
+        assertEquals(3, filterator.count);
+        textMatcherEditor.setFilterText(new String[] {"fact"});
+        assertEquals(1, list.size());
+        assertEquals(3, filterator.count);
+    }
+
+    @Test
+    public void testConcurrentMatching() throws Exception {
+        final SearchEngineTextMatcherEditor<String[]> editor = new SearchEngineTextMatcherEditor<>(new CountingTextFilterator());
+        final Set<SearchEngineTextMatcherEditor.Field<String[]>> fields = new HashSet<>();
+        fields.add(new SearchEngineTextMatcherEditor.Field<String[]>("first", new FirstStringTextFilterator()));
+        editor.setFields(fields);
+        editor.refilter("act first:re -enact");
+        final Matcher<String[]> searchEngineMatcher = editor.getMatcher();
+
+        final TextMatcherEditor<String[]> regexEditor = new TextMatcherEditor<>(new CountingTextFilterator());
+        regexEditor.setMode(TextMatcherEditor.REGULAR_EXPRESSION);
+        regexEditor.setFilterText(new String[] {"[a-z]*act[a-z]*"});
+        final Matcher<String[]> regexMatcher = regexEditor.getMatcher();
+
+        final List<String[]> elements = new ArrayList<>();
+        final Random dice = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            elements.add(new String[] {dictionary.get(dice.nextInt(dictionary.size())), dictionary.get(dice.nextInt(dictionary.size()))});
+        }
+
+        // match serially for the expected results
+        final boolean[] expected = new boolean[elements.size() * 2];
+        for (int i = 0; i < elements.size(); i++) {
+            expected[2 * i] = searchEngineMatcher.matches(elements.get(i));
+            expected[2 * i + 1] = regexMatcher.matches(elements.get(i));
+        }
+
+        // match concurrently with the same matchers
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<boolean[]>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(new Callable<boolean[]>() {
+                    @Override
+                    public boolean[] call() {
+                        final boolean[] actual = new boolean[elements.size() * 2];
+                        for (int round = 0; round < 50; round++) {
+                            for (int i = 0; i < elements.size(); i++) {
+                                actual[2 * i] = searchEngineMatcher.matches(elements.get(i));
+                                actual[2 * i + 1] = regexMatcher.matches(elements.get(i));
+                            }
+                        }
+                        return actual;
+                    }
+                }));
+            }
+            for (Future<boolean[]> result : results) {
+                assertTrue(Arrays.equals(expected, result.get()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMultiTermStrategy() {
+        // include characters whose case forms don't match each other, or change length
+        final String[] words = {"act", "actor", "enact", "reactor", "Act", "ACTOR", "tor", "a", "re", "xyz",
+            "i", "I", "\u0131", "\u0130", "\u0131i", "\u0130I", "\u03c3", "\u03c2", "\u03a3", "\u0391\u03a3", "\u03b1\u03c2", "\u00df", "ss"};
+        final Random dice = new Random(5);
+        final EventList<String[]> source = new BasicEventList<>();
+        for (int i = 0; i < 300; i++) {
+            source.add(new String[] {words[dice.nextInt(words.length)], words[dice.nextInt(words.length)] + words[dice.nextInt(words.length)]});
+        }
+
+        final SearchEngineTextMatcherEditor<String[]> identicalEditor = new SearchEngineTextMatcherEditor<>(new CountingTextFilterator());
+        final SearchEngineTextMatcherEditor<String[]> multiTermEditor = new SearchEngineTextMatcherEditor<>(new CountingTextFilterator());
+        multiTermEditor.setStrategy(TextMatcherEditor.MULTI_TERM_STRATEGY);
+        final Set<SearchEngineTextMatcherEditor.Field<String[]>> fields = new HashSet<>();
+        fields.add(new SearchEngineTextMatcherEditor.Field<String[]>("first", new FirstStringTextFilterator()));
+        identicalEditor.setFields(fields);
+        multiTermEditor.setFields(fields);
+        final FilterList<String[]> identical = new FilterList<>(source, identicalEditor);
+        final FilterList<String[]> multiTerm = new FilterList<>(source, multiTermEditor);
+
+        final int[] modes = {TextMatcherEditor.CONTAINS, TextMatcherEditor.STARTS_WITH, TextMatcherEditor.EXACT};
+        for (int round = 0; round < 1000; round++) {
+            final int mode = modes[dice.nextInt(modes.length)];
+            identicalEditor.setMode(mode);
+            multiTermEditor.setMode(mode);
+
+            // build a query of several terms, some negated and some fielded
+            final StringBuilder query = new StringBuilder();
+            for (int t = 2 + dice.nextInt(4); t > 0; t--) {
+                final int kind = dice.nextInt(6);
+                if (kind == 0) query.append('-');
+                if (kind == 1) query.append("first:");
+                query.append(words[dice.nextInt(words.length)]).append(' ');
+            }
+            identicalEditor.refilter(query.toString());
+            multiTermEditor.refilter(query.toString());
+
+            assertEquals(query.toString(), identical, multiTerm);
+        }
+    }
+
     /**
      * Intentionally add raw Integers into the list with this TextFilterator in
      * order to validate that TextFilterator is always backwards compatible with
@@ -508,4 +681,51 @@ public class TextMatcherTest {
             ((List) baseList).add(element);
         }
     }
+
+    /**
+     * Extracts the Strings of arrays, counting how often it was called.
+     */
+    private static class CountingTextFilterator implements TextFilterator<String[]> {
+        private int count = 0;
+
+        @Override
+        public void getFilterStrings(List<String> baseList, String[] element) {
+            count++;
+            baseList.addAll(Arrays.asList(element));
+        }
+    }
+
+    /**
+     * Forwards the changes of its source without their old values.
+     */
+    private static class OldValuesUnknownList<E> extends TransformedList<E, E> {
+        private OldValuesUnknownList(EventList<E> source) {
+            super(source);
+            source.addListEventListener(this);
+        }
+
+        @Override
+        protected boolean isWritable() {
+            return false;
+        }
+
+        @Override
+        public void listChanged(ListEvent<E> listChanges) {
+            updates.beginEvent();
+            while(listChanges.next()) {
+                updates.addChange(listChanges.getType(), listChanges.getIndex());
+            }
+            updates.commitEvent();
+        }
+    }
+
+    /**
+     * Extracts only the first String of arrays.
+     */
+    private static class FirstStringTextFilterator implements TextFilterator<String[]> {
+        @Override
+        public void getFilterStrings(List<String> baseList, String[] element) {
+            baseList.add(element[0]);
+        }
+    }
 }
@@ -1,10 +1,17 @@
 package ca.odell.glazedlists.matchers;
 
 import ca.odell.glazedlists.BasicEventList;
+import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.FilterList;
 import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.impl.testing.ListConsistencyListener;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -308,4 +315,121 @@ public class ThreadedMatcherEditorTest {
         ThreadedMatcherEditor<String> threadedMatcherEditor = new ThreadedMatcherEditor<>(matcherEditor, executor);
         assertEquals(executor, threadedMatcherEditor.getExecutor());
     }
+
+    @Test
+    public void testTimeSlicedFiltering() {
+        final EventList<String> source = new BasicEventList<>();
+        for (int i = 0; i < 2000; i++) source.add("element " + i);
+
+        final TextMatcherEditor<String> textEditor = new TextMatcherEditor<>(GlazedLists.toStringTextFilterator());
+        final Executor sameThread = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                runnable.run();
+            }
+        };
+        final ThreadedMatcherEditor<String> threadedEditor = new ThreadedMatcherEditor<>(new SlowMatcherEditor<>(textEditor), sameThread);
+        threadedEditor.setTimeSlice(1);
+        final FilterList<String> filtered = new FilterList<>(source, threadedEditor);
+        ListConsistencyListener.install(filtered);
+        final int[] eventCount = new int[1];
+        filtered.addListEventListener(new ListEventListener<String>() {
+            @Override
+            public void listChanged(ListEvent<String> listChanges) {
+                eventCount[0]++;
+            }
+        });
+
+        // the pass is split into several events
+        textEditor.setFilterText(new String[] {"1"});
+        assertEquals(GlazedLists.eventList(new FilterList<>(source, textEditor)), filtered);
+        assertTrue(eventCount[0] > 1);
+
+        // constrained and relaxed passes too
+        textEditor.setFilterText(new String[] {"11"});
+        assertEquals(GlazedLists.eventList(new FilterList<>(source, textEditor)), filtered);
+        textEditor.setFilterText(new String[] {"2"});
+        assertEquals(GlazedLists.eventList(new FilterList<>(source, textEditor)), filtered);
+    }
+
+    @Test
+    public void testSupersededFiltering() {
+        final EventList<String> source = new BasicEventList<>();
+        for (int i = 0; i < 2000; i++) source.add("element " + i);
+
+        final FiringMatcherEditor<String> editor = new FiringMatcherEditor<>();
+        final FilterList<String> filtered = new FilterList<>(source, editor);
+        ListConsistencyListener.install(filtered);
+
+        // abandon a pass partway through
+        final Matcher<String> ones = new TextMatcherEditor<String>(GlazedLists.toStringTextFilterator()) {{ setFilterText(new String[] {"1"}); }}.getMatcher();
+        final List<MatcherEditor.Event<String>> events = new ArrayList<>();
+        final MatcherEditor.Event<String> first = new MatcherEditor.Event<>(editor, MatcherEditor.Event.CONSTRAINED, new Matcher<String>() {
+            private int evaluations = 0;
+            @Override
+            public boolean matches(String item) {
+                if (++evaluations == 500) events.get(0).supersede();
+                return ones.matches(item);
+            }
+        });
+        events.add(first);
+        first.setTimeSlice(1000);
+        editor.fire(first);
+        assertTrue(filtered.size() > 1000);
+
+        // the next pass tests the items the abandoned pass didn't
+        final Matcher<String> elevens = new TextMatcherEditor<String>(GlazedLists.toStringTextFilterator()) {{ setFilterText(new String[] {"11"}); }}.getMatcher();
+        final MatcherEditor.Event<String> second = new MatcherEditor.Event<>(editor, MatcherEditor.Event.CONSTRAINED, elevens);
+        second.setTimeSlice(1000);
+        editor.fire(second);
+        assertEquals(GlazedLists.eventList(new FilterList<>(source, elevens)), filtered);
+    }
+
+    /**
+     * Fires whichever events it is given.
+     */
+    private static class FiringMatcherEditor<E> extends AbstractMatcherEditorListenerSupport<E> {
+        @Override
+        public Matcher<E> getMatcher() {
+            return Matchers.trueMatcher();
+        }
+        public void fire(MatcherEditor.Event<E> event) {
+            fireChangedMatcher(event);
+        }
+    }
+
+    /**
+     * Forwards the events of another MatcherEditor with Matchers that take a
+     * little time for each element.
+     */
+    private static class SlowMatcherEditor<E> extends AbstractMatcherEditor<E> {
+        public SlowMatcherEditor(MatcherEditor<E> source) {
+            source.addMatcherEditorListener(new MatcherEditor.Listener<E>() {
+                @Override
+                public void changedMatcher(MatcherEditor.Event<E> matcherEvent) {
+                    final Matcher<E> slow = new SlowMatcher<>(matcherEvent.getMatcher());
+                    switch (matcherEvent.getType()) {
+                        case MatcherEditor.Event.CONSTRAINED: fireConstrained(slow); break;
+                        case MatcherEditor.Event.RELAXED: fireRelaxed(slow); break;
+                        default: fireChanged(slow); break;
+                    }
+                }
+            });
+        }
+    }
+
+    private static class SlowMatcher<E> implements Matcher<E> {
+        private final Matcher<E> delegate;
+        public SlowMatcher(Matcher<E> delegate) {
+            this.delegate = delegate;
+        }
+        @Override
+        public boolean matches(E item) {
+            final long end = System.nanoTime() + 5000;
+            while (System.nanoTime() < end) {
+                // spin
+            }
+            return delegate.matches(item);
+        }
+    }
 }
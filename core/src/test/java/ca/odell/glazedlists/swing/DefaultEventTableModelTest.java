@@ -4,8 +4,10 @@
 package ca.odell.glazedlists.swing;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import ca.odell.glazedlists.BasicEventList;
@@ -15,6 +17,7 @@ import ca.odell.glazedlists.FilterList;
 import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.ObservableElementList;
 import ca.odell.glazedlists.SortedList;
+import ca.odell.glazedlists.TransactionList;
 import ca.odell.glazedlists.gui.TableFormat;
 import ca.odell.glazedlists.gui.WritableTableFormat;
 import ca.odell.glazedlists.impl.testing.GlazedListsTests;
@@ -26,20 +29,27 @@ import org.junit.Test;
 import javax.swing.Action;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JLabel;
+import javax.swing.JScrollPane;
 import javax.swing.JTable;
+import javax.swing.JViewport;
 import javax.swing.ListSelectionModel;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.TableCellRenderer;
 
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Test DefaultEventTableModel
@@ -430,6 +440,60 @@ public class DefaultEventTableModelTest extends SwingTestCase {
     }
 
 
+    /**
+     * Verifies that the changes of a bulk change of the selection are fired
+     * as one ListSelectionEvent.
+     */
+    @Test
+    public void testBulkSelectionChange() {
+        final EventList<String> list = new BasicEventList<>();
+        list.addAll(GlazedListsTests.delimitedStringToList("A B C D E F G H"));
+        final DefaultEventSelectionModel<String> selModel = new DefaultEventSelectionModel<>(list);
+        final List<ListSelectionEvent> events = new ArrayList<>();
+        selModel.addListSelectionListener(new ListSelectionListener() {
+            @Override
+            public void valueChanged(ListSelectionEvent e) {
+                events.add(e);
+            }
+        });
+
+        selModel.beginBulkChange();
+        selModel.addSelectionInterval(1, 1);
+        selModel.beginBulkChange();
+        selModel.addSelectionInterval(5, 6);
+        selModel.commitBulkChange();
+        list.add(0, "Z");
+        assertEquals(0, events.size());
+        selModel.commitBulkChange();
+        assertEquals(1, events.size());
+        assertEquals(1, events.get(0).getFirstIndex());
+        assertEquals(7, events.get(0).getLastIndex());
+        assertEquals(GlazedListsTests.delimitedStringToList("B F G"), selModel.getSelected());
+
+        // the bulk change is part of an adjusting series
+        events.clear();
+        selModel.setValueIsAdjusting(true);
+        selModel.beginBulkChange();
+        selModel.addSelectionInterval(3, 3);
+        selModel.addSelectionInterval(4, 4);
+        selModel.commitBulkChange();
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getValueIsAdjusting());
+        selModel.setValueIsAdjusting(false);
+        assertEquals(2, events.size());
+        // the row of the previous lead is included to be redrawn
+        assertEquals(3, events.get(1).getFirstIndex());
+        assertEquals(7, events.get(1).getLastIndex());
+        assertFalse(events.get(1).getValueIsAdjusting());
+
+        try {
+            selModel.commitBulkChange();
+            fail("expected IllegalStateException without a bulk change");
+        } catch(IllegalStateException e) {
+            // expected
+        }
+    }
+
     /**
      * Tests that a table selection is correctly reflected when the user presses UP- and DOWN-arrow
      * keys while the table is in sorted state.
@@ -486,6 +550,151 @@ public class DefaultEventTableModelTest extends SwingTestCase {
         }
     }
 
+    /**
+     * Verifies that cached cell values are reused, and are discarded when
+     * their rows change.
+     */
+    @Test
+    public void testCellCache() {
+        final EventList<Integer> base = new BasicEventList<>();
+        for (int i = 0; i < 100; i++) base.add(Integer.valueOf(i));
+        final SortedList<Integer> sorted = new SortedList<>(base, null);
+        final CountingTableFormat tableFormat = new CountingTableFormat();
+        final DefaultEventTableModel<Integer> tableModel = new DefaultEventTableModel<>(sorted, tableFormat);
+        tableModel.setCellCacheSize(20);
+        assertEquals(20, tableModel.getCellCacheSize());
+
+        // a cell is evaluated once
+        assertEquals(Integer.valueOf(10), tableModel.getValueAt(5, 1));
+        assertEquals(Integer.valueOf(10), tableModel.getValueAt(5, 1));
+        assertEquals(1, tableFormat.getCountAndReset());
+
+        // prefetched cells are not evaluated again
+        tableModel.prefetchRows(40, 44);
+        assertEquals(60, tableFormat.getCountAndReset());
+        for (int row = 33; row < 53; row++) {
+            assertEquals(Integer.valueOf(row * 3), tableModel.getValueAt(row, 2));
+        }
+        assertEquals(0, tableFormat.getCountAndReset());
+
+        // cached rows follow their elements through random changes
+        final Random dice = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            final int index = dice.nextInt(base.size());
+            switch (dice.nextInt(4)) {
+                case 0: base.add(index, Integer.valueOf(dice.nextInt(1000))); break;
+                case 1: base.remove(index); break;
+                case 2: base.set(index, Integer.valueOf(dice.nextInt(1000))); break;
+                default: base.subList(index, Math.min(base.size(), index + 5)).clear(); base.add(Integer.valueOf(dice.nextInt(1000))); break;
+            }
+            if (i == 100) sorted.setComparator(GlazedLists.<Integer>reverseComparator());
+            if (base.size() < 50) base.addAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+            tableModel.prefetchRows(dice.nextInt(base.size()), dice.nextInt(base.size()));
+            for (int row = 0; row < sorted.size(); row++) {
+                assertEquals(Integer.valueOf(sorted.get(row).intValue() * 2), tableModel.getValueAt(row, 1));
+            }
+        }
+
+        // changing the format discards the cached values
+        tableModel.setTableFormat(new CountingTableFormat());
+        tableModel.setCellCacheSize(0);
+        assertEquals(sorted.get(0), tableModel.getValueAt(0, 0));
+    }
+
+    /**
+     * Verifies that the viewport event adapter only fires the changes to the
+     * visible rows, and keeps the visible rows in place.
+     */
+    @Test
+    public void testViewportEventAdapter() {
+        final TransactionList<Integer> list = new TransactionList<>(new BasicEventList<Integer>());
+        for (int i = 0; i < 1000; i++) list.add(Integer.valueOf(i));
+        final AdvancedTableModel<Integer> tableModel = GlazedListsSwing.eventTableModel(list, new CountingTableFormat(), GlazedListsSwing.<Integer>viewportEventAdapterFactory());
+        final JTable table = new JTable(tableModel);
+        table.setRowHeight(10);
+        final JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setSize(200, 100);
+        scrollPane.doLayout();
+        final JViewport viewport = scrollPane.getViewport();
+        viewport.doLayout();
+        viewport.setViewPosition(new Point(0, 5000));
+        assertEquals(500, table.rowAtPoint(table.getVisibleRect().getLocation()));
+
+        final List<TableModelEvent> events = new ArrayList<>();
+        tableModel.addTableModelListener(new TableModelListener() {
+            @Override
+            public void tableChanged(TableModelEvent e) {
+                events.add(new TableModelEvent(tableModel, e.getFirstRow(), e.getLastRow(), e.getColumn(), e.getType()));
+            }
+        });
+
+        // updates of rows that aren't visible are not fired
+        list.set(10, Integer.valueOf(-10));
+        list.set(900, Integer.valueOf(-900));
+        assertEquals(0, events.size());
+        list.set(502, Integer.valueOf(-502));
+        assertTableModelEvent(events.remove(0), 502, 502, TableModelEvent.UPDATE);
+
+        // inserts above the visible rows keep them in place
+        list.addAll(5, Arrays.asList(-1, -2, -3));
+        assertTableModelEvent(events.remove(0), 0, 2, TableModelEvent.INSERT);
+        assertEquals(5030, viewport.getViewPosition().y);
+        assertEquals(503, table.rowAtPoint(table.getVisibleRect().getLocation()));
+        assertEquals(Integer.valueOf(500), list.get(503));
+
+        // several changes around the visible rows are collapsed
+        list.beginEvent();
+        for (int i = 0; i < 5; i++) list.remove(0);
+        list.remove(100);
+        list.set(200, Integer.valueOf(-200));
+        for (int i = 0; i < 10; i++) list.remove(800);
+        list.set(499, Integer.valueOf(-499));
+        list.commitEvent();
+        assertTableModelEvent(events.remove(0), 0, 5, TableModelEvent.DELETE);
+        assertTableModelEvent(events.remove(0), list.size(), list.size() + 9, TableModelEvent.DELETE);
+        assertTableModelEvent(events.remove(0), 499, 499, TableModelEvent.UPDATE);
+        assertEquals(4970, viewport.getViewPosition().y);
+        assertEquals(Integer.valueOf(500), list.get(497));
+
+        // inserts between the visible rows are fired as they are
+        list.add(500, Integer.valueOf(-500));
+        assertTableModelEvent(events.remove(0), 500, 500, TableModelEvent.INSERT);
+        assertEquals(0, events.size());
+    }
+
+    private static void assertTableModelEvent(TableModelEvent event, int firstRow, int lastRow, int type) {
+        assertEquals(firstRow, event.getFirstRow());
+        assertEquals(lastRow, event.getLastRow());
+        assertEquals(type, event.getType());
+    }
+
+    /**
+     * A TableFormat for Integers and their multiples, that counts the values
+     * it gets.
+     */
+    private static final class CountingTableFormat implements TableFormat<Integer> {
+        private int count = 0;
+        @Override
+        public int getColumnCount() {
+            return 3;
+        }
+        @Override
+        public String getColumnName(int column) {
+            return "x" + (column + 1);
+        }
+        @Override
+        public Object getColumnValue(Integer baseObject, int column) {
+            count++;
+            return Integer.valueOf(baseObject.intValue() * (column + 1));
+        }
+        public int getCountAndReset() {
+            final int result = count;
+            count = 0;
+            return result;
+        }
+    }
+
+
     /**
      * Counts the number of TableModelEvents fired.
      */
@@ -32,17 +32,21 @@ import java.text.StringCharacterIterator;
  */
 public class UnicodeCaseInsensitiveTextSearchStrategy implements TextSearchStrategy {
 
-    private static final RuleBasedCollator COLLATOR;
-    static {
-        COLLATOR = (RuleBasedCollator) Collator.getInstance();
-        // setting the strength property of a Collator determines the minimum
-        // level of difference considered significant during comparison
-        //
-        // PRIMARY is the strongest collator strength value. It is typically
-        // used to denote differences between base characters. We use it to
-        // make the StringSearch case insensitive.
-        COLLATOR.setStrength(Collator.PRIMARY);
-    }
+    /** Collators are not thread-safe, so each thread has its own */
+    private static final ThreadLocal<RuleBasedCollator> COLLATOR = new ThreadLocal<RuleBasedCollator>() {
+        @Override
+        protected RuleBasedCollator initialValue() {
+            final RuleBasedCollator collator = (RuleBasedCollator) Collator.getInstance();
+            // setting the strength property of a Collator determines the minimum
+            // level of difference considered significant during comparison
+            //
+            // PRIMARY is the strongest collator strength value. It is typically
+            // used to denote differences between base characters. We use it to
+            // make the StringSearch case insensitive.
+            collator.setStrength(Collator.PRIMARY);
+            return collator;
+        }
+    };
 
     /** The string to locate within a larger text. */
     private String pattern;
@@ -99,7 +103,7 @@ public class UnicodeCaseInsensitiveTextSearchStrategy implements TextSearchStrat
             return -1;
         }
 
-        final int index = new StringSearch(pattern, new StringCharacterIterator(text), COLLATOR).first();
+        final int index = new StringSearch(pattern, new StringCharacterIterator(text), COLLATOR.get()).first();
         return mode == TextMatcherEditor.STARTS_WITH && index != 0 ? -1 : index;
     }
 }
\ No newline at end of file
@@ -276,6 +276,18 @@ public class DefaultEventListViewer<E> implements ListEventListener<E> {
         public void deselect(int index) {
             list.deselect(index);
         }
+
+        /** {@inheritDoc} */
+        @Override
+        public void select(int[] indices) {
+            list.select(indices);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void deselect(int start, int end) {
+            list.deselect(start, end);
+        }
     }
 
     /**
@@ -17,6 +17,9 @@ import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.TableItem;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 
@@ -156,6 +159,58 @@ public class DefaultEventTableViewer<E> implements ListEventListener<E> {
         }
     }
 
+    /**
+     * Sets whether the changes of a virtual {@link Table} are applied in
+     * batches. Each ListEvent then resizes the table once and clears the
+     * shifted and updated items with ranged calls, and the
+     * {@link TableItemConfigurer} is only applied when SWT requests the
+     * data of an item that is shown. At most
+     * <code>maxConfiguredItems</code> items stay configured; the items
+     * configured least recently are cleared to be requested again.
+     *
+     * <p>This is most useful for tables with many rows that change
+     * frequently, since the work per change no longer depends on the
+     * number of changed rows that aren't shown.
+     *
+     * @param maxConfiguredItems the most items kept configured, or 0 to
+     *      apply the changes row by row
+     * @throws IllegalStateException if the table is not {@link SWT#VIRTUAL}
+     */
+    public void setBatchedVirtualUpdates(int maxConfiguredItems) {
+        if (!isTableVirtual()) {
+            throw new IllegalStateException("batched updates require a SWT.VIRTUAL table");
+        }
+        if (maxConfiguredItems < 0) {
+            throw new IllegalArgumentException("maxConfiguredItems may not be negative: " + maxConfiguredItems);
+        }
+
+        source.getReadWriteLock().readLock().lock();
+        try {
+            tableHandler.dispose();
+            table.setRedraw(false);
+            table.clearAll();
+            if (maxConfiguredItems > 0) {
+                tableHandler = new BatchedVirtualTableHandler(maxConfiguredItems);
+            } else {
+                tableHandler = new VirtualTableHandler();
+            }
+            tableHandler.redraw();
+            table.setRedraw(true);
+        } finally {
+            source.getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets whether the changes of a virtual {@link Table} are applied in
+     * batches.
+     *
+     * @see #setBatchedVirtualUpdates(int)
+     */
+    public boolean isBatchedVirtualUpdates() {
+        return tableHandler instanceof BatchedVirtualTableHandler;
+    }
+
     /**
      * Gets wether the table is virtual or not.
      */
@@ -238,6 +293,11 @@ public class DefaultEventTableViewer<E> implements ListEventListener<E> {
         }
 
         this.tableItemConfigurer = tableItemConfigurer;
+        // a batched virtual table configures its items again as they are shown
+        if (isBatchedVirtualUpdates()) {
+            tableHandler.redraw();
+            return;
+        }
         // determine the index of the last, non-virtual table item
         final int maxIndex = tableHandler.getLastIndex();
         if (maxIndex < 0) {
@@ -386,6 +446,14 @@ public class DefaultEventTableViewer<E> implements ListEventListener<E> {
             return;
         }
 
+        tableHandler.listChanged(listChanges);
+    }
+
+    /**
+     * Applies the changes of the specified ListEvent to the {@link Table}
+     * one row at a time.
+     */
+    private void applyChangesByRow(ListEvent<E> listChanges) {
         Barcode deletes = new Barcode();
         deletes.addWhite(0, source.size());
         int firstChange = source.size();
@@ -518,6 +586,18 @@ public class DefaultEventTableViewer<E> implements ListEventListener<E> {
         public void deselect(int index) {
             table.deselect(index);
         }
+
+        /** {@inheritDoc} */
+        @Override
+        public void select(int[] indices) {
+            table.select(indices);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void deselect(int start, int end) {
+            table.deselect(start, end);
+        }
     }
 
     /**
@@ -530,6 +610,11 @@ public class DefaultEventTableViewer<E> implements ListEventListener<E> {
          */
         public void populateTable();
 
+        /**
+         * Applies the changes of a ListEvent to the Table.
+         */
+        public void listChanged(ListEvent<E> listChanges);
+
         /**
          * Add a row with the given value.
          */
@@ -576,6 +661,14 @@ public class DefaultEventTableViewer<E> implements ListEventListener<E> {
             }
         }
 
+        /**
+         * Applies the changes row by row.
+         */
+        @Override
+        public void listChanged(ListEvent<E> listChanges) {
+            applyChangesByRow(listChanges);
+        }
+
         /**
          * Adds a row with the given value.
          */
@@ -651,6 +744,14 @@ public class DefaultEventTableViewer<E> implements ListEventListener<E> {
             table.setItemCount(source.size());
         }
 
+        /**
+         * Applies the changes row by row.
+         */
+        @Override
+        public void listChanged(ListEvent<E> listChanges) {
+            applyChangesByRow(listChanges);
+        }
+
         /**
          * Adds a row with the given value.
          */
@@ -752,4 +853,230 @@ public class DefaultEventTableViewer<E> implements ListEventListener<E> {
 			table.setItemCount(source.size());
 		}
     }
-}
\ No newline at end of file
+
+    /**
+     * Allows manipulation of Virtual Tables in batches. Each ListEvent is
+     * applied with one resize of the Table and ranged clears of the items
+     * that have shifted or changed, and items are only configured when the
+     * Table requests their data with the SetData callback.
+     *
+     * <p>The rows of the configured items are tracked in the order they
+     * were configured, so that the least recently configured ones can be
+     * cleared when there are too many. They are cleared after the SetData
+     * callback returns, and never while their rows are visible.
+     */
+    private final class BatchedVirtualTableHandler implements TableHandler<E>, Listener {
+
+        /** the most items kept configured */
+        private final int maxConfiguredItems;
+
+        /** the rows of the configured items, least recently configured first */
+        private final LinkedHashSet<Integer> configured = new LinkedHashSet<>();
+
+        /** whether the least recently configured items are to be cleared */
+        private boolean evictionScheduled = false;
+
+        /** whether this handler no longer handles the Table */
+        private boolean disposed = false;
+
+        /**
+         * Create a new BatchedVirtualTableHandler.
+         */
+        public BatchedVirtualTableHandler(int maxConfiguredItems) {
+            this.maxConfiguredItems = maxConfiguredItems;
+            table.addListener(SWT.SetData, this);
+        }
+
+        /**
+         * Populate the Table with initial data.
+         */
+        @Override
+        public void populateTable() {
+            table.setItemCount(source.size());
+        }
+
+        /**
+         * Applies all changes of the ListEvent in one batch. The rows before
+         * the first inserted or deleted row keep their items, so only the
+         * updated ones are cleared. The items of the following rows have
+         * shifted, and are cleared as a single range.
+         */
+        @Override
+        public void listChanged(ListEvent<E> listChanges) {
+            final int size = source.size();
+
+            // a reordering moves every row
+            int firstShifted = listChanges.isReordering() ? 0 : Integer.MAX_VALUE;
+            int[] updated = new int[16];
+            int updatedCount = 0;
+            while (firstShifted > 0 && listChanges.nextBlock()) {
+                final int startIndex = listChanges.getBlockStartIndex();
+                final int endIndex = listChanges.getBlockEndIndex();
+                if (listChanges.getType() != ListEvent.UPDATE) {
+                    firstShifted = Math.min(firstShifted, startIndex);
+                    continue;
+                }
+                // updates after a shifted row are cleared with the range
+                for (int row = startIndex; row <= endIndex && row < firstShifted; row++) {
+                    if (updatedCount == updated.length) updated = Arrays.copyOf(updated, updatedCount * 2);
+                    updated[updatedCount++] = row;
+                }
+            }
+
+            table.setRedraw(false);
+            if (table.getItemCount() != size) {
+                table.setItemCount(size);
+            }
+            if (firstShifted < size) {
+                table.clear(firstShifted, size - 1);
+            }
+            int clearedCount = 0;
+            for (int i = 0; i < updatedCount; i++) {
+                if (updated[i] < firstShifted) updated[clearedCount++] = updated[i];
+            }
+            if (clearedCount > 0) {
+                table.clear(Arrays.copyOf(updated, clearedCount));
+            }
+
+            // forget the items that have been cleared
+            for (int i = 0; i < clearedCount; i++) {
+                configured.remove(Integer.valueOf(updated[i]));
+            }
+            forgetFrom(firstShifted);
+            table.setRedraw(true);
+
+            // the ListSelection resyncs the selection of the shifted rows
+        }
+
+        /**
+         * Adds a row with the given value.
+         */
+        @Override
+        public void addRow(int row, E value) {
+            table.setItemCount(table.getItemCount() + 1);
+            table.clear(row, table.getItemCount() - 1);
+            forgetFrom(row);
+        }
+
+        /**
+         * Updates a row with the given value.
+         */
+        @Override
+        public void updateRow(int row, E value) {
+            table.clear(row);
+            configured.remove(Integer.valueOf(row));
+        }
+
+        /**
+         * Removes a set of rows in a single call
+         */
+        @Override
+        public void removeAll(int[] rows) {
+            table.remove(rows);
+            if (rows.length > 0) {
+                forgetFrom(rows[0]);
+            }
+        }
+
+        /**
+         * Forgets the configured items of the specified row and the rows
+         * after it.
+         */
+        private void forgetFrom(int row) {
+            if (row == Integer.MAX_VALUE) return;
+            for (Iterator<Integer> i = configured.iterator(); i.hasNext();) {
+                if (i.next().intValue() >= row) i.remove();
+            }
+        }
+
+        /**
+         * Returns -1, since items are cleared rather than reconfigured.
+         */
+        @Override
+        public int getLastIndex() {
+            return -1;
+        }
+
+        /**
+         * Configure the items the Table requests. If there are too many
+         * configured items, the least recently configured ones are cleared
+         * once the SetData callback has returned.
+         */
+        @Override
+        public void handleEvent(Event e) {
+            final TableItem item = (TableItem)e.item;
+            final int index = table.indexOf(item);
+            if (index < 0 || index >= source.size()) {
+                return;
+            }
+            renderTableItem(item, source.get(index), index);
+
+            final Integer row = Integer.valueOf(index);
+            configured.remove(row);
+            configured.add(row);
+            if (configured.size() > maxConfiguredItems && !evictionScheduled) {
+                evictionScheduled = true;
+                table.getDisplay().asyncExec(this::evict);
+            }
+        }
+
+        /**
+         * Clears the least recently configured items until no more than
+         * <code>maxConfiguredItems</code> remain. The items of the visible
+         * rows are kept, so the limit never falls below the number of rows
+         * the Table shows.
+         */
+        private void evict() {
+            evictionScheduled = false;
+            if (disposed || table.isDisposed()) {
+                return;
+            }
+            final int topIndex = table.getTopIndex();
+            final int visibleCount = getVisibleRowCount();
+            final int limit = Math.max(maxConfiguredItems, visibleCount);
+
+            for (Iterator<Integer> eldest = configured.iterator(); configured.size() > limit && eldest.hasNext();) {
+                final int eldestRow = eldest.next().intValue();
+                if (eldestRow >= topIndex && eldestRow < topIndex + visibleCount) {
+                    continue;
+                }
+                eldest.remove();
+                table.clear(eldestRow);
+            }
+        }
+
+        /**
+         * Returns the number of rows that fit in the client area of the
+         * Table, counting a partially shown last row.
+         */
+        private int getVisibleRowCount() {
+            final int itemHeight = table.getItemHeight();
+            if (itemHeight <= 0) {
+                return 0;
+            }
+            int height = table.getClientArea().height;
+            if (table.getHeaderVisible()) {
+                height -= table.getHeaderHeight();
+            }
+            return Math.max(0, height) / itemHeight + 1;
+        }
+
+        /**
+         * Allows this handler to clean up after itself.
+         */
+        @Override
+        public void dispose() {
+            disposed = true;
+            table.removeListener(SWT.SetData, this);
+            configured.clear();
+        }
+
+        /** {@inheritedDoc} */
+        @Override
+        public void redraw() {
+            configured.clear();
+            table.setItemCount(source.size());
+            table.clearAll();
+        }
+    }
+}
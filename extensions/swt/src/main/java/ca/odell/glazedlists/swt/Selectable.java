@@ -55,4 +55,14 @@ interface Selectable {
      */
     public void deselect(int index);
 
+    /**
+     * Selects the items at the specified indices in a single call.
+     */
+    public void select(int[] indices);
+
+    /**
+     * Deselects the items of the INCLUSIVE range in a single call.
+     */
+    public void deselect(int start, int end);
+
 }
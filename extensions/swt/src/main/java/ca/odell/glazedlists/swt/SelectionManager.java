@@ -9,6 +9,8 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 
+import java.util.Arrays;
+
 /**
  * Provides two {@link EventList}s that represent the selected and deselected
  * items in a {@link org.eclipse.swt.widgets.List} or
@@ -89,14 +91,19 @@ class SelectionManager<E> {
         // fast fail on a no-op
         if(start == -1) return;
 
-        // Reapply selection to the Selectable widget
+        // collect the selected indices, so the widget is resynced with two
+        // calls rather than one per row
+        int[] selected = new int[Math.min(end - start + 1, 16)];
+        int selectedCount = 0;
         for(int i = start;i <= end;i++) {
-            if(selection.isSelected(i)) {
-                selectable.select(i);
-            } else {
-                selectable.deselect(i);
-            }
+            if(!selection.isSelected(i)) continue;
+            if(selectedCount == selected.length) selected = Arrays.copyOf(selected, selectedCount * 2);
+            selected[selectedCount++] = i;
         }
+
+        // Reapply selection to the Selectable widget
+        selectable.deselect(start, end);
+        if(selectedCount > 0) selectable.select(Arrays.copyOf(selected, selectedCount));
     }
 
     /**
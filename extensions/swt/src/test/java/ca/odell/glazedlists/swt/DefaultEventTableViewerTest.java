@@ -361,6 +361,44 @@ public class DefaultEventTableViewerTest {
         viewer.dispose();
     }
 
+    /**
+     * Tests {@link DefaultEventTableViewer#setBatchedVirtualUpdates(int)}.
+     */
+    @Test
+    public void testBatchedVirtualUpdates() {
+        final BasicEventList<String> source = new BasicEventList<>();
+        source.addAll(GlazedListsTests.delimitedStringToList("A B C D E F"));
+        final Table table = new Table(getShell(), SWT.VIRTUAL | SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+        final DefaultEventTableViewer<String> viewer = new DefaultEventTableViewer<>(source, table, new SimpleTableFormat());
+        viewer.setBatchedVirtualUpdates(3);
+        assertTrue(viewer.isBatchedVirtualUpdates());
+        assertEquals(6, table.getItemCount());
+        assertEquals("A", table.getItem(0).getText(0));
+
+        // inserts, updates and deletes are applied in one batch
+        viewer.getTogglingSelected().add("E");
+        source.getReadWriteLock().writeLock().lock();
+        try {
+            source.add(1, "X");
+            source.set(0, "Z");
+            source.remove("C");
+        } finally {
+            source.getReadWriteLock().writeLock().unlock();
+        }
+        assertEquals(6, table.getItemCount());
+        for (int i = 0; i < source.size(); i++) {
+            assertEquals(source.get(i), table.getItem(i).getText(0));
+        }
+        assertEquals(GlazedListsTests.delimitedStringToList("E"), viewer.getSelected());
+        assertEquals(1, table.getSelectionCount());
+        assertEquals(source.indexOf("E"), table.getSelectionIndex());
+
+        // clearing the source empties the table
+        source.clear();
+        assertEquals(0, table.getItemCount());
+        viewer.dispose();
+    }
+
     /**
      * Tests clearing the source list of {@link DefaultEventTableViewer}.
      */
@@ -14,11 +14,14 @@ import ca.odell.glazedlists.impl.adt.barcode2.ListToByteCoder;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A hierarchial EventList that infers its structure from a flat list.
@@ -98,6 +101,12 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
      */
     private FourColorTree<Node<E>> data = new FourColorTree<>(BYTE_CODER);
 
+    /** the number of collapsed ranges in the tree, only a lazy TreeList has any */
+    private int collapsedRangeCount = 0;
+
+    /** the source changes being applied while there are collapsed ranges, or null */
+    private PendingChanges pendingChanges;
+
     /**
      * The format is used to obtain path information from list elements.
      */
@@ -108,27 +117,55 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
      * This constructor does not sort the elements.
      */
     public TreeList(EventList<E> source, Format<E> format, ExpansionModel<E> expansionModel) {
-        this(new InitializationData<>(source, format, expansionModel));
+        this(new InitializationData<>(source, format, expansionModel), false);
+    }
+
+    /**
+     * Create a new TreeList that adds hierarchy to the specified source list,
+     * optionally deferring the work for the descendants of collapsed nodes.
+     *
+     * <p>When <code>lazy</code>, the descendants of a collapsed node are kept
+     * as a single range of source indices rather than as a tree of nodes,
+     * until that node is expanded or its children are requested. Building a
+     * huge hierarchy that starts out collapsed then takes time in proportion
+     * to its visible nodes, and neither the hidden nodes nor their virtual
+     * parents are added to the tree. The expand/collapse state of the virtual
+     * nodes within such a range comes from the {@link ExpansionModel} when
+     * they are created. Otherwise a lazy TreeList has the same structure as
+     * one that isn't lazy, and {@link #subtreeSize(int, boolean) subtreeSize}
+     * counts the virtual nodes that a range stands for too.
+     *
+     * @param lazy <code>true</code> to create the nodes hidden by collapsed
+     *      nodes only when they're needed
+     */
+    public TreeList(EventList<E> source, Format<E> format, ExpansionModel<E> expansionModel, boolean lazy) {
+        this(new InitializationData<>(source, format, expansionModel), lazy);
     }
 
     /** master Constructor */
-    private TreeList(InitializationData<E> initializationData) {
+    private TreeList(InitializationData<E> initializationData, boolean lazy) {
         super(initializationData.getSource());
         this.format = initializationData.format;
         this.nodeComparator = initializationData.nodeComparator;
         this.expansionModel = initializationData.expansionModel;
         this.initializationData = initializationData;
 
-        // insert the new elements like they were adds
-        NodeAttacher nodeAttacher = new NodeAttacher(false);
-        for(int i = 0; i < super.source.size(); i++) {
-            Node<E> node = super.source.get(i);
-            node.expanded = expansionModel.isExpanded(node.getElement(), node.path);
-            addNode(node, HIDDEN_REAL, i);
-            nodeAttacher.nodesToAttach.queueNewNodeForInserting(node);
+        if(lazy) {
+            // insert the visible elements, and ranges for the collapsed ones
+            attachLazily(super.source, 0, null, null, false);
+
+        } else {
+            // insert the new elements like they were adds
+            NodeAttacher nodeAttacher = new NodeAttacher(false);
+            for(int i = 0; i < super.source.size(); i++) {
+                Node<E> node = super.source.get(i);
+                node.expanded = expansionModel.isExpanded(node.getElement(), node.path);
+                addNode(node, HIDDEN_REAL, i);
+                nodeAttacher.nodesToAttach.queueNewNodeForInserting(node);
+            }
+            // attach siblings and parent nodes
+            nodeAttacher.attachAll();
         }
-        // attach siblings and parent nodes
-        nodeAttacher.attachAll();
 
         assert(isValid());
 
@@ -138,7 +175,7 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
     /** @deprecated use the constructor that takes an {@link ExpansionModel} */
     @Deprecated
     public TreeList(EventList<E> source, Format<E> format) {
-        this(new InitializationData<>(source, format, TreeList.<E>nodesStartExpanded()));
+        this(new InitializationData<>(source, format, TreeList.<E>nodesStartExpanded()), false);
     }
 
     /**
@@ -196,6 +233,8 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
      */
     List<Node<E>> getAllNodesList() {
         if(allNodesList == null) {
+            // ranges are only created up front, so once they're gone, they're gone
+            materializeAllCollapsedRanges();
             allNodesList = new AllNodesList();
         }
         return allNodesList;
@@ -254,7 +293,24 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
      * The number of nodes including the node itself in its subtree.
      */
     public int subtreeSize(int visibleIndex, boolean includeCollapsed) {
-        return subtreeSize(visibleIndex, true, includeCollapsed);
+        int size = subtreeSize(visibleIndex, true, includeCollapsed);
+        if(includeCollapsed && collapsedRangeCount > 0) {
+            size += collapsedVirtualCount(getTreeNode(visibleIndex));
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of virtual nodes that the collapsed ranges in the
+     *      subtree of the specified node stand in for
+     */
+    private int collapsedVirtualCount(Node<E> node) {
+        Node<E> nextNodeNotInSubtree = nextNodeThatsNotAChildOfByStructure(node);
+        int result = 0;
+        for(Node<E> descendent = node.next(); descendent != nextNodeNotInSubtree; descendent = descendent.next()) {
+            if(descendent.isCollapsedRange()) result += descendent.collapsedVirtualCount;
+        }
+        return result;
     }
 
     /**
@@ -315,7 +371,7 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
      *      children, regardless of whether such children are visible.
      */
     public boolean hasChildren(int visibleIndex) {
-        boolean hasChildren = subtreeSize(visibleIndex, true) > 1;
+        boolean hasChildren = subtreeSize(visibleIndex, true, true) > 1;
         boolean isLeaf = getTreeNode(visibleIndex).isLeaf();
         if(isLeaf == hasChildren) {
             subtreeSize(visibleIndex, true, true);
@@ -392,6 +448,9 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
      */
     private void setExpanded(Node<E> toExpand, boolean expanded) {
 
+        // children left out while this node was collapsed are needed now
+        if(expanded) materializeChildren(toExpand);
+
         // if we're already in the desired state, give up!
         if(toExpand.expanded == expanded) return;
 
@@ -452,6 +511,111 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
         setExpanded(visibleIndex, !isExpanded(visibleIndex));
     }
 
+    /**
+     * Expand every node in the tree, firing a single event.
+     */
+    public void expandAll() {
+        setExpandedToDepth(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Collapse every node in the tree, firing a single event.
+     */
+    public void collapseAll() {
+        setExpandedToDepth(0);
+    }
+
+    /**
+     * Expand the nodes whose {@link #depth(int) depth} is less than the
+     * specified depth and collapse all others, so that exactly the nodes down
+     * to that depth are visible. A single event is fired.
+     */
+    public void setExpandedToDepth(int depth) {
+        Set<Node<E>> toToggle = Collections.newSetFromMap(new IdentityHashMap<Node<E>, Boolean>());
+        for(Node<E> node = firstNode(); node != null; node = node.next()) {
+            // the owners of collapsed ranges are deeper than the depth, or they'd have been expanded
+            if(node.isCollapsedRange()) {
+                collapseCollapsedRange(node);
+                continue;
+            }
+            prepareToggle(node, node.pathLength() <= depth, toToggle);
+        }
+        toggleExpanded(toToggle);
+
+        assert(isValid());
+    }
+
+    /**
+     * Control whether the child elements of each of the specified nodes are
+     * visible, firing a single event.
+     *
+     * @param expanded <code>true</code> to expand the nodes, <code>false</code>
+     *      to collapse them.
+     */
+    public void setExpanded(Collection<Node<E>> nodes, boolean expanded) {
+        Set<Node<E>> toToggle = Collections.newSetFromMap(new IdentityHashMap<Node<E>, Boolean>());
+        for(Node<E> node : nodes) {
+            if(node.element == null) throw new IllegalArgumentException("Node is not in the tree: " + node);
+            prepareToggle(node, expanded, toToggle);
+        }
+        toggleExpanded(toToggle);
+
+        assert(isValid());
+    }
+
+    /**
+     * Collect the specified node if its expanded state needs to change. The
+     * children of a node to be expanded are inserted now, while they're still
+     * hidden.
+     */
+    private void prepareToggle(Node<E> node, boolean expanded, Set<Node<E>> toToggle) {
+        if(node.expanded == expanded) return;
+        if(expanded) materializeChildren(node);
+        toToggle.add(node);
+    }
+
+    /**
+     * Toggle the expanded state of the specified nodes, reporting each change
+     * to the {@link ExpansionModel}. Then make the visibility of every node
+     * consistent in a single pass, firing one event for all the nodes shown
+     * and hidden and for the toggled nodes that are visible.
+     */
+    private void toggleExpanded(Set<Node<E>> toToggle) {
+        if(toToggle.isEmpty()) return;
+
+        updates.beginEvent();
+        int visibleIndex = 0;
+        for(Node<E> node = firstNode(); node != null; node = node.next()) {
+            // parents come first, so their state is already final
+            boolean shouldBeVisible = node.parent == null || (node.parent.expanded && node.parent.isVisible());
+            boolean visible = node.isVisible();
+
+            if(shouldBeVisible && !visible) {
+                setVisible(node, true);
+                updates.elementInserted(visibleIndex, node.getElement());
+            } else if(!shouldBeVisible && visible) {
+                updates.elementDeleted(visibleIndex, node.getElement());
+                setVisible(node, false);
+            }
+
+            if(toToggle.contains(node)) {
+                node.expanded = !node.expanded;
+                expansionModel.setExpanded(node.getElement(), node.path, node.expanded);
+                if(shouldBeVisible && visible) updates.addUpdate(visibleIndex);
+            }
+
+            if(shouldBeVisible) visibleIndex++;
+        }
+        updates.commitEvent();
+    }
+
+    /**
+     * @return the first node in the tree, or <code>null</code> if it is empty
+     */
+    private Node<E> firstNode() {
+        return data.size(ALL_NODES) > 0 ? data.get(0, ALL_NODES).get() : null;
+    }
+
     /**
      * Set the visibility of the specified node without firing any events.
      */
@@ -490,23 +654,32 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
         NodeAttacher nodeAttacher = new NodeAttacher(true);
         FinderInserter finderInserter = new FinderInserter();
 
+        // collapsed ranges are read from the source, which is ahead of the tree
+        // until the last change has been applied
+        pendingChanges = collapsedRangeCount > 0 ? new PendingChanges(listChanges) : null;
+
         while(listChanges.next()) {
             int sourceIndex = listChanges.getIndex();
             int type = listChanges.getType();
+            if(pendingChanges != null) pendingChanges.beginChange();
 
             if(type == ListEvent.INSERT) {
                 Node<E> inserted = finderInserter.findOrInsertNode(sourceIndex);
-                nodeAttacher.nodesToAttach.queueNewNodeForInserting(inserted);
+                if(inserted != null) nodeAttacher.nodesToAttach.queueNewNodeForInserting(inserted);
 
             } else if(type == ListEvent.UPDATE) {
+                if(updateCollapsedNode(sourceIndex, finderInserter)) continue;
                 replaceAndDetachNode( sourceIndex, nodesToVerify );
+                if(pendingChanges != null) pendingChanges.updateDetached();
                 Node<E> updated = finderInserter.findOrInsertNode(sourceIndex);
-                nodeAttacher.nodesToAttach.queueNewNodeForInserting(updated);
+                if(updated != null) nodeAttacher.nodesToAttach.queueNewNodeForInserting(updated);
 
             } else if(type == ListEvent.DELETE) {
+                if(deleteCollapsedNode(sourceIndex, finderInserter)) continue;
                 deleteAndDetachNode(sourceIndex, nodesToVerify);
             }
         }
+        pendingChanges = null;
 
         // second pass: walk through all the changed nodes and attach parents
         // and siblings, plus fire events for all the inserted or updated nodes.
@@ -540,6 +713,9 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
         /** the node having its parents and siblings attached */
         private Node<E> current;
 
+        /** whether the node being attached was visible, so its ancestors must be expanded */
+        private boolean changedVisible;
+
         /** the active node before current which we're hoping is current's parent */
         private Node<E> predecessor;
 
@@ -593,6 +769,7 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
          */
         private void attach(Node<E> changed, boolean newlyInserted) {
             current = changed;
+            changedVisible = changed.isVisible();
 
             // prepare the expand/collapsed state of created nodes
             if(newlyInserted) {
@@ -606,16 +783,33 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
             predecessor = current.previous();
             predecessorAtOurHeight = null;
 
+            // a node following a collapsed range is never among its descendants,
+            // and the last of those descendants has no siblings after it. So we
+            // can continue from the node that owns the range
+            if(predecessor != null && predecessor.isCollapsedRange()) {
+                predecessor = predecessor.parent;
+            }
+
             // make sure the following node is repaired, as it might have become
             // separated from its siblings or parent by the insertion of this node
             if(newlyInserted) {
+                // a collapsed range that follows is ours, and stays as it is
                 Node<E> follower = current.next();
-                if(follower != null) {
+                if(follower != null && !follower.isCollapsedRange()) {
                     nodesToAttach.queuePrefixForAttaching(follower);
                 }
             }
 
             attachParentsAndSiblings();
+
+            // a visible node stays visible, so new ancestors that start
+            // collapsed, not just its parent, must be expanded
+            if(changedVisible) {
+                for(Node<E> ancestor = changed.parent; ancestor != null; ancestor = ancestor.parent) {
+                    if(!ancestor.expanded) nodesToExpand.add(ancestor);
+                }
+            }
+
             fixVisibilityAndFireEvents();
 
             // cleanup
@@ -759,6 +953,12 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
                             updates.addInsert(visibleIndex);
                         }
 
+                        // a reattached node brings its children and the siblings
+                        // after it, which may be shown now too
+                        if(i == 0) {
+                            showFollowers(current);
+                        }
+
                     // an updated node
                     } else {
                         int visibleIndex = data.indexOfNode(current.element, VISIBLE_NODES);
@@ -768,8 +968,26 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
                     }
                 }
 
-                // collapsed state restricts visibility on child elements
-                visible = visible && current.expanded;
+                // collapsed state restricts visibility on child elements, except
+                // for the ancestors of a visible node, which will be expanded
+                visible = visible && (current.expanded || changedVisible);
+            }
+        }
+
+        /**
+         * Show the descendants of the specified node and the siblings after it
+         * with their descendants, where they were hidden with it but aren't
+         * hidden by a collapsed ancestor. Those not attached yet are shown
+         * when they are.
+         */
+        private void showFollowers(Node<E> node) {
+            for(Node<E> descendent = node.next(); descendent != null && descendent.pathLength() >= node.pathLength(); descendent = descendent.next()) {
+                if(descendent.isNewlyInserted || descendent.parent == null) continue;
+                if(descendent.isVisible() || !descendent.parent.expanded || !descendent.parent.isVisible()) continue;
+                setVisible(descendent, true);
+                if(fireEvents) {
+                    updates.addInsert(data.indexOfNode(descendent.element, VISIBLE_NODES));
+                }
             }
         }
     }
@@ -865,9 +1083,17 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
      */
     private class FinderInserter {
 
-        final KeyedCollection<Element<Node<E>>,List<E>> indicesByValue;
+        KeyedCollection<Element<Node<E>>,List<E>> indicesByValue;
 
         public FinderInserter() {
+            forgetIndicesByValue();
+        }
+
+        /**
+         * Forget the nodes found so far, as when nodes have been inserted
+         * among them.
+         */
+        private void forgetIndicesByValue() {
             this.indicesByValue = GlazedListsImpl.keyedCollection(
                     new ElementLocationComparator());
         }
@@ -927,6 +1153,31 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
                 }
             }
 
+            // the node may land among the collapsed descendants of another node,
+            // in which case it joins them if it's a descendant itself
+            Node<E> range = collapsedRangeAround(insertIndex);
+            if(range != null) {
+                if(joinsCollapsedRange(inserted, range)) {
+                    int start = data.indexOfNode(range.element, REAL_NODES);
+                    Node<E> previous = sourceIndex == start ? range.parent : collapsedNode(sourceIndex - 1);
+                    Node<E> next = sourceIndex == start + range.collapsedSize ? null : collapsedNode(sourceIndex);
+                    range.collapsedVirtualCount += virtualCountChange(previous, inserted, next);
+                    range.collapsedSize++;
+                    Element<Node<E>> rangeElement = data.add(data.indexOfNode(range.element, ALL_NODES) + 1, ALL_NODES, HIDDEN_REAL, range, 1);
+                    assert(rangeElement == range.element);
+                    return null;
+                }
+
+                // otherwise create their nodes and try again, unless it simply
+                // follows them without being a descendant
+                if(insertIndex < data.indexOfNode(range.element, ALL_NODES) + collapsedRangeSize(range)
+                        || isAncestorByValue(inserted, range.parent)) {
+                    materializeCollapsedRange(range);
+                    forgetIndicesByValue();
+                    return findOrInsertNode(sourceIndex);
+                }
+            }
+
             // insert the node as hidden by default - if we need to show this node,
             // we'll change its state later and fire an 'insert' event then
             addNode(inserted, HIDDEN_REAL, insertIndex);
@@ -968,7 +1219,13 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
             // we might be able to optimize this loop using element.next() ?
             for(int i = start; i < end; i++) {
                 Element<Node<E>> element = data.get(i, ALL_NODES);
-                indicesByValue.insert(element, element.get().path());
+                Node<E> node = element.get();
+                // the descendants in a collapsed range have no nodes to find
+                if(node.isCollapsedRange()) {
+                    i = data.indexOfNode(element, ALL_NODES) + collapsedRangeSize(node) - 1;
+                    continue;
+                }
+                indicesByValue.insert(element, node.path());
             }
         }
 
@@ -1146,6 +1403,18 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
                 // todo: come up with a test case where previous pathlength == parent pathlength,
                 // which will cause this to fail (slightly) because the expanded state will be destroyed
                 Node<E> previous = node.previous();
+
+                // a collapsed range stands in for its owner's last descendant,
+                // unless this node could be that descendant's ancestor below
+                // the owner or the owner's equal
+                while(previous != null && previous.isCollapsedRange()
+                        && node.pathLength() >= previous.parent.pathLength()
+                        && commonPathLength(node, previous.parent) == previous.parent.pathLength()) {
+                    materializeCollapsedRange(previous);
+                    previous = node.previous();
+                }
+                if(previous != null && previous.isCollapsedRange()) previous = previous.parent;
+
                 if(previous == null) continue deleteObsoleteParents;
                 if(!isAncestorByValue(previous, node)) continue deleteObsoleteParents;
 
@@ -1167,6 +1436,7 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
         }
 
         // link the children of the two parents as siblings
+        materializeChildren(parent);
         Node<E> parentFirstChild = parent.firstChild();
         assert(parentFirstChild == null || parentFirstChild.siblingBefore == null);
         replacementLastSibling.siblingAfter = parentFirstChild;
@@ -1316,6 +1586,426 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
         node.element = data.add(realIndex, ALL_NODES, nodeColor, node, 1);
     }
 
+    /**
+     * Insert and attach the specified real nodes, starting at the specified
+     * index. Rather than inserting the descendants of a collapsed node,
+     * they're kept in a range that follows that node. No events are fired.
+     *
+     * @param last the node before the specified index, or <code>null</code>
+     *      if there is no such node
+     * @param expanding a collapsed node whose descendants are being inserted,
+     *      as though it were expanded, or <code>null</code> if the nodes are
+     *      new and get their expanded state from the {@link ExpansionModel}
+     * @param allCollapsed <code>true</code> to create all virtual nodes
+     *      collapsed, rather than as the {@link ExpansionModel} says
+     */
+    private void attachLazily(List<Node<E>> nodes, int index, Node<E> last, Node<E> expanding, boolean allCollapsed) {
+        NodeAttacher nodeAttacher = new NodeAttacher(false);
+        Node<E> rangeOwner = null;
+        Node<E> rangeLast = null;
+        int rangeSize = 0;
+        int rangeVirtualCount = 0;
+
+        for(int i = 0, size = nodes.size(); i < size; i++) {
+            Node<E> node = nodes.get(i);
+            if(expanding == null) node.expanded = expansionModel.isExpanded(node.getElement(), node.path);
+
+            // the descendants of a collapsed node accumulate in its range
+            if(rangeOwner != null) {
+                if(isAncestorByValue(node, rangeOwner)) {
+                    rangeVirtualCount += virtualAncestorCount(node, rangeLast);
+                    rangeLast = node;
+                    rangeSize++;
+                    continue;
+                }
+                addCollapsedRange(rangeOwner, index, rangeSize, rangeVirtualCount, allCollapsed);
+                index += rangeSize;
+                last = rangeOwner;
+                rangeOwner = null;
+            }
+
+            // find the nearest ancestor among the nodes we've attached
+            Node<E> ancestor = last;
+            while(ancestor != null && !isAncestorByValue(node, ancestor)) {
+                ancestor = ancestor.parent;
+            }
+            assert(expanding == null || (ancestor != null && ancestor.pathLength() >= expanding.pathLength()));
+
+            // this node is hidden by a collapsed ancestor
+            if(ancestor != null && ancestor != expanding && !ancestor.expanded) {
+                rangeOwner = ancestor;
+            }
+
+            // or by a collapsed virtual parent, which is attached in its place
+            Node<E> toAttach = node;
+            for(int pathLength = ancestor == null ? 1 : ancestor.pathLength() + 1; rangeOwner == null && pathLength < node.pathLength(); pathLength++) {
+                List<E> parentPath = new ArrayList<>(node.path.subList(0, pathLength));
+                if(allCollapsed || !expansionModel.isExpanded(parentPath.get(pathLength - 1), parentPath)) {
+                    rangeOwner = new Node<>(true, parentPath);
+                    toAttach = rangeOwner;
+                }
+            }
+
+            if(rangeOwner != null) {
+                rangeVirtualCount = virtualAncestorCount(node, rangeOwner);
+                rangeLast = node;
+                rangeSize = 1;
+                if(toAttach == node) continue;
+            }
+
+            if(toAttach == node) node.resetDerivedState();
+            addNode(toAttach, toAttach.virtual ? HIDDEN_VIRTUAL : HIDDEN_REAL, index);
+            nodeAttacher.nodesToAttach.queueNewNodeForInserting(toAttach);
+            nodeAttacher.attachAll();
+            index = data.indexOfNode(toAttach.element, ALL_NODES) + 1;
+            last = toAttach;
+        }
+
+        if(rangeOwner != null) {
+            addCollapsedRange(rangeOwner, index, rangeSize, rangeVirtualCount, allCollapsed);
+        }
+    }
+
+    /**
+     * Insert a range of the specified number of real nodes, all of them
+     * descendants of the specified collapsed node, which it must follow.
+     *
+     * @param virtualCount the number of virtual nodes that the range stands
+     *      in for
+     */
+    private void addCollapsedRange(Node<E> owner, int index, int size, int virtualCount, boolean allCollapsed) {
+        Node<E> range = new Node<>(false, owner.path);
+        range.collapsedRangeOf = this;
+        range.collapsedSize = size;
+        range.collapsedVirtualCount = virtualCount;
+        range.allCollapsed = allCollapsed;
+        range.parent = owner;
+        range.element = data.add(index, ALL_NODES, HIDDEN_REAL, range, size);
+        collapsedRangeCount++;
+    }
+
+    /**
+     * Whether the specified real node can be kept in the specified collapsed
+     * range. Besides being a descendant of its owner, it must be in the
+     * expanded state that it would get if it were created with the range's
+     * other nodes. Otherwise the virtual nodes that its insertion would
+     * create or copy could differ from those created with the range.
+     */
+    private boolean joinsCollapsedRange(Node<E> node, Node<E> range) {
+        return !range.allCollapsed
+                && isAncestorByValue(node, range.parent)
+                && node.expanded == expansionModel.isExpanded(node.getElement(), node.path);
+    }
+
+    /**
+     * Collapse the collapsed descendants of a node, including the virtual
+     * ones that haven't been created yet.
+     */
+    private void collapseCollapsedRange(Node<E> range) {
+        for(Node<E> node : collapsedNodes(range)) {
+            if(!node.expanded) continue;
+            node.expanded = false;
+            expansionModel.setExpanded(node.getElement(), node.path, false);
+        }
+        range.allCollapsed = true;
+    }
+
+    /**
+     * @return the number of real nodes in the specified collapsed range
+     */
+    private int collapsedRangeSize(Node<E> range) {
+        return range.collapsedSize;
+    }
+
+    /**
+     * @return the real nodes of the specified collapsed range, which are read
+     *      from the source list
+     */
+    private List<Node<E>> collapsedNodes(Node<E> range) {
+        int start = data.indexOfNode(range.element, REAL_NODES);
+        if(pendingChanges != null) return pendingChanges.nodes(start, range.collapsedSize);
+        return new ArrayList<>(source.subList(start, start + range.collapsedSize));
+    }
+
+    /**
+     * @return the real node at the specified index among the real nodes of
+     *      the tree, which may be in a collapsed range
+     */
+    private Node<E> collapsedNode(int realIndex) {
+        if(pendingChanges != null) return pendingChanges.nodes(realIndex, 1).get(0);
+        return source.get(realIndex);
+    }
+
+    /**
+     * @return the collapsed range that contains, starts or ends at the
+     *      specified index, or <code>null</code> if there is no such range
+     */
+    private Node<E> collapsedRangeAround(int index) {
+        if(index < data.size(ALL_NODES)) {
+            Node<E> node = data.get(index, ALL_NODES).get();
+            if(node.isCollapsedRange()) return node;
+        }
+        if(index > 0) {
+            Node<E> node = data.get(index - 1, ALL_NODES).get();
+            if(node.isCollapsedRange()) return node;
+        }
+        return null;
+    }
+
+    /**
+     * Handle a source update at the specified index if the element is among
+     * the collapsed descendants of a node. If it can stay there, there's
+     * nothing to do, since the range reads its nodes from the source.
+     * Otherwise the nodes of the descendants are created, down to the updated
+     * one, so that the update can be handled like any other.
+     *
+     * @return <code>true</code> if the update has been handled
+     */
+    private boolean updateCollapsedNode(int sourceIndex, FinderInserter finderInserter) {
+        for(Node<E> range = data.get(sourceIndex, REAL_NODES).get(); range.isCollapsedRange(); range = data.get(sourceIndex, REAL_NODES).get()) {
+            Node<E> updated = source.get(sourceIndex);
+            Node<E> replaced = collapsedNode(sourceIndex);
+
+            // a node with another path could change the shape of the subtree
+            if(joinsCollapsedRange(updated, range)
+                    && commonPathLength(updated, replaced) == updated.pathLength()
+                    && updated.pathLength() == replaced.pathLength()) {
+                updated.resetDerivedState();
+                return true;
+            }
+
+            materializeCollapsedRange(range);
+            finderInserter.forgetIndicesByValue();
+        }
+        return false;
+    }
+
+    /**
+     * Handle a source delete at the specified index if the element is among
+     * the collapsed descendants of a node. If others remain and the shape of
+     * the subtree doesn't depend on it, it's simply removed. Otherwise the
+     * nodes of the descendants are created, down to the deleted one, so that
+     * the delete can be handled like any other.
+     *
+     * @return <code>true</code> if the delete has been handled
+     */
+    private boolean deleteCollapsedNode(int sourceIndex, FinderInserter finderInserter) {
+        for(Node<E> range = data.get(sourceIndex, REAL_NODES).get(); range.isCollapsedRange(); range = data.get(sourceIndex, REAL_NODES).get()) {
+            int start = data.indexOfNode(range.element, REAL_NODES);
+            if(collapsedRangeSize(range) > 1) {
+                Node<E> removed = collapsedNode(sourceIndex);
+                Node<E> previous = sourceIndex == start ? range.parent : collapsedNode(sourceIndex - 1);
+                Node<E> next = sourceIndex == start + range.collapsedSize - 1 ? null : collapsedNode(sourceIndex + 1);
+                if(isRemovableFromCollapsedRange(previous, removed, next)) {
+                    range.collapsedVirtualCount -= virtualCountChange(previous, removed, next);
+                    range.collapsedSize--;
+                    data.remove(sourceIndex, REAL_NODES, 1);
+                    return true;
+                }
+            }
+
+            materializeCollapsedRange(range);
+            finderInserter.forgetIndicesByValue();
+        }
+        return false;
+    }
+
+    /**
+     * Whether the specified real node in a collapsed range can simply be
+     * removed from it. The nodes on either side of it must share no more
+     * ancestors once they're adjacent than they did through it, since
+     * removing a node doesn't merge the subtrees that it separated.
+     *
+     * @param previous the node before the removed one, which is the range's
+     *      owner for the first node
+     * @param next the node after the removed one, or <code>null</code> for
+     *      the last node
+     */
+    private boolean isRemovableFromCollapsedRange(Node<E> previous, Node<E> removed, Node<E> next) {
+        if(next == null) return true;
+        return sharedAncestorCount(next, previous)
+                == Math.min(sharedAncestorCount(next, removed), sharedAncestorCount(removed, previous));
+    }
+
+    /**
+     * @return the number of ancestors of the specified node that it shares
+     *      with the specified node before it
+     */
+    private int sharedAncestorCount(Node<E> node, Node<E> previous) {
+        return Math.min(commonPathLength(node, previous), node.pathLength() - 1);
+    }
+
+    /**
+     * @return the number of virtual ancestors that the specified node needs,
+     *      beyond those it shares with the specified node before it
+     */
+    private int virtualAncestorCount(Node<E> node, Node<E> previous) {
+        return node.pathLength() - 1 - sharedAncestorCount(node, previous);
+    }
+
+    /**
+     * @return how many more virtual nodes a collapsed range stands in for
+     *      with the specified node between the specified nodes in it, where
+     *      <code>next</code> is <code>null</code> at the end of the range
+     */
+    private int virtualCountChange(Node<E> previous, Node<E> node, Node<E> next) {
+        int change = virtualAncestorCount(node, previous);
+        if(next != null) change += virtualAncestorCount(next, node) - virtualAncestorCount(next, previous);
+        return change;
+    }
+
+    /**
+     * Insert the children of the specified node, if they've been left out
+     * because it's collapsed.
+     */
+    private void materializeChildren(Node<E> node) {
+        Node<E> firstChild = node.firstChild();
+        if(firstChild != null && firstChild.isCollapsedRange()) {
+            materializeCollapsedRange(firstChild);
+        }
+    }
+
+    /**
+     * Replace the specified collapsed range with the children of its owner,
+     * which stay hidden. Their own collapsed descendants get ranges of their
+     * own. While a change to the source is being applied, the nodes are read
+     * as they were before the changes that haven't been applied yet.
+     */
+    private void materializeCollapsedRange(Node<E> range) {
+        List<Node<E>> nodes = collapsedNodes(range);
+        int index = data.indexOfNode(range.element, ALL_NODES);
+        data.remove(range.element);
+        range.element = null;
+        collapsedRangeCount--;
+
+        attachLazily(nodes, index, range.parent, range.parent, range.allCollapsed);
+    }
+
+    /**
+     * Replace all collapsed ranges with nodes.
+     */
+    private void materializeAllCollapsedRanges() {
+        for(int i = 0; i < data.size(ALL_NODES); i++) {
+            Node<E> node = data.get(i, ALL_NODES).get();
+            if(node.isCollapsedRange()) {
+                materializeCollapsedRange(node);
+            }
+        }
+    }
+
+    /**
+     * The changes of a source event while they're applied to a TreeList with
+     * collapsed ranges. The source list is already ahead of the tree, so the
+     * real nodes of a range are read from it through the changes that haven't
+     * been applied yet. ListEvents list their changes in increasing order,
+     * which makes this a single merge.
+     */
+    private final class PendingChanges {
+
+        /** the type, index and previous value of each change */
+        private int[] types = new int[8];
+        private int[] indices = new int[8];
+        private final List<Node<E>> previousValues = new ArrayList<>();
+        private int size = 0;
+
+        /** the change being applied, the ones before it have been applied */
+        private int current = -1;
+
+        /** whether the current change is an update whose node has been detached already */
+        private boolean currentDetached = false;
+
+        public PendingChanges(ListEvent<Node<E>> listChanges) {
+            // the deletes of a reordering don't know their values, but the reorder map does
+            int[] previousToCurrent = null;
+            if(listChanges.isReordering()) {
+                int[] reorderMap = listChanges.getReorderMap();
+                previousToCurrent = new int[reorderMap.length];
+                for(int i = 0; i < reorderMap.length; i++) {
+                    previousToCurrent[reorderMap[i]] = i;
+                }
+            }
+
+            int deletes = 0;
+            while(listChanges.next()) {
+                if(size == types.length) {
+                    types = Arrays.copyOf(types, size * 2);
+                    indices = Arrays.copyOf(indices, size * 2);
+                }
+                int type = listChanges.getType();
+                types[size] = type;
+                indices[size] = listChanges.getIndex();
+                assert(size == 0 || indices[size] >= indices[size - 1]);
+
+                Node<E> previousValue = null;
+                if(type == ListEvent.DELETE && previousToCurrent != null) {
+                    previousValue = source.get(previousToCurrent[deletes++]);
+                } else if(type != ListEvent.INSERT) {
+                    previousValue = listChanges.getOldValue();
+                    assert(previousValue != ListEvent.UNKNOWN_VALUE);
+                }
+                previousValues.add(previousValue);
+                size++;
+            }
+            listChanges.reset();
+        }
+
+        /**
+         * Start applying the next change.
+         */
+        public void beginChange() {
+            current++;
+            currentDetached = false;
+        }
+
+        /**
+         * The node of the current update has been removed from the tree,
+         * which is now short of that node until it's inserted again.
+         */
+        public void updateDetached() {
+            currentDetached = true;
+        }
+
+        /**
+         * Get the real nodes at the specified indices of the real nodes of
+         * the tree, as they were before the changes not applied yet.
+         */
+        public List<Node<E>> nodes(int start, int count) {
+            List<Node<E>> result = new ArrayList<>(count);
+            int index = start;
+            // the difference between indices in the tree and in the source
+            int offset = 0;
+
+            for(int c = current; c < size && result.size() < count; c++) {
+                int type = (c == current && currentDetached) ? ListEvent.INSERT : types[c];
+                int changeIndex = indices[c];
+
+                // nodes before the change aren't moved by it or by the ones after it
+                while(result.size() < count && index + offset < changeIndex) {
+                    result.add(source.get(index + offset));
+                    index++;
+                }
+                if(result.size() == count) break;
+
+                if(type == ListEvent.INSERT) {
+                    offset++;
+                } else {
+                    if(index + offset == changeIndex) {
+                        result.add(previousValues.get(c));
+                        index++;
+                    }
+                    if(type == ListEvent.DELETE) offset--;
+                }
+            }
+
+            // nodes after all the changes
+            while(result.size() < count) {
+                result.add(source.get(index + offset));
+                index++;
+            }
+            return result;
+        }
+    }
+
     /**
      * A node state provider that clones the state from another subtree. This
      * is useful when a node tree gets split.
@@ -1484,6 +2174,18 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
         private Node<E> siblingBefore;
         private Node<E> parent;
 
+        /** the lazy TreeList whose collapsed descendants this node stands in for, or null */
+        private TreeList<E> collapsedRangeOf;
+
+        /** the number of real nodes among the collapsed descendants this node stands in for */
+        private int collapsedSize;
+
+        /** the number of virtual nodes among the collapsed descendants this node stands in for */
+        private int collapsedVirtualCount;
+
+        /** whether the virtual nodes among the collapsed descendants start collapsed */
+        private boolean allCollapsed;
+
         /**
          * Nodes are temporarily aware if they're brand new nodes that haven't
          * yet appeared in the tree. These nodes are processed slightly
@@ -1528,6 +2230,14 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
             return path.size();
         }
 
+        /**
+         * Whether this node stands in for a range of real nodes hidden by a
+         * collapsed node in a lazy TreeList.
+         */
+        private boolean isCollapsedRange() {
+            return collapsedRangeOf != null;
+        }
+
         /**
          * Get the List element at the end of this path.
          */
@@ -1627,6 +2337,11 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
          * List all children of this node.
          */
         public List<Node<E>> getChildren() {
+            Node<E> firstChild = firstChild();
+            if(firstChild != null && firstChild.isCollapsedRange()) {
+                firstChild.collapsedRangeOf.materializeCollapsedRange(firstChild);
+            }
+
             List<Node<E>> result = new ArrayList<>();
             for(Node<E> child = firstChild(); child != null; child = child.siblingAfter) {
                 result.add(child);
@@ -1757,6 +2472,28 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
             assert(node.element != null);
             assert(!node.isNewlyInserted);
 
+            // collapsed ranges follow their collapsed owner, and hold real nodes only
+            if(node.isCollapsedRange()) {
+                if(!isVisibilityValid(node) || node.parent == null || node.parent.expanded || node.previous() != node.parent) {
+                    throw new IllegalStateException();
+                }
+                assert(node.element.getColor() == HIDDEN_REAL);
+                int virtualCount = 0;
+                Node<E> previous = node.parent;
+                for(Node<E> collapsed : collapsedNodes(node)) {
+                    if(!isAncestorByValue(collapsed, node.parent)) {
+                        throw new IllegalStateException();
+                    }
+                    virtualCount += virtualAncestorCount(collapsed, previous);
+                    previous = collapsed;
+                }
+                if(virtualCount != node.collapsedVirtualCount) {
+                    throw new IllegalStateException();
+                }
+                i += collapsedRangeSize(node) - 1;
+                continue;
+            }
+
             // path lengths should only grow by one from one child to the next
             assert(node.pathLength() <= lastPathLengthSeen + 1);
             lastPathLengthSeen = node.pathLength();
@@ -1793,6 +2530,15 @@ public final class TreeList<E> extends TransformedList<TreeList.Node<E>,E> {
         for(int i = 1; i < size; i++) {
             Node<E> descendent = data.get(index + i, ALL_NODES).get();
 
+            // a collapsed range is the entire subtree of its owner
+            if(descendent.isCollapsedRange()) {
+                if(descendent.parent != node) continue;
+                if(i != 1 || node.expanded || size != 1 + collapsedRangeSize(descendent)) {
+                    throw new IllegalStateException();
+                }
+                break;
+            }
+
             // if this is a direct child, validate it
             if(descendent.pathLength() == node.pathLength() + 1) {
                 if(descendent.parent != node) {
@@ -10,13 +10,11 @@ import ca.odell.glazedlists.event.ListEvent;
 import ca.odell.glazedlists.event.ListEventListener;
 
 import javax.swing.JTree;
-import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -25,6 +23,11 @@ import java.util.List;
  * <p><strong>Ongoing problem:</strong> TreeList cannot cache all tree data on
  * the swing thread proxy due to the extra data in a tree.
  *
+ * <p>Changes to the {@link TreeList} are reported as the nodes inserted,
+ * removed and changed under each parent, so that the {@link JTree} keeps its
+ * expansion state. Changes that can't be described that way, such as
+ * reorderings, are reported as the structure of the whole tree changing.
+ *
  * <p><strong>Developer Preview</strong> this class is still under heavy development
  * and subject to API changes. It's also really slow at the moment and won't scale
  * to lists of size larger than a hundred or so efficiently.
@@ -41,6 +44,9 @@ public class EventTreeModel<E> implements TreeModel, ListEventListener<E> {
 
     private TreeList<E> treeList;
 
+    /** converts list changes into tree changes */
+    private final TreeModelEventTranslator<E> eventTranslator;
+
     /** swing trees all have only a single root */
     private final Object treeRoot = new Object();
 
@@ -60,14 +66,14 @@ public class EventTreeModel<E> implements TreeModel, ListEventListener<E> {
         try {
             disposeSwingThreadSource = !GlazedListsSwing.isSwingThreadProxyList(source);
             swingThreadSource = disposeSwingThreadSource ? GlazedListsSwing.swingThreadProxyList(source) : (TransformedList) source;
+            treeList = source;
+            eventTranslator = new TreeModelEventTranslator<>(source, this, treeRoot);
 
             // prepare listeners
             swingThreadSource.addListEventListener(this);
         } finally {
             source.getReadWriteLock().readLock().unlock();
         }
-
-        this.treeList = source;
     }
 
     /** {@inheritDoc} */
@@ -141,11 +147,7 @@ public class EventTreeModel<E> implements TreeModel, ListEventListener<E> {
     /** {@inheritDoc} */
     @Override
     public void listChanged(ListEvent<E> listChanges) {
-        // todo: fire a more general event
-        for(Iterator<TreeModelListener> i = listenerList.iterator(); i.hasNext(); ) {
-            TreeModelListener listener = i.next();
-            listener.treeStructureChanged(new TreeModelEvent(this, new Object[] { treeRoot }));
-        }
+        eventTranslator.listChanged(listChanges, listenerList);
     }
 
     /**
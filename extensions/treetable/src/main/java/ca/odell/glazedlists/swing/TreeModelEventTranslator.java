@@ -0,0 +1,393 @@
+/* Glazed Lists                                                 (c) 2003-2006 */
+/* http://publicobject.com/glazedlists/                      publicobject.com,*/
+/*                                                     O'Dell Engineering Ltd.*/
+package ca.odell.glazedlists.swing;
+
+import ca.odell.glazedlists.TreeList;
+import ca.odell.glazedlists.event.ListEvent;
+
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates the {@link ListEvent}s of a {@link TreeList} into minimal
+ * {@link TreeModelEvent}s for an {@link EventTreeModel}, so that a
+ * {@link javax.swing.JTree} keeps its expansion state and only lays out the
+ * subtrees that changed.
+ *
+ * <p>The translator keeps the depth and expanded state of each visible row as
+ * of the previous event. The parent of a row is the closest row before it
+ * that's one level shallower, so a single pass over the rows before the change
+ * yields the removed children of each parent, and a single pass over the rows
+ * after the change yields the inserted and changed ones.
+ *
+ * <p>A {@link TreeList} reports its nodes being shown and hidden as they are
+ * expanded and collapsed, but the children of a tree model node don't depend
+ * on that, so such changes only change the node itself. Changes to the hidden
+ * descendants of a collapsed node are reported as an update of that node at
+ * most, so an update that leaves a node collapsed is reported as the structure
+ * of that node's subtree changing. Hidden descendants may also be removed
+ * without any event, so each collapsed row remembers the rows it hid, and
+ * expanding it only changes the node if the same rows are shown again.
+ * Events that can't be translated exactly, such as reorderings and rows that
+ * move to a new parent, are reported as the structure of the entire tree
+ * changing.
+ *
+ * <p>Each event visits every visible row and takes a new snapshot of them all,
+ * so it costs time and garbage linear in the size of the {@link TreeList}. The
+ * previous snapshot can't be patched instead, because a {@link TreeList}
+ * doesn't report replacing a real node with a virtual one.
+ */
+class TreeModelEventTranslator<E> {
+
+    /** the tree whose changes are translated */
+    private final TreeList<E> treeList;
+
+    /** the source and the root of the translated events */
+    private final Object treeModel;
+    private final Object treeRoot;
+
+    /** the visible rows as of the previous event */
+    private List<Row<E>> rows;
+
+    /**
+     * Create a translator for the events of the specified {@link TreeList}.
+     */
+    TreeModelEventTranslator(TreeList<E> treeList, Object treeModel, Object treeRoot) {
+        this.treeList = treeList;
+        this.treeModel = treeModel;
+        this.treeRoot = treeRoot;
+        this.rows = currentRows();
+    }
+
+    /**
+     * Fire the {@link TreeModelEvent}s describing the specified change to
+     * the specified listeners.
+     */
+    void listChanged(ListEvent<E> listChanges, List<TreeModelListener> listeners) {
+        List<TreeModelEvent> removed = new ArrayList<>();
+        List<TreeModelEvent> inserted = new ArrayList<>();
+        List<TreeModelEvent> changed = new ArrayList<>();
+        List<TreeModelEvent> restructured = new ArrayList<>();
+
+        if(!translate(listChanges, removed, inserted, changed, restructured)) {
+            rows = currentRows();
+            TreeModelEvent structureChanged = new TreeModelEvent(treeModel, new Object[] { treeRoot });
+            for(int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).treeStructureChanged(structureChanged);
+            }
+            return;
+        }
+
+        for(int e = 0; e < removed.size(); e++) {
+            for(int i = 0; i < listeners.size(); i++) listeners.get(i).treeNodesRemoved(removed.get(e));
+        }
+        for(int e = 0; e < inserted.size(); e++) {
+            for(int i = 0; i < listeners.size(); i++) listeners.get(i).treeNodesInserted(inserted.get(e));
+        }
+        for(int e = 0; e < changed.size(); e++) {
+            for(int i = 0; i < listeners.size(); i++) listeners.get(i).treeNodesChanged(changed.get(e));
+        }
+        for(int e = 0; e < restructured.size(); e++) {
+            for(int i = 0; i < listeners.size(); i++) listeners.get(i).treeStructureChanged(restructured.get(e));
+        }
+    }
+
+    /**
+     * Collect the events for the specified change and bring the rows up to
+     * date.
+     *
+     * @return <code>false</code> if the change can't be translated exactly
+     */
+    private boolean translate(ListEvent<E> listChanges, List<TreeModelEvent> removed, List<TreeModelEvent> inserted, List<TreeModelEvent> changed, List<TreeModelEvent> restructured) {
+        if(listChanges.isReordering()) return false;
+
+        // match up the rows before and after the change
+        final int oldSize = rows.size();
+        final int newSize = treeList.size();
+        final int[] oldToNew = new int[oldSize];
+        final int[] newToOld = new int[newSize];
+        final boolean[] updated = new boolean[newSize];
+        int oldIndex = 0;
+        int newIndex = 0;
+        while(listChanges.next()) {
+            final int changeIndex = listChanges.getIndex();
+            final int changeType = listChanges.getType();
+            if(changeIndex > newSize || oldIndex + changeIndex - newIndex > oldSize) return false;
+            for(; newIndex < changeIndex; oldIndex++, newIndex++) {
+                oldToNew[oldIndex] = newIndex;
+                newToOld[newIndex] = oldIndex;
+            }
+            if(changeType == ListEvent.DELETE) {
+                if(oldIndex == oldSize) return false;
+                oldToNew[oldIndex++] = -1;
+            } else if(changeType == ListEvent.INSERT) {
+                if(newIndex == newSize) return false;
+                newToOld[newIndex++] = -1;
+            } else if(changeType == ListEvent.UPDATE) {
+                if(oldIndex == oldSize || newIndex == newSize) return false;
+                updated[newIndex] = true;
+                oldToNew[oldIndex++] = newIndex;
+                newToOld[newIndex] = oldIndex - 1;
+                newIndex++;
+            }
+        }
+        if(oldSize - oldIndex != newSize - newIndex) return false;
+        for(; newIndex < newSize; oldIndex++, newIndex++) {
+            oldToNew[oldIndex] = newIndex;
+            newToOld[newIndex] = oldIndex;
+        }
+
+        // rows shown or hidden by expanding or collapsing, which aren't structural
+        int revealedOrHidden = 0;
+
+        // the removed children of each parent, in terms of the rows before the change
+        Ancestry ancestry = new Ancestry(removed);
+        for(int r = 0; r < oldSize; r++) {
+            final Row<E> row = rows.get(r);
+            ancestry.visit(row.node, row.depth, r);
+            final int parentRow = ancestry.parentRow(row.depth);
+            final boolean parentRemoved = parentRow != -1 && oldToNew[parentRow] == -1;
+
+            if(oldToNew[r] != -1) {
+                // a surviving row whose parent is gone has moved
+                if(parentRemoved) return false;
+
+            } else if(!parentRemoved) {
+                // a row hidden by its parent being collapsed still exists
+                if(parentRow != -1 && rows.get(parentRow).expanded && !treeList.isExpanded(oldToNew[parentRow])) {
+                    revealedOrHidden++;
+                } else {
+                    ancestry.addChange(0, row.depth);
+                }
+            }
+        }
+        ancestry.complete();
+
+        // the inserted and changed children of each parent, after the change
+        final List<Row<E>> newRows = currentRows();
+        ancestry = new Ancestry(inserted, changed);
+        for(int r = 0; r < newSize; r++) {
+            final Row<E> row = newRows.get(r);
+            ancestry.visit(row.node, row.depth, r);
+            final int parentRow = ancestry.parentRow(row.depth);
+            final boolean parentInserted = parentRow != -1 && newToOld[parentRow] == -1;
+
+            if(newToOld[r] != -1) {
+                // a surviving row whose parent is new has moved
+                if(parentInserted) return false;
+                final Row<E> oldRow = rows.get(newToOld[r]);
+                if(!updated[r]) {
+                    row.hidden = oldRow.hidden;
+                    continue;
+                }
+
+                if(oldRow.expanded && !row.expanded) {
+                    row.hidden = descendants(rows, newToOld[r]);
+                    ancestry.addChange(1, row.depth);
+                } else if(oldRow.expanded || row.expanded && reveals(newRows, r, oldRow.hidden)) {
+                    ancestry.addChange(1, row.depth);
+                } else {
+                    // the hidden descendants of a collapsed row may have changed
+                    restructured.add(new TreeModelEvent(treeModel, ancestry.path(row.depth + 1)));
+                }
+
+            } else if(!parentInserted) {
+                // a row shown by its parent being expanded existed all along
+                if(parentRow != -1 && newRows.get(parentRow).expanded && !rows.get(newToOld[parentRow]).expanded) {
+                    revealedOrHidden++;
+                } else {
+                    ancestry.addChange(0, row.depth);
+                }
+            }
+        }
+        ancestry.complete();
+
+        // telling a data change from an expand or collapse requires both to be separate
+        if(revealedOrHidden > 0 && (!removed.isEmpty() || !inserted.isEmpty())) return false;
+
+        rows = newRows;
+        return true;
+    }
+
+    /**
+     * @return the visible rows of the tree
+     */
+    private List<Row<E>> currentRows() {
+        List<Row<E>> result = new ArrayList<>(treeList.size());
+        for(int r = 0; r < treeList.size(); r++) {
+            result.add(new Row<>(treeList.getTreeNode(r), treeList.depth(r), treeList.isExpanded(r)));
+        }
+        return result;
+    }
+
+    /**
+     * @return the rows of the descendants of the row at the specified index
+     */
+    private static <E> List<Row<E>> descendants(List<Row<E>> rows, int index) {
+        int end = index + 1;
+        while(end < rows.size() && rows.get(end).depth > rows.get(index).depth) end++;
+        return new ArrayList<>(rows.subList(index + 1, end));
+    }
+
+    /**
+     * Test whether the descendants of the row at the specified index are the
+     * specified rows that it hid, in which case they take over what those
+     * rows hid in turn.
+     *
+     * @param hidden the rows hidden when the row was collapsed, or
+     *      <code>null</code> if they're unknown
+     */
+    private static <E> boolean reveals(List<Row<E>> rows, int index, List<Row<E>> hidden) {
+        if(hidden == null) return false;
+        final List<Row<E>> revealed = descendants(rows, index);
+        if(revealed.size() != hidden.size()) return false;
+        for(int r = 0; r < revealed.size(); r++) {
+            final Row<E> before = hidden.get(r);
+            final Row<E> after = revealed.get(r);
+            if(!before.node.equals(after.node) || before.depth != after.depth || before.expanded != after.expanded) return false;
+        }
+        for(int r = 0; r < revealed.size(); r++) {
+            revealed.get(r).hidden = hidden.get(r).hidden;
+        }
+        return true;
+    }
+
+    /**
+     * A visible row of the tree.
+     */
+    private static final class Row<E> {
+        private final TreeList.Node<E> node;
+        private final int depth;
+        private final boolean expanded;
+        /** the rows this collapsed row hid, or <code>null</code> if they're unknown */
+        private List<Row<E>> hidden;
+
+        private Row(TreeList.Node<E> node, int depth, boolean expanded) {
+            this.node = node;
+            this.depth = depth;
+            this.expanded = expanded;
+        }
+    }
+
+    /**
+     * Tracks the ancestors of the current row as the rows are visited in
+     * order, along with the child index of each row. The changes to the
+     * children of each ancestor become one event per kind of change, once all
+     * of its children have been visited.
+     */
+    private final class Ancestry {
+        /** where the events go, by kind of change */
+        private final List<TreeModelEvent>[] destinations;
+        /** the ancestor at each depth, and its row */
+        private final List<TreeList.Node<E>> ancestors = new ArrayList<>();
+        private final List<Integer> ancestorRows = new ArrayList<>();
+        /** the children of the ancestor at each depth, with the root's first */
+        private final List<Children> children = new ArrayList<>();
+
+        private Ancestry(List<TreeModelEvent>... destinations) {
+            this.destinations = destinations;
+            children.add(new Children(destinations.length));
+        }
+
+        /**
+         * Visit the specified row, which must follow the previous one.
+         */
+        private void visit(TreeList.Node<E> node, int depth, int row) {
+            // the rows at this depth or deeper have no more children
+            while(ancestors.size() > depth) {
+                completeDeepestAncestor();
+            }
+            children.get(depth).count++;
+            ancestors.add(node);
+            ancestorRows.add(row);
+            children.add(new Children(destinations.length));
+        }
+
+        /**
+         * @return the row of the parent of the row at the specified depth, or
+         *      <code>-1</code> for the root
+         */
+        private int parentRow(int depth) {
+            return depth == 0 ? -1 : ancestorRows.get(depth - 1);
+        }
+
+        /**
+         * @return the path from the root through the specified number of
+         *      ancestors
+         */
+        private Object[] path(int length) {
+            final Object[] path = new Object[length + 1];
+            path[0] = treeRoot;
+            for(int d = 0; d < length; d++) path[d + 1] = ancestors.get(d);
+            return path;
+        }
+
+        /**
+         * Record a change of the specified kind to the most recently visited
+         * row, which is at the specified depth.
+         */
+        private void addChange(int kind, int depth) {
+            final Children siblings = children.get(depth);
+            siblings.changed[kind].add(ancestors.get(depth));
+            siblings.indices[kind].add(siblings.count - 1);
+        }
+
+        /**
+         * Add the events for all remaining ancestors.
+         */
+        private void complete() {
+            while(!ancestors.isEmpty()) {
+                completeDeepestAncestor();
+            }
+            addEvents(0);
+        }
+
+        /**
+         * Add the events for the children of the deepest ancestor, and forget it.
+         */
+        private void completeDeepestAncestor() {
+            addEvents(ancestors.size());
+            ancestors.remove(ancestors.size() - 1);
+            ancestorRows.remove(ancestorRows.size() - 1);
+            children.remove(children.size() - 1);
+        }
+
+        /**
+         * Add the events for the changes to the children at the specified
+         * depth, whose ancestors are all still known.
+         */
+        private void addEvents(int depth) {
+            final Children siblings = children.get(depth);
+            for(int kind = 0; kind < destinations.length; kind++) {
+                if(siblings.changed[kind].isEmpty()) continue;
+
+                final int[] childIndices = new int[siblings.indices[kind].size()];
+                for(int i = 0; i < childIndices.length; i++) childIndices[i] = siblings.indices[kind].get(i);
+                destinations[kind].add(new TreeModelEvent(treeModel, path(depth), childIndices, siblings.changed[kind].toArray()));
+            }
+        }
+    }
+
+    /**
+     * The children of a node seen so far, and those that changed, by kind of
+     * change.
+     */
+    private static final class Children {
+        private int count = 0;
+        private final List<Object>[] changed;
+        private final List<Integer>[] indices;
+
+        private Children(int kinds) {
+            changed = new List[kinds];
+            indices = new List[kinds];
+            for(int kind = 0; kind < kinds; kind++) {
+                changed[kind] = new ArrayList<>();
+                indices[kind] = new ArrayList<>();
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Verifies that TreeList behaves as expected.
@@ -1353,6 +1354,45 @@ public class TreeListTest {
         });
     }
 
+    @Test
+    public void testVisibilityOnSplitLeaderCollapsed() {
+        EventList<String> source = GlazedLists.eventListOf("A", "ACC");
+        TreeList<String> treeList = new TreeList<>(source, UNCOMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartExpanded());
+        ListConsistencyListener<String> listConsistencyListener = ListConsistencyListener.install(treeList);
+        listConsistencyListener.setPreviousElementTracked(false);
+
+        treeList.setExpanded(0, false);
+        source.add(1, "A");
+
+        assertTreeStructure(treeList, new String[] {
+                "A",
+                "A",
+                "AC",
+                "ACC",
+        });
+    }
+
+    @Test
+    public void testVisibilityOnSplitFollowerCollapsed() {
+        EventList<String> source = GlazedLists.eventListOf("B", "BAC", "BAB");
+        TreeList<String> treeList = new TreeList<>(source, UNCOMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartCollapsed());
+        ListConsistencyListener<String> listConsistencyListener = ListConsistencyListener.install(treeList);
+        listConsistencyListener.setPreviousElementTracked(false);
+
+        treeList.setExpanded(0, true);
+        treeList.setExpanded(1, true);
+        source.add(2, "B");
+
+        assertTreeStructure(treeList, new String[] {
+                "B",
+                "BA",
+                "BAC",
+                "B",
+                "BA",
+                "BAB",
+        });
+    }
+
     @Test
     public void testSplitChildrenHoldsSiblings() {
         EventList<String> source = new BasicEventList<>();
@@ -1994,6 +2034,283 @@ public class TreeListTest {
         assertTrue(nodeComparator.compare(abc, abcd) < 0);
     }
 
+    @Test
+    public void testBulkExpandAndCollapse() {
+        EventList<String> source = GlazedLists.eventListOf("ABC", "ABD", "AE", "BF", "BGH", "C");
+        for(boolean lazy : new boolean[] { false, true }) {
+            TreeList<String> treeList = new TreeList<>(source, COMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartCollapsed(), lazy);
+            ListConsistencyListener<String> listConsistencyListener = ListConsistencyListener.install(treeList);
+            listConsistencyListener.setPreviousElementTracked(false);
+
+            treeList.expandAll();
+            assertEquals(1, listConsistencyListener.getEventCount());
+            assertTreeStructure(treeList, new String[] {
+                    "A",
+                    "AB",
+                    "ABC",
+                    "ABD",
+                    "AE",
+                    "B",
+                    "BF",
+                    "BG",
+                    "BGH",
+                    "C",
+            });
+
+            treeList.setExpandedToDepth(1);
+            assertEquals(2, listConsistencyListener.getEventCount());
+            assertTreeStructure(treeList, new String[] {
+                    "A",
+                    "AB",
+                    "AE",
+                    "B",
+                    "BF",
+                    "BG",
+                    "C",
+            });
+            assertFalse(treeList.isExpanded(1));
+            assertTrue(treeList.isExpanded(3));
+
+            treeList.setExpanded(Arrays.asList(treeList.getTreeNode(1), treeList.getTreeNode(5)), true);
+            assertEquals(3, listConsistencyListener.getEventCount());
+            assertTreeStructure(treeList, new String[] {
+                    "A",
+                    "AB",
+                    "ABC",
+                    "ABD",
+                    "AE",
+                    "B",
+                    "BF",
+                    "BG",
+                    "BGH",
+                    "C",
+            });
+
+            treeList.setExpanded(Arrays.asList(treeList.getTreeNode(0)), false);
+            assertEquals(4, listConsistencyListener.getEventCount());
+            assertTreeStructure(treeList, new String[] {
+                    "A",
+                    "B",
+                    "BF",
+                    "BG",
+                    "BGH",
+                    "C",
+            });
+
+            // nodes keep their state while hidden
+            treeList.setExpanded(0, true);
+            assertTreeStructure(treeList, new String[] {
+                    "A",
+                    "AB",
+                    "ABC",
+                    "ABD",
+                    "AE",
+                    "B",
+                    "BF",
+                    "BG",
+                    "BGH",
+                    "C",
+            });
+
+            treeList.collapseAll();
+            assertEquals(6, listConsistencyListener.getEventCount());
+            assertTreeStructure(treeList, new String[] {
+                    "A",
+                    "B",
+                    "C",
+            });
+
+            // nothing changes, so nothing is fired
+            treeList.collapseAll();
+            assertEquals(6, listConsistencyListener.getEventCount());
+            treeList.dispose();
+        }
+    }
+
+    /**
+     * A lazy TreeList must be indistinguishable from an eager one, no matter
+     * how its source changes and which nodes get expanded.
+     */
+    @Test
+    public void testLazyMatchesEager() {
+        for(int seed = 0; seed < 25; seed++) {
+            assertLazyMatchesEager(new Random(seed), COMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartCollapsed());
+            assertLazyMatchesEager(new Random(seed), UNCOMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartCollapsed());
+            assertLazyMatchesEager(new Random(seed), COMPRESSED_CHARACTER_TREE_FORMAT, SOME_NODES_START_EXPANDED);
+            assertLazyMatchesEager(new Random(seed), UNCOMPRESSED_CHARACTER_TREE_FORMAT, SOME_NODES_START_EXPANDED);
+        }
+    }
+
+    /**
+     * Inserting a node among or after the collapsed descendants of an equal
+     * or related node splits and merges them like in an eager TreeList.
+     */
+    @Test
+    public void testLazyInsertNextToCollapsedDescendants() {
+        String[][] sources = {
+                {"A", "AAC"},
+                {"B", "Bx"},
+                {"CCB", "Cy"},
+                {"BA", "By"},
+                {"A", "AB", "AC", "B"},
+                {"AB", "AC", "ABx"},
+        };
+        String[] inserted = {"A", "B", "C", "AB", "AC", "ABx", "Ax", "x"};
+        for(TreeList.Format<String> format : Arrays.asList(COMPRESSED_CHARACTER_TREE_FORMAT, UNCOMPRESSED_CHARACTER_TREE_FORMAT)) {
+            for(String[] elements : sources) {
+                for(String element : inserted) {
+                    for(int index = 0; index <= elements.length; index++) {
+                        EventList<String> source = GlazedLists.eventListOf(elements);
+                        TreeList<String> eager = new TreeList<>(source, format, TreeList.<String>nodesStartCollapsed());
+                        TreeList<String> lazy = new TreeList<>(source, format, TreeList.<String>nodesStartCollapsed(), true);
+                        source.add(index, element);
+                        String message = Arrays.asList(elements) + " + " + element + " at " + index;
+                        assertLazyMatchesEager(message, eager, lazy);
+                        assertEquals(message, nodeListAsStringWithVirtual(eager.getAllNodesList()), nodeListAsStringWithVirtual(lazy.getAllNodesList()));
+                    }
+                }
+            }
+        }
+    }
+
+    /** expands the nodes whose path has an even hash, so that expanded and collapsed nodes mix */
+    private static final TreeList.ExpansionModel<String> SOME_NODES_START_EXPANDED = new TreeList.ExpansionModel<String>() {
+        @Override
+        public boolean isExpanded(String element, List<String> path) {
+            return (path.hashCode() & 1) == 0;
+        }
+        @Override
+        public void setExpanded(String element, List<String> path, boolean expanded) {
+            // do nothing
+        }
+    };
+
+    /**
+     * Change the source of a lazy and an eager TreeList randomly, with events
+     * of one and several changes, and expand, collapse and list the children
+     * of random nodes. The lists must match after every step.
+     */
+    private static void assertLazyMatchesEager(Random dice, TreeList.Format<String> format, TreeList.ExpansionModel<String> expansionModel) {
+        EventList<String> source = new BasicEventList<>();
+        for(int i = 0, size = dice.nextInt(30); i < size; i++) {
+            source.add(randomPath(dice));
+        }
+
+        TreeList<String> eager = new TreeList<>(source, format, expansionModel);
+        TreeList<String> lazy = new TreeList<>(source, format, expansionModel, true);
+        ListConsistencyListener<String> listConsistencyListener = ListConsistencyListener.install(lazy);
+        listConsistencyListener.setPreviousElementTracked(false);
+        assertLazyMatchesEager(source.toString(), eager, lazy);
+
+        for(int i = 0; i < 150; i++) {
+            int operation = dice.nextInt(9);
+            String step = source + " step " + i + " operation " + operation;
+            if((operation <= 1 && source.size() < 40) || source.isEmpty()) {
+                source.add(dice.nextInt(source.size() + 1), randomPath(dice));
+            } else if(operation == 2 && source.size() < 40) {
+                List<String> added = new ArrayList<>();
+                for(int count = 1 + dice.nextInt(3); added.size() < count; ) added.add(randomPath(dice));
+                source.addAll(dice.nextInt(source.size() + 1), added);
+            } else if(operation <= 2) {
+                source.remove(dice.nextInt(source.size()));
+            } else if(operation == 3) {
+                int from = dice.nextInt(source.size());
+                source.subList(from, Math.min(source.size(), from + 1 + dice.nextInt(3))).clear();
+            } else if(operation == 4) {
+                int index = dice.nextInt(source.size());
+                source.set(index, dice.nextBoolean() ? source.get(index) : randomPath(dice));
+            } else if(operation <= 6) {
+                int index = dice.nextInt(eager.size());
+                eager.toggleExpanded(index);
+                lazy.toggleExpanded(index);
+            } else if(operation == 7) {
+                int index = dice.nextInt(eager.size());
+                assertEquals(step, nodeListAsStringWithVirtual(eager.getTreeNode(index).getChildren()), nodeListAsStringWithVirtual(lazy.getTreeNode(index).getChildren()));
+            } else {
+                int depth = dice.nextInt(4);
+                eager.setExpandedToDepth(depth);
+                lazy.setExpandedToDepth(depth);
+            }
+            assertLazyMatchesEager(step, eager, lazy);
+        }
+
+        // materializing everything yields the same hidden nodes
+        assertEquals(source.toString(), nodeListAsStringWithVirtual(eager.getAllNodesList()), nodeListAsStringWithVirtual(lazy.getAllNodesList()));
+        eager.dispose();
+        lazy.dispose();
+    }
+
+    /**
+     * Paths repeat often, and some end in a leaf that allows no children.
+     */
+    private static String randomPath(Random dice) {
+        StringBuilder path = new StringBuilder();
+        for(int length = 1 + dice.nextInt(3); path.length() < length; ) {
+            path.append("ABC".charAt(dice.nextInt(3)));
+        }
+        if(dice.nextInt(4) == 0) path.append("xy".charAt(dice.nextInt(2)));
+        return path.toString();
+    }
+
+    private static void assertLazyMatchesEager(String message, TreeList<String> eager, TreeList<String> lazy) {
+        assertEquals(message, nodeListAsStringWithVirtual(eager.getNodesList()), nodeListAsStringWithVirtual(lazy.getNodesList()));
+        for(int i = 0; i < eager.size(); i++) {
+            assertEquals(message, eager.isExpanded(i), lazy.isExpanded(i));
+            assertEquals(message, eager.hasChildren(i), lazy.hasChildren(i));
+            assertEquals(message, eager.depth(i), lazy.depth(i));
+            assertEquals(message, eager.subtreeSize(i, true), lazy.subtreeSize(i, true));
+            assertEquals(message, eager.subtreeSize(i, false), lazy.subtreeSize(i, false));
+        }
+    }
+
+    /**
+     * Like {@link #nodeListAsString}, with virtual nodes in parentheses.
+     */
+    private static List<String> nodeListAsStringWithVirtual(List<TreeList.Node<String>> nodeList) {
+        List<String> result = nodeListAsString(nodeList);
+        for(int i = 0; i < result.size(); i++) {
+            if(nodeList.get(i).isVirtual()) result.set(i, "(" + result.get(i) + ")");
+        }
+        return result;
+    }
+
+    /**
+     * The children of a collapsed node in a lazy TreeList are created on demand.
+     */
+    @Test
+    public void testLazyGetChildren() {
+        EventList<String> source = GlazedLists.eventListOf("ABC", "ABD", "AE", "B", "BF");
+        TreeList<String> treeList = new TreeList<>(source, COMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartCollapsed(), true);
+        assertTreeStructure(treeList, new String[] {
+                "A",
+                "B",
+        });
+
+        assertEquals(Arrays.asList("AB", "AE"), nodeListAsString(treeList.getTreeNode(0).getChildren()));
+        assertEquals(Arrays.asList("ABC", "ABD"), nodeListAsString(treeList.getTreeNode(0).getChildren().get(0).getChildren()));
+        assertTreeStructure(treeList, new String[] {
+                "A",
+                "B",
+        });
+
+        treeList.setExpanded(0, true);
+        assertTreeStructure(treeList, new String[] {
+                "A",
+                "AB",
+                "AE",
+                "B",
+        });
+        assertFullTreeStructure(treeList, new String[] {
+                "A",
+                "AB",
+                "ABC",
+                "ABD",
+                "AE",
+                "B",
+                "BF",
+        });
+    }
+
     @Test
     public void testTreeListNodeEquals() {
         TreeList.Node<String> abc = new TreeList.Node<>(false, GlazedListsTests.stringToList("ABC"));
@@ -2,11 +2,27 @@ package ca.odell.glazedlists.swing;
 
 import ca.odell.glazedlists.BasicEventList;
 import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.TreeList;
 import ca.odell.glazedlists.TreeListTest;
 
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
 public class EventTreeModelTest extends SwingTestCase {
 
     @Test
@@ -18,4 +34,276 @@ public class EventTreeModelTest extends SwingTestCase {
         eventTreeModel.dispose();
         glazedTreeList.dispose();
     }
-}
\ No newline at end of file
+
+    /**
+     * Changes to the source are reported under the parent of the changed nodes,
+     * rather than as the whole tree changing.
+     */
+    @Test
+    public void testChangesAreReportedUnderTheirParent() {
+        EventList<String> source = GlazedLists.eventListOf("ABC", "ABD", "E");
+        TreeList<String> treeList = new TreeList<>(source, TreeListTest.COMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartExpanded());
+        EventTreeModel<String> model = new EventTreeModel<>(treeList);
+        TreeModelMirror mirror = new TreeModelMirror(model);
+
+        // a new leaf under A/B, whose ancestors and siblings are updated
+        source.add("ABE");
+        assertEquals("inserted [A, B] 2 E, changed [A] 0 B, changed [] 0 A 1 E", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        // a new root
+        source.add("F");
+        assertEquals("inserted [] 2 F", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        // a removed leaf, whose siblings remain
+        source.remove("ABC");
+        assertEquals("removed [A, B] 0 C", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        // an updated leaf, whose ancestors and siblings are updated
+        source.set(source.indexOf("ABD"), "ABD");
+        assertEquals("changed [A, B] 0 D 1 E, changed [A] 0 B, changed [] 0 A", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        // removing the last leaf of a subtree removes its virtual parents
+        source.removeAll(Arrays.asList("ABD", "ABE"));
+        assertEquals("removed [] 0 A", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        model.dispose();
+        treeList.dispose();
+    }
+
+    /**
+     * Expanding and collapsing shows and hides rows of the {@link TreeList},
+     * but doesn't change the children of any node of the tree. The hidden
+     * children of collapsed nodes may change unseen, so an update of a node
+     * that stays collapsed, or expanding a node whose hidden children did
+     * change, reports its subtree as changed.
+     */
+    @Test
+    public void testExpandAndCollapseOnlyChangeTheNode() {
+        EventList<String> source = GlazedLists.eventListOf("ABC", "ABD", "E");
+        TreeList<String> treeList = new TreeList<>(source, TreeListTest.COMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartExpanded());
+        EventTreeModel<String> model = new EventTreeModel<>(treeList);
+        TreeModelMirror mirror = new TreeModelMirror(model);
+
+        treeList.setExpanded(1, false);
+        assertEquals("changed [A] 0 B", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        treeList.setExpanded(0, false);
+        assertEquals("changed [] 0 A", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        treeList.setExpanded(0, true);
+        assertEquals("changed [] 0 A", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        // nodes removed unseen change the subtree of the node that hid them
+        source.remove("ABC");
+        treeList.setExpanded(1, true);
+        assertEquals("structureChanged [A, B]", mirror.takeEvents());
+        mirror.assertMatchesModel();
+
+        // changes to hidden nodes change the subtree of their visible ancestor
+        treeList.collapseAll();
+        mirror.takeEvents();
+        source.add("AF");
+        assertTrue(mirror.takeEvents().startsWith("structureChanged [A]"));
+        mirror.assertMatchesModel();
+
+        model.dispose();
+        treeList.dispose();
+    }
+
+    /**
+     * Applying the events to a copy of the tree always yields the tree.
+     */
+    @Test
+    public void testEventsMatchTheTree() {
+        Random dice = new Random(50);
+        EventList<String> source = new BasicEventList<>();
+        TreeList<String> treeList = new TreeList<>(source, TreeListTest.COMPRESSED_CHARACTER_TREE_FORMAT, TreeList.<String>nodesStartExpanded());
+        EventTreeModel<String> model = new EventTreeModel<>(treeList);
+        TreeModelMirror mirror = new TreeModelMirror(model);
+
+        for(int i = 0; i < 500; i++) {
+            int operation = dice.nextInt(4);
+            if(operation == 0 || source.size() < 5) {
+                String value = randomPath(dice);
+                if(!source.contains(value)) source.add(dice.nextInt(source.size() + 1), value);
+            } else if(operation == 1) {
+                source.remove(dice.nextInt(source.size()));
+            } else if(operation == 2) {
+                int index = dice.nextInt(source.size());
+                source.set(index, source.get(index));
+            } else {
+                int row = dice.nextInt(treeList.size());
+                treeList.setExpanded(row, !treeList.isExpanded(row));
+            }
+            mirror.takeEvents();
+            mirror.assertMatchesVisibleRows(treeList);
+        }
+
+        model.dispose();
+        treeList.dispose();
+    }
+
+    private static String randomPath(Random dice) {
+        StringBuilder result = new StringBuilder();
+        for(int length = 1 + dice.nextInt(4); result.length() < length; ) {
+            result.append((char)('A' + dice.nextInt(3)));
+        }
+        return result.toString();
+    }
+
+    /**
+     * A copy of the tree of a {@link TreeModel}, kept up to date by applying
+     * its events the way a {@link javax.swing.JTree} does.
+     */
+    private static class TreeModelMirror implements TreeModelListener {
+        private final TreeModel model;
+        private MirrorNode root;
+        private final StringBuilder events = new StringBuilder();
+
+        TreeModelMirror(TreeModel model) {
+            this.model = model;
+            this.root = copy(model.getRoot());
+            model.addTreeModelListener(this);
+        }
+
+        private MirrorNode copy(Object node) {
+            MirrorNode result = new MirrorNode(node);
+            for(int c = 0; c < model.getChildCount(node); c++) {
+                result.children.add(copy(model.getChild(node, c)));
+            }
+            return result;
+        }
+
+        private MirrorNode find(TreeModelEvent e) {
+            Object[] path = e.getPath();
+            assertSame(model.getRoot(), path[0]);
+            MirrorNode result = root;
+            for(int p = 1; p < path.length; p++) {
+                MirrorNode child = null;
+                for(MirrorNode candidate : result.children) {
+                    if(candidate.node.equals(path[p])) child = candidate;
+                }
+                result = child;
+            }
+            return result;
+        }
+
+        private void record(String type, TreeModelEvent e) {
+            if(events.length() > 0) events.append(", ");
+            events.append(type).append(" [");
+            for(int p = 1; p < e.getPath().length; p++) {
+                if(p > 1) events.append(", ");
+                events.append(((TreeList.Node)e.getPath()[p]).getElement());
+            }
+            events.append("]");
+            for(int i = 0; i < e.getChildIndices().length; i++) {
+                events.append(" ").append(e.getChildIndices()[i]).append(" ").append(((TreeList.Node)e.getChildren()[i]).getElement());
+            }
+        }
+
+        String takeEvents() {
+            String result = events.toString();
+            events.setLength(0);
+            return result;
+        }
+
+        void assertMatchesModel() {
+            assertEquals(copy(model.getRoot()).toString(), root.toString());
+        }
+
+        /**
+         * Compare the children of the nodes expanded in the {@link TreeList},
+         * which is all that a {@link javax.swing.JTree} that expands the same
+         * nodes would show.
+         */
+        void assertMatchesVisibleRows(TreeList<?> treeList) {
+            Set<Object> expanded = new HashSet<>();
+            for(int r = 0; r < treeList.size(); r++) {
+                if(treeList.isExpanded(r)) expanded.add(treeList.getTreeNode(r));
+            }
+            assertEquals(copy(model.getRoot()).toString(expanded), root.toString(expanded));
+        }
+
+        @Override
+        public void treeNodesChanged(TreeModelEvent e) {
+            record("changed", e);
+            MirrorNode parent = find(e);
+            for(int i = 0; i < e.getChildIndices().length; i++) {
+                MirrorNode changed = parent.children.get(e.getChildIndices()[i]);
+                assertEquals(changed.node, e.getChildren()[i]);
+                changed.node = e.getChildren()[i];
+            }
+        }
+
+        @Override
+        public void treeNodesInserted(TreeModelEvent e) {
+            record("inserted", e);
+            MirrorNode parent = find(e);
+            for(int i = 0; i < e.getChildIndices().length; i++) {
+                parent.children.add(e.getChildIndices()[i], copy(e.getChildren()[i]));
+            }
+        }
+
+        @Override
+        public void treeNodesRemoved(TreeModelEvent e) {
+            record("removed", e);
+            MirrorNode parent = find(e);
+            for(int i = e.getChildIndices().length - 1; i >= 0; i--) {
+                MirrorNode removed = parent.children.remove(e.getChildIndices()[i]);
+                assertEquals(removed.node, e.getChildren()[i]);
+            }
+        }
+
+        @Override
+        public void treeStructureChanged(TreeModelEvent e) {
+            record("structureChanged", e);
+            MirrorNode changed = find(e);
+            changed.node = e.getTreePath().getLastPathComponent();
+            changed.children.clear();
+            changed.children.addAll(copy(changed.node).children);
+        }
+    }
+
+    private static class MirrorNode {
+        private Object node;
+        private final List<MirrorNode> children = new ArrayList<>();
+
+        MirrorNode(Object node) {
+            this.node = node;
+        }
+
+        @Override
+        public String toString() {
+            return toString(null);
+        }
+
+        /**
+         * @param expanded the nodes whose children to include, or
+         *      <code>null</code> for all nodes
+         */
+        String toString(Set<Object> expanded) {
+            if(!(node instanceof TreeList.Node)) return "root" + toString(children, expanded);
+            String element = String.valueOf(((TreeList.Node)node).getElement());
+            if(expanded != null && !expanded.contains(node)) return element;
+            return element + toString(children, expanded);
+        }
+
+        private static String toString(List<MirrorNode> children, Set<Object> expanded) {
+            if(children.isEmpty()) return "";
+            StringBuilder result = new StringBuilder("[");
+            for(int c = 0; c < children.size(); c++) {
+                if(c > 0) result.append(", ");
+                result.append(children.get(c).toString(expanded));
+            }
+            return result.append("]").toString();
+        }
+    }
+}
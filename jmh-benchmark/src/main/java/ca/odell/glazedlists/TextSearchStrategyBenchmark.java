@@ -0,0 +1,89 @@
+package ca.odell.glazedlists;
+
+import ca.odell.glazedlists.impl.filter.BoyerMooreCaseInsensitiveTextSearchStrategy;
+import ca.odell.glazedlists.impl.filter.ScanningCaseInsensitiveTextSearchStrategy;
+import ca.odell.glazedlists.impl.filter.TextSearchStrategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Compares the case-insensitive text search strategies, searching a filter
+ * String in a large number of texts as a FilterList would.
+ */
+@State(Scope.Benchmark)
+public class TextSearchStrategyBenchmark {
+
+    /** the subtext, spelled in the latin alphabet and shifted into the chosen one */
+    @Param({ "ab", "abc", "abcdefgh" })
+    private String subtext;
+
+    @Param({ "latin", "cyrillic" })
+    private String alphabet;
+
+    private String[] texts;
+
+    private TextSearchStrategy boyerMoore;
+
+    private TextSearchStrategy scanning;
+
+    @Setup
+    public void setUp() {
+        final Random dice = new Random(0);
+        final char first = "latin".equals(alphabet) ? 'a' : '\u0430';
+        texts = new String[10000];
+        for (int i = 0; i < texts.length; i++) {
+            final char[] text = new char[10 + dice.nextInt(60)];
+            for (int c = 0; c < text.length; c++) {
+                text[c] = (char) (first + dice.nextInt(26));
+            }
+            texts[i] = new String(text);
+        }
+
+        // search for the subtext in the same alphabet as the texts
+        final char[] shifted = new char[subtext.length()];
+        for (int c = 0; c < shifted.length; c++) {
+            shifted[c] = (char) (first + subtext.charAt(c) - 'a');
+        }
+
+        boyerMoore = create(new BoyerMooreCaseInsensitiveTextSearchStrategy(), new String(shifted));
+        scanning = create(new ScanningCaseInsensitiveTextSearchStrategy(), new String(shifted));
+    }
+
+    private TextSearchStrategy create(TextSearchStrategy strategy, String shiftedSubtext) {
+        strategy.setSubtext(shiftedSubtext);
+        return strategy;
+    }
+
+    private int search(TextSearchStrategy strategy) {
+        int found = 0;
+        for (int i = 0; i < texts.length; i++) {
+            if (strategy.indexOf(texts[i]) != -1) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @Fork(1)
+    public int testBoyerMoore() {
+        return search(boyerMoore);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @Fork(1)
+    public int testScanning() {
+        return search(scanning);
+    }
+}